@@ -84,7 +84,21 @@ public class BareClassifier implements ClassifierInterface {
 
     @Override
     public Optional<String> getNodeName(String interfaceName) {
-        return Optional.ofNullable(sff).filter(theSff -> theSff.getAugmentation(SffOvsBridgeAugmentation.class) != null)
+        return getSffNodeName(sff);
+    }
+
+    /**
+     * Get the OpenFlow node name of the given SFF, rather than of the SFF
+     * this classifier was set to.
+     *
+     * @param theSff
+     *            the SFF the classifier is attached to
+     * @return the node name, or an empty Optional if the SFF is not an OVS
+     *         bridge
+     */
+    public Optional<String> getSffNodeName(ServiceFunctionForwarder theSff) {
+        return Optional.ofNullable(theSff)
+                .filter(sffBridge -> sffBridge.getAugmentation(SffOvsBridgeAugmentation.class) != null)
                 .map(SfcOvsUtil::getOpenFlowNodeIdForSff);
     }
 
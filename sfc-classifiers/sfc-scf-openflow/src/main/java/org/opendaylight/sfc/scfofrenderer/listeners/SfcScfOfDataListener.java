@@ -49,8 +49,8 @@ public class SfcScfOfDataListener extends AbstractSyncDataTreeChangeListener<Ser
         if (originalServiceFunctionClassifier.getName() != null && updatedServiceFunctionClassifier.getName() != null
                 && !originalServiceFunctionClassifier.equals(updatedServiceFunctionClassifier)) {
             LOG.debug("Updated ServiceFunctionClassifier name: {}\n", updatedServiceFunctionClassifier.getName());
-            this.sfcScfProcessor.deletedServiceFunctionClassifier(originalServiceFunctionClassifier);
-            this.sfcScfProcessor.createdServiceFunctionClassifier(updatedServiceFunctionClassifier);
+            this.sfcScfProcessor.updatedServiceFunctionClassifier(originalServiceFunctionClassifier,
+                    updatedServiceFunctionClassifier);
         }
     }
 
@@ -12,11 +12,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.ClassifierInterface;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.LogicallyAttachedClassifier;
+import org.opendaylight.sfc.scfofrenderer.utils.AclCompiler;
 import org.opendaylight.sfc.scfofrenderer.utils.ClassifierHandler;
 import org.opendaylight.sfc.scfofrenderer.utils.SfcRspInfo;
 import org.opendaylight.sfc.scfofrenderer.utils.SfcScfMatch;
@@ -105,11 +104,11 @@ public class ClassifierRspUpdateProcessor {
             return Collections.emptyList();
         }
 
-        return theAcl.getAccessListEntries().getAce().stream()
-                .map(theAce -> processAce(theRsp, nodeName.get(), theClassifier.getName(), theAcl.getAclName(),
-                        inPort.get(), theAce))
-                .reduce(new ArrayList<>(), (dstList, theList) -> Stream.concat(dstList.stream(), theList.stream())
-                        .collect(Collectors.toList()));
+        List<FlowDetails> theFlows = new ArrayList<>();
+        AclCompiler.compile(theAcl.getAccessListEntries().getAce())
+                .forEach(theAce -> theFlows.addAll(processAce(theRsp, nodeName.get(), theClassifier.getName(),
+                        theAcl.getAclName(), inPort.get(), theAce)));
+        return theFlows;
     }
 
     /**
@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
@@ -39,14 +40,25 @@ public class MacChainingProcessor implements ClassifierProcessorInterface {
 
     private final ClassifierHandler classifierHandler;
 
+    // reads the RSP info of a given RSP name
+    private final Function<RspName, SfcRspInfo> rspInfoResolver;
+
     private static final Logger LOG = LoggerFactory.getLogger(MacChainingProcessor.class);
 
     public MacChainingProcessor(ClassifierHandler classifierHandler,
                                 ClassifierInterface classifierInterface,
                                 boolean addClassifier) {
+        this(classifierHandler, classifierInterface, addClassifier, SfcRspInfo::getSfcRspInfo);
+    }
+
+    public MacChainingProcessor(ClassifierHandler classifierHandler,
+                                ClassifierInterface classifierInterface,
+                                boolean addClassifier,
+                                Function<RspName, SfcRspInfo> rspInfoResolver) {
         this.classifierHandler = classifierHandler;
         this.classifierInterface = classifierInterface;
         this.addClassifier = addClassifier;
+        this.rspInfoResolver = rspInfoResolver;
     }
 
     /**
@@ -84,7 +96,7 @@ public class MacChainingProcessor implements ClassifierProcessorInterface {
                 .map(scfMatch -> scfMatch.setAclMatch(theAce.getMatches())).orElseThrow(IllegalArgumentException::new)
                 .build();
 
-        Optional<SfcRspInfo> sfcRspInfo = rspName.map(SfcRspInfo::getSfcRspInfo);
+        Optional<SfcRspInfo> sfcRspInfo = rspName.map(rspInfoResolver);
 
         if (!sfcRspInfo.isPresent()) {
             LOG.error("processAce: sfcRspInfo is null; returning empty list");
@@ -151,7 +163,7 @@ public class MacChainingProcessor implements ClassifierProcessorInterface {
 
         RspName reverseRspName = SfcProviderRenderedPathAPI.generateReversedPathName(theRspName);
 
-        SfcRspInfo sfcRspInfo = SfcRspInfo.getSfcRspInfo(reverseRspName);
+        SfcRspInfo sfcRspInfo = rspInfoResolver.apply(reverseRspName);
         if (sfcRspInfo == null) {
             LOG.warn("processReverseRsp: reverseNsh is null");
             return Collections.emptyList();
@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
@@ -40,14 +41,25 @@ public class NshProcessor implements ClassifierProcessorInterface {
 
     private ClassifierHandler classifierHandler;
 
+    // reads the RSP info of a given RSP name
+    private final Function<RspName, SfcRspInfo> rspInfoResolver;
+
     private static final Logger LOG = LoggerFactory.getLogger(NshProcessor.class);
 
     public NshProcessor(ClassifierInterface classifierInterface,
                         ClassifierHandler classifierHandler,
                         boolean addClassifier) {
+        this(classifierInterface, classifierHandler, addClassifier, SfcRspInfo::getSfcRspInfo);
+    }
+
+    public NshProcessor(ClassifierInterface classifierInterface,
+                        ClassifierHandler classifierHandler,
+                        boolean addClassifier,
+                        Function<RspName, SfcRspInfo> rspInfoResolver) {
         this.classifierInterface = classifierInterface;
         this.classifierHandler = classifierHandler;
         this.addClassifier = addClassifier;
+        this.rspInfoResolver = rspInfoResolver;
     }
 
     /**
@@ -82,7 +94,7 @@ public class NshProcessor implements ClassifierProcessorInterface {
                 .orElseThrow(IllegalArgumentException::new)
                 .build();
 
-        Optional<SfcRspInfo> sfcRspInfo = rspName.map(SfcRspInfo::getSfcRspInfo);
+        Optional<SfcRspInfo> sfcRspInfo = rspName.map(rspInfoResolver);
 
         if (!sfcRspInfo.isPresent()) {
             LOG.error("processAce: sfcRspInfo is null; returning empty list");
@@ -157,7 +169,7 @@ public class NshProcessor implements ClassifierProcessorInterface {
         List<FlowDetails> theFlows = new ArrayList<>();
 
         RspName reverseRspName = SfcProviderRenderedPathAPI.generateReversedPathName(theRspName);
-        SfcRspInfo sfcRspInfo = SfcRspInfo.getSfcRspInfo(reverseRspName);
+        SfcRspInfo sfcRspInfo = rspInfoResolver.apply(reverseRspName);
 
         if (sfcRspInfo == null) {
             LOG.warn("processReverseRsp: reverseNsh is null");
@@ -223,7 +235,8 @@ public class NshProcessor implements ClassifierProcessorInterface {
                 return Optional.empty();
             }
 
-            relayFlow = Optional.of(sfcRspInfo)
+            // the relay destination is set on a copy, the RSP info being shared by the other flows
+            relayFlow = Optional.of(new SfcRspInfo(sfcRspInfo))
                     .map(theSfcRspInfo -> theSfcRspInfo.setVxlanIpDst(
                             ip.getIp().getIpv4Address()).setVxlanUdpPort(ip.getPort()))
                     .map(theSfcRspInfo -> classifierInterface.createClassifierRelayFlow(
@@ -9,21 +9,28 @@
 package org.opendaylight.sfc.scfofrenderer.processors;
 
 import com.google.common.base.Strings;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.eventbus.Subscribe;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
-import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.BareClassifier;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.ClassifierInterface;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.LogicallyAttachedClassifier;
 import org.opendaylight.sfc.scfofrenderer.flowgenerators.MacChainingClassifier;
 import org.opendaylight.sfc.scfofrenderer.logicalclassifier.ClassifierGeniusIntegration;
+import org.opendaylight.sfc.scfofrenderer.utils.AclCompiler;
 import org.opendaylight.sfc.scfofrenderer.utils.ClassifierHandler;
 import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1;
@@ -39,15 +46,13 @@ import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.cont
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class OpenflowClassifierProcessor {
+public class OpenflowClassifierProcessor implements AutoCloseable {
 
     private WriteTransaction tx;
 
     // true if we're adding a classifier node, false if we're deleting it
     private boolean addClassifier = true;
 
-    private ClassifierInterface classifierInterface;
-
     private BareClassifier bareClassifier;
 
     private MacChainingClassifier macChainingClassifier;
@@ -58,6 +63,16 @@ public class OpenflowClassifierProcessor {
 
     private static final Logger LOG = LoggerFactory.getLogger(OpenflowClassifierProcessor.class);
 
+    // ACLs with at least this many ACEs are processed in parallel
+    private static final int PARALLEL_ACES_THRESHOLD = 256;
+
+    // the ACE processing mostly waits on datastore reads and RPCs
+    private static final int ACE_THREADS = 8;
+
+    // processes the ACEs of large ACLs, threads are only started when needed
+    private final ExecutorService aceExecutor = Executors.newFixedThreadPool(ACE_THREADS,
+            new ThreadFactoryBuilder().setNameFormat("sfc-scf-of-ace-%d").setDaemon(true).build());
+
     // hide the default constructor
     private OpenflowClassifierProcessor() {
     }
@@ -65,7 +80,6 @@ public class OpenflowClassifierProcessor {
     public OpenflowClassifierProcessor(WriteTransaction theTx, LogicallyAttachedClassifier theLogicClassifier,
             BareClassifier theBareClassifier) {
         tx = theTx;
-        classifierInterface = theBareClassifier;
         logicallyAttachedClassifier = theLogicClassifier;
         bareClassifier = theBareClassifier;
         classifierHandler = new ClassifierHandler();
@@ -88,10 +102,17 @@ public class OpenflowClassifierProcessor {
      */
     public List<FlowDetails> processClassifierList(Acl theAcl, boolean addClassifier,
             List<SclServiceFunctionForwarder> classifierList) {
-        return classifierList.stream().map(classifier -> processClassifier(classifier, theAcl, addClassifier))
-                .peek(theFlows -> LOG.info("createdServiceFunctionClassifier - flow size: {}", theFlows.size()))
-                .reduce(new ArrayList<>(), (dstList, theList) -> Stream.concat(dstList.stream(), theList.stream())
-                        .collect(Collectors.toList()));
+        // the compiled ACL and the RSPs are shared by all the classifiers
+        List<Ace> theAces = AclCompiler.compile(theAcl.getAccessListEntries().getAce());
+        RspInfoResolver rspInfoResolver = new RspInfoResolver();
+        List<FlowDetails> allFlows = new ArrayList<>();
+        classifierList.forEach(classifier -> {
+            List<FlowDetails> theFlows = processClassifier(classifier, theAcl.getAclName(), theAces, addClassifier,
+                    rspInfoResolver);
+            LOG.info("createdServiceFunctionClassifier - flow size: {}", theFlows.size());
+            allFlows.addAll(theFlows);
+        });
+        return allFlows;
     }
 
     /**
@@ -111,6 +132,14 @@ public class OpenflowClassifierProcessor {
      */
     public List<FlowDetails> processClassifier(final SclServiceFunctionForwarder theClassifier, final Acl theAcl,
             final boolean addClassifierScenario) {
+        return processClassifier(theClassifier, theAcl.getAclName(),
+                AclCompiler.compile(theAcl.getAccessListEntries().getAce()), addClassifierScenario,
+                new RspInfoResolver());
+    }
+
+    private List<FlowDetails> processClassifier(final SclServiceFunctionForwarder theClassifier,
+            final String aclName, final List<Ace> theAces, final boolean addClassifierScenario,
+            final RspInfoResolver rspInfoResolver) {
         addClassifier = addClassifierScenario;
 
         Optional<ServiceFunctionForwarder> sff = Optional.of(new SffName(theClassifier.getName()))
@@ -137,10 +166,45 @@ public class OpenflowClassifierProcessor {
             }
         }
 
-        return theAcl.getAccessListEntries().getAce().stream()
-                .map(theAce -> processAce(itfName, sff.get(), theClassifier.getName(), theAcl.getAclName(), theAce))
-                .reduce(new ArrayList<>(), (dstList, theList) -> Stream.concat(dstList.stream(), theList.stream())
-                        .collect(Collectors.toList()));
+        return new ClassifierAceProcessor(itfName, sff.get(), theClassifier.getName(), aclName,
+                addClassifierScenario, rspInfoResolver).processAces(theAces);
+    }
+
+    /**
+     * Process some of the ACEs of the ACL installed in a classifier, adding
+     * or removing their OF rules in the respective OVS. Unlike
+     * {@link #processClassifier(SclServiceFunctionForwarder, Acl, boolean)},
+     * the classifier interface is left bound; this method is called when
+     * only some ACEs of a classifier change.
+     *
+     * @param theClassifier
+     *            the classifier node the ACEs are installed in
+     * @param aclName
+     *            the name of the ACL the ACEs belong to
+     * @param theAces
+     *            the ACEs to process, as compiled by {@link AclCompiler}
+     * @param addClassifierScenario
+     *            true when adding the ACE flows, false when deleting them
+     * @return a List of {@link FlowDetails} having all the generated flows,
+     *         which will be later installed
+     */
+    public List<FlowDetails> processAceList(final SclServiceFunctionForwarder theClassifier, final String aclName,
+            final List<Ace> theAces, final boolean addClassifierScenario) {
+        addClassifier = addClassifierScenario;
+
+        Optional<ServiceFunctionForwarder> sff = Optional.of(new SffName(theClassifier.getName()))
+                .map(SfcProviderServiceForwarderAPI::readServiceFunctionForwarder);
+
+        Optional<String> itfName = classifierHandler.getInterfaceNameFromClassifier(theClassifier);
+
+        if (!sff.isPresent() || !itfName.isPresent()) {
+            LOG.error("processAceList: Cannot process ACEs in classifier. SFF exists? {}; Interface exists? {}",
+                    sff.isPresent(), itfName.isPresent());
+            return Collections.emptyList();
+        }
+
+        return new ClassifierAceProcessor(itfName, sff.get(), theClassifier.getName(), aclName,
+                addClassifierScenario, new RspInfoResolver()).processAces(theAces);
     }
 
     /**
@@ -163,47 +227,8 @@ public class OpenflowClassifierProcessor {
      */
     public List<FlowDetails> processAce(Optional<String> itfName, ServiceFunctionForwarder theSff, String theScfName,
                                         String aclName, Ace theAce) {
-
-        String ruleName = theAce.getRuleName();
-        if (Strings.isNullOrEmpty(ruleName)) {
-            LOG.error("processAce - ruleName is null; returning empty list");
-            return Collections.emptyList();
-        }
-
-
-        Optional<RspName> rspName = Optional.ofNullable(theAce.getActions())
-                .map(theActions -> theActions.getAugmentation(Actions1.class))
-                .map(actions1 -> (AclRenderedServicePath) actions1.getSfcAction())
-                .map(aclRsp -> new RspName(aclRsp.getRenderedServicePath()));
-
-        RenderedServicePath rsp = SfcProviderRenderedPathAPI.readRenderedServicePath(rspName.get());
-
-        ClassifierProcessorInterface classifierProcessor;
-
-        final Optional<String> nodeName;
-        if (rsp.getSfcEncapsulation() == MacChaining.class) {
-            nodeName = Optional.of(theSff.getServiceNode().getValue());
-            classifierProcessor = new MacChainingProcessor(
-                    this.classifierHandler, macChainingClassifier, addClassifier);
-        } else {
-
-            // choose which handler to use
-            classifierInterface = classifierHandler.usesLogicalInterfaces(theSff)
-                    ? logicallyAttachedClassifier : bareClassifier.setSff(theSff);
-
-            nodeName = itfName.flatMap(classifierInterface::getNodeName);
-
-            if (!nodeName.isPresent()) {
-                LOG.error("createdServiceFunctionClassifier: Could not extract the node name from the OVS interface");
-                return Collections.emptyList();
-            }
-            classifierProcessor = new NshProcessor(this.classifierInterface, this.classifierHandler, addClassifier);
-        }
-
-        LOG.info("processAce - NodeName: {}; IF name: {}", nodeName, itfName.get());
-
-        return classifierProcessor.processAceByProcessor(
-                nodeName.get(), theSff,theScfName, aclName, itfName.get(), theAce, rspName);
+        return new ClassifierAceProcessor(itfName, theSff, theScfName, aclName, addClassifier, new RspInfoResolver())
+                .processAce(theAce);
     }
 
     /**
@@ -218,4 +243,123 @@ public class OpenflowClassifierProcessor {
         LOG.debug("refreshTransaction - refreshing the transaction.");
         tx = theTx;
     }
+
+    /**
+     * Stop the threads processing the ACEs of large ACLs. ACLs processed
+     * afterwards are processed on the calling thread.
+     */
+    @Override
+    public void close() {
+        aceExecutor.shutdown();
+    }
+
+    /**
+     * Processes ACEs of an ACL on a given classifier SFF. What does not
+     * depend on the ACE - the classifier handler, the node name and the RSPs
+     * - is resolved once, so that large ACLs can be processed in parallel.
+     */
+    private final class ClassifierAceProcessor {
+        private final Optional<String> itfName;
+        private final ServiceFunctionForwarder theSff;
+        private final String theScfName;
+        private final String aclName;
+        private final boolean addClassifierScenario;
+        private final RspInfoResolver rspInfoResolver;
+        private final ClassifierInterface nshClassifierInterface;
+        private final Supplier<Optional<String>> nshNodeName;
+
+        ClassifierAceProcessor(Optional<String> itfName, ServiceFunctionForwarder theSff, String theScfName,
+                String aclName, boolean addClassifierScenario, RspInfoResolver rspInfoResolver) {
+            this.itfName = itfName;
+            this.theSff = theSff;
+            this.theScfName = theScfName;
+            this.aclName = aclName;
+            this.addClassifierScenario = addClassifierScenario;
+            this.rspInfoResolver = rspInfoResolver;
+
+            // choose which handler to use; the handlers are shared by all
+            // the processors, so the SFF is passed rather than set on them
+            boolean usesLogicalInterfaces = classifierHandler.usesLogicalInterfaces(theSff);
+            nshClassifierInterface = usesLogicalInterfaces ? logicallyAttachedClassifier : bareClassifier;
+            nshNodeName = Suppliers.memoize(() -> usesLogicalInterfaces
+                    ? itfName.flatMap(logicallyAttachedClassifier::getNodeName)
+                    : bareClassifier.getSffNodeName(theSff));
+        }
+
+        List<FlowDetails> processAces(List<Ace> theAces) {
+            if (theAces.size() < PARALLEL_ACES_THRESHOLD) {
+                return processAcesInOrder(theAces);
+            }
+
+            // the ACEs are split in consecutive chunks processed on the ACE
+            // executor, rather than on the common pool, as processing blocks
+            int chunkSize = (theAces.size() + ACE_THREADS - 1) / ACE_THREADS;
+            List<CompletableFuture<List<FlowDetails>>> chunks = new ArrayList<>();
+            for (int from = 0; from < theAces.size(); from += chunkSize) {
+                List<Ace> chunk = theAces.subList(from, Math.min(from + chunkSize, theAces.size()));
+                try {
+                    chunks.add(CompletableFuture.supplyAsync(() -> processAcesInOrder(chunk), aceExecutor));
+                } catch (RejectedExecutionException e) {
+                    LOG.debug("processAces - ACE executor closed, processing on the calling thread");
+                    chunks.add(CompletableFuture.completedFuture(processAcesInOrder(chunk)));
+                }
+            }
+
+            // the flows are kept in ACE order
+            List<FlowDetails> theFlows = new ArrayList<>();
+            try {
+                chunks.forEach(chunk -> theFlows.addAll(chunk.join()));
+            } catch (CompletionException e) {
+                // rethrow what processing the ACEs on this thread would throw
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+            return theFlows;
+        }
+
+        private List<FlowDetails> processAcesInOrder(List<Ace> theAces) {
+            return theAces.stream().map(this::processAce).flatMap(List::stream).collect(Collectors.toList());
+        }
+
+        List<FlowDetails> processAce(Ace theAce) {
+            String ruleName = theAce.getRuleName();
+            if (Strings.isNullOrEmpty(ruleName)) {
+                LOG.error("processAce - ruleName is null; returning empty list");
+                return Collections.emptyList();
+            }
+
+            Optional<RspName> rspName = Optional.ofNullable(theAce.getActions())
+                    .map(theActions -> theActions.getAugmentation(Actions1.class))
+                    .map(actions1 -> (AclRenderedServicePath) actions1.getSfcAction())
+                    .map(aclRsp -> new RspName(aclRsp.getRenderedServicePath()));
+
+            RenderedServicePath rsp = rspInfoResolver.getRsp(rspName.get());
+
+            ClassifierProcessorInterface classifierProcessor;
+
+            final Optional<String> nodeName;
+            if (rsp.getSfcEncapsulation() == MacChaining.class) {
+                nodeName = Optional.of(theSff.getServiceNode().getValue());
+                classifierProcessor = new MacChainingProcessor(classifierHandler, macChainingClassifier,
+                        addClassifierScenario, rspInfoResolver::getRspInfo);
+            } else {
+                nodeName = nshNodeName.get();
+
+                if (!nodeName.isPresent()) {
+                    LOG.error("createdServiceFunctionClassifier: "
+                            + "Could not extract the node name from the OVS interface");
+                    return Collections.emptyList();
+                }
+                classifierProcessor = new NshProcessor(nshClassifierInterface, classifierHandler,
+                        addClassifierScenario, rspInfoResolver::getRspInfo);
+            }
+
+            LOG.info("processAce - NodeName: {}; IF name: {}", nodeName, itfName.get());
+
+            return classifierProcessor.processAceByProcessor(
+                    nodeName.get(), theSff, theScfName, aclName, itfName.get(), theAce, rspName);
+        }
+    }
 }
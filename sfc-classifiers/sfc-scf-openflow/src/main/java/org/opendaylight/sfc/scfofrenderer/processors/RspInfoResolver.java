@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfofrenderer.processors;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.opendaylight.sfc.provider.api.SfcConfigurationCache;
+import org.opendaylight.sfc.scfofrenderer.utils.SfcRspInfo;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+
+/**
+ * Resolves the RSPs referenced by the ACEs of a classifier, reading each RSP
+ * and building its {@link SfcRspInfo} only once however many ACEs point to
+ * it.
+ *
+ * <p>
+ * An instance is meant to live for a single classifier invocation, so that
+ * RSP changes are seen by the next one. It may be used from concurrent
+ * threads.
+ */
+class RspInfoResolver {
+
+    // Optional, as a concurrent map does not hold nulls
+    private final Map<RspName, Optional<RenderedServicePath>> rsps = new ConcurrentHashMap<>();
+    private final Map<RspName, Optional<SfcRspInfo>> rspInfos = new ConcurrentHashMap<>();
+
+    /**
+     * Get a rendered service path.
+     *
+     * @param rspName
+     *            the name of the RSP
+     * @return the RSP, or null if it does not exist
+     */
+    RenderedServicePath getRsp(RspName rspName) {
+        return rsps.computeIfAbsent(rspName,
+            name -> Optional.ofNullable(SfcConfigurationCache.getRenderedServicePaths().get(name))).orElse(null);
+    }
+
+    /**
+     * Get the classifier information of a rendered service path. As it is
+     * mutable, each caller gets its own copy of the cached information.
+     *
+     * @param rspName
+     *            the name of the RSP
+     * @return the RSP information, or null if it cannot be built
+     */
+    SfcRspInfo getRspInfo(RspName rspName) {
+        return rspInfos.computeIfAbsent(rspName,
+            name -> Optional.ofNullable(getRsp(name)).map(SfcRspInfo::getSfcRspInfo))
+                .map(SfcRspInfo::new).orElse(null);
+    }
+}
@@ -8,10 +8,18 @@
 
 package org.opendaylight.sfc.scfofrenderer.processors;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.opendaylight.sfc.scfofrenderer.utils.AclCompiler;
 import org.opendaylight.sfc.scfofrenderer.utils.ClassifierHandler;
+import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
 import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterInterface;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.ServiceFunctionClassifier;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.scf.rev140701.service.function.classifiers.service.function.classifier.SclServiceFunctionForwarder;
@@ -27,6 +35,8 @@ public class SfcScfOfProcessor {
     private final SfcOfFlowWriterInterface openflowWriter;
     private final OpenflowClassifierProcessor classifierProcessor;
     private final ClassifierHandler classifierHandler;
+    // the ACL installed in each classifier, by classifier name
+    private final Map<String, Acl> installedAcls = new ConcurrentHashMap<>();
 
     public SfcScfOfProcessor(SfcOfFlowWriterInterface theOpenflowWriter,
             OpenflowClassifierProcessor theClassifierProcessor) {
@@ -58,6 +68,9 @@ public class SfcScfOfProcessor {
 
         openflowWriter.writeFlows(classifierProcessor.processClassifierList(theAcl.get(), true, sfflist));
         openflowWriter.flushFlows();
+        if (scf.getName() != null) {
+            installedAcls.put(scf.getName(), theAcl.get());
+        }
         return true;
     }
 
@@ -70,7 +83,12 @@ public class SfcScfOfProcessor {
      * @return delete result
      */
     public boolean deletedServiceFunctionClassifier(ServiceFunctionClassifier scf) {
-        Optional<Acl> theAcl = classifierHandler.extractAcl(scf);
+        // delete what was installed, the ACL may have changed since
+        Optional<Acl> theAcl = Optional.ofNullable(scf).map(ServiceFunctionClassifier::getName)
+                .map(installedAcls::remove);
+        if (!theAcl.isPresent()) {
+            theAcl = classifierHandler.extractAcl(scf);
+        }
 
         if (!theAcl.isPresent() || !validateInputs(theAcl.get())) {
             LOG.error("createdServiceFunctionClassifier: Could not retrieve the ACL from the classifier: {}", scf);
@@ -91,6 +109,94 @@ public class SfcScfOfProcessor {
         return true;
     }
 
+    /**
+     * update flows for service function classifier, only removing and adding
+     * the flows of the ACEs and SFFs that changed. The ACL installed in the
+     * original classifier is compared with the ACL currently referenced by
+     * the updated one. The function returns true if successful. The function
+     * returns false if unsuccessful.
+     *
+     * @param originalScf
+     *            the service function classifier before the update
+     * @param updatedScf
+     *            the service function classifier after the update
+     * @return update result
+     */
+    public boolean updatedServiceFunctionClassifier(ServiceFunctionClassifier originalScf,
+            ServiceFunctionClassifier updatedScf) {
+        Acl originalAcl = Optional.ofNullable(originalScf.getName()).map(installedAcls::get).orElse(null);
+        Optional<Acl> updatedAcl = classifierHandler.extractAcl(updatedScf);
+        if (originalAcl == null || originalScf.getSclServiceFunctionForwarder() == null
+                || updatedScf.getSclServiceFunctionForwarder() == null
+                || !updatedAcl.isPresent() || !validateInputs(updatedAcl.get())
+                || !originalAcl.getAclName().equals(updatedAcl.get().getAclName())) {
+            // nothing to compare with, replace all the flows
+            LOG.debug("updatedServiceFunctionClassifier: replacing all the flows of {}", updatedScf.getName());
+            deletedServiceFunctionClassifier(originalScf);
+            return createdServiceFunctionClassifier(updatedScf);
+        }
+
+        Map<String, Ace> originalAces = acesByRuleName(originalAcl);
+        Map<String, Ace> updatedAces = acesByRuleName(updatedAcl.get());
+        List<Ace> removedAces = originalAces.entrySet().stream()
+                .filter(entry -> !entry.getValue().equals(updatedAces.get(entry.getKey())))
+                .map(Map.Entry::getValue).collect(Collectors.toList());
+        List<Ace> addedAces = updatedAces.entrySet().stream()
+                .filter(entry -> !entry.getValue().equals(originalAces.get(entry.getKey())))
+                .map(Map.Entry::getValue).collect(Collectors.toList());
+
+        Map<String, SclServiceFunctionForwarder> originalSffs = sffsByName(originalScf);
+        Map<String, SclServiceFunctionForwarder> updatedSffs = sffsByName(updatedScf);
+        String aclName = originalAcl.getAclName();
+
+        // an SFF whose classifier attachment changed is handled as removed
+        // and added again
+        List<FlowDetails> flowsToRemove = new ArrayList<>();
+        originalSffs.forEach((sffName, sclSff) -> {
+            if (!sclSff.equals(updatedSffs.get(sffName))) {
+                flowsToRemove.addAll(classifierProcessor.processClassifier(sclSff, originalAcl, false));
+            } else if (!removedAces.isEmpty()) {
+                flowsToRemove.addAll(classifierProcessor.processAceList(sclSff, aclName, removedAces, false));
+            }
+        });
+        List<FlowDetails> flowsToAdd = new ArrayList<>();
+        updatedSffs.forEach((sffName, sclSff) -> {
+            if (!sclSff.equals(originalSffs.get(sffName))) {
+                flowsToAdd.addAll(classifierProcessor.processClassifier(sclSff, updatedAcl.get(), true));
+            } else if (!addedAces.isEmpty()) {
+                flowsToAdd.addAll(classifierProcessor.processAceList(sclSff, aclName, addedAces, true));
+            }
+        });
+
+        LOG.debug("updatedServiceFunctionClassifier: {} ACEs removed, {} ACEs added, {} flows removed, "
+                + "{} flows added", removedAces.size(), addedAces.size(), flowsToRemove.size(), flowsToAdd.size());
+
+        if (!flowsToRemove.isEmpty()) {
+            openflowWriter.removeFlows(flowsToRemove);
+            openflowWriter.clearSffsIfNoRspExists();
+            openflowWriter.deleteFlowSet();
+        }
+        if (!flowsToAdd.isEmpty()) {
+            openflowWriter.writeFlows(flowsToAdd);
+            openflowWriter.flushFlows();
+        }
+        installedAcls.put(updatedScf.getName(), updatedAcl.get());
+        return true;
+    }
+
+    private static Map<String, Ace> acesByRuleName(Acl theAcl) {
+        // the flows are generated from the compiled ACEs
+        return AclCompiler.compile(theAcl.getAccessListEntries().getAce()).stream()
+                .collect(Collectors.toMap(Ace::getRuleName, Function.identity(), (first, second) -> second,
+                    LinkedHashMap::new));
+    }
+
+    private static Map<String, SclServiceFunctionForwarder> sffsByName(ServiceFunctionClassifier scf) {
+        return scf.getSclServiceFunctionForwarder().stream()
+                .collect(Collectors.toMap(SclServiceFunctionForwarder::getName, Function.identity(),
+                    (first, second) -> second, LinkedHashMap::new));
+    }
+
     /**
      * Check if the supplied ACL is valid.
      *
@@ -34,6 +34,7 @@ public class SfcScfOfRenderer implements AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(SfcScfOfRenderer.class);
     private final ClassifierRspsUpdateListener classifierRspsUpdateListener;
     private final SfcScfOfDataListener sfcScfDataListener;
+    private final OpenflowClassifierProcessor classifierProcessor;
 
     public SfcScfOfRenderer(DataBroker dataBroker, NotificationProviderService notificationService,
             RpcProviderRegistry theRpcProvider) {
@@ -52,6 +53,7 @@ public class SfcScfOfRenderer implements AutoCloseable {
 
         OpenflowClassifierProcessor logicalClassifierHandler = new OpenflowClassifierProcessor(theTx, logicalClassifier,
                 new BareClassifier());
+        classifierProcessor = logicalClassifierHandler;
 
         // register the classifierProcessor as a listener of the transaction
         // within the OF writer
@@ -80,6 +82,7 @@ public class SfcScfOfRenderer implements AutoCloseable {
     public void close()  {
         classifierRspsUpdateListener.close();
         sfcScfDataListener.close();
+        classifierProcessor.close();
         LOG.info("SfcScfOfRenderer auto-closed");
     }
 }
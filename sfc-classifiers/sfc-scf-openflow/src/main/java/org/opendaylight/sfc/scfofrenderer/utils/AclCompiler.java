@@ -0,0 +1,521 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfofrenderer.utils;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.net.InetAddresses;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.AceBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.Matches;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.MatchesBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.AceEth;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.AceIp;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.AceIpBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.AceIpVersion;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.ace.ip.version.AceIpv4;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.ace.ip.version.AceIpv4Builder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.ace.ip.version.AceIpv6;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.ace.ip.version.AceIpv6Builder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv6Prefix;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.PortNumber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles the ACEs of an ACL into the smallest equivalent list of ACEs
+ * before classifier flows are generated from them.
+ *
+ * <p>
+ * ACEs are matched in ACL order, the first match wins. The compiler only
+ * reasons about the fields {@link SfcScfMatch} translates into OpenFlow
+ * matches, and:
+ * <ul>
+ * <li>normalizes the IP prefixes, clearing their host bits;</li>
+ * <li>drops the ACEs that are shadowed by, i.e. fully covered by, an earlier
+ * ACE;</li>
+ * <li>merges consecutive ACEs with the same actions whose matches only
+ * differ in their source or destination prefixes, aggregating sibling
+ * prefixes and dropping the prefixes contained in another one.</li>
+ * </ul>
+ *
+ * <p>
+ * Consecutive ACEs with the same actions and the same matches but for their
+ * prefixes may be reordered without changing the classification, so their
+ * prefixes are sorted and aggregated in a single pass. A merged ACE keeps the
+ * rule name of the earliest ACE, so that its flows keep the same keys. ACEs
+ * the compiler does not understand are kept as is and are never merged
+ * across.
+ *
+ * <p>
+ * The compiled ACEs are cached per list of ACEs, i.e. per ACL revision, as
+ * the same ACL is compiled for every classifier and RSP update using it.
+ *
+ * <p>
+ * Transport port ranges are not expanded: the OpenFlow model only allows
+ * exact port matches and {@link SfcScfMatch} matches the lower port of a
+ * range, so the compiler does the same.
+ */
+public final class AclCompiler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AclCompiler.class);
+
+    private static final int MAX_COMPILED_ACLS = 64;
+
+    private static final LoadingCache<List<Ace>, List<Ace>> COMPILED_ACLS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_COMPILED_ACLS)
+            .build(new CacheLoader<List<Ace>, List<Ace>>() {
+                @Override
+                public List<Ace> load(List<Ace> theAces) {
+                    return Collections.unmodifiableList(doCompile(theAces));
+                }
+            });
+
+    private AclCompiler() {
+    }
+
+    /**
+     * Compile a list of ACEs.
+     *
+     * @param theAces
+     *            the ACEs, in ACL order
+     * @return the compiled ACEs, in ACL order, which must not be modified
+     */
+    public static List<Ace> compile(List<Ace> theAces) {
+        // copied, so that the key does not change if the caller modifies its list
+        return COMPILED_ACLS.getUnchecked(new ArrayList<>(theAces));
+    }
+
+    private static List<Ace> doCompile(List<Ace> theAces) {
+        List<CompiledAce> compiledAces = new ArrayList<>(theAces.size());
+        theAces.forEach(theAce -> compiledAces.add(CompiledAce.of(theAce)));
+
+        removeShadowed(compiledAces);
+        if (mergePrefixes(compiledAces)) {
+            // a merged prefix might shadow later ACEs
+            removeShadowed(compiledAces);
+        }
+
+        List<Ace> result = new ArrayList<>(compiledAces.size());
+        compiledAces.forEach(compiledAce -> result.add(compiledAce.toAce()));
+        LOG.debug("compile: {} ACEs compiled into {}", theAces.size(), result.size());
+        return result;
+    }
+
+    private static void removeShadowed(List<CompiledAce> compiledAces) {
+        List<CompiledAce> kept = new ArrayList<>(compiledAces.size());
+        for (CompiledAce compiledAce : compiledAces) {
+            if (kept.stream().anyMatch(earlier -> earlier.covers(compiledAce))) {
+                LOG.debug("removeShadowed: ACE {} is shadowed", compiledAce.ace.getRuleName());
+            } else {
+                kept.add(compiledAce);
+            }
+        }
+        compiledAces.clear();
+        compiledAces.addAll(kept);
+    }
+
+    private static boolean mergePrefixes(List<CompiledAce> compiledAces) {
+        List<CompiledAce> result = new ArrayList<>(compiledAces.size());
+        int start = 0;
+        while (start < compiledAces.size()) {
+            int end = start + 1;
+            while (end < compiledAces.size() && compiledAces.get(start).isMergeableWith(compiledAces.get(end))) {
+                end++;
+            }
+            List<CompiledAce> run = compiledAces.subList(start, end);
+            result.addAll(run.size() > 1 ? mergeRun(run) : run);
+            start = end;
+        }
+        boolean mergedAny = result.size() < compiledAces.size();
+        compiledAces.clear();
+        compiledAces.addAll(result);
+        return mergedAny;
+    }
+
+    // merges a run of consecutive mergeable ACEs, which may be reordered
+    private static List<CompiledAce> mergeRun(List<CompiledAce> run) {
+        List<RunEntry> entries = new ArrayList<>(run.size());
+        for (int i = 0; i < run.size(); i++) {
+            entries.add(new RunEntry(i, run.get(i)));
+        }
+        int size;
+        do {
+            // aggregating the source prefixes may make destination prefixes
+            // aggregable, and the other way around
+            size = entries.size();
+            entries = aggregate(aggregate(entries, true), false);
+        } while (entries.size() < size);
+
+        entries.sort(Comparator.comparingInt(entry -> entry.position));
+        List<CompiledAce> merged = new ArrayList<>(entries.size());
+        entries.forEach(entry -> merged.add(entry.compiledAce));
+        return merged;
+    }
+
+    // aggregates the source or destination prefixes of the ACEs having the
+    // same prefix on the other side: once sorted, a prefix contained in
+    // another one follows it and sibling prefixes are next to each other
+    private static List<RunEntry> aggregate(List<RunEntry> entries, boolean source) {
+        Map<Prefix, List<RunEntry>> byOtherPrefix = new LinkedHashMap<>();
+        entries.forEach(entry -> byOtherPrefix.computeIfAbsent(entry.prefix(!source), prefix -> new ArrayList<>())
+                .add(entry));
+
+        List<RunEntry> result = new ArrayList<>(entries.size());
+        for (List<RunEntry> group : byOtherPrefix.values()) {
+            group.sort(Comparator.comparing(entry -> entry.prefix(source),
+                    Comparator.nullsFirst(Comparator.<Prefix>naturalOrder())));
+            Deque<RunEntry> stack = new ArrayDeque<>(group.size());
+            for (RunEntry entry : group) {
+                RunEntry top = stack.peek();
+                if (top != null && CompiledAce.covers(top.prefix(source), entry.prefix(source))) {
+                    stack.pop();
+                    stack.push(top.mergeWith(entry, top.prefix(source), source));
+                    continue;
+                }
+                stack.push(entry);
+                while (stack.size() > 1) {
+                    RunEntry last = stack.pop();
+                    RunEntry previous = stack.peek();
+                    Prefix previousPrefix = previous.prefix(source);
+                    if (previousPrefix == null || !previousPrefix.isSiblingOf(last.prefix(source))) {
+                        stack.push(last);
+                        break;
+                    }
+                    stack.pop();
+                    stack.push(previous.mergeWith(last, previousPrefix.parent(), source));
+                }
+            }
+            result.addAll(stack);
+        }
+        return result;
+    }
+
+    /**
+     * A compiled ACE of a run of mergeable ACEs, along with its position in
+     * the run.
+     */
+    private static final class RunEntry {
+        private final int position;
+        private final CompiledAce compiledAce;
+
+        RunEntry(int position, CompiledAce compiledAce) {
+            this.position = position;
+            this.compiledAce = compiledAce;
+        }
+
+        Prefix prefix(boolean source) {
+            return source ? compiledAce.srcPrefix : compiledAce.dstPrefix;
+        }
+
+        // the merged entry keeps the earliest ACE, with the given prefix
+        RunEntry mergeWith(RunEntry other, Prefix prefix, boolean source) {
+            RunEntry earliest = position < other.position ? this : other;
+            RunEntry latest = earliest == this ? other : this;
+            LOG.debug("mergePrefixes: ACE {} merged into ACE {}", latest.compiledAce.ace.getRuleName(),
+                    earliest.compiledAce.ace.getRuleName());
+            CompiledAce earliestAce = earliest.compiledAce;
+            return new RunEntry(earliest.position, source ? earliestAce.withPrefixes(prefix, earliestAce.dstPrefix)
+                    : earliestAce.withPrefixes(earliestAce.srcPrefix, prefix));
+        }
+    }
+
+    /**
+     * An ACE along with the fields of its match that end up in the OpenFlow
+     * match. A null field matches anything.
+     */
+    private static final class CompiledAce {
+        private final Ace ace;
+        // false if the match is not understood by the compiler
+        private final boolean supported;
+        private final boolean eth;
+        private final String srcMac;
+        private final String dstMac;
+        private final Short dscp;
+        private final Short protocol;
+        private final Integer srcPort;
+        private final Integer dstPort;
+        // 4, 6 or null when no IP version is given
+        private final Integer ipVersion;
+        private final Prefix srcPrefix;
+        private final Prefix dstPrefix;
+
+        private CompiledAce(Ace ace, boolean supported, boolean eth, String srcMac, String dstMac, Short dscp,
+                Short protocol, Integer srcPort, Integer dstPort, Integer ipVersion, Prefix srcPrefix,
+                Prefix dstPrefix) {
+            this.ace = ace;
+            this.supported = supported;
+            this.eth = eth;
+            this.srcMac = srcMac;
+            this.dstMac = dstMac;
+            this.dscp = dscp;
+            this.protocol = protocol;
+            this.srcPort = srcPort;
+            this.dstPort = dstPort;
+            this.ipVersion = ipVersion;
+            this.srcPrefix = srcPrefix;
+            this.dstPrefix = dstPrefix;
+        }
+
+        static CompiledAce of(Ace ace) {
+            Matches matches = ace.getMatches();
+            if (matches != null && matches.getAceType() instanceof AceEth) {
+                AceEth aceEth = (AceEth) matches.getAceType();
+                String srcMac = aceEth.getSourceMacAddress() == null ? null
+                        : aceEth.getSourceMacAddress().getValue().toLowerCase();
+                String dstMac = aceEth.getDestinationMacAddress() == null ? null
+                        : aceEth.getDestinationMacAddress().getValue().toLowerCase();
+                return new CompiledAce(ace, true, true, srcMac, dstMac, null, null, null, null, null, null, null);
+            }
+            if (matches == null || !(matches.getAceType() instanceof AceIp)) {
+                return unsupported(ace);
+            }
+
+            AceIp aceIp = (AceIp) matches.getAceType();
+            Short dscp = aceIp.getDscp() == null ? null : aceIp.getDscp().getValue();
+            Short protocol = aceIp.getProtocol();
+            Integer srcPort = null;
+            Integer dstPort = null;
+            // ports are only matched for these protocols
+            if (protocol != null && (protocol == SfcOpenflowUtils.IP_PROTOCOL_TCP
+                    || protocol == SfcOpenflowUtils.IP_PROTOCOL_UDP || protocol == SfcOpenflowUtils.IP_PROTOCOL_SCTP)) {
+                srcPort = aceIp.getSourcePortRange() == null ? null
+                        : matchedPort(aceIp.getSourcePortRange().getLowerPort());
+                dstPort = aceIp.getDestinationPortRange() == null ? null
+                        : matchedPort(aceIp.getDestinationPortRange().getLowerPort());
+            }
+
+            Integer ipVersion = null;
+            Prefix srcPrefix = null;
+            Prefix dstPrefix = null;
+            try {
+                if (aceIp.getAceIpVersion() instanceof AceIpv4) {
+                    AceIpv4 ipv4 = (AceIpv4) aceIp.getAceIpVersion();
+                    ipVersion = 4;
+                    srcPrefix = ipv4.getSourceIpv4Network() == null ? null
+                            : Prefix.parse(ipv4.getSourceIpv4Network().getValue());
+                    dstPrefix = ipv4.getDestinationIpv4Network() == null ? null
+                            : Prefix.parse(ipv4.getDestinationIpv4Network().getValue());
+                } else if (aceIp.getAceIpVersion() instanceof AceIpv6) {
+                    AceIpv6 ipv6 = (AceIpv6) aceIp.getAceIpVersion();
+                    ipVersion = 6;
+                    srcPrefix = ipv6.getSourceIpv6Network() == null ? null
+                            : Prefix.parse(ipv6.getSourceIpv6Network().getValue());
+                    dstPrefix = ipv6.getDestinationIpv6Network() == null ? null
+                            : Prefix.parse(ipv6.getDestinationIpv6Network().getValue());
+                } else if (aceIp.getAceIpVersion() != null) {
+                    return unsupported(ace);
+                }
+            } catch (IllegalArgumentException e) {
+                LOG.warn("of: ACE {} has an invalid prefix", ace.getRuleName(), e);
+                return unsupported(ace);
+            }
+            return new CompiledAce(ace, true, false, null, null, dscp, protocol, srcPort, dstPort, ipVersion,
+                    srcPrefix, dstPrefix);
+        }
+
+        private static CompiledAce unsupported(Ace ace) {
+            return new CompiledAce(ace, false, false, null, null, null, null, null, null, null, null, null);
+        }
+
+        // the port SfcScfMatch matches, if any: the lower port of the range
+        private static Integer matchedPort(PortNumber lowerPort) {
+            return lowerPort == null || lowerPort.getValue() == null || lowerPort.getValue() == 0
+                    ? null : lowerPort.getValue();
+        }
+
+        private CompiledAce withPrefixes(Prefix newSrcPrefix, Prefix newDstPrefix) {
+            return new CompiledAce(ace, supported, eth, srcMac, dstMac, dscp, protocol, srcPort, dstPort, ipVersion,
+                    newSrcPrefix, newDstPrefix);
+        }
+
+        /**
+         * Whether every packet matched by the other ACE is matched by this
+         * one.
+         */
+        boolean covers(CompiledAce other) {
+            if (!supported || !other.supported || eth != other.eth) {
+                return false;
+            }
+            return covers(srcMac, other.srcMac) && covers(dstMac, other.dstMac) && covers(dscp, other.dscp)
+                    && covers(protocol, other.protocol) && covers(srcPort, other.srcPort)
+                    && covers(dstPort, other.dstPort) && Objects.equals(ipVersion, other.ipVersion)
+                    && covers(srcPrefix, other.srcPrefix) && covers(dstPrefix, other.dstPrefix);
+        }
+
+        /**
+         * Whether both ACEs have the same actions and their matches only
+         * differ in their source or destination prefixes.
+         */
+        boolean isMergeableWith(CompiledAce other) {
+            return supported && other.supported && !eth && !other.eth
+                    && Objects.equals(ace.getActions(), other.ace.getActions())
+                    && Objects.equals(dscp, other.dscp) && Objects.equals(protocol, other.protocol)
+                    && Objects.equals(srcPort, other.srcPort) && Objects.equals(dstPort, other.dstPort)
+                    && Objects.equals(ipVersion, other.ipVersion);
+        }
+
+        private static boolean covers(Object field, Object otherField) {
+            return field == null || field.equals(otherField);
+        }
+
+        private static boolean covers(Prefix prefix, Prefix otherPrefix) {
+            return prefix == null || otherPrefix != null && prefix.contains(otherPrefix);
+        }
+
+        /**
+         * Build back the ACE, with its normalized prefixes. The original ACE
+         * is returned when nothing changed.
+         */
+        Ace toAce() {
+            if (!supported || eth) {
+                return ace;
+            }
+            AceIp aceIp = (AceIp) ace.getMatches().getAceType();
+            AceIpVersion aceIpVersion = aceIp.getAceIpVersion();
+            AceIpVersion newAceIpVersion;
+            if (aceIpVersion instanceof AceIpv4) {
+                AceIpv4 ipv4 = (AceIpv4) aceIpVersion;
+                Ipv4Prefix src = srcPrefix == null ? null : new Ipv4Prefix(srcPrefix.toString());
+                Ipv4Prefix dst = dstPrefix == null ? null : new Ipv4Prefix(dstPrefix.toString());
+                if (Objects.equals(src, ipv4.getSourceIpv4Network())
+                        && Objects.equals(dst, ipv4.getDestinationIpv4Network())) {
+                    return ace;
+                }
+                newAceIpVersion = new AceIpv4Builder(ipv4).setSourceIpv4Network(src).setDestinationIpv4Network(dst)
+                        .build();
+            } else if (aceIpVersion instanceof AceIpv6) {
+                AceIpv6 ipv6 = (AceIpv6) aceIpVersion;
+                Ipv6Prefix src = srcPrefix == null ? null : new Ipv6Prefix(srcPrefix.toString());
+                Ipv6Prefix dst = dstPrefix == null ? null : new Ipv6Prefix(dstPrefix.toString());
+                if (Objects.equals(src, ipv6.getSourceIpv6Network())
+                        && Objects.equals(dst, ipv6.getDestinationIpv6Network())) {
+                    return ace;
+                }
+                newAceIpVersion = new AceIpv6Builder(ipv6).setSourceIpv6Network(src).setDestinationIpv6Network(dst)
+                        .build();
+            } else {
+                return ace;
+            }
+            return new AceBuilder(ace).setMatches(new MatchesBuilder(ace.getMatches())
+                    .setAceType(new AceIpBuilder(aceIp).setAceIpVersion(newAceIpVersion).build()).build()).build();
+        }
+    }
+
+    /**
+     * An IPv4 or IPv6 prefix, with its host bits cleared.
+     */
+    private static final class Prefix implements Comparable<Prefix> {
+        private final byte[] address;
+        private final int length;
+
+        private Prefix(byte[] address, int length) {
+            this.address = address;
+            this.length = length;
+            // clear the host bits
+            for (int bit = length; bit < address.length * 8; bit++) {
+                address[bit / 8] &= ~(0x80 >>> (bit % 8));
+            }
+        }
+
+        static Prefix parse(String value) {
+            String[] parts = value.split("/");
+            byte[] address = InetAddresses.forString(parts[0]).getAddress();
+            int length = parts.length > 1 ? Integer.parseInt(parts[1]) : address.length * 8;
+            if (length < 0 || length > address.length * 8) {
+                throw new IllegalArgumentException("Invalid prefix length " + value);
+            }
+            return new Prefix(address, length);
+        }
+
+        private boolean bit(int index) {
+            return (address[index / 8] & (0x80 >>> (index % 8))) != 0;
+        }
+
+        private boolean samePrefixBits(Prefix other, int bits) {
+            for (int bit = 0; bit < bits; bit++) {
+                if (bit(bit) != other.bit(bit)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean contains(Prefix other) {
+            return address.length == other.address.length && length <= other.length
+                    && samePrefixBits(other, length);
+        }
+
+        boolean isSiblingOf(Prefix other) {
+            return other != null && address.length == other.address.length && length == other.length
+                    && length > 0 && samePrefixBits(other, length - 1) && bit(length - 1) != other.bit(length - 1);
+        }
+
+        Prefix parent() {
+            return new Prefix(address.clone(), length - 1);
+        }
+
+        // by address then by length, so a prefix precedes the ones it contains
+        @Override
+        public int compareTo(Prefix other) {
+            if (address.length != other.address.length) {
+                return Integer.compare(address.length, other.address.length);
+            }
+            for (int i = 0; i < address.length; i++) {
+                int diff = Integer.compare(address[i] & 0xff, other.address[i] & 0xff);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return Integer.compare(length, other.length);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Prefix)) {
+                return false;
+            }
+            Prefix other = (Prefix) obj;
+            return length == other.length && Arrays.equals(address, other.address);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(address) + length;
+        }
+
+        @Override
+        public String toString() {
+            try {
+                return InetAddresses.toAddrString(InetAddress.getByAddress(address)) + "/" + length;
+            } catch (UnknownHostException e) {
+                // cannot happen, the address is 4 or 16 bytes long
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@
 package org.opendaylight.sfc.scfofrenderer.utils;
 
 import com.google.common.collect.Iterables;
+import org.opendaylight.sfc.provider.api.SfcConfigurationCache;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionMetadataAPI;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
@@ -48,6 +49,29 @@ public class SfcRspInfo {
     public SfcRspInfo() {
     }
 
+    /**
+     * Copy constructor, so that an instance shared by several flows is
+     * never modified.
+     *
+     * @param other
+     *            the RSP information to copy
+     */
+    public SfcRspInfo(SfcRspInfo other) {
+        vxlanIpDst = other.vxlanIpDst;
+        vxlanUdpPort = other.vxlanUdpPort;
+        nshNsp = other.nshNsp;
+        nshStartNsi = other.nshStartNsi;
+        nshEndNsi = other.nshEndNsi;
+        nshMetaC1 = other.nshMetaC1;
+        nshMetaC2 = other.nshMetaC2;
+        nshMetaC3 = other.nshMetaC3;
+        nshMetaC4 = other.nshMetaC4;
+        firstSffName = other.firstSffName;
+        lastSffName = other.lastSffName;
+        firstSfName = other.firstSfName;
+        rsp = other.rsp;
+    }
+
     public Ipv4Address getVxlanIpDst() {
         return vxlanIpDst;
     }
@@ -221,7 +245,7 @@ public class SfcRspInfo {
             return null;
         }
 
-        RenderedServicePath renderedServicePath = SfcProviderRenderedPathAPI.readRenderedServicePath(rspName);
+        RenderedServicePath renderedServicePath = SfcConfigurationCache.getRenderedServicePaths().get(rspName);
         if (renderedServicePath == null) {
             LOG.error("getSfcRspInfo: rsp is null\n");
             return null;
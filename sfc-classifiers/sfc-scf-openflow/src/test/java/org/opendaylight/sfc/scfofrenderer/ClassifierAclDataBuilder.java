@@ -41,8 +41,10 @@ public class ClassifierAclDataBuilder {
         List<Ace> theAces = new ArrayList<>();
         for (int i = 0; i < numberOfMatches; i++) {
             String rspName = rspPrefix + Integer.toString(i / 2 + 1);
+            // a distinct port per ACE, so that no ACE shadows another
             theAces.add(new AceBuilder().setRuleName(String.format("ACE%d", i)).setActions(buildActions(rspName))
-                    .setMatches(buildMatches(srcNetwork, dstNetwork, srcLowerPort, dstLowerPort, protocol)).build());
+                    .setMatches(buildMatches(srcNetwork, dstNetwork, srcLowerPort, dstLowerPort + i, protocol))
+                    .build());
         }
 
         return theAces;
@@ -146,10 +146,9 @@ public class SfcScfOfDataListenerTest {
 
         Thread.sleep(500);
 
-        // We verify createdServiceFunctionClassifier and
-        // deletedServiceFunctionClassifier have been called
-        verify(sfcScfOfProcessor).deletedServiceFunctionClassifier(originalServiceFunctionClassifier);
-        verify(sfcScfOfProcessor).createdServiceFunctionClassifier(updatedServiceFunctionClassifier);
+        // We verify updatedServiceFunctionClassifier has been called
+        verify(sfcScfOfProcessor).updatedServiceFunctionClassifier(originalServiceFunctionClassifier,
+                updatedServiceFunctionClassifier);
     }
 
     /**
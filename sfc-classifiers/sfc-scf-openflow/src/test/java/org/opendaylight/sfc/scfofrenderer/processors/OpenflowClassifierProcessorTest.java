@@ -190,6 +190,27 @@ public class OpenflowClassifierProcessorTest {
         Assert.assertEquals(2, theFlows.size());
     }
 
+    @Test
+    public void addClassifierLargeAcl() {
+        when(dataGetter.getFirstHopDataplaneId(any(RenderedServicePath.class)))
+                .thenReturn(Optional.of(FIRST_SF_DATAPLANE_ID));
+        // 300 ACEs, 2 ACEs per RSP
+        when(accessListEntries.getAce()).thenReturn(new ClassifierAclDataBuilder().mockAces(300));
+
+        OpenflowClassifierProcessor classifierManager = new OpenflowClassifierProcessor(readWriteTransaction,
+                classifierInterface, new BareClassifier());
+
+        // disable DPDK flows
+        PowerMockito.when(SfcOvsUtil.getDpdkOfPort(anyString(), anyString())).thenReturn(null);
+
+        List<FlowDetails> theFlows = classifierManager.processClassifier(sffClassifier, acl, true);
+        Assert.assertEquals(2 * 300, theFlows.size());
+
+        // each RSP is read once
+        PowerMockito.verifyStatic(Mockito.times(150));
+        SfcProviderRenderedPathAPI.readRenderedServicePath(any(RspName.class));
+    }
+
     @Test
     public void addClassifierLegacyScenario() {
         // must set the usesLogicalInterfaces = false
@@ -201,7 +222,8 @@ public class OpenflowClassifierProcessorTest {
         BareClassifier bareClassifierHandler = Mockito.spy(new BareClassifier(sff));
         LogicallyAttachedClassifier logicallyAttachedClassifierHandler = new LogicallyAttachedClassifier(dataGetter);
 
-        doReturn(Optional.of(FIRST_SF_NODE_NAME)).when(bareClassifierHandler).getNodeName(anyString());
+        doReturn(Optional.of(FIRST_SF_NODE_NAME)).when(bareClassifierHandler)
+                .getSffNodeName(any(ServiceFunctionForwarder.class));
 
         OpenflowClassifierProcessor classifierManager = new OpenflowClassifierProcessor(readWriteTransaction,
                 logicallyAttachedClassifierHandler, bareClassifierHandler);
@@ -225,7 +247,8 @@ public class OpenflowClassifierProcessorTest {
 
         BareClassifier bareClassifierHandler = Mockito.spy(new BareClassifier(sff));
 
-        doReturn(Optional.of(FIRST_SF_NODE_NAME)).when(bareClassifierHandler).getNodeName(anyString());
+        doReturn(Optional.of(FIRST_SF_NODE_NAME)).when(bareClassifierHandler)
+                .getSffNodeName(any(ServiceFunctionForwarder.class));
         OpenflowClassifierProcessor classifierManager = new OpenflowClassifierProcessor(readWriteTransaction,
                 new LogicallyAttachedClassifier(dataGetter), bareClassifierHandler);
 
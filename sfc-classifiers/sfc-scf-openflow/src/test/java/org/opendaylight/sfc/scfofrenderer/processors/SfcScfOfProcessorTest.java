@@ -12,11 +12,17 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.junit.Test;
@@ -55,6 +61,7 @@ public class SfcScfOfProcessorTest {
     private List<SclServiceFunctionForwarder> sfflist;
     private ServiceFunctionForwarder sff;
     private DataBroker dataBroker;
+    private OpenflowClassifierProcessor classifierProcessor;
 
     private void initTest() {
         ReadWriteTransaction readWriteTransaction = mock(ReadWriteTransaction.class);
@@ -66,7 +73,7 @@ public class SfcScfOfProcessorTest {
         SfcOfFlowWriterInterface openflowWriter = spy(new SfcOfFlowWriterImpl(dataBroker));
         Mockito.doNothing().when(openflowWriter).flushFlows();
 
-        OpenflowClassifierProcessor classifierProcessor = mock(OpenflowClassifierProcessor.class);
+        classifierProcessor = mock(OpenflowClassifierProcessor.class);
         when(classifierProcessor.processClassifier(any(SclServiceFunctionForwarder.class), any(Acl.class),
                 anyBoolean())).thenReturn(Collections.emptyList());
 
@@ -168,4 +175,51 @@ public class SfcScfOfProcessorTest {
         PowerMockito.stub(PowerMockito.method(SfcOvsUtil.class, "getVxlanOfPort")).toReturn(null);
         assertTrue(sfcScfProcessor.deletedServiceFunctionClassifier(scf));
     }
+
+    @Test
+    public void testUpdatedServiceFunctionClassifier() {
+        initTest();
+        when(scf.getName()).thenReturn("scfName");
+        when(acesList.get(0).getRuleName()).thenReturn("ace1");
+        assertTrue(sfcScfProcessor.createdServiceFunctionClassifier(scf));
+
+        // add an ACE to the ACL: only its flows are processed
+        Ace addedAce = mock(Ace.class);
+        when(addedAce.getRuleName()).thenReturn("ace2");
+        Acl updatedAcl = mock(Acl.class);
+        AccessListEntries updatedEntries = mock(AccessListEntries.class);
+        when(updatedAcl.getAclName()).thenReturn("aclName");
+        when(updatedAcl.getAccessListEntries()).thenReturn(updatedEntries);
+        when(updatedEntries.getAce()).thenReturn(Arrays.asList(acesList.get(0), addedAce));
+        PowerMockito.stub(PowerMockito.method(SfcProviderAclAPI.class, "readAccessList")).toReturn(updatedAcl);
+
+        assertTrue(sfcScfProcessor.updatedServiceFunctionClassifier(scf, scf));
+        verify(classifierProcessor).processAceList(sfflist.get(0), "aclName", Collections.singletonList(addedAce),
+                true);
+        verify(classifierProcessor, never()).processAceList(any(SclServiceFunctionForwarder.class), anyString(),
+                anyListOf(Ace.class), eq(false));
+        verify(classifierProcessor, never()).processClassifier(any(SclServiceFunctionForwarder.class),
+                any(Acl.class), eq(false));
+
+        // the classifier moves to another SFF: all the ACEs are processed
+        ServiceFunctionClassifier movedScf = mock(ServiceFunctionClassifier.class);
+        SclServiceFunctionForwarder movedSclSff = mock(SclServiceFunctionForwarder.class);
+        when(movedSclSff.getName()).thenReturn("sffName2");
+        when(movedScf.getName()).thenReturn("scfName");
+        when(movedScf.getAcl()).thenReturn(scf.getAcl());
+        when(movedScf.getSclServiceFunctionForwarder()).thenReturn(Collections.singletonList(movedSclSff));
+
+        assertTrue(sfcScfProcessor.updatedServiceFunctionClassifier(scf, movedScf));
+        verify(classifierProcessor).processClassifier(sfflist.get(0), updatedAcl, false);
+        verify(classifierProcessor).processClassifier(movedSclSff, updatedAcl, true);
+    }
+
+    @Test
+    public void testUpdatedServiceFunctionClassifierNotInstalled() {
+        initTest();
+        // nothing to compare with, the flows are replaced
+        assertTrue(sfcScfProcessor.updatedServiceFunctionClassifier(scf, scf));
+        verify(classifierProcessor).processClassifierList(acl, false, sfflist);
+        verify(classifierProcessor).processClassifierList(acl, true, sfflist);
+    }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfofrenderer.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1Builder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.access.lists.acl.access.list.entries.ace.actions.sfc.action.AclRenderedServicePathBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.Ace;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.AceBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.ActionsBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.MatchesBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.AceIp;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.AceIpBuilder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.ace.ip.version.AceIpv4;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.access.control.list.rev160218.access.lists.acl.access.list.entries.ace.matches.ace.type.ace.ip.ace.ip.version.AceIpv4Builder;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.PortNumber;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.packet.fields.rev160218.acl.transport.header.fields.DestinationPortRangeBuilder;
+
+public class AclCompilerTest {
+
+    private static Ace buildAce(String ruleName, String dstNetwork, int dstPort, String rspName) {
+        AceIpv4 ipv4 = new AceIpv4Builder().setSourceIpv4Network(new Ipv4Prefix("192.168.2.0/24"))
+                .setDestinationIpv4Network(new Ipv4Prefix(dstNetwork)).build();
+        AceIp aceIp = new AceIpBuilder().setAceIpVersion(ipv4).setProtocol(SfcOpenflowUtils.IP_PROTOCOL_TCP)
+                .setDestinationPortRange(new DestinationPortRangeBuilder().setLowerPort(new PortNumber(dstPort))
+                        .build())
+                .build();
+        Actions1 actions1 = new Actions1Builder()
+                .setSfcAction(new AclRenderedServicePathBuilder().setRenderedServicePath(rspName).build()).build();
+        return new AceBuilder().setRuleName(ruleName).setMatches(new MatchesBuilder().setAceType(aceIp).build())
+                .setActions(new ActionsBuilder().addAugmentation(Actions1.class, actions1).build()).build();
+    }
+
+    private static List<String> ruleNames(List<Ace> theAces) {
+        return theAces.stream().map(Ace::getRuleName).collect(Collectors.toList());
+    }
+
+    private static String dstNetwork(Ace theAce) {
+        AceIp aceIp = (AceIp) theAce.getMatches().getAceType();
+        return ((AceIpv4) aceIp.getAceIpVersion()).getDestinationIpv4Network().getValue();
+    }
+
+    @Test
+    public void unchangedAcesAreKept() {
+        Ace ace1 = buildAce("ACE1", "10.0.0.0/24", 80, "RSP1");
+        Ace ace2 = buildAce("ACE2", "10.0.0.0/24", 8080, "RSP1");
+
+        List<Ace> compiled = AclCompiler.compile(Arrays.asList(ace1, ace2));
+
+        assertEquals("Must be equal", 2, compiled.size());
+        assertSame("Must be the same", ace1, compiled.get(0));
+        assertSame("Must be the same", ace2, compiled.get(1));
+    }
+
+    @Test
+    public void prefixesAreNormalized() {
+        List<Ace> compiled = AclCompiler.compile(Arrays.asList(buildAce("ACE1", "10.0.0.5/24", 80, "RSP1")));
+
+        assertEquals("Must be equal", "10.0.0.0/24", dstNetwork(compiled.get(0)));
+    }
+
+    @Test
+    public void shadowedAcesAreRemoved() {
+        List<Ace> compiled = AclCompiler.compile(Arrays.asList(
+                buildAce("ACE1", "10.0.0.0/16", 80, "RSP1"),
+                buildAce("ACE2", "10.0.1.0/24", 80, "RSP2"),
+                // a narrower ACE does not shadow a wider one
+                buildAce("ACE3", "10.1.0.0/24", 80, "RSP1"),
+                buildAce("ACE4", "10.1.0.0/16", 80, "RSP2")));
+
+        assertEquals("Must be equal", Arrays.asList("ACE1", "ACE3", "ACE4"), ruleNames(compiled));
+    }
+
+    @Test
+    public void siblingPrefixesAreMerged() {
+        List<Ace> compiled = AclCompiler.compile(Arrays.asList(
+                buildAce("ACE1", "10.0.0.0/24", 80, "RSP1"),
+                buildAce("ACE2", "10.0.2.0/24", 80, "RSP1"),
+                buildAce("ACE3", "10.0.1.0/24", 80, "RSP1"),
+                buildAce("ACE4", "10.0.3.0/24", 80, "RSP1"),
+                // another RSP
+                buildAce("ACE5", "10.0.4.0/24", 80, "RSP1"),
+                buildAce("ACE6", "10.0.5.0/24", 80, "RSP2")));
+
+        assertEquals("Must be equal", Arrays.asList("ACE1", "ACE5", "ACE6"), ruleNames(compiled));
+        assertEquals("Must be equal", "10.0.0.0/22", dstNetwork(compiled.get(0)));
+        assertEquals("Must be equal", "10.0.4.0/24", dstNetwork(compiled.get(1)));
+    }
+
+    @Test
+    public void prefixesAreNotMergedAcrossOverlappingAces() {
+        List<Ace> compiled = AclCompiler.compile(Arrays.asList(
+                buildAce("ACE1", "10.0.0.0/24", 80, "RSP1"),
+                buildAce("ACE2", "10.0.1.128/25", 80, "RSP2"),
+                buildAce("ACE3", "10.0.1.0/24", 80, "RSP1")));
+
+        assertEquals("Must be equal", Arrays.asList("ACE1", "ACE2", "ACE3"), ruleNames(compiled));
+        assertEquals("Must be equal", "10.0.0.0/24", dstNetwork(compiled.get(0)));
+    }
+
+    @Test
+    public void containedPrefixesAreMergedIntoTheWiderOne() {
+        List<Ace> compiled = AclCompiler.compile(Arrays.asList(
+                buildAce("ACE1", "10.0.1.0/24", 80, "RSP1"),
+                buildAce("ACE2", "10.0.0.0/23", 80, "RSP1"),
+                buildAce("ACE3", "10.0.2.0/23", 80, "RSP1")));
+
+        assertEquals("Must be equal", Arrays.asList("ACE1"), ruleNames(compiled));
+        assertEquals("Must be equal", "10.0.0.0/22", dstNetwork(compiled.get(0)));
+    }
+
+    @Test
+    public void aclRevisionIsCompiledOnce() {
+        List<Ace> compiled = AclCompiler.compile(Arrays.asList(
+                buildAce("ACE1", "10.2.0.0/24", 80, "RSP1"),
+                buildAce("ACE2", "10.2.1.0/24", 80, "RSP1")));
+        List<Ace> recompiled = AclCompiler.compile(Arrays.asList(
+                buildAce("ACE1", "10.2.0.0/24", 80, "RSP1"),
+                buildAce("ACE2", "10.2.1.0/24", 80, "RSP1")));
+
+        assertSame("Must be the same", compiled, recompiled);
+    }
+}
@@ -13,17 +13,23 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.apache.commons.lang3.StringUtils;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.sfc.provider.api.SfcConfigurationCache;
 import org.opendaylight.sfc.provider.api.SfcProviderAclAPI;
-import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
+import org.opendaylight.sfc.util.vpp.SfcVppNodeExecutor;
 import org.opendaylight.sfc.util.vpp.SfcVppUtils;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.access.lists.acl.access.list.entries.ace.actions.sfc.action.AclRenderedServicePath;
@@ -61,7 +67,8 @@ public class VppClassifierProcessor {
     private final VppNodeManager nodeManager;
     private static final String SFC_BD_NAME = "SFCVPP";
     private static final String DUMMY_BD_NAME = "SFCDUMMY";
-    private final Map<String, String> bridgeDomainCreated = new HashMap<>();
+    private final Map<String, String> bridgeDomainCreated = new ConcurrentHashMap<>();
+    private final SfcVppNodeExecutor nodeExecutor = new SfcVppNodeExecutor("sfc-vpp-classifier");
 
     private static class Pair<T> {
         private final T mask;
@@ -372,7 +379,7 @@ public class VppClassifierProcessor {
             return null;
         }
 
-        return SfcProviderRenderedPathAPI.readRenderedServicePath(rspName);
+        return SfcConfigurationCache.getRenderedServicePaths().get(rspName);
     }
 
     private SffInfo getFirstSffInfoInRsp(RspName rspName) {
@@ -398,11 +405,12 @@ public class VppClassifierProcessor {
         Short serviceIndex = firstRspHop.getServiceIndex();
         SffName sffName = firstRspHop.getServiceFunctionForwarder();
         IpAddress sffIp = SfcVppUtils.getSffFirstDplIp(sffName);
-        DataBroker mountPoint = SfcVppUtils.getSffMountpoint(this.nodeManager.getMountPointService(), sffName);
+        DataBroker mountPoint = this.nodeManager.getMountPoint(sffName);
         return new SffInfo(mountPoint, sffName, sffIp, pathId, serviceIndex);
     }
 
-    private boolean configureVxlanGpeClassifier(ServiceFunctionClassifier scf) {
+    private boolean configureVxlanGpeClassifier(ServiceFunctionClassifier scf,
+                                                Map<String, List<Runnable>> nodeConfigurations) {
         Optional<Acl> theAcl = extractAcl(scf);
         if (!theAcl.isPresent() || !validateInputs(theAcl.get())) {
             LOG.error("Could not retrieve the ACL from the classifier: {}", scf);
@@ -432,6 +440,7 @@ public class VppClassifierProcessor {
             return false;
         }
 
+        Set<String> bridgeDomainNodes = new HashSet<>();
         for (SclServiceFunctionForwarder sclSff : sfflist) {
             SffName sffName = new SffName(sclSff.getName());
             Optional<String> itfName = getInterfaceNameFromClassifier(sclSff);
@@ -441,13 +450,15 @@ public class VppClassifierProcessor {
             }
 
             IpAddress sffIp = SfcVppUtils.getSffFirstDplIp(sffName);
-            DataBroker mountPoint = SfcVppUtils.getSffMountpoint(this.nodeManager.getMountPointService(), sffName);
-            if (!bridgeDomainCreated.containsKey(sffName.getValue())) {
-                SfcVppUtils.addDummyBridgeDomain(mountPoint, DUMMY_BD_NAME, sffName.getValue());
-                SfcVppUtils.addDummyNshEntry(mountPoint, 0L, (short)1, sffName.getValue());
-                SfcVppUtils.addDummyNshMap(mountPoint, 0L, (short)1, 0L, (short)1, "local0", sffName.getValue());
-                SfcVppUtils.addBridgeDomain(mountPoint, SFC_BD_NAME, sffName.getValue());
-                bridgeDomainCreated.put(sffName.getValue(), SFC_BD_NAME);
+            DataBroker mountPoint = this.nodeManager.getMountPoint(sffName);
+            if (!bridgeDomainCreated.containsKey(sffName.getValue()) && bridgeDomainNodes.add(sffName.getValue())) {
+                addConfiguration(nodeConfigurations, sffName, () -> {
+                    SfcVppUtils.addDummyBridgeDomain(mountPoint, DUMMY_BD_NAME, sffName.getValue());
+                    SfcVppUtils.addDummyNshEntry(mountPoint, 0L, (short)1, sffName.getValue());
+                    SfcVppUtils.addDummyNshMap(mountPoint, 0L, (short)1, 0L, (short)1, "local0",
+                            sffName.getValue());
+                    SfcVppUtils.addBridgeDomain(mountPoint, SFC_BD_NAME, sffName.getValue());
+                });
             }
             for (Entry<RspName, List<Pair<HexString>>> entry : rspPairList.entrySet()) {
                 RspName rsp = entry.getKey();
@@ -494,30 +505,35 @@ public class VppClassifierProcessor {
                     SfcVppUtils.increaseNextTableIndex(sffName.getValue());
                     index++;
                 }
-                SfcVppUtils.configureVppClassifier(mountPoint, sffName, classifyTableList, classifySessionList);
+                addConfiguration(nodeConfigurations, sffName, () -> {
+                    SfcVppUtils.configureVppClassifier(mountPoint, sffName, classifyTableList, classifySessionList);
 
-                //Enable Ingress Acl on table 0
-                SfcVppUtils.enableIngressAcl(mountPoint, itfName.get(), SfcVppUtils.buildClassifyTableKey(0),
-                        sffName.getValue());
+                    //Enable Ingress Acl on table 0
+                    SfcVppUtils.enableIngressAcl(mountPoint, itfName.get(), SfcVppUtils.buildClassifyTableKey(0),
+                            sffName.getValue());
 
-                // Configure VPP classifier node
-                SfcVppUtils.configureClassifierVxlanGpeNsh(mountPoint, sffName, SFC_BD_NAME, sffIp, sffInfo.ip,
-                        sffInfo.pathId, sffInfo.serviceIndex);
+                    // Configure VPP classifier node
+                    SfcVppUtils.configureClassifierVxlanGpeNsh(mountPoint, sffName, SFC_BD_NAME, sffIp, sffInfo.ip,
+                            sffInfo.pathId, sffInfo.serviceIndex);
 
-                // For the traffic from the first SFF to VPP classifier node
-                SfcVppUtils.addNshEntry(mountPoint, reversePathId, reverseServiceIndex, sffName.getValue());
-                SfcVppUtils.addNshMapWithPop(mountPoint, reversePathId, reverseServiceIndex, reversePathId,
-                        reverseServiceIndex, null, sffName.getValue());
+                    // For the traffic from the first SFF to VPP classifier node
+                    SfcVppUtils.addNshEntry(mountPoint, reversePathId, reverseServiceIndex, sffName.getValue());
+                    SfcVppUtils.addNshMapWithPop(mountPoint, reversePathId, reverseServiceIndex, reversePathId,
+                            reverseServiceIndex, null, sffName.getValue());
+                });
 
                 // Configure the first SFF, VPP renderer doesn't know this
-                SfcVppUtils.configureVxlanGpeNsh(sffInfo.mountPoint, sffInfo.sffName, SFC_BD_NAME, sffInfo.ip, sffIp,
-                        reversePathId, reverseServiceIndex);
+                addConfiguration(nodeConfigurations, sffInfo.sffName, () -> SfcVppUtils
+                        .configureVxlanGpeNsh(sffInfo.mountPoint, sffInfo.sffName, SFC_BD_NAME, sffInfo.ip, sffIp,
+                                reversePathId, reverseServiceIndex));
             }
         }
+        bridgeDomainNodes.forEach(vppNode -> bridgeDomainCreated.put(vppNode, SFC_BD_NAME));
         return true;
     }
 
-    private boolean removeVxlanGpeClassifier(ServiceFunctionClassifier scf) {
+    private boolean removeVxlanGpeClassifier(ServiceFunctionClassifier scf,
+                                             Map<String, List<Runnable>> nodeConfigurations) {
         Optional<Acl> theAcl = extractAcl(scf);
         if (!theAcl.isPresent() || !validateInputs(theAcl.get())) {
             LOG.error("Could not retrieve the ACL from the classifier: {}", scf);
@@ -556,7 +572,7 @@ public class VppClassifierProcessor {
             }
 
             IpAddress sffIp = SfcVppUtils.getSffFirstDplIp(sffName);
-            DataBroker mountPoint = SfcVppUtils.getSffMountpoint(this.nodeManager.getMountPointService(), sffName);
+            DataBroker mountPoint = this.nodeManager.getMountPoint(sffName);
             for (Entry<RspName, List<Pair<HexString>>> entry : rspPairList.entrySet()) {
                 RspName rsp = entry.getKey();
                 final SffInfo sffInfo = getFirstSffInfoInRsp(rsp);
@@ -595,36 +611,57 @@ public class VppClassifierProcessor {
                     matchList.add(maskMatch.getMatch());
                     index++;
                 }
-                // Disable Ingress Acl
-                SfcVppUtils.disableIngressAcl(mountPoint, itfName.get(), SfcVppUtils.buildClassifyTableKey(0),
-                        sffName.getValue());
+                addConfiguration(nodeConfigurations, sffName, () -> {
+                    // Disable Ingress Acl
+                    SfcVppUtils.disableIngressAcl(mountPoint, itfName.get(), SfcVppUtils.buildClassifyTableKey(0),
+                            sffName.getValue());
 
-                // Remove classify sessions and tables
-                SfcVppUtils.removeVppClassifier(mountPoint, sffName, tableKeyList, matchList);
+                    // Remove classify sessions and tables
+                    SfcVppUtils.removeVppClassifier(mountPoint, sffName, tableKeyList, matchList);
 
-                // Remove NSH entry and map for the traffic from the first SFF to VPP classifier node
-                SfcVppUtils.removeNshMap(mountPoint, reversePathId, reverseServiceIndex, reversePathId,
-                        reverseServiceIndex, sffName.getValue());
-                SfcVppUtils.removeNshEntry(mountPoint, reversePathId, reverseServiceIndex, sffName.getValue());
+                    // Remove NSH entry and map for the traffic from the first SFF to VPP classifier node
+                    SfcVppUtils.removeNshMap(mountPoint, reversePathId, reverseServiceIndex, reversePathId,
+                            reverseServiceIndex, sffName.getValue());
+                    SfcVppUtils.removeNshEntry(mountPoint, reversePathId, reverseServiceIndex, sffName.getValue());
+                });
 
                 // Remove configuration for the first SFF, VPP renderer doesn't know this
-                SfcVppUtils.removeVxlanGpeNsh(sffInfo.mountPoint, sffInfo.sffName, sffInfo.ip, sffIp, reversePathId,
-                        reverseServiceIndex);
+                addConfiguration(nodeConfigurations, sffInfo.sffName, () -> SfcVppUtils
+                        .removeVxlanGpeNsh(sffInfo.mountPoint, sffInfo.sffName, sffInfo.ip, sffIp, reversePathId,
+                                reverseServiceIndex));
 
                 // Remove vxlan-gpe port and nsh entry and map for classifier
-                SfcVppUtils.removeClassifierVxlanGpeNsh(mountPoint, sffName, SFC_BD_NAME, sffIp, sffInfo.ip,
-                        sffInfo.pathId, sffInfo.serviceIndex);
+                addConfiguration(nodeConfigurations, sffName, () -> SfcVppUtils
+                        .removeClassifierVxlanGpeNsh(mountPoint, sffName, SFC_BD_NAME, sffIp, sffInfo.ip,
+                                sffInfo.pathId, sffInfo.serviceIndex));
             }
         }
         return true;
     }
 
     public void addScf(ServiceFunctionClassifier scf) {
-        configureVxlanGpeClassifier(scf);
+        // the configuration steps of each VPP node, rendered concurrently
+        Map<String, List<Runnable>> nodeConfigurations = new LinkedHashMap<>();
+        if (configureVxlanGpeClassifier(scf, nodeConfigurations)) {
+            nodeExecutor.render("classifier " + scf.getName(), nodeConfigurations);
+        }
     }
 
     public void removeScf(ServiceFunctionClassifier scf) {
-        removeVxlanGpeClassifier(scf);
+        Map<String, List<Runnable>> nodeConfigurations = new LinkedHashMap<>();
+        if (removeVxlanGpeClassifier(scf, nodeConfigurations)) {
+            nodeExecutor.render("classifier " + scf.getName() + " removal", nodeConfigurations);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        nodeExecutor.close();
+    }
+
+    private static void addConfiguration(Map<String, List<Runnable>> nodeConfigurations, SffName sffName,
+                                         Runnable configuration) {
+        nodeConfigurations.computeIfAbsent(sffName.getValue(), vppNode -> new ArrayList<>()).add(configuration);
     }
 
 }
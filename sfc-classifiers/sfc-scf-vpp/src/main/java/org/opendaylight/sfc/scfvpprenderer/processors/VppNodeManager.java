@@ -9,17 +9,40 @@
 package org.opendaylight.sfc.scfvpprenderer.processors;
 
 import com.google.common.base.Preconditions;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.MountPointService;
+import org.opendaylight.controller.md.sal.binding.api.MountPointService.MountPointListener;
 import org.opendaylight.controller.sal.binding.api.BindingAwareBroker;
 import org.opendaylight.controller.sal.binding.api.BindingAwareBroker.ProviderContext;
 import org.opendaylight.controller.sal.binding.api.BindingAwareProvider;
+import org.opendaylight.sfc.util.vpp.SfcVppUtils;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.network.topology.topology.topology.types.TopologyNetconf;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TopologyId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.TopologyKey;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeKey;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 @Singleton
-public class VppNodeManager implements BindingAwareProvider {
+public class VppNodeManager implements BindingAwareProvider, MountPointListener {
+
+    private static final InstanceIdentifier<Topology> NETCONF_TOPOLOGY_IID = InstanceIdentifier
+            .builder(NetworkTopology.class)
+            .child(Topology.class, new TopologyKey(new TopologyId(TopologyNetconf.QNAME.getLocalName()))).build();
 
     private MountPointService mountService = null;
+    private ListenerRegistration<VppNodeManager> mountPointListenerRegistration = null;
+    // mount point data brokers by netconf node id, until they are removed
+    private final ConcurrentMap<String, DataBroker> mountPoints = new ConcurrentHashMap<>();
 
     @Inject
     public VppNodeManager(BindingAwareBroker bindingAwareBroker) {
@@ -32,9 +55,56 @@ public class VppNodeManager implements BindingAwareProvider {
         return this.mountService;
     }
 
+    /**
+     * Gets the mount point data broker of the netconf node of an SFF. It is
+     * looked up through the mount point service the first time, and then
+     * cached until the mount point is removed.
+     *
+     * @param sffName
+     *            the SFF name, which is the netconf node id
+     * @return the data broker, or null if the node is not mounted
+     */
+    public DataBroker getMountPoint(SffName sffName) {
+        DataBroker mountPoint = mountPoints.get(sffName.getValue());
+        if (mountPoint == null) {
+            mountPoint = SfcVppUtils.getSffMountpoint(mountService, sffName);
+            if (mountPoint != null) {
+                mountPoints.put(sffName.getValue(), mountPoint);
+            }
+        }
+        return mountPoint;
+    }
+
     @Override
     public void onSessionInitiated(ProviderContext session) {
         mountService = session.getSALService(MountPointService.class);
         Preconditions.checkNotNull(mountService);
+        mountPointListenerRegistration = mountService.registerListener(NETCONF_TOPOLOGY_IID, this);
+    }
+
+    @Override
+    public void onMountPointCreated(InstanceIdentifier<?> path) {
+        // a node mounted again gets a new data broker
+        removeMountPoint(path);
+    }
+
+    @Override
+    public void onMountPointRemoved(InstanceIdentifier<?> path) {
+        removeMountPoint(path);
+    }
+
+    private void removeMountPoint(InstanceIdentifier<?> path) {
+        NodeKey nodeKey = path.firstKeyOf(Node.class);
+        if (nodeKey != null) {
+            mountPoints.remove(nodeKey.getNodeId().getValue());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (mountPointListenerRegistration != null) {
+            mountPointListenerRegistration.close();
+        }
+        mountPoints.clear();
     }
 }
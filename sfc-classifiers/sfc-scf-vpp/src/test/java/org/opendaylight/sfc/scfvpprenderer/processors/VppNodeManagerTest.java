@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.scfvpprenderer.processors;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.MountPoint;
+import org.opendaylight.controller.md.sal.binding.api.MountPointService;
+import org.opendaylight.controller.sal.binding.api.BindingAwareBroker;
+import org.opendaylight.controller.sal.binding.api.BindingAwareBroker.ProviderContext;
+import org.opendaylight.controller.sal.binding.api.BindingAwareProvider;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.network.topology.topology.topology.types.TopologyNetconf;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TopologyId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.TopologyKey;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class VppNodeManagerTest {
+
+    private static final String VPP_NODE = "vpp1";
+    private static final InstanceIdentifier<Node> VPP_NODE_IID = InstanceIdentifier.builder(NetworkTopology.class)
+            .child(Topology.class, new TopologyKey(new TopologyId(TopologyNetconf.QNAME.getLocalName())))
+            .child(Node.class, new NodeKey(new NodeId(VPP_NODE))).build();
+
+    private MountPointService mountService;
+    private DataBroker mountPointDataBroker;
+    private VppNodeManager vppNodeManager;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        mountPointDataBroker = mock(DataBroker.class);
+        MountPoint mountPoint = mock(MountPoint.class);
+        when(mountPoint.getService(DataBroker.class)).thenReturn(Optional.of(mountPointDataBroker));
+        mountService = mock(MountPointService.class);
+        when(mountService.getMountPoint(any(InstanceIdentifier.class))).thenReturn(Optional.of(mountPoint));
+
+        ProviderContext providerContext = mock(ProviderContext.class);
+        when(providerContext.getSALService(MountPointService.class)).thenReturn(mountService);
+        BindingAwareBroker bindingAwareBroker = mock(BindingAwareBroker.class);
+        when(bindingAwareBroker.registerProvider(any(BindingAwareProvider.class))).thenReturn(providerContext);
+        vppNodeManager = new VppNodeManager(bindingAwareBroker);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void mountPointIsCachedUntilRemoved() {
+        verify(mountService).registerListener(any(InstanceIdentifier.class), eq(vppNodeManager));
+
+        assertSame(mountPointDataBroker, vppNodeManager.getMountPoint(new SffName(VPP_NODE)));
+        assertSame(mountPointDataBroker, vppNodeManager.getMountPoint(new SffName(VPP_NODE)));
+        verify(mountService, times(1)).getMountPoint(any(InstanceIdentifier.class));
+
+        vppNodeManager.onMountPointRemoved(VPP_NODE_IID);
+        when(mountService.getMountPoint(any(InstanceIdentifier.class))).thenReturn(Optional.absent());
+
+        // not cached anymore, so looked up again
+        assertNull(vppNodeManager.getMountPoint(new SffName(VPP_NODE)));
+        verify(mountService, times(2)).getMountPoint(any(InstanceIdentifier.class));
+    }
+}
@@ -17,6 +17,7 @@ import org.opendaylight.genius.datastoreutils.listeners.AbstractAsyncDataTreeCha
 import org.opendaylight.sfc.genius.impl.SfcGeniusServiceManager;
 import org.opendaylight.sfc.genius.impl.utils.SfcGeniusRuntimeException;
 import org.opendaylight.sfc.genius.impl.utils.SfcGeniusUtils;
+import org.opendaylight.sfc.genius.util.SfcGeniusRpcCache;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.interfaces.rev140508.InterfacesState;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.interfaces.rev140508.interfaces.state.Interface;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
@@ -55,6 +56,7 @@ public class SfcGeniusInterfaceStateListener extends AbstractAsyncDataTreeChange
         // See org.opendaylight.genius.interfacemanager.listeners.InterfaceInventoryStateListener#remove
         LOG.debug("Received interface state add event {}", newInterface);
         String interfaceName = newInterface.getName();
+        SfcGeniusRpcCache.invalidateInterface(interfaceName);
         BigInteger dpnId;
         try {
             dpnId = SfcGeniusUtils.getDpnIdFromLowerLayerIfList(newInterface.getLowerLayerIf());
@@ -70,6 +72,8 @@ public class SfcGeniusInterfaceStateListener extends AbstractAsyncDataTreeChange
         // VM migration: logical interface state is removed while VM migrates to different node/port
         // See org.opendaylight.genius.interfacemanager.listeners.InterfaceInventoryStateListener#remove
         // This is a NOP, we wait until until the VM has migrated once it's interface registers again
+        // Meanwhile, the cached Genius data of the interface is no longer valid
+        SfcGeniusRpcCache.invalidateInterface(removedInterface.getName());
     }
 
     @Override
@@ -77,5 +81,7 @@ public class SfcGeniusInterfaceStateListener extends AbstractAsyncDataTreeChange
         // NOT VM migration: VM unavailable for any other reason
         // See org.opendaylight.genius.interfacemanager.listeners.InterfaceInventoryStateListener#update
         // Do nothing, should be handled by a failover mechanism
+        // Other than dropping the cached Genius data of the interface
+        SfcGeniusRpcCache.invalidateInterface(updatedInterface.getName());
     }
 }
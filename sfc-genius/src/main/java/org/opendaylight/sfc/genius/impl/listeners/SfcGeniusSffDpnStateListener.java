@@ -18,6 +18,7 @@ import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.genius.datastoreutils.listeners.AbstractAsyncDataTreeChangeListener;
 import org.opendaylight.sfc.genius.impl.SfcGeniusServiceManager;
+import org.opendaylight.sfc.genius.util.SfcGeniusRpcCache;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwardersState;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.state.ServiceFunctionForwarderState;
 import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.SffLogicalSffAugmentation;
@@ -78,6 +79,7 @@ public class SfcGeniusSffDpnStateListener extends AbstractAsyncDataTreeChangeLis
             BigInteger dpnId = removedDpn.getDpnId().getValue();
             interfaceManager.unbindNode(dpnId);
         }
+        SfcGeniusRpcCache.invalidateDpn(removedDpn.getDpnId().getValue());
     }
 
     @Override
@@ -90,6 +92,7 @@ public class SfcGeniusSffDpnStateListener extends AbstractAsyncDataTreeChangeLis
             interfaceManager.bindNode(dpnId);
         } else if (!pathsOnOldDpn && pathsOnUpdatedDpn) {
             interfaceManager.unbindNode(dpnId);
+            SfcGeniusRpcCache.invalidateDpn(dpnId);
         }
     }
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.DpnIdType;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.Action;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of the Genius RPC results used by {@link SfcGeniusRpcClient}:
+ * interface to DPN ID, DPN ID to IP addresses and interface to egress actions.
+ *
+ * <p>
+ * The cache holds the futures of the RPC invocations, so that concurrent
+ * requests of the same data share a single invocation. Failed or empty
+ * results are not kept. Entries of an interface or a DPN are dropped through
+ * {@link #invalidateInterface(String)} and {@link #invalidateDpn(BigInteger)}
+ * when Genius signals a change on them, and expire after a while otherwise.
+ */
+public final class SfcGeniusRpcCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcGeniusRpcCache.class);
+
+    private static final long MAX_ENTRIES = 10000;
+    private static final long EXPIRE_AFTER_WRITE_MINUTES = 10;
+
+    // caches of all the live clients, to be invalidated on Genius events
+    private static final Set<SfcGeniusRpcCache> CACHES = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final Cache<String, CompletableFuture<Optional<DpnIdType>>> dpnIds = newCache();
+    private final Cache<DpnIdType, CompletableFuture<List<IpAddress>>> dpnIps = newCache();
+    private final Cache<EgressActionsKey, CompletableFuture<Optional<List<Action>>>> egressActions = newCache();
+
+    SfcGeniusRpcCache() {
+        synchronized (CACHES) {
+            CACHES.add(this);
+        }
+    }
+
+    /**
+     * Drops the cached data of a logical interface, to be called when the
+     * interface changes its state (i.e. it has been migrated to a different
+     * data plane node or port).
+     *
+     * @param interfaceName
+     *            the name of the interface
+     */
+    public static void invalidateInterface(String interfaceName) {
+        LOG.debug("invalidateInterface: {}", interfaceName);
+        for (SfcGeniusRpcCache cache : getCaches()) {
+            cache.dpnIds.invalidate(interfaceName);
+            cache.egressActions.asMap().keySet().removeIf(key -> key.interfaceName.equals(interfaceName));
+        }
+    }
+
+    /**
+     * Drops the cached data of a data plane node.
+     *
+     * @param dpnId
+     *            the DPN ID of the data plane node
+     */
+    public static void invalidateDpn(BigInteger dpnId) {
+        LOG.debug("invalidateDpn: {}", dpnId);
+        DpnIdType dpnIdType = new DpnIdType(dpnId);
+        for (SfcGeniusRpcCache cache : getCaches()) {
+            cache.dpnIps.invalidate(dpnIdType);
+        }
+    }
+
+    CompletableFuture<Optional<DpnIdType>> getDpnId(String interfaceName,
+            Supplier<CompletableFuture<Optional<DpnIdType>>> loader) {
+        return get(dpnIds, interfaceName, loader, Optional::isPresent);
+    }
+
+    CompletableFuture<List<IpAddress>> getDpnIps(DpnIdType dpnId, Supplier<CompletableFuture<List<IpAddress>>> loader) {
+        return get(dpnIps, dpnId, loader, ipAddresses -> !ipAddresses.isEmpty());
+    }
+
+    CompletableFuture<Optional<List<Action>>> getEgressActions(String interfaceName,
+            boolean interfaceIsPartOfTheTransportZone, int actionOffset,
+            Supplier<CompletableFuture<Optional<List<Action>>>> loader) {
+        EgressActionsKey key = new EgressActionsKey(interfaceName, interfaceIsPartOfTheTransportZone, actionOffset);
+        // callers append their own actions to the list, hand over a copy
+        return get(egressActions, key, loader, Optional::isPresent)
+                .thenApply(actions -> actions.<List<Action>>map(ArrayList::new));
+    }
+
+    private static <K, V> CompletableFuture<V> get(Cache<K, CompletableFuture<V>> cache, K key,
+            Supplier<CompletableFuture<V>> loader, Predicate<V> isCacheable) {
+        CompletableFuture<V> future;
+        try {
+            future = cache.get(key, loader::get);
+        } catch (ExecutionException e) {
+            CompletableFuture<V> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e.getCause());
+            return failed;
+        }
+        future.whenComplete((value, throwable) -> {
+            if (throwable != null || !isCacheable.test(value)) {
+                cache.asMap().remove(key, future);
+            }
+        });
+        return future;
+    }
+
+    private static <K, V> Cache<K, V> newCache() {
+        return CacheBuilder.newBuilder()
+                .maximumSize(MAX_ENTRIES)
+                .expireAfterWrite(EXPIRE_AFTER_WRITE_MINUTES, TimeUnit.MINUTES)
+                .build();
+    }
+
+    private static List<SfcGeniusRpcCache> getCaches() {
+        synchronized (CACHES) {
+            return new ArrayList<>(CACHES);
+        }
+    }
+
+    private static final class EgressActionsKey {
+        private final String interfaceName;
+        private final boolean interfaceIsPartOfTheTransportZone;
+        private final int actionOffset;
+
+        EgressActionsKey(String interfaceName, boolean interfaceIsPartOfTheTransportZone, int actionOffset) {
+            this.interfaceName = interfaceName;
+            this.interfaceIsPartOfTheTransportZone = interfaceIsPartOfTheTransportZone;
+            this.actionOffset = actionOffset;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof EgressActionsKey)) {
+                return false;
+            }
+            EgressActionsKey other = (EgressActionsKey) obj;
+            return interfaceIsPartOfTheTransportZone == other.interfaceIsPartOfTheTransportZone
+                    && actionOffset == other.actionOffset
+                    && interfaceName.equals(other.interfaceName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(interfaceName, interfaceIsPartOfTheTransportZone, actionOffset);
+        }
+    }
+}
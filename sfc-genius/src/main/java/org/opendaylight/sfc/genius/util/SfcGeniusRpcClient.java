@@ -7,15 +7,21 @@
  */
 package org.opendaylight.sfc.genius.util;
 
+import com.google.common.util.concurrent.JdkFutureAdapters;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
 import org.opendaylight.sfc.genius.impl.utils.SfcGeniusRuntimeException;
+import org.opendaylight.sfc.genius.impl.utils.SfcGeniusUtils;
 import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.DpnIdType;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.Action;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rev160406.TunnelTypeBase;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rev160406.TunnelTypeVxlan;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rev160406.TunnelTypeVxlanGpe;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.GetDpidFromInterfaceInput;
@@ -39,6 +45,12 @@ import org.slf4j.LoggerFactory;
  * This class centralizes all Genius RPC accesses which SFC openflow renderer
  * needs when using logical SFFs.
  *
+ * <p>
+ * Each RPC is available in an asynchronous flavor, so that callers may issue
+ * the lookups of a whole RSP at once, and a blocking one. The DPN IDs, DPN IP
+ * addresses and egress actions retrieved are kept in a
+ * {@link SfcGeniusRpcCache}.
+ *
  * @author Diego Granados (diego.jesus.granados.lopez@ericsson.com)
  */
 public class SfcGeniusRpcClient {
@@ -46,6 +58,7 @@ public class SfcGeniusRpcClient {
     private static final Logger LOG = LoggerFactory.getLogger(SfcGeniusRpcClient.class);
     private ItmRpcService itmRpcService;
     private OdlInterfaceRpcService interfaceManagerRpcService;
+    private final SfcGeniusRpcCache rpcCache = new SfcGeniusRpcCache();
     /*
      * Tunnel key used in the transport zone created to support the logical SFF
      */
@@ -82,10 +95,34 @@ public class SfcGeniusRpcClient {
      */
     public Optional<List<Action>> getEgressActionsFromGeniusRPC(String targetInterfaceName,
             boolean interfaceIsPartOfTheTransportZone, int actionOffset) {
+        return getResult(getEgressActionsAsync(targetInterfaceName, interfaceIsPartOfTheTransportZone, actionOffset),
+                Optional.empty());
+    }
 
-        Optional<List<Action>> result = Optional.empty();
-        boolean successful = false;
+    /**
+     * Asynchronously retrieve egress actions from Genius. The result is cached
+     * until the interface changes its state.
+     *
+     * @param targetInterfaceName
+     *            the interface to use
+     * @param interfaceIsPartOfTheTransportZone
+     *            true when the interface is part of the transport zone (i.e. it
+     *            is an interface between switching elements in different
+     *            compute nodes); false when it is the Neutron interface of a SF
+     * @param actionOffset
+     *            offsets the order parameter of the actions gotten from genius
+     *            RPC
+     * @return a future of the egress instructions to use, which are empty when
+     *         the RPC invocation failed
+     */
+    public CompletableFuture<Optional<List<Action>>> getEgressActionsAsync(String targetInterfaceName,
+            boolean interfaceIsPartOfTheTransportZone, int actionOffset) {
+        return rpcCache.getEgressActions(targetInterfaceName, interfaceIsPartOfTheTransportZone, actionOffset,
+            () -> invokeGetEgressActions(targetInterfaceName, interfaceIsPartOfTheTransportZone, actionOffset));
+    }
 
+    private CompletableFuture<Optional<List<Action>>> invokeGetEgressActions(String targetInterfaceName,
+            boolean interfaceIsPartOfTheTransportZone, int actionOffset) {
         LOG.debug("getEgressActionsFromGeniusRPC: starting (target interface={} in the transport zone:{})",
                 targetInterfaceName, interfaceIsPartOfTheTransportZone);
         GetEgressActionsForInterfaceInputBuilder builder = new GetEgressActionsForInterfaceInputBuilder()
@@ -95,28 +132,24 @@ public class SfcGeniusRpcClient {
         }
 
         GetEgressActionsForInterfaceInput input = builder.build();
-        try {
-            OdlInterfaceRpcService service = getInterfaceManagerRpcService();
-            if (service != null) {
-                RpcResult<GetEgressActionsForInterfaceOutput> output = service.getEgressActionsForInterface(input)
-                        .get();
-                if (output.isSuccessful()) {
-                    result = Optional.of(output.getResult().getAction());
-                    LOG.debug("getEgressInstructionsFromGeniusRPC({}) succeeded", input);
-                    successful = true;
-                } else {
-                    LOG.error("getEgressInstructionsFromGeniusRPC({}) failed", input);
-                }
-            } else {
-                LOG.error("getEgressInstructionsFromGeniusRPC({}) failed (service couldn't be retrieved)", input);
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            LOG.error("failed to retrieve egress instructions for input {}: ", input, e);
-        }
-        if (!successful) {
-            result = Optional.empty();
+        OdlInterfaceRpcService service = getInterfaceManagerRpcService();
+        if (service == null) {
+            LOG.error("getEgressInstructionsFromGeniusRPC({}) failed (service couldn't be retrieved)", input);
+            return CompletableFuture.completedFuture(Optional.empty());
         }
-        return result;
+
+        return toCompletableFuture(service.getEgressActionsForInterface(input)).handle((output, throwable) -> {
+            if (throwable != null) {
+                LOG.error("failed to retrieve egress instructions for input {}: ", input, throwable);
+                return Optional.empty();
+            }
+            if (!output.isSuccessful()) {
+                LOG.error("getEgressInstructionsFromGeniusRPC({}) failed", input);
+                return Optional.empty();
+            }
+            LOG.debug("getEgressInstructionsFromGeniusRPC({}) succeeded", input);
+            return Optional.ofNullable(output.getResult().getAction());
+        });
     }
 
     /**
@@ -135,47 +168,66 @@ public class SfcGeniusRpcClient {
      *         retrieval)
      */
     public Optional<String> getTargetInterfaceFromGeniusRPC(DpnIdType srcDpid, DpnIdType dstDpid) {
+        return getResult(getTargetInterfaceAsync(srcDpid, dstDpid), Optional.empty());
+    }
+
+    /**
+     * Asynchronous version of
+     * {@link #getTargetInterfaceFromGeniusRPC(DpnIdType, DpnIdType)}.
+     *
+     * @param srcDpid
+     *            DPN ID for the source dataplane node
+     * @param dstDpid
+     *            DPN ID for the target dataplane node
+     * @return a future of the interface to use for traffic steering between the
+     *         given dataplane nodes, which is empty when some problem arises
+     *         during the retrieval
+     */
+    public CompletableFuture<Optional<String>> getTargetInterfaceAsync(DpnIdType srcDpid, DpnIdType dstDpid) {
         LOG.debug("getTargetInterfaceFromGeniusRPC: starting (src dpnid:{} dst dpnid:{})", srcDpid, dstDpid);
 
         final ItmRpcService service = getItmRpcService();
         if (service == null) {
             LOG.error("getTargetInterfaceFromGeniusRPC failed (service couldn't be retrieved)");
-            return Optional.empty();
+            return CompletableFuture.completedFuture(Optional.empty());
         }
 
+        // Try first a specific VxlanGpe interface type
+        // If not, try with standard vxlan type, it might also have gpe enabled
+        return invokeGetTunnelInterfaceName(service, srcDpid, dstDpid, TunnelTypeVxlanGpe.class)
+                .thenCompose(interfaceName -> interfaceName.isPresent()
+                        ? CompletableFuture.completedFuture(interfaceName)
+                        : invokeGetTunnelInterfaceName(service, srcDpid, dstDpid, TunnelTypeVxlan.class))
+                .handle((interfaceName, throwable) -> {
+                    if (throwable != null) {
+                        LOG.error("getTargetInterfaceFromGeniusRPC exception when trying to retrieve target "
+                                + "interface name: ", throwable);
+                        return Optional.empty();
+                    }
+                    if (!interfaceName.isPresent()) {
+                        LOG.debug("getTargetInterfaceFromGeniusRPC did not find target interface name");
+                    }
+                    return interfaceName;
+                });
+    }
+
+    private CompletableFuture<Optional<String>> invokeGetTunnelInterfaceName(ItmRpcService service,
+            DpnIdType srcDpid, DpnIdType dstDpid, Class<? extends TunnelTypeBase> tunnelType) {
         GetTunnelInterfaceNameInputBuilder builder = new GetTunnelInterfaceNameInputBuilder();
         builder.setSourceDpid(srcDpid.getValue());
         builder.setDestinationDpid(dstDpid.getValue());
-        Optional<String> interfaceName;
-        RpcResult<GetTunnelInterfaceNameOutput> output;
-
-        try {
-            // Try first a specific VxlanGpe interface type
-            builder.setTunnelType(TunnelTypeVxlanGpe.class);
-            output = service.getTunnelInterfaceName(builder.build()).get();
-            interfaceName = Optional.ofNullable(output)
-                    .map(RpcResult::getResult)
-                    .map(GetTunnelInterfaceNameOutput::getInterfaceName);
-            if (output.isSuccessful() && interfaceName.isPresent()) {
-                LOG.debug("getTargetInterfaceFromGeniusRPC found VxlanGpe interface {}", interfaceName);
-                return interfaceName;
-            }
-
-            // If not, try with standard vxlan type, it might also have gpe enabled
-            builder.setTunnelType(TunnelTypeVxlan.class);
-            output = service.getTunnelInterfaceName(builder.build()).get();
-            interfaceName = Optional.ofNullable(output)
+        builder.setTunnelType(tunnelType);
+        return toCompletableFuture(service.getTunnelInterfaceName(builder.build())).thenApply(output -> {
+            Optional<String> interfaceName = Optional.ofNullable(output)
+                    .filter(RpcResult::isSuccessful)
                     .map(RpcResult::getResult)
                     .map(GetTunnelInterfaceNameOutput::getInterfaceName);
-            if (output.isSuccessful() && interfaceName.isPresent()) {
-                LOG.debug("getTargetInterfaceFromGeniusRPC found Vxlan interface {}", interfaceName);
-                return interfaceName;
+            if (interfaceName.isPresent()) {
+                LOG.debug("getTargetInterfaceFromGeniusRPC found {} interface {}", tunnelType.getSimpleName(),
+                        interfaceName.get());
             }
-        } catch (InterruptedException | ExecutionException e) {
-            LOG.error("getTargetInterfaceFromGeniusRPC exception when trying to retrieve target interface name: ", e);
-        }
-        LOG.debug("getTargetInterfaceFromGeniusRPC did not find target interface name");
-        return Optional.empty();
+            return interfaceName;
+        });
     }
 
     /**
@@ -189,36 +241,48 @@ public class SfcGeniusRpcClient {
      *         SF, or empty when the value cannot be retrieved
      */
     public Optional<DpnIdType> getDpnIdFromInterfaceNameFromGeniusRPC(String logicalInterfaceName) {
-        Optional<DpnIdType> dpnid = Optional.empty();
-        boolean successful = false;
+        return getResult(getDpnIdFromInterfaceNameAsync(logicalInterfaceName), Optional.empty());
+    }
 
+    /**
+     * Asynchronous version of
+     * {@link #getDpnIdFromInterfaceNameFromGeniusRPC(String)}. The result is
+     * cached until the interface changes its state.
+     *
+     * @param logicalInterfaceName
+     *            the Neutron interface that the SF is attached to
+     * @return a future of the DPN ID for the dataplane node in the compute node
+     *         hosting the SF, which is empty when the value cannot be retrieved
+     */
+    public CompletableFuture<Optional<DpnIdType>> getDpnIdFromInterfaceNameAsync(String logicalInterfaceName) {
+        return rpcCache.getDpnId(logicalInterfaceName, () -> invokeGetDpidFromInterface(logicalInterfaceName));
+    }
+
+    private CompletableFuture<Optional<DpnIdType>> invokeGetDpidFromInterface(String logicalInterfaceName) {
         LOG.debug("getDpnIdFromInterfaceNameFromGeniusRPC: starting (logical interface={})", logicalInterfaceName);
         GetDpidFromInterfaceInputBuilder builder = new GetDpidFromInterfaceInputBuilder();
         builder.setIntfName(logicalInterfaceName);
         GetDpidFromInterfaceInput input = builder.build();
 
-        try {
-            OdlInterfaceRpcService service = getInterfaceManagerRpcService();
-            if (service != null) {
-                LOG.debug("getDpnIdFromInterfaceNameFromGeniusRPC: service is not null, invoking rpc");
-                RpcResult<GetDpidFromInterfaceOutput> output = service.getDpidFromInterface(input).get();
-                if (output.isSuccessful()) {
-                    dpnid = Optional.of(new DpnIdType(output.getResult().getDpid()));
-                    LOG.debug("getDpnIdFromInterfaceNameFromGeniusRPC({}) succeeded: {}", input, output);
-                    successful = true;
-                } else {
-                    LOG.error("getDpnIdFromInterfaceNameFromGeniusRPC({}) failed: {}", input, output);
-                }
-            } else {
-                LOG.error("getDpnIdFromInterfaceNameFromGeniusRPC({}) failed (service couldn't be retrieved)", input);
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            LOG.error("failed to retrieve target interface name: ", e);
-        }
-        if (!successful) {
-            dpnid = Optional.empty();
+        OdlInterfaceRpcService service = getInterfaceManagerRpcService();
+        if (service == null) {
+            LOG.error("getDpnIdFromInterfaceNameFromGeniusRPC({}) failed (service couldn't be retrieved)", input);
+            return CompletableFuture.completedFuture(Optional.empty());
         }
-        return dpnid;
+
+        LOG.debug("getDpnIdFromInterfaceNameFromGeniusRPC: service is not null, invoking rpc");
+        return toCompletableFuture(service.getDpidFromInterface(input)).handle((output, throwable) -> {
+            if (throwable != null) {
+                LOG.error("failed to retrieve target interface name: ", throwable);
+                return Optional.empty();
+            }
+            if (!output.isSuccessful()) {
+                LOG.error("getDpnIdFromInterfaceNameFromGeniusRPC({}) failed: {}", input, output);
+                return Optional.empty();
+            }
+            LOG.debug("getDpnIdFromInterfaceNameFromGeniusRPC({}) succeeded: {}", input, output);
+            return Optional.of(new DpnIdType(output.getResult().getDpid()));
+        });
     }
 
     /**
@@ -228,6 +292,33 @@ public class SfcGeniusRpcClient {
      * @return the IP addresses.
      */
     public List<IpAddress> getDpnIpFromGeniusRPC(DpnIdType theDpnIdType) {
+        try {
+            return getDpnIpAsync(theDpnIdType).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SfcGeniusRuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SfcGeniusRuntimeException) {
+                throw (SfcGeniusRuntimeException) e.getCause();
+            }
+            throw new SfcGeniusRuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #getDpnIpFromGeniusRPC(DpnIdType)}. The
+     * result is cached until the data plane node is no longer used by any
+     * RSP.
+     *
+     * @param theDpnIdType the dataplane id.
+     * @return a future of the IP addresses, which fails with a
+     *         {@link SfcGeniusRuntimeException} when the RPC invocation fails.
+     */
+    public CompletableFuture<List<IpAddress>> getDpnIpAsync(DpnIdType theDpnIdType) {
+        return rpcCache.getDpnIps(theDpnIdType, () -> invokeGetEndpointIpForDpn(theDpnIdType));
+    }
+
+    private CompletableFuture<List<IpAddress>> invokeGetEndpointIpForDpn(DpnIdType theDpnIdType) {
         GetEndpointIpForDpnInputBuilder builder = new GetEndpointIpForDpnInputBuilder();
         builder.setDpid(theDpnIdType.getValue());
         GetEndpointIpForDpnInput input = builder.build();
@@ -235,26 +326,52 @@ public class SfcGeniusRpcClient {
 
         if (service == null) {
             LOG.error("Genius RPC service not available", input);
-            throw new SfcGeniusRuntimeException(new RuntimeException("Genius RPC service not available"));
+            CompletableFuture<List<IpAddress>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(
+                    new SfcGeniusRuntimeException(new RuntimeException("Genius RPC service not available")));
+            return failed;
         }
 
-        try {
-            RpcResult<GetEndpointIpForDpnOutput> output = service.getEndpointIpForDpn(input).get();
+        return toCompletableFuture(service.getEndpointIpForDpn(input)).handle((output, throwable) -> {
+            if (throwable != null) {
+                LOG.error("getDpnIpFromGeniusRPC failed due to exception", throwable);
+                throw new SfcGeniusRuntimeException(throwable);
+            }
             if (!output.isSuccessful()) {
                 LOG.warn("getDpnIpFromGeniusRPC({}) failed: {}", input, output);
                 return Collections.emptyList();
             }
-            List<IpAddress> localIps = output.getResult().getLocalIps();
             LOG.trace("getDpnIpFromGeniusRPC({}) succeeded: {}", input, output);
-            if (localIps != null) {
-                return localIps;
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            LOG.error("getDpnIpFromGeniusRPC failed due to exception", e);
-            throw new SfcGeniusRuntimeException(e);
+            List<IpAddress> localIps = output.getResult().getLocalIps();
+            return localIps != null ? localIps : Collections.emptyList();
+        });
+    }
+
+    /*
+     * Adapts the future of a RPC invocation. Genius RPC implementations
+     * return listenable futures, other futures are waited for on a pool
+     * thread.
+     */
+    private static <T> CompletableFuture<T> toCompletableFuture(Future<T> future) {
+        if (future == null) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException("RPC invocation returned no future"));
+            return failed;
         }
+        return SfcGeniusUtils.toCompletableFuture(JdkFutureAdapters.listenInPoolThread(future),
+                MoreExecutors.directExecutor());
+    }
 
-        return Collections.emptyList();
+    private static <T> T getResult(CompletableFuture<T> future, T defaultValue) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("interrupted while waiting for Genius RPC result", e);
+        } catch (ExecutionException e) {
+            LOG.error("Genius RPC invocation failed", e.getCause());
+        }
+        return defaultValue;
     }
 
     private ItmRpcService getItmRpcService() {
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.genius.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.Futures;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
+import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.sff.logical.rev160620.DpnIdType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.Action;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.ActionBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.GetDpidFromInterfaceInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.GetDpidFromInterfaceOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.GetDpidFromInterfaceOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.GetEgressActionsForInterfaceInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.GetEgressActionsForInterfaceOutputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.interfacemanager.rpcs.rev160406.OdlInterfaceRpcService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.genius.itm.rpcs.rev160406.ItmRpcService;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SfcGeniusRpcClientTest {
+
+    private static final String INTERFACE_NAME = "tap0000-00";
+
+    @Mock
+    private RpcProviderRegistry rpcProviderRegistry;
+
+    @Mock
+    private OdlInterfaceRpcService interfaceManagerRpcService;
+
+    @Mock
+    private ItmRpcService itmRpcService;
+
+    private SfcGeniusRpcClient sfcGeniusRpcClient;
+
+    @Before
+    public void setup() {
+        when(rpcProviderRegistry.getRpcService(OdlInterfaceRpcService.class)).thenReturn(interfaceManagerRpcService);
+        when(rpcProviderRegistry.getRpcService(ItmRpcService.class)).thenReturn(itmRpcService);
+        sfcGeniusRpcClient = new SfcGeniusRpcClient(rpcProviderRegistry);
+    }
+
+    @Test
+    public void dpnIdIsCachedUntilInterfaceInvalidated() {
+        when(interfaceManagerRpcService.getDpidFromInterface(any(GetDpidFromInterfaceInput.class)))
+                .thenReturn(Futures.immediateFuture(RpcResultBuilder
+                        .success(new GetDpidFromInterfaceOutputBuilder().setDpid(BigInteger.ONE)).build()));
+
+        assertEquals("Must be equal", Optional.of(new DpnIdType(BigInteger.ONE)),
+                sfcGeniusRpcClient.getDpnIdFromInterfaceNameFromGeniusRPC(INTERFACE_NAME));
+        assertEquals("Must be equal", Optional.of(new DpnIdType(BigInteger.ONE)),
+                sfcGeniusRpcClient.getDpnIdFromInterfaceNameAsync(INTERFACE_NAME).join());
+        verify(interfaceManagerRpcService, times(1)).getDpidFromInterface(any(GetDpidFromInterfaceInput.class));
+
+        SfcGeniusRpcCache.invalidateInterface(INTERFACE_NAME);
+        sfcGeniusRpcClient.getDpnIdFromInterfaceNameFromGeniusRPC(INTERFACE_NAME);
+        verify(interfaceManagerRpcService, times(2)).getDpidFromInterface(any(GetDpidFromInterfaceInput.class));
+    }
+
+    @Test
+    public void failedDpnIdIsNotCached() {
+        RpcResult<GetDpidFromInterfaceOutput> failed = RpcResultBuilder.<GetDpidFromInterfaceOutput>failed().build();
+        when(interfaceManagerRpcService.getDpidFromInterface(any(GetDpidFromInterfaceInput.class)))
+                .thenReturn(Futures.immediateFuture(failed));
+
+        assertFalse(sfcGeniusRpcClient.getDpnIdFromInterfaceNameFromGeniusRPC(INTERFACE_NAME).isPresent());
+        assertFalse(sfcGeniusRpcClient.getDpnIdFromInterfaceNameFromGeniusRPC(INTERFACE_NAME).isPresent());
+        verify(interfaceManagerRpcService, times(2)).getDpidFromInterface(any(GetDpidFromInterfaceInput.class));
+    }
+
+    @Test
+    public void cachedEgressActionsAreCopied() {
+        List<Action> actions = Collections.singletonList(new ActionBuilder().build());
+        when(interfaceManagerRpcService.getEgressActionsForInterface(any(GetEgressActionsForInterfaceInput.class)))
+                .thenReturn(Futures.immediateFuture(RpcResultBuilder
+                        .success(new GetEgressActionsForInterfaceOutputBuilder().setAction(new ArrayList<>(actions)))
+                        .build()));
+
+        List<Action> egressActions = sfcGeniusRpcClient.getEgressActionsFromGeniusRPC(INTERFACE_NAME, false, 0).get();
+        egressActions.add(new ActionBuilder().build());
+
+        assertEquals("Must be equal", actions,
+                sfcGeniusRpcClient.getEgressActionsFromGeniusRPC(INTERFACE_NAME, false, 0).get());
+        sfcGeniusRpcClient.getEgressActionsFromGeniusRPC(INTERFACE_NAME, true, 0);
+        verify(interfaceManagerRpcService, times(2))
+                .getEgressActionsForInterface(any(GetEgressActionsForInterfaceInput.class));
+    }
+}
@@ -23,6 +23,8 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
@@ -30,6 +32,7 @@ import org.opendaylight.controller.md.sal.binding.api.ReadTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.genius.datastoreutils.listeners.AbstractSyncDataTreeChangeListener;
 import org.opendaylight.ovsdb.southbound.SouthboundConstants;
+import org.opendaylight.sfc.ovs.provider.SfcOvsTopologyIndex;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwarders;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
@@ -58,6 +61,21 @@ public class SfcOvsNodeDataListener extends AbstractSyncDataTreeChangeListener<N
         this.dataBroker = dataBroker;
     }
 
+    @Override
+    @PostConstruct
+    public void register() {
+        // the existing nodes are notified as added on registration
+        SfcOvsTopologyIndex.setTracked(true);
+        super.register();
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        super.close();
+        SfcOvsTopologyIndex.setTracked(false);
+    }
+
     @Override
     public void add(@Nonnull Node node) {
         /*
@@ -68,6 +86,7 @@ public class SfcOvsNodeDataListener extends AbstractSyncDataTreeChangeListener<N
          * populated.
          */
         LOG.debug("Created OVS Node: {}", node.toString());
+        SfcOvsTopologyIndex.putNode(node);
 
         OvsdbNodeAugmentation ovsdbNodeAugmentation = node.getAugmentation(OvsdbNodeAugmentation.class);
         if (ovsdbNodeAugmentation != null) {
@@ -105,6 +124,7 @@ public class SfcOvsNodeDataListener extends AbstractSyncDataTreeChangeListener<N
          * modified vSwitch state directly by ovs command, which is not handled
          * yet. Other modifications should be done in config DS.
          */
+        SfcOvsTopologyIndex.removeNode(node.getNodeId());
     }
 
     @Override
@@ -114,6 +134,7 @@ public class SfcOvsNodeDataListener extends AbstractSyncDataTreeChangeListener<N
          * modified vSwitch state directly by ovs command, which is not handled
          * yet. Other modifications should be done in config DS.
          */
+        SfcOvsTopologyIndex.putNode(updatedNode);
     }
 
     private ListenableFuture<Optional<ServiceFunctionForwarders>> readServiceFunctionForwarders() {
@@ -17,6 +17,8 @@
 package org.opendaylight.sfc.ovs.listener;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import javax.annotation.Nonnull;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
@@ -78,21 +80,36 @@ public class SfcOvsSffEntryDataListener extends AbstractSyncDataTreeChangeListen
     }
 
     /**
-     * Add OVSDB augmentations.
+     * Add OVSDB augmentations. The bridge and then its termination points are
+     * put asynchronously, after the operations previously submitted on the
+     * bridge.
      *
      * @param sff
      *            ServiceFunctionForwarder Object.
+     * @return a completion stage completed with true if the bridge and its
+     *         termination points were put, false otherwise
      */
-    public static void addOvsdbAugmentations(ServiceFunctionForwarder sff) {
+    public static CompletionStage<Boolean> addOvsdbAugmentations(ServiceFunctionForwarder sff) {
         OvsdbBridgeAugmentation ovsdbBridge = SfcSffToOvsMappingAPI.buildOvsdbBridgeAugmentation(sff);
 
-        if (ovsdbBridge != null) {
-            // put Bridge
-            SfcOvsUtil.putOvsdbBridge(ovsdbBridge);
-
-            // put Termination Points
-            SfcOvsUtil.putOvsdbTerminationPoints(ovsdbBridge, sff.getSffDataPlaneLocator());
+        if (ovsdbBridge == null) {
+            return CompletableFuture.completedFuture(false);
         }
+
+        // put Bridge
+        CompletableFuture<Boolean> bridgeResult = SfcOvsUtil.putOvsdbBridgeAsync(ovsdbBridge);
+
+        // put Termination Points
+        CompletableFuture<Boolean> terminationPointsResult = SfcOvsUtil.putOvsdbTerminationPointsAsync(ovsdbBridge,
+                sff.getSffDataPlaneLocator());
+
+        return bridgeResult.thenCombine(terminationPointsResult, (bridgePut, terminationPointsPut) -> {
+            if (!bridgePut || !terminationPointsPut) {
+                LOG.warn("Failed to add OVSDB augmentations of Service Function Forwarder {}",
+                        sff.getName().getValue());
+            }
+            return bridgePut && terminationPointsPut;
+        });
     }
 
     /**
@@ -117,7 +134,7 @@ public class SfcOvsSffEntryDataListener extends AbstractSyncDataTreeChangeListen
                     .getAugmentation(SffOvsLocatorOptionsAugmentation.class);
             if (sffOvsOptions != null && sffDpl.getDataPlaneLocator().getTransport().equals(VxlanGpe.class)) {
                 // delete OvsdbTerminationPoint
-                SfcOvsUtil.deleteOvsdbTerminationPoint(
+                SfcOvsUtil.deleteOvsdbTerminationPointAsync(
                         SfcOvsUtil.buildOvsdbTerminationPointIID(ovsdbBridgeNodeId, sffDpl.getName().getValue()));
             }
         }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ovs.provider;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executor of the OVSDB datastore operations of SFC OVS.
+ *
+ * <p>
+ * The tasks of the same key, i.e. of the same OVSDB node, run one at a time
+ * in submission order, while the tasks of different keys run concurrently on
+ * a pool of threads. The number of tasks accepted and not yet completed is
+ * bounded, tasks submitted beyond the bound are rejected. The submitted,
+ * completed and rejected tasks are counted.
+ */
+public final class SfcOvsExecutor implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOvsExecutor.class);
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final int maxPendingTasks;
+    private final ThreadPoolExecutor executor;
+    // last task of each key, the next task of the key runs after it
+    private final ConcurrentMap<Object, CompletableFuture<?>> lastTasks = new ConcurrentHashMap<>();
+    private final AtomicLong pendingTasks = new AtomicLong();
+    private final AtomicLong submittedTasks = new AtomicLong();
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong rejectedTasks = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param numThreads
+     *            the number of threads running the tasks
+     * @param maxPendingTasks
+     *            the maximum number of tasks accepted and not yet completed
+     */
+    public SfcOvsExecutor(int numThreads, int maxPendingTasks) {
+        Preconditions.checkArgument(numThreads > 0, "numThreads must be positive");
+        Preconditions.checkArgument(maxPendingTasks > 0, "maxPendingTasks must be positive");
+        this.maxPendingTasks = maxPendingTasks;
+        this.executor = new ThreadPoolExecutor(numThreads, numThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("sfc-ovs-%d").setDaemon(true).build());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Submits a task, to run after the tasks previously submitted with the
+     * same key.
+     *
+     * @param key
+     *            the key ordering the task, i.e. the OVSDB node it operates on
+     * @param task
+     *            the task
+     * @param <T>
+     *            the type of the result of the task
+     * @return a future completed with the result of the task, or failed with
+     *         a {@link RejectedExecutionException} if the task is rejected
+     */
+    public <T> CompletableFuture<T> submit(Object key, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (pendingTasks.incrementAndGet() > maxPendingTasks) {
+            pendingTasks.decrementAndGet();
+            rejectedTasks.incrementAndGet();
+            LOG.warn("submit: rejected {}, {} tasks pending", task, maxPendingTasks);
+            future.completeExceptionally(new RejectedExecutionException("Too many pending OVSDB tasks"));
+            return future;
+        }
+        submittedTasks.incrementAndGet();
+
+        CompletableFuture<?> previousTask = lastTasks.put(key, future);
+        if (previousTask == null) {
+            execute(task, future);
+        } else {
+            previousTask.whenComplete((result, throwable) -> execute(task, future));
+        }
+        future.whenComplete((result, throwable) -> lastTasks.remove(key, future));
+        return future;
+    }
+
+    /**
+     * Waits for all the submitted tasks to complete.
+     *
+     * @param timeout
+     *            the maximum time to wait
+     * @param unit
+     *            the unit of the timeout
+     * @return true if no task is pending, false if the timeout elapsed
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public boolean awaitQuiescence(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (pendingTasks) {
+            while (pendingTasks.get() > 0) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                pendingTasks.wait(remainingMillis);
+            }
+        }
+        return true;
+    }
+
+    public long getPendingTaskCount() {
+        return pendingTasks.get();
+    }
+
+    public long getSubmittedTaskCount() {
+        return submittedTasks.get();
+    }
+
+    public long getCompletedTaskCount() {
+        return completedTasks.get();
+    }
+
+    public long getRejectedTaskCount() {
+        return rejectedTasks.get();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    // the task is rejected once the executor is closed, even if it was
+    // accepted before, while waiting for the previous task of its key
+    private <T> void execute(Callable<T> task, CompletableFuture<T> future) {
+        try {
+            executor.execute(() -> run(task, future));
+        } catch (RejectedExecutionException e) {
+            LOG.warn("submit: rejected {}, executor is shut down", task);
+            rejectedTasks.incrementAndGet();
+            taskDone();
+            future.completeExceptionally(e);
+        }
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private <T> void run(Callable<T> task, CompletableFuture<T> future) {
+        try {
+            future.complete(task.call());
+        } catch (Exception e) {
+            LOG.warn("{} failed", task, e);
+            future.completeExceptionally(e);
+        } finally {
+            completedTasks.incrementAndGet();
+            taskDone();
+        }
+    }
+
+    private void taskDone() {
+        if (pendingTasks.decrementAndGet() == 0) {
+            synchronized (pendingTasks) {
+                pendingTasks.notifyAll();
+            }
+        }
+    }
+}
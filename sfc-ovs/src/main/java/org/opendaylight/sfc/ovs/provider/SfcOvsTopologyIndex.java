@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ovs.provider;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbNodeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbTerminationPointAugmentation;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of the OVSDB topology nodes of the operational datastore, so that
+ * {@link SfcOvsUtil} finds the OVSDB manager node of an IP address, the
+ * bridge of a node id or of an OpenFlow node name, and the termination
+ * points of a bridge by name without reading and scanning the whole topology.
+ *
+ * <p>
+ * The index is kept up to date by the OVSDB node listener, so it only serves
+ * nodes while the listener is tracking it. A node missing from the index may
+ * not have been notified yet, callers read the datastore in that case.
+ */
+public final class SfcOvsTopologyIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOvsTopologyIndex.class);
+
+    private static final ConcurrentMap<String, Node> MANAGER_NODES_BY_IP = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<NodeId, OvsdbBridgeAugmentation> BRIDGES_BY_NODE_ID =
+            new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, BridgeNode> BRIDGE_NODES_BY_OPENFLOW_NODE_NAME =
+            new ConcurrentHashMap<>();
+    // the keys each node is indexed by, to drop them on update and removal
+    private static final ConcurrentMap<NodeId, IndexedNode> INDEXED_NODES = new ConcurrentHashMap<>();
+
+    private static volatile boolean tracked;
+
+    private SfcOvsTopologyIndex() {
+    }
+
+    /**
+     * Starts or stops serving the indexed nodes. Called by the listener
+     * keeping the index up to date on registration and close. The index is
+     * emptied either way.
+     *
+     * @param isTracked
+     *            whether the nodes are being tracked
+     */
+    public static void setTracked(boolean isTracked) {
+        tracked = isTracked;
+        MANAGER_NODES_BY_IP.clear();
+        BRIDGES_BY_NODE_ID.clear();
+        BRIDGE_NODES_BY_OPENFLOW_NODE_NAME.clear();
+        INDEXED_NODES.clear();
+    }
+
+    public static boolean isTracked() {
+        return tracked;
+    }
+
+    /**
+     * Indexes an added or updated OVSDB topology node, replacing the
+     * previous version of the node.
+     *
+     * @param node
+     *            the node
+     */
+    public static void putNode(Node node) {
+        if (!tracked || node == null || node.getNodeId() == null) {
+            return;
+        }
+        NodeId nodeId = node.getNodeId();
+        removeNode(nodeId);
+
+        String managerIp = null;
+        OvsdbNodeAugmentation ovsdbNode = node.getAugmentation(OvsdbNodeAugmentation.class);
+        if (ovsdbNode != null && ovsdbNode.getConnectionInfo() != null) {
+            managerIp = toString(ovsdbNode.getConnectionInfo().getRemoteIp());
+            if (managerIp != null) {
+                MANAGER_NODES_BY_IP.put(managerIp, node);
+            }
+        }
+
+        String openFlowNodeName = null;
+        OvsdbBridgeAugmentation ovsdbBridge = node.getAugmentation(OvsdbBridgeAugmentation.class);
+        if (ovsdbBridge != null) {
+            BRIDGES_BY_NODE_ID.put(nodeId, ovsdbBridge);
+            if (ovsdbBridge.getDatapathId() != null) {
+                openFlowNodeName = SfcOvsUtil.getOpenFlowNodeName(ovsdbBridge.getDatapathId());
+                BRIDGE_NODES_BY_OPENFLOW_NODE_NAME.put(openFlowNodeName, new BridgeNode(node));
+            }
+        }
+
+        INDEXED_NODES.put(nodeId, new IndexedNode(managerIp, openFlowNodeName));
+        LOG.debug("putNode: indexed node {} (manager ip {}, openflow node {})", nodeId.getValue(), managerIp,
+                openFlowNodeName);
+    }
+
+    /**
+     * Drops a removed OVSDB topology node.
+     *
+     * @param nodeId
+     *            the node id
+     */
+    public static void removeNode(NodeId nodeId) {
+        IndexedNode indexedNode = INDEXED_NODES.remove(nodeId);
+        BRIDGES_BY_NODE_ID.remove(nodeId);
+        if (indexedNode == null) {
+            return;
+        }
+        if (indexedNode.managerIp != null) {
+            MANAGER_NODES_BY_IP.computeIfPresent(indexedNode.managerIp,
+                (ip, node) -> nodeId.equals(node.getNodeId()) ? null : node);
+        }
+        if (indexedNode.openFlowNodeName != null) {
+            BRIDGE_NODES_BY_OPENFLOW_NODE_NAME.computeIfPresent(indexedNode.openFlowNodeName,
+                (name, bridgeNode) -> nodeId.equals(bridgeNode.node.getNodeId()) ? null : bridgeNode);
+        }
+    }
+
+    /**
+     * Gets the OVSDB manager node connected from an IP address.
+     *
+     * @param ip
+     *            the IP address, as a string
+     * @return the node, or null if not indexed
+     */
+    static Node getManagerNodeByIp(String ip) {
+        return tracked ? MANAGER_NODES_BY_IP.get(ip) : null;
+    }
+
+    /**
+     * Gets the OVSDB bridge of a bridge node.
+     *
+     * @param nodeId
+     *            the bridge node id
+     * @return the bridge, or null if not indexed
+     */
+    static OvsdbBridgeAugmentation getBridge(NodeId nodeId) {
+        return tracked ? BRIDGES_BY_NODE_ID.get(nodeId) : null;
+    }
+
+    /**
+     * Gets the OVSDB bridge node of an OpenFlow node.
+     *
+     * @param openFlowNodeName
+     *            the OpenFlow node name, i.e. openflow:1234
+     * @return the bridge node, or null if not indexed
+     */
+    static Node getBridgeNode(String openFlowNodeName) {
+        BridgeNode bridgeNode = tracked ? BRIDGE_NODES_BY_OPENFLOW_NODE_NAME.get(openFlowNodeName) : null;
+        return bridgeNode == null ? null : bridgeNode.node;
+    }
+
+    /**
+     * Gets the termination points of the OVSDB bridge of an OpenFlow node by
+     * port name.
+     *
+     * @param openFlowNodeName
+     *            the OpenFlow node name, i.e. openflow:1234
+     * @return the termination points by port name, or null if the bridge is
+     *         not indexed
+     */
+    static Map<String, OvsdbTerminationPointAugmentation> getTerminationPointsByName(String openFlowNodeName) {
+        BridgeNode bridgeNode = tracked ? BRIDGE_NODES_BY_OPENFLOW_NODE_NAME.get(openFlowNodeName) : null;
+        return bridgeNode == null ? null : bridgeNode.terminationPointsByName;
+    }
+
+    private static String toString(IpAddress ip) {
+        if (ip == null) {
+            return null;
+        }
+        if (ip.getIpv4Address() != null) {
+            return ip.getIpv4Address().getValue();
+        }
+        if (ip.getIpv6Address() != null) {
+            return ip.getIpv6Address().getValue();
+        }
+        return null;
+    }
+
+    private static final class IndexedNode {
+        private final String managerIp;
+        private final String openFlowNodeName;
+
+        IndexedNode(String managerIp, String openFlowNodeName) {
+            this.managerIp = managerIp;
+            this.openFlowNodeName = openFlowNodeName;
+        }
+    }
+
+    private static final class BridgeNode {
+        private final Node node;
+        private final Map<String, OvsdbTerminationPointAugmentation> terminationPointsByName;
+
+        BridgeNode(Node node) {
+            this.node = node;
+            Map<String, OvsdbTerminationPointAugmentation> tpsByName = new HashMap<>();
+            List<TerminationPoint> tpList = node.getTerminationPoint();
+            if (tpList != null) {
+                for (TerminationPoint tp : tpList) {
+                    OvsdbTerminationPointAugmentation otp = tp.getAugmentation(OvsdbTerminationPointAugmentation.class);
+                    if (otp != null && otp.getName() != null) {
+                        tpsByName.putIfAbsent(otp.getName(), otp);
+                    }
+                }
+            }
+            this.terminationPointsByName = Collections.unmodifiableMap(tpsByName);
+        }
+    }
+}
@@ -18,11 +18,13 @@
 package org.opendaylight.sfc.ovs.provider;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.ovsdb.southbound.SouthboundConstants;
@@ -100,7 +102,14 @@ public final class SfcOvsUtil {
     public static final String DPL_NAME_INTERNAL = "Internal";
     public static final PortNumber NSH_VXLAN_TUNNEL_PORT = new PortNumber(6633);
 
-    private static ExecutorService executor = Executors.newFixedThreadPool(5);
+    // the number of threads and of pending tasks of the OVSDB write operations
+    private static final int EXECUTOR_THREADS = Integer.getInteger("sfc.ovs.executor.threads",
+            Math.max(5, 2 * Runtime.getRuntime().availableProcessors()));
+    private static final int EXECUTOR_MAX_PENDING_TASKS = Integer.getInteger("sfc.ovs.executor.max-pending-tasks",
+            10000);
+    private static final SfcOvsExecutor EXECUTOR = new SfcOvsExecutor(EXECUTOR_THREADS, EXECUTOR_MAX_PENDING_TASKS);
+    // the datastore reads run on the calling thread, which waits for them anyway
+    private static final ExecutorService READ_EXECUTOR = MoreExecutors.newDirectExecutorService();
 
     private SfcOvsUtil() {
     }
@@ -125,7 +134,7 @@ public final class SfcOvsUtil {
         try {
             result = future.get();
         } catch (InterruptedException | ExecutionException e) {
-            LOG.warn("{} failed to: {}", callable.toString(), e);
+            LOG.warn("{} failed", callable, e);
         }
 
         return result;
@@ -387,47 +396,125 @@ public final class SfcOvsUtil {
 
     public static boolean putOvsdbTerminationPoints(OvsdbBridgeAugmentation ovsdbBridge,
             List<SffDataPlaneLocator> sffDataPlaneLocatorList) {
-        boolean result = true;
+        return getResult(putOvsdbTerminationPointsAsync(ovsdbBridge, sffDataPlaneLocatorList));
+    }
+
+    /**
+     * Puts the termination points of the data plane locators of an SFF on an
+     * OVSDB bridge, after the operations previously submitted on the bridge.
+     *
+     * @param ovsdbBridge
+     *            the OVSDB bridge
+     * @param sffDataPlaneLocatorList
+     *            the SFF data plane locators
+     * @return a future completed with true if all the termination points were
+     *         put, false otherwise
+     */
+    public static CompletableFuture<Boolean> putOvsdbTerminationPointsAsync(OvsdbBridgeAugmentation ovsdbBridge,
+            List<SffDataPlaneLocator> sffDataPlaneLocatorList) {
         List<OvsdbTerminationPointAugmentation> ovsdbTerminationPointList = SfcSffToOvsMappingAPI
                 .buildTerminationPointAugmentationList(sffDataPlaneLocatorList);
 
+        Object key = getExecutorKey(ovsdbBridge);
+        CompletableFuture<Boolean> result = CompletableFuture.completedFuture(true);
         for (OvsdbTerminationPointAugmentation ovsdbTerminationPoint : ovsdbTerminationPointList) {
             Object[] methodParameters = { ovsdbBridge, ovsdbTerminationPoint };
             SfcOvsDataStoreAPI sfcOvsDataStoreAPIPutTerminationPoint = new SfcOvsDataStoreAPI(
                     SfcOvsDataStoreAPI.Method.PUT_OVSDB_TERMINATION_POINT, methodParameters);
-            boolean partialResult = (boolean) SfcOvsUtil.submitCallable(sfcOvsDataStoreAPIPutTerminationPoint,
-                    executor);
+            CompletableFuture<Boolean> partialResult = submitOperation(key, sfcOvsDataStoreAPIPutTerminationPoint);
 
             // once result is false, we will keep it false (it will be not
-            // overwritten with next
-            // partialResults)
-            if (result) {
-                result = partialResult;
-            }
+            // overwritten with next partialResults)
+            result = result.thenCombine(partialResult, Boolean::logicalAnd);
         }
 
         return result;
     }
 
     public static boolean putOvsdbBridge(OvsdbBridgeAugmentation ovsdbBridge) {
+        return getResult(putOvsdbBridgeAsync(ovsdbBridge));
+    }
+
+    /**
+     * Puts an OVSDB bridge, after the operations previously submitted on the
+     * bridge.
+     *
+     * @param ovsdbBridge
+     *            the OVSDB bridge
+     * @return a future completed with true if the bridge was put, false
+     *         otherwise
+     */
+    public static CompletableFuture<Boolean> putOvsdbBridgeAsync(OvsdbBridgeAugmentation ovsdbBridge) {
         Object[] methodParameters = { ovsdbBridge };
         SfcOvsDataStoreAPI sfcOvsDataStoreAPIPutBridge = new SfcOvsDataStoreAPI(
                 SfcOvsDataStoreAPI.Method.PUT_OVSDB_BRIDGE, methodParameters);
-        return (boolean) SfcOvsUtil.submitCallable(sfcOvsDataStoreAPIPutBridge, executor);
+        return submitOperation(getExecutorKey(ovsdbBridge), sfcOvsDataStoreAPIPutBridge);
     }
 
     public static boolean deleteOvsdbNode(InstanceIdentifier<Node> ovsdbNodeIID) {
         Object[] methodParameters = { ovsdbNodeIID };
         SfcOvsDataStoreAPI sfcOvsDataStoreAPIDeleteNode = new SfcOvsDataStoreAPI(
                 SfcOvsDataStoreAPI.Method.DELETE_OVSDB_NODE, methodParameters);
-        return (boolean) SfcOvsUtil.submitCallable(sfcOvsDataStoreAPIDeleteNode, executor);
+        return getResult(submitOperation(ovsdbNodeIID, sfcOvsDataStoreAPIDeleteNode));
     }
 
     public static boolean deleteOvsdbTerminationPoint(InstanceIdentifier<TerminationPoint> ovsdbTerminationPointIID) {
+        return getResult(deleteOvsdbTerminationPointAsync(ovsdbTerminationPointIID));
+    }
+
+    /**
+     * Deletes an OVSDB termination point, after the operations previously
+     * submitted on its bridge.
+     *
+     * @param ovsdbTerminationPointIID
+     *            the termination point InstanceIdentifier
+     * @return a future completed with true if the termination point was
+     *         deleted, false otherwise
+     */
+    public static CompletableFuture<Boolean> deleteOvsdbTerminationPointAsync(
+            InstanceIdentifier<TerminationPoint> ovsdbTerminationPointIID) {
         Object[] methodParameters = { ovsdbTerminationPointIID };
         SfcOvsDataStoreAPI sfcOvsDataStoreAPIDeleteTerminationPoint = new SfcOvsDataStoreAPI(
                 SfcOvsDataStoreAPI.Method.DELETE_OVSDB_TERMINATION_POINT, methodParameters);
-        return (boolean) SfcOvsUtil.submitCallable(sfcOvsDataStoreAPIDeleteTerminationPoint, executor);
+        return submitOperation(ovsdbTerminationPointIID.firstIdentifierOf(Node.class),
+                sfcOvsDataStoreAPIDeleteTerminationPoint);
+    }
+
+    /**
+     * Gets the executor of the OVSDB datastore write operations, i.e. to
+     * observe its task counters.
+     *
+     * @return the executor
+     */
+    public static SfcOvsExecutor getExecutor() {
+        return EXECUTOR;
+    }
+
+    // the bridge node orders the operations on the bridge and its ports
+    private static Object getExecutorKey(OvsdbBridgeAugmentation ovsdbBridge) {
+        if (ovsdbBridge.getBridgeName() == null || ovsdbBridge.getManagedBy() == null) {
+            return ovsdbBridge;
+        }
+        return buildOvsdbNodeIID(ovsdbBridge);
+    }
+
+    private static CompletableFuture<Boolean> submitOperation(Object key, SfcOvsDataStoreAPI sfcOvsDataStoreAPI) {
+        return EXECUTOR.submit(key, sfcOvsDataStoreAPI).handle((result, throwable) -> {
+            if (throwable != null) {
+                LOG.warn("{} failed", sfcOvsDataStoreAPI, throwable);
+                return false;
+            }
+            return Boolean.TRUE.equals(result);
+        });
+    }
+
+    private static boolean getResult(CompletableFuture<Boolean> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.warn("Failed to get OVSDB operation result", e);
+            return false;
+        }
     }
 
     public static ServiceFunctionForwarder augmentSffWithOpenFlowNodeId(ServiceFunctionForwarder sff) {
@@ -573,12 +660,17 @@ public final class SfcOvsUtil {
     }
 
     private static DatapathId getOvsDataPathId(NodeId nodeId) {
+        OvsdbBridgeAugmentation indexedBridge = SfcOvsTopologyIndex.getBridge(nodeId);
+        if (indexedBridge != null) {
+            return indexedBridge.getDatapathId();
+        }
+
         Object[] methodParams = { SfcOvsUtil.buildOvsdbBridgeIID(nodeId) };
         SfcOvsDataStoreAPI readOvsdbBridge = new SfcOvsDataStoreAPI(SfcOvsDataStoreAPI.Method.READ_OVSDB_BRIDGE,
                 methodParams);
 
         OvsdbBridgeAugmentation readBridge = (OvsdbBridgeAugmentation) SfcOvsUtil.submitCallable(readOvsdbBridge,
-                executor);
+                READ_EXECUTOR);
 
         if (readBridge == null) {
             return null;
@@ -586,6 +678,10 @@ public final class SfcOvsUtil {
         return readBridge.getDatapathId();
     }
 
+    static String getOpenFlowNodeName(DatapathId datapathId) {
+        return OPENFLOW + getLongFromDpid(datapathId.getValue());
+    }
+
     private static Long getLongFromDpid(String dpid) {
         String[] addressInBytes = dpid.split(":");
         Long address = Long.decode(HEX + addressInBytes[2]) << 40 | Long.decode(HEX + addressInBytes[3]) << 32
@@ -606,10 +702,16 @@ public final class SfcOvsUtil {
         } else if (ip.getIpv6Address() != null) {
             ipAddressString = ip.getIpv6Address().getValue();
         }
+
+        Node indexedNode = SfcOvsTopologyIndex.getManagerNodeByIp(ipAddressString);
+        if (indexedNode != null) {
+            return indexedNode;
+        }
+
         Object[] methodParams = { ipAddressString };
         SfcOvsDataStoreAPI sfcOvsDataStoreAPI = new SfcOvsDataStoreAPI(SfcOvsDataStoreAPI.Method.READ_OVSDB_NODE_BY_IP,
                 methodParams);
-        Node node = (Node) SfcOvsUtil.submitCallable(sfcOvsDataStoreAPI, executor);
+        Node node = (Node) SfcOvsUtil.submitCallable(sfcOvsDataStoreAPI, READ_EXECUTOR);
 
         if (node != null && node.getNodeId() != null) {
             return node;
@@ -620,13 +722,12 @@ public final class SfcOvsUtil {
     }
 
     public static OvsdbNodeAugmentation getOvsdbNodeAugmentation(OvsdbNodeRef nodeRef) {
-        Preconditions.checkNotNull(executor);
         if (nodeRef.getValue().getTargetType().equals(Node.class)) {
             Object[] methodParams = { nodeRef };
             SfcOvsDataStoreAPI readOvsdbNode = new SfcOvsDataStoreAPI(SfcOvsDataStoreAPI.Method.READ_OVSDB_NODE_BY_REF,
                     methodParams);
 
-            Node ovsdbNode = (Node) SfcOvsUtil.submitCallable(readOvsdbNode, executor);
+            Node ovsdbNode = (Node) SfcOvsUtil.submitCallable(readOvsdbNode, READ_EXECUTOR);
 
             if (ovsdbNode != null) {
                 return ovsdbNode.getAugmentation(OvsdbNodeAugmentation.class);
@@ -644,10 +745,34 @@ public final class SfcOvsUtil {
     }
 
     private static Long getOvsPort(String nodeName, OvsdbTPComp comp) {
+        Node node = getBridgeNode(nodeName);
+        if (node == null || node.getTerminationPoint() == null) {
+            return null;
+        }
+
+        for (TerminationPoint tp : node.getTerminationPoint()) {
+            OvsdbTerminationPointAugmentation otp = tp.getAugmentation(OvsdbTerminationPointAugmentation.class);
+            if (comp.compare(otp)) {
+                return otp.getOfport();
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Gets the OVSDB bridge node of an openflow node, from the topology index
+     * or else from the OVSDB topology of the operational datastore.
+     */
+    private static Node getBridgeNode(String nodeName) {
         if (nodeName == null) {
             return null;
         }
 
+        Node indexedNode = SfcOvsTopologyIndex.getBridgeNode(nodeName);
+        if (indexedNode != null) {
+            return indexedNode;
+        }
+
         InstanceIdentifier<Topology> topoIID = buildOvsdbTopologyIID();
         Topology topo = SfcDataStoreAPI.readTransactionAPI(topoIID, LogicalDatastoreType.OPERATIONAL);
 
@@ -662,20 +787,12 @@ public final class SfcOvsUtil {
 
         for (Node node : nodes) {
             OvsdbBridgeAugmentation ovsdbBridgeAugmentation = node.getAugmentation(OvsdbBridgeAugmentation.class);
-            List<TerminationPoint> tpList = node.getTerminationPoint();
-
-            if (ovsdbBridgeAugmentation == null || tpList == null) {
+            if (ovsdbBridgeAugmentation == null || ovsdbBridgeAugmentation.getDatapathId() == null) {
                 continue;
             }
 
-            Long dpid = getLongFromDpid(ovsdbBridgeAugmentation.getDatapathId().getValue());
-            if (nodeName.equals(OPENFLOW + dpid)) {
-                for (TerminationPoint tp : tpList) {
-                    OvsdbTerminationPointAugmentation otp = tp.getAugmentation(OvsdbTerminationPointAugmentation.class);
-                    if (comp.compare(otp)) {
-                        return otp.getOfport();
-                    }
-                }
+            if (nodeName.equals(getOpenFlowNodeName(ovsdbBridgeAugmentation.getDatapathId()))) {
+                return node;
             }
         }
         return null;
@@ -691,6 +808,14 @@ public final class SfcOvsUtil {
      * @return port number
      */
     public static Long getOfPortByName(String nodeName, String portName) {
+        Map<String, OvsdbTerminationPointAugmentation> indexedPorts = nodeName == null ? null
+                : SfcOvsTopologyIndex.getTerminationPointsByName(nodeName);
+        OvsdbTerminationPointAugmentation indexedPort = indexedPorts == null ? null : indexedPorts.get(portName);
+        if (indexedPort != null) {
+            return indexedPort.getOfport();
+        }
+
+        // the port may not be indexed yet, look it up in the datastore
         return getOvsPort(nodeName, otp -> {
             if (otp == null) {
                 return false;
@@ -786,42 +911,24 @@ public final class SfcOvsUtil {
             localDpdkPortName = "dpdk0";
         }
 
-        InstanceIdentifier<Topology> topoIID = buildOvsdbTopologyIID();
-
-        Topology topo = SfcDataStoreAPI.readTransactionAPI(topoIID, LogicalDatastoreType.OPERATIONAL);
-        if (topo == null) {
+        Node node = getBridgeNode(nodeName);
+        if (node == null) {
             return null;
         }
 
-        List<Node> nodes = topo.getNode();
-
-        if (nodes == null) {
+        OvsdbBridgeAugmentation ovsdbBridgeAugmentation = node.getAugmentation(OvsdbBridgeAugmentation.class);
+        if (!ovsdbBridgeAugmentation.getDatapathType().equals(DatapathTypeNetdev.class)) {
             return null;
         }
 
-        for (Node node : nodes) {
-            OvsdbBridgeAugmentation ovsdbBridgeAugmentation = node.getAugmentation(OvsdbBridgeAugmentation.class);
-            if (ovsdbBridgeAugmentation == null) {
-                continue;
-            }
-
-            Long dpid = getLongFromDpid(ovsdbBridgeAugmentation.getDatapathId().getValue());
-            if (nodeName.equals(OPENFLOW + dpid)) {
-                if (!ovsdbBridgeAugmentation.getDatapathType().equals(DatapathTypeNetdev.class)) {
-                    break;
-                }
-
-                List<TerminationPoint> tpList = node.getTerminationPoint();
-                for (TerminationPoint tp : tpList) {
-                    if (tp.getTpId().getValue().equals(localDpdkPortName)) {
-                        OvsdbTerminationPointAugmentation otp = tp
-                                .getAugmentation(OvsdbTerminationPointAugmentation.class);
-                        if (otp != null && otp.getInterfaceType().equals(InterfaceTypeDpdk.class)) {
-                            dpdkOfPort = otp.getOfport();
-                        }
-                        break;
-                    }
+        List<TerminationPoint> tpList = node.getTerminationPoint();
+        for (TerminationPoint tp : tpList) {
+            if (tp.getTpId().getValue().equals(localDpdkPortName)) {
+                OvsdbTerminationPointAugmentation otp = tp.getAugmentation(OvsdbTerminationPointAugmentation.class);
+                if (otp != null && otp.getInterfaceType().equals(InterfaceTypeDpdk.class)) {
+                    dpdkOfPort = otp.getOfport();
                 }
+                break;
             }
         }
         return dpdkOfPort;
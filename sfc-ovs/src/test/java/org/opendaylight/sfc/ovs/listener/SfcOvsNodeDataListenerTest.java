@@ -17,6 +17,7 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -104,7 +105,7 @@ public class SfcOvsNodeDataListenerTest extends AbstractDataStoreManager {
      * the SFF is created.
      */
     @Test
-    public void testAddNode() {
+    public void testAddNode() throws InterruptedException {
         ServiceFunctionForwarder sff = build_sff();
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
@@ -125,12 +126,18 @@ public class SfcOvsNodeDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsNodeDataListener.onDataTreeChanged(collection);
+        awaitOvsdbOperations();
 
         ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         assertNotNull(ovsdbBridgeId);
         assertNotNull(getSffTerminationPoint(ovsdbBridgeId, sff));
     }
 
+    private static void awaitOvsdbOperations() throws InterruptedException {
+        // the listeners put and delete the OVSDB entities asynchronously
+        assertTrue(SfcOvsUtil.getExecutor().awaitQuiescence(5, TimeUnit.SECONDS));
+    }
+
     private Node createOvsdbNodeForSff(IpAddress remoteIp, PortNumber remotePort) {
         ConnectionInfoBuilder connInfoBuilder = new ConnectionInfoBuilder();
         connInfoBuilder.setRemoteIp(remoteIp);
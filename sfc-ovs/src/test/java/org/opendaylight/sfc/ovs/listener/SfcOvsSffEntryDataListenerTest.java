@@ -10,12 +10,14 @@ package org.opendaylight.sfc.ovs.listener;
 
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -95,7 +97,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
     }
 
     @Test
-    public void testAddSff_NoDpl() {
+    public void testAddSff_NoDpl() throws InterruptedException {
         final ServiceFunctionForwarder sff = buildServiceFunctionForwarderNoDPL();
         createOvsdbNodeForSff(testIpAddress, testPort);
 
@@ -107,6 +109,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        awaitOvsdbOperations();
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         // The DPL is used to lookup the topology node
@@ -116,7 +119,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
     }
 
     @Test
-    public void testAddSff_WithDpl() {
+    public void testAddSff_WithDpl() throws InterruptedException {
         ServiceFunctionForwarder sff = build_service_function_forwarder_withDpl();
         // For this test, If there's a DPL, there will only ever be just 1
         // SffDpl
@@ -132,6 +135,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        awaitOvsdbOperations();
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         assertNotNull(ovsdbBridgeId);
@@ -139,7 +143,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
     }
 
     @Test
-    public void testRemoveSff() {
+    public void testRemoveSff() throws InterruptedException {
         // First we need to create the ovsdbBridge and termination point
         // Then remove the SFF and test the ovsdbBridge and termination point
         // get deleted
@@ -162,6 +166,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        awaitOvsdbOperations();
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         assertNotNull(ovsdbBridgeId);
@@ -178,13 +183,14 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.remove()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        awaitOvsdbOperations();
 
         ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         assertNull(getSffTerminationPoint(ovsdbBridgeId, sff));
     }
 
     @Test
-    public void testUpdateSff() {
+    public void testUpdateSff() throws InterruptedException {
         // First add an SFF with no DPL and check nothing special is created
         // Then update the SFF and check that the ovsdbBridge and termination
         // point get created
@@ -203,6 +209,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        awaitOvsdbOperations();
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(originalSff);
         assertNull(ovsdbBridgeId);
@@ -226,12 +233,18 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.update()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        awaitOvsdbOperations();
 
         ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(updatedSff);
         assertNotNull(ovsdbBridgeId);
         assertNotNull(getSffTerminationPoint(ovsdbBridgeId, updatedSff));
     }
 
+    private static void awaitOvsdbOperations() throws InterruptedException {
+        // the listeners put and delete the OVSDB entities asynchronously
+        assertTrue(SfcOvsUtil.getExecutor().awaitQuiescence(5, TimeUnit.SECONDS));
+    }
+
     private void createOvsdbNodeForSff(IpAddress remoteIp, PortNumber remotePort) {
         ConnectionInfoBuilder connInfoBuilder = new ConnectionInfoBuilder();
         connInfoBuilder.setRemoteIp(remoteIp);
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ovs.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+public class SfcOvsExecutorTest {
+
+    private SfcOvsExecutor sfcOvsExecutor;
+
+    @After
+    public void teardown() {
+        sfcOvsExecutor.close();
+    }
+
+    @Test
+    public void tasksOfTheSameKeyRunInOrder() throws Exception {
+        sfcOvsExecutor = new SfcOvsExecutor(4, 100);
+        final int numTasks = 50;
+        List<Integer> runTasks = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < numTasks; i++) {
+            final int task = i;
+            futures.add(sfcOvsExecutor.submit("node", () -> {
+                runTasks.add(task);
+                return task;
+            }));
+        }
+
+        assertTrue(sfcOvsExecutor.awaitQuiescence(5, TimeUnit.SECONDS));
+        for (int i = 0; i < numTasks; i++) {
+            assertEquals("Must be equal", Integer.valueOf(i), runTasks.get(i));
+            assertEquals("Must be equal", Integer.valueOf(i), futures.get(i).get());
+        }
+        assertEquals("Must be equal", numTasks, sfcOvsExecutor.getSubmittedTaskCount());
+        assertEquals("Must be equal", numTasks, sfcOvsExecutor.getCompletedTaskCount());
+        assertEquals("Must be equal", 0, sfcOvsExecutor.getPendingTaskCount());
+    }
+
+    @Test
+    public void tasksOfDifferentKeysRunConcurrently() throws Exception {
+        sfcOvsExecutor = new SfcOvsExecutor(2, 100);
+        CountDownLatch started = new CountDownLatch(2);
+
+        CompletableFuture<Boolean> node1 = sfcOvsExecutor.submit("node1", () -> {
+            started.countDown();
+            return started.await(5, TimeUnit.SECONDS);
+        });
+        CompletableFuture<Boolean> node2 = sfcOvsExecutor.submit("node2", () -> {
+            started.countDown();
+            return started.await(5, TimeUnit.SECONDS);
+        });
+
+        assertTrue(node1.get());
+        assertTrue(node2.get());
+    }
+
+    @Test
+    public void tasksBeyondTheBoundAreRejected() throws Exception {
+        sfcOvsExecutor = new SfcOvsExecutor(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> blocked = sfcOvsExecutor.submit("node", () -> release.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> rejected = sfcOvsExecutor.submit("node", () -> true);
+        try {
+            rejected.get();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        assertTrue(rejected.isCompletedExceptionally());
+        assertEquals("Must be equal", 1, sfcOvsExecutor.getRejectedTaskCount());
+
+        release.countDown();
+        assertTrue(blocked.get());
+        assertTrue(sfcOvsExecutor.awaitQuiescence(5, TimeUnit.SECONDS));
+        assertEquals("Must be equal", 1, sfcOvsExecutor.getCompletedTaskCount());
+    }
+
+    @Test
+    public void tasksWaitingForTheirKeyAreRejectedOnceClosed() throws Exception {
+        sfcOvsExecutor = new SfcOvsExecutor(1, 10);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> blocked = sfcOvsExecutor.submit("node", () -> release.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> waiting = sfcOvsExecutor.submit("node", () -> true);
+        sfcOvsExecutor.close();
+        release.countDown();
+
+        assertTrue(blocked.get());
+        try {
+            waiting.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        assertTrue(waiting.isCompletedExceptionally());
+        assertTrue(sfcOvsExecutor.awaitQuiescence(5, TimeUnit.SECONDS));
+        assertEquals("Must be equal", 1, sfcOvsExecutor.getRejectedTaskCount());
+        assertEquals("Must be equal", 1, sfcOvsExecutor.getCompletedTaskCount());
+    }
+}
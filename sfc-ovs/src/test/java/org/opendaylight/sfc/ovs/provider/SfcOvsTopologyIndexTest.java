@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ovs.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.DatapathId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.InterfaceTypeBase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.InterfaceTypeVxlanGpe;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbBridgeName;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbNodeAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbNodeAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbTerminationPointAugmentation;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.OvsdbTerminationPointAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.ovsdb.node.attributes.ConnectionInfoBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TpId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeKey;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPoint;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPointBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPointKey;
+
+public class SfcOvsTopologyIndexTest {
+
+    private static final String MANAGER_IP = "10.0.0.1";
+    private static final NodeId MANAGER_NODE_ID = new NodeId("ovsdb://uuid/manager");
+    private static final NodeId BRIDGE_NODE_ID = new NodeId("ovsdb://uuid/manager/bridge/br-int");
+    private static final String OPENFLOW_NODE_NAME = "openflow:1";
+
+    @Before
+    public void setup() {
+        SfcOvsTopologyIndex.setTracked(true);
+    }
+
+    @After
+    public void teardown() {
+        SfcOvsTopologyIndex.setTracked(false);
+    }
+
+    @Test
+    public void testManagerNodeByIp() {
+        Node managerNode = buildManagerNode(MANAGER_IP);
+        SfcOvsTopologyIndex.putNode(managerNode);
+        assertEquals("Must be equal", managerNode,
+                SfcOvsUtil.getManagerNodeByIp(new IpAddress(new Ipv4Address(MANAGER_IP))));
+
+        // the manager connects from a different IP address
+        SfcOvsTopologyIndex.putNode(buildManagerNode("10.0.0.2"));
+        assertNull(SfcOvsTopologyIndex.getManagerNodeByIp(MANAGER_IP));
+
+        SfcOvsTopologyIndex.removeNode(MANAGER_NODE_ID);
+        assertNull(SfcOvsTopologyIndex.getManagerNodeByIp("10.0.0.2"));
+    }
+
+    @Test
+    public void testBridgePorts() {
+        Node bridgeNode = buildBridgeNode("00:00:00:00:00:00:00:01");
+        SfcOvsTopologyIndex.putNode(bridgeNode);
+
+        assertEquals("Must be equal", bridgeNode.getAugmentation(OvsdbBridgeAugmentation.class),
+                SfcOvsTopologyIndex.getBridge(BRIDGE_NODE_ID));
+        assertEquals("Must be equal", Long.valueOf(1), SfcOvsUtil.getOfPortByName(OPENFLOW_NODE_NAME, "tap1"));
+        assertNull(SfcOvsUtil.getOfPortByName(OPENFLOW_NODE_NAME, "tap3"));
+        assertEquals("Must be equal", Long.valueOf(2), SfcOvsUtil.getVxlanGpeOfPort(OPENFLOW_NODE_NAME));
+        assertNull(SfcOvsUtil.getVxlanOfPort(OPENFLOW_NODE_NAME));
+
+        // the bridge datapath id changes
+        SfcOvsTopologyIndex.putNode(buildBridgeNode("00:00:00:00:00:00:00:02"));
+        assertNull(SfcOvsTopologyIndex.getBridgeNode(OPENFLOW_NODE_NAME));
+        assertEquals("Must be equal", Long.valueOf(1), SfcOvsUtil.getOfPortByName("openflow:2", "tap1"));
+
+        SfcOvsTopologyIndex.removeNode(BRIDGE_NODE_ID);
+        assertNull(SfcOvsTopologyIndex.getBridge(BRIDGE_NODE_ID));
+        assertNull(SfcOvsTopologyIndex.getBridgeNode("openflow:2"));
+    }
+
+    @Test
+    public void testNotTracked() {
+        SfcOvsTopologyIndex.setTracked(false);
+        SfcOvsTopologyIndex.putNode(buildManagerNode(MANAGER_IP));
+        SfcOvsTopologyIndex.setTracked(true);
+        assertNull(SfcOvsTopologyIndex.getManagerNodeByIp(MANAGER_IP));
+    }
+
+    private static Node buildManagerNode(String ip) {
+        OvsdbNodeAugmentation ovsdbNode = new OvsdbNodeAugmentationBuilder()
+                .setConnectionInfo(new ConnectionInfoBuilder().setRemoteIp(new IpAddress(new Ipv4Address(ip))).build())
+                .build();
+        return new NodeBuilder().setNodeId(MANAGER_NODE_ID).setKey(new NodeKey(MANAGER_NODE_ID))
+                .addAugmentation(OvsdbNodeAugmentation.class, ovsdbNode).build();
+    }
+
+    private static Node buildBridgeNode(String datapathId) {
+        OvsdbBridgeAugmentation ovsdbBridge = new OvsdbBridgeAugmentationBuilder()
+                .setBridgeName(new OvsdbBridgeName("br-int")).setDatapathId(new DatapathId(datapathId)).build();
+        List<TerminationPoint> tps = new ArrayList<>();
+        tps.add(buildTerminationPoint("tap1", 1L, null));
+        tps.add(buildTerminationPoint("vxlangpe", 2L, InterfaceTypeVxlanGpe.class));
+        return new NodeBuilder().setNodeId(BRIDGE_NODE_ID).setKey(new NodeKey(BRIDGE_NODE_ID))
+                .addAugmentation(OvsdbBridgeAugmentation.class, ovsdbBridge).setTerminationPoint(tps).build();
+    }
+
+    private static TerminationPoint buildTerminationPoint(String name, Long ofPort,
+            Class<? extends InterfaceTypeBase> interfaceType) {
+        OvsdbTerminationPointAugmentation otp = new OvsdbTerminationPointAugmentationBuilder().setName(name)
+                .setOfport(ofPort).setInterfaceType(interfaceType).build();
+        return new TerminationPointBuilder().setTpId(new TpId(name)).setKey(new TerminationPointKey(new TpId(name)))
+                .addAugmentation(OvsdbTerminationPointAugmentation.class, otp).build();
+    }
+}
@@ -10,12 +10,14 @@ package org.opendaylight.sfc.sfc_ovs.provider.listener;
 
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -96,7 +98,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
     }
 
     @Test
-    public void testAddSff_NoDpl() {
+    public void testAddSff_NoDpl() throws InterruptedException {
         final ServiceFunctionForwarder sff = buildServiceFunctionForwarderNoDPL();
         createOvsdbNodeForSff(testIpAddress, testPort);
 
@@ -108,6 +110,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        awaitOvsdbOperations();
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         // The DPL is used to lookup the topology node
@@ -117,7 +120,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
     }
 
     @Test
-    public void testAddSff_WithDpl() {
+    public void testAddSff_WithDpl() throws InterruptedException {
         ServiceFunctionForwarder sff = build_service_function_forwarder_withDpl();
         // For this test, If there's a DPL, there will only ever be just 1
         // SffDpl
@@ -133,6 +136,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        awaitOvsdbOperations();
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         assertNotNull(ovsdbBridgeId);
@@ -140,7 +144,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
     }
 
     @Test
-    public void testRemoveSff() {
+    public void testRemoveSff() throws InterruptedException {
         // First we need to create the ovsdbBridge and termination point
         // Then remove the SFF and test the ovsdbBridge and termination point
         // get deleted
@@ -163,6 +167,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        awaitOvsdbOperations();
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         assertNotNull(ovsdbBridgeId);
@@ -179,13 +184,14 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.remove()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        awaitOvsdbOperations();
 
         ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(sff);
         assertNull(getSffTerminationPoint(ovsdbBridgeId, sff));
     }
 
     @Test
-    public void testUpdateSff() {
+    public void testUpdateSff() throws InterruptedException {
         // First add an SFF with no DPL and check nothing special is created
         // Then update the SFF and check that the ovsdbBridge and termination
         // point get created
@@ -204,6 +210,7 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.add()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        awaitOvsdbOperations();
 
         NodeId ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(originalSff);
         assertNull(ovsdbBridgeId);
@@ -227,12 +234,18 @@ public class SfcOvsSffEntryDataListenerTest extends AbstractDataStoreManager {
         // This will call sfcOvsSffEntryDataListener.update()
         collection.add(dataTreeModification);
         sfcOvsSffEntryDataListener.onDataTreeChanged(collection);
+        awaitOvsdbOperations();
 
         ovsdbBridgeId = SfcOvsUtil.getOvsdbAugmentationNodeIdBySff(updatedSff);
         assertNotNull(ovsdbBridgeId);
         assertNotNull(getSffTerminationPoint(ovsdbBridgeId, updatedSff));
     }
 
+    private static void awaitOvsdbOperations() throws InterruptedException {
+        // the listeners put and delete the OVSDB entities asynchronously
+        assertTrue(SfcOvsUtil.getExecutor().awaitQuiescence(5, TimeUnit.SECONDS));
+    }
+
     private void createOvsdbNodeForSff(IpAddress remoteIp, PortNumber remotePort) {
         ConnectionInfoBuilder connInfoBuilder = new ConnectionInfoBuilder();
         connInfoBuilder.setRemoteIp(remoteIp);
@@ -11,9 +11,9 @@ package org.opendaylight.sfc.pot.provider;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.api.SfcConfigurationCache;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
-import org.opendaylight.sfc.provider.api.SfcProviderServiceChainAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServicePathAPI;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfcName;
@@ -84,8 +84,8 @@ public final class SfcPotRspProcessor {
         SfcName serviceFunctionChainNameObj;
         serviceFunctionChainNameObj = sfp.getServiceChainName();
         ServiceFunctionChain serviceFunctionChain;
-        serviceFunctionChain = serviceFunctionChainNameObj != null ? SfcProviderServiceChainAPI
-                .readServiceFunctionChain(serviceFunctionChainNameObj) : null;
+        serviceFunctionChain = serviceFunctionChainNameObj != null ? SfcConfigurationCache
+                .getServiceFunctionChains().get(serviceFunctionChainNameObj) : null;
         if (serviceFunctionChain == null) {
             LOG.error("iOAM:PoT:Enable:ServiceFunctionChain for Path:{} is invalid.", sfp.getName());
             return false;
@@ -175,8 +175,8 @@ public final class SfcPotRspProcessor {
         sfp = SfcProviderServicePathAPI.readServiceFunctionPath(sfpName);
         SfcName serviceFunctionChainNameObj = sfp.getServiceChainName();
         ServiceFunctionChain serviceFunctionChain;
-        serviceFunctionChain = serviceFunctionChainNameObj != null ? SfcProviderServiceChainAPI
-                .readServiceFunctionChain(serviceFunctionChainNameObj) : null;
+        serviceFunctionChain = serviceFunctionChainNameObj != null ? SfcConfigurationCache
+                .getServiceFunctionChains().get(serviceFunctionChainNameObj) : null;
         if (serviceFunctionChain == null) {
             LOG.error("iOAM:PoT:Disable:ServiceFunctionChain name for Path {} is null.", sfp.getName());
             return false;
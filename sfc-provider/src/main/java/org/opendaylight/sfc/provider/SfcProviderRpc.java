@@ -30,12 +30,16 @@ import org.opendaylight.sfc.provider.api.SfcProviderServicePathAPI;
 import org.opendaylight.sfc.provider.api.SfcServicePathId;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.AllocatePathIdInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.AllocatePathIdOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.AllocatePathIdOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.DeletePathIdInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.DeletePathIdOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.DeletePathIdOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ReadPathIdInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ReadPathIdOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ReadPathIdOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ReservePathIdRangeInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ReservePathIdRangeOutput;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ReservePathIdRangeOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ServicePathIdService;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.SetGenerationAlgorithmInput;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.SetGenerationAlgorithmOutput;
@@ -376,24 +380,90 @@ public class SfcProviderRpc implements ServiceFunctionService, ServiceFunctionCh
         return null;
     }
 
+    /**
+     * Reserve a contiguous range of path-ids. The whole range is reserved in
+     * a single datastore transaction, and its path-ids are skipped by the
+     * path-id generation algorithms from then on, so they remain available
+     * for paths created with an explicit path-id.
+     *
+     * <p>
+     * @param input
+     *            first and last path-id of the range
+     * @return RPC output, with result true if the range was reserved
+     */
     @Override
     public Future<RpcResult<ReservePathIdRangeOutput>> reservePathIdRange(ReservePathIdRangeInput input) {
-        return null;
+        if (input.getPathIdStart() == null || input.getPathIdEnd() == null) {
+            return Futures.immediateFuture(RpcResultBuilder.<ReservePathIdRangeOutput>failed()
+                    .withError(ErrorType.APPLICATION, "Path-id range start and end are mandatory").build());
+        }
+
+        boolean result = SfcServicePathId.reservePathIdRange(input.getPathIdStart(), input.getPathIdEnd());
+
+        ReservePathIdRangeOutputBuilder reservePathIdRangeOutputBuilder = new ReservePathIdRangeOutputBuilder();
+        reservePathIdRangeOutputBuilder.setResult(result);
+        return Futures.immediateFuture(RpcResultBuilder.success(reservePathIdRangeOutputBuilder.build()).build());
     }
 
     @Override
     public Future<RpcResult<ReadPathIdOutput>> readPathId(ReadPathIdInput input) {
-        return null;
+        if (input.getPathId() == null) {
+            return Futures.immediateFuture(RpcResultBuilder.<ReadPathIdOutput>failed()
+                    .withError(ErrorType.APPLICATION, "Path-id is mandatory").build());
+        }
+
+        ReadPathIdOutputBuilder readPathIdOutputBuilder = new ReadPathIdOutputBuilder();
+        readPathIdOutputBuilder.setState(SfcServicePathId.readPathIdState(input.getPathId()));
+        return Futures.immediateFuture(RpcResultBuilder.success(readPathIdOutputBuilder.build()).build());
     }
 
     @Override
     public Future<RpcResult<AllocatePathIdOutput>> allocatePathId(AllocatePathIdInput input) {
-        return null;
+        if (input.getPathId() == null) {
+            return Futures.immediateFuture(RpcResultBuilder.<AllocatePathIdOutput>failed()
+                    .withError(ErrorType.APPLICATION, "Path-id is mandatory").build());
+        }
+
+        boolean result = SfcServicePathId.chechAndAllocatePathId(input.getPathId()) != -1;
+
+        AllocatePathIdOutputBuilder allocatePathIdOutputBuilder = new AllocatePathIdOutputBuilder();
+        allocatePathIdOutputBuilder.setResult(result);
+        return Futures.immediateFuture(RpcResultBuilder.success(allocatePathIdOutputBuilder.build()).build());
     }
 
+    /**
+     * Delete a path-id. An allocated path-id is freed; a reserved path-id
+     * that is not allocated is released from the range it was reserved with,
+     * the rest of the range staying reserved.
+     *
+     * <p>
+     * @param input
+     *            path-id to delete
+     * @return RPC output, with result true if the path-id was deleted
+     */
     @Override
     public Future<RpcResult<DeletePathIdOutput>> deletePathId(DeletePathIdInput input) {
-        return null;
+        if (input.getPathId() == null) {
+            return Futures.immediateFuture(RpcResultBuilder.<DeletePathIdOutput>failed()
+                    .withError(ErrorType.APPLICATION, "Path-id is mandatory").build());
+        }
+
+        boolean result;
+        switch (SfcServicePathId.readPathIdState(input.getPathId())) {
+            case Allocated:
+                result = SfcServicePathId.freePathId(input.getPathId());
+                break;
+            case Reserved:
+                result = SfcServicePathId.releaseReservedPathId(input.getPathId());
+                break;
+            default:
+                result = false;
+                break;
+        }
+
+        DeletePathIdOutputBuilder deletePathIdOutputBuilder = new DeletePathIdOutputBuilder();
+        deletePathIdOutputBuilder.setResult(result);
+        return Futures.immediateFuture(RpcResultBuilder.success(deletePathIdOutputBuilder.build()).build());
     }
 
     @Override
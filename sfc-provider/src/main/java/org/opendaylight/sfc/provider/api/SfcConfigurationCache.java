@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfcName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChain;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Controller wide read-through cache of the SFC configuration, shared by the
+ * provider and the renderers.
+ *
+ * <p>
+ * There is one cache per kind of object. An object missing from a cache is
+ * read from the datastore and kept, while the provider listeners put the
+ * added and updated objects and drop the removed ones, so a cache only serves
+ * objects while its listener is tracking it; otherwise every get goes to the
+ * datastore. Objects that do not exist are not cached. Caches are bounded and
+ * entries expire after a while as a safety net. Hit and miss counts are
+ * available through {@link #getStats()}.
+ *
+ * <p>
+ * Reads that are part of a read-modify-write of the same object must keep
+ * going to the datastore.
+ */
+public final class SfcConfigurationCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcConfigurationCache.class);
+
+    private static final long MAXIMUM_SIZE = 10000;
+    private static final long EXPIRE_AFTER_WRITE_MINUTES = 10;
+
+    private static final ConfigurationCache<SfName, ServiceFunction> SERVICE_FUNCTIONS =
+            new ConfigurationCache<>("service-functions", SfcProviderServiceFunctionAPI::readServiceFunction);
+    private static final ConfigurationCache<SffName, ServiceFunctionForwarder> SERVICE_FUNCTION_FORWARDERS =
+            new ConfigurationCache<>("service-function-forwarders",
+                    SfcProviderServiceForwarderAPI::readServiceFunctionForwarder);
+    private static final ConfigurationCache<SfcName, ServiceFunctionChain> SERVICE_FUNCTION_CHAINS =
+            new ConfigurationCache<>("service-function-chains", SfcProviderServiceChainAPI::readServiceFunctionChain);
+    private static final ConfigurationCache<SftTypeName, ServiceFunctionType> SERVICE_FUNCTION_TYPES =
+            new ConfigurationCache<>("service-function-types", SfcProviderServiceTypeAPI::readServiceFunctionType);
+    private static final ConfigurationCache<RspName, RenderedServicePath> RENDERED_SERVICE_PATHS =
+            new ConfigurationCache<>("rendered-service-paths", SfcProviderRenderedPathAPI::readRenderedServicePath);
+
+    private SfcConfigurationCache() {
+    }
+
+    public static ConfigurationCache<SfName, ServiceFunction> getServiceFunctions() {
+        return SERVICE_FUNCTIONS;
+    }
+
+    public static ConfigurationCache<SffName, ServiceFunctionForwarder> getServiceFunctionForwarders() {
+        return SERVICE_FUNCTION_FORWARDERS;
+    }
+
+    public static ConfigurationCache<SfcName, ServiceFunctionChain> getServiceFunctionChains() {
+        return SERVICE_FUNCTION_CHAINS;
+    }
+
+    public static ConfigurationCache<SftTypeName, ServiceFunctionType> getServiceFunctionTypes() {
+        return SERVICE_FUNCTION_TYPES;
+    }
+
+    public static ConfigurationCache<RspName, RenderedServicePath> getRenderedServicePaths() {
+        return RENDERED_SERVICE_PATHS;
+    }
+
+    /**
+     * Drops all the cached objects and stops serving them, i.e. when the
+     * data broker changes.
+     */
+    public static void reset() {
+        SERVICE_FUNCTIONS.setTracked(false);
+        SERVICE_FUNCTION_FORWARDERS.setTracked(false);
+        SERVICE_FUNCTION_CHAINS.setTracked(false);
+        SERVICE_FUNCTION_TYPES.setTracked(false);
+        RENDERED_SERVICE_PATHS.setTracked(false);
+    }
+
+    /**
+     * Gets the hit, miss and eviction statistics of every cache.
+     *
+     * @return the statistics by cache name
+     */
+    public static Map<String, CacheStats> getStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        for (ConfigurationCache<?, ?> cache : new ConfigurationCache<?, ?>[] {SERVICE_FUNCTIONS,
+            SERVICE_FUNCTION_FORWARDERS, SERVICE_FUNCTION_CHAINS, SERVICE_FUNCTION_TYPES, RENDERED_SERVICE_PATHS}) {
+            stats.put(cache.getName(), cache.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Cache of one kind of configuration object.
+     *
+     * @param <K>
+     *            the key of the objects
+     * @param <V>
+     *            the objects
+     */
+    public static final class ConfigurationCache<K, V> {
+        private final String name;
+        private final Function<K, V> reader;
+        private final Cache<K, V> cache = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE)
+                .expireAfterWrite(EXPIRE_AFTER_WRITE_MINUTES, TimeUnit.MINUTES).recordStats().build();
+        // incremented on every put and invalidation, see get()
+        private final AtomicLong modifications = new AtomicLong();
+        private volatile boolean tracked;
+
+        ConfigurationCache(String name, Function<K, V> reader) {
+            this.name = name;
+            this.reader = reader;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Starts or stops serving the cached objects. Called by the listener
+         * keeping the cache up to date on registration and close. The cache
+         * is emptied either way.
+         *
+         * @param tracked
+         *            whether the objects are being tracked
+         */
+        public void setTracked(boolean tracked) {
+            this.tracked = tracked;
+            modifications.incrementAndGet();
+            cache.invalidateAll();
+        }
+
+        public boolean isTracked() {
+            return tracked;
+        }
+
+        /**
+         * Gets an object, reading it from the datastore if it is not cached.
+         *
+         * @param key
+         *            the key of the object
+         * @return the object, or null if it does not exist
+         */
+        public V get(K key) {
+            if (!tracked) {
+                return reader.apply(key);
+            }
+            long modificationsBeforeRead = modifications.get();
+            AtomicBoolean read = new AtomicBoolean();
+            try {
+                // concurrent gets of a missing key share a single read
+                V value = cache.get(key, () -> {
+                    read.set(true);
+                    return reader.apply(key);
+                });
+                if (read.get() && modifications.get() != modificationsBeforeRead) {
+                    // the object may have changed while being read, do not
+                    // keep what might be stale
+                    cache.invalidate(key);
+                }
+                return value;
+            } catch (InvalidCacheLoadException e) {
+                // the object does not exist
+                return null;
+            } catch (ExecutionException | UncheckedExecutionException e) {
+                LOG.warn("get: failed to read {} from {}", key, name, e);
+                return reader.apply(key);
+            }
+        }
+
+        /**
+         * Puts an added or updated object.
+         *
+         * @param key
+         *            the key of the object
+         * @param value
+         *            the object
+         */
+        public void put(K key, V value) {
+            if (tracked) {
+                modifications.incrementAndGet();
+                cache.put(key, value);
+            }
+        }
+
+        /**
+         * Drops an object, i.e. when it is removed or written outside of a
+         * listener.
+         *
+         * @param key
+         *            the key of the object
+         */
+        public void invalidate(K key) {
+            modifications.incrementAndGet();
+            cache.invalidate(key);
+        }
+
+        public CacheStats getStats() {
+            return cache.stats();
+        }
+    }
+}
@@ -10,6 +10,8 @@ package org.opendaylight.sfc.provider.api;
 
 import com.google.common.base.Optional;
 import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
@@ -17,6 +19,7 @@ import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.sfc.provider.topology.SfcProviderTopology;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +42,9 @@ public final class SfcDataStoreAPI {
     // FIXME - Suppress FB violation. This class should really be a normal instance and not use statics.
     @SuppressFBWarnings("ST_WRITE_TO_STATIC_FROM_INSTANCE_METHOD")
     public void setDataProvider(DataBroker broker) {
+        SfcServicePathIdAllocator.reset();
+        SfcProviderTopology.getInstance().reset();
+        SfcConfigurationCache.reset();
         dataProvider = broker;
     }
 
@@ -46,6 +52,9 @@ public final class SfcDataStoreAPI {
     // blueprint,
     // so the injection should be manual
     public static void setDataProviderAux(DataBroker broker) {
+        SfcServicePathIdAllocator.reset();
+        SfcProviderTopology.getInstance().reset();
+        SfcConfigurationCache.reset();
         dataProvider = broker;
     }
 
@@ -107,6 +116,55 @@ public final class SfcDataStoreAPI {
         return ret;
     }
 
+    /**
+     * Commits all the operations collected in the given batch in a single
+     * write transaction, without waiting for the commit to complete.
+     *
+     * @param batch
+     *            the operations to commit
+     * @return future completing when the transaction is committed
+     */
+    public static ListenableFuture<Void> submitBatchTransactionAPI(SfcDataStoreBatch batch) {
+        if (batch.isEmpty()) {
+            return Futures.immediateFuture(null);
+        }
+        if (dataProvider == null) {
+            LOG.error("submitBatchTransactionAPI: dataProvider not initialized!");
+            return Futures.immediateFailedFuture(new IllegalStateException("dataProvider not initialized"));
+        }
+        WriteTransaction writeTx = dataProvider.newWriteOnlyTransaction();
+        batch.applyTo(writeTx);
+        return writeTx.submit();
+    }
+
+    /**
+     * Commits all the operations collected in the given batch in a single
+     * write transaction and waits for the commit to complete.
+     *
+     * @param batch
+     *            the operations to commit
+     * @return true if the transaction was committed, false otherwise
+     */
+    public static boolean batchTransactionAPI(SfcDataStoreBatch batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        if (dataProvider == null) {
+            LOG.error("batchTransactionAPI: dataProvider not initialized!");
+            return false;
+        }
+        WriteTransaction writeTx = dataProvider.newWriteOnlyTransaction();
+        batch.applyTo(writeTx);
+        CheckedFuture<Void, TransactionCommitFailedException> submitFuture = writeTx.submit();
+        try {
+            submitFuture.checkedGet();
+            return true;
+        } catch (TransactionCommitFailedException e) {
+            LOG.error("batchTransactionAPI: Transaction with {} operations failed", batch.size(), e);
+        }
+        return false;
+    }
+
     public static <U extends org.opendaylight.yangtools.yang.binding.DataObject> U readTransactionAPI(
             InstanceIdentifier<U> readIID, LogicalDatastoreType logicalDatastoreType) {
         U ret = null;
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * Collects the puts, merges and deletes of one logical operation so that they
+ * can be committed to the datastore in a single transaction.
+ *
+ * <p>
+ * Operations are only recorded here; nothing reaches the datastore until the
+ * batch is handed to {@link SfcDataStoreAPI#submitBatchTransactionAPI} or
+ * {@link SfcDataStoreAPI#batchTransactionAPI}. Operations are applied in the
+ * order they were added. Instances are not thread safe.
+ */
+public class SfcDataStoreBatch {
+
+    private final List<Consumer<WriteTransaction>> operations = new ArrayList<>();
+
+    public <U extends DataObject> SfcDataStoreBatch put(InstanceIdentifier<U> iid, U data,
+            LogicalDatastoreType logicalDatastoreType) {
+        operations.add(writeTx -> writeTx.put(logicalDatastoreType, iid, data, true));
+        return this;
+    }
+
+    public <U extends DataObject> SfcDataStoreBatch merge(InstanceIdentifier<U> iid, U data,
+            LogicalDatastoreType logicalDatastoreType) {
+        operations.add(writeTx -> writeTx.merge(logicalDatastoreType, iid, data, true));
+        return this;
+    }
+
+    public <U extends DataObject> SfcDataStoreBatch delete(InstanceIdentifier<U> iid,
+            LogicalDatastoreType logicalDatastoreType) {
+        operations.add(writeTx -> writeTx.delete(logicalDatastoreType, iid));
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    public int size() {
+        return operations.size();
+    }
+
+    void applyTo(WriteTransaction writeTx) {
+        operations.forEach(operation -> operation.accept(writeTx));
+    }
+}
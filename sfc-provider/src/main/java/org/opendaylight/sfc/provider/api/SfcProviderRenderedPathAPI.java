@@ -153,8 +153,7 @@ public final class SfcProviderRenderedPathAPI {
             CreateRenderedPathInput createRenderedPathInput,
             @Nullable SfcServiceFunctionSchedulerAPI possibleScheduler) {
         boolean rspSuccessful = false;
-        boolean addPathToSffStateSuccessful = false;
-        boolean addPathToSfStateSuccessful = false;
+        boolean addPathToStateSuccessful = false;
         RenderedServicePath renderedServicePath;
 
         // Fall back to defaultScheduler
@@ -173,30 +172,19 @@ public final class SfcProviderRenderedPathAPI {
                     createdServiceFunctionPath.getName());
         }
 
-        // Add Path name to SFF operational state
-        if (rspSuccessful && SfcProviderServiceForwarderAPI.addPathToServiceForwarderState(renderedServicePath)) {
-            addPathToSffStateSuccessful = true;
-        } else {
-            if (renderedServicePath != null) {
-                SfcProviderRenderedPathAPI.deleteRenderedServicePath(renderedServicePath.getName());
+        // Add Path name to SFF, SF and SFP operational state in a single
+        // transaction
+        if (rspSuccessful) {
+            SfcDataStoreBatch batch = new SfcDataStoreBatch();
+            SfcProviderServiceForwarderAPI.addPathToServiceForwarderState(renderedServicePath, batch);
+            if (SfcProviderServiceFunctionAPI.addPathToServiceFunctionState(renderedServicePath, batch)) {
+                SfcProviderServicePathAPI.addRenderedPathToServicePathState(createdServiceFunctionPath.getName(),
+                        renderedServicePath.getName(), batch);
+                addPathToStateSuccessful = SfcDataStoreAPI.batchTransactionAPI(batch);
             }
         }
 
-        // Add Path to SF operational state
-        if (addPathToSffStateSuccessful
-                && SfcProviderServiceFunctionAPI.addPathToServiceFunctionState(renderedServicePath)) {
-
-            addPathToSfStateSuccessful = true;
-        } else {
-            SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(createdServiceFunctionPath);
-            if (renderedServicePath != null) {
-                SfcProviderRenderedPathAPI.deleteRenderedServicePath(renderedServicePath.getName());
-            }
-        }
-
-        // Add RSP to SFP operational state
-        if (!(addPathToSfStateSuccessful && SfcProviderServicePathAPI.addRenderedPathToServicePathState(
-                createdServiceFunctionPath.getName(), renderedServicePath.getName()))) {
+        if (!addPathToStateSuccessful) {
             SfcProviderServiceFunctionAPI
                     .deleteServicePathFromServiceFunctionState(createdServiceFunctionPath.getName());
             SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(createdServiceFunctionPath);
@@ -257,30 +245,20 @@ public final class SfcProviderRenderedPathAPI {
             LOG.error("Could not create Reverse RSP {}", renderedServicePath.getName());
         }
 
-        // Add Path name to SFF operational state
-        boolean addRevPathToSffStateSuccessful = false;
+        // Add Path name to SFF, SF and SFP operational state in a single
+        // transaction
+        boolean addRevPathToStateSuccessful = false;
         if (revRspSuccessful) {
-            if (SfcProviderServiceForwarderAPI.addPathToServiceForwarderState(revRenderedServicePath)) {
-                addRevPathToSffStateSuccessful = true;
-            } else {
-                deleteRenderedServicePath(revRenderedServicePath.getName());
-            }
-        }
-
-        // Add Path to SF operational state
-        boolean addRevPathToSfStateSuccessful = false;
-        if (addRevPathToSffStateSuccessful) {
-            if (SfcProviderServiceFunctionAPI.addPathToServiceFunctionState(revRenderedServicePath)) {
-                addRevPathToSfStateSuccessful = true;
-            } else {
-                SfcProviderServiceForwarderAPI.deletePathFromServiceForwarderState(revRenderedServicePath.getName());
-                deleteRenderedServicePath(revRenderedServicePath.getName());
+            SfcDataStoreBatch batch = new SfcDataStoreBatch();
+            SfcProviderServiceForwarderAPI.addPathToServiceForwarderState(revRenderedServicePath, batch);
+            if (SfcProviderServiceFunctionAPI.addPathToServiceFunctionState(revRenderedServicePath, batch)) {
+                SfcProviderServicePathAPI.addRenderedPathToServicePathState(
+                        renderedServicePath.getParentServiceFunctionPath(), revRenderedServicePath.getName(), batch);
+                addRevPathToStateSuccessful = SfcDataStoreAPI.batchTransactionAPI(batch);
             }
         }
 
-        // Add RSP to SFP operational state
-        if (!(addRevPathToSfStateSuccessful && SfcProviderServicePathAPI.addRenderedPathToServicePathState(
-                renderedServicePath.getParentServiceFunctionPath(), revRenderedServicePath.getName()))) {
+        if (!addRevPathToStateSuccessful) {
             // TODO Bug 4495 - RPCs hiding heuristics using Strings - alagalah
             /*
              * XXX TODO this exemplifies the issue. There is no method called
@@ -348,8 +326,8 @@ public final class SfcProviderRenderedPathAPI {
                  * String-String heuristics would be opaque for me to resolve in
                  * refactoring.
                  */
-                ServiceFunction serviceFunction = SfcProviderServiceFunctionAPI
-                        .readServiceFunction(new SfName(sfg.getSfcServiceFunction().get(0).getName()));
+                ServiceFunction serviceFunction = SfcConfigurationCache.getServiceFunctions()
+                        .get(new SfName(sfg.getSfcServiceFunction().get(0).getName()));
                 if (serviceFunction == null) {
                     LOG.error("Could not find suitable SF in data store by name: {}",
                             sfg.getSfcServiceFunction().get(0).getName());
@@ -365,8 +343,8 @@ public final class SfcProviderRenderedPathAPI {
 
         } else {
             for (SfName serviceFunctionName : serviceFunctionNameList) {
-                ServiceFunction serviceFunction = SfcProviderServiceFunctionAPI
-                        .readServiceFunction(serviceFunctionName);
+                ServiceFunction serviceFunction = SfcConfigurationCache.getServiceFunctions()
+                        .get(serviceFunctionName);
                 if (serviceFunction == null) {
                     LOG.error("Could not find suitable SF in data store by name: {}", serviceFunctionName);
                     return null;
@@ -463,7 +441,7 @@ public final class SfcProviderRenderedPathAPI {
         ServiceFunctionChain serviceFunctionChain;
         SfcName serviceFunctionChainName = serviceFunctionPath.getServiceChainName();
         serviceFunctionChain = serviceFunctionChainName != null
-                ? SfcProviderServiceChainAPI.readServiceFunctionChain(serviceFunctionChainName) : null;
+                ? SfcConfigurationCache.getServiceFunctionChains().get(serviceFunctionChainName) : null;
         if (serviceFunctionChain == null) {
             LOG.error("ServiceFunctionChain name for Path {} not provided", serviceFunctionPath.getName());
             return null;
@@ -484,7 +462,7 @@ public final class SfcProviderRenderedPathAPI {
         if (sfNameList != null) {
             for (SfName sfName : sfNameList) {
                 List<SfServicePath> sfServicePathList = SfcProviderServiceFunctionAPI.readServiceFunctionState(sfName);
-                ServiceFunction sf = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
+                ServiceFunction sf = SfcConfigurationCache.getServiceFunctions().get(sfName);
                 if (Boolean.TRUE.equals(sf.isOneChainOnly()) && sfServicePathList != null
                         && !sfServicePathList.isEmpty()) {
                     LOG.error("createRenderedServicePathEntry SF [{}] is-one-chain-only is TRUE and the SF "
@@ -678,7 +656,7 @@ public final class SfcProviderRenderedPathAPI {
      */
     public static RspName getReversedRspName(RspName rspName) {
         RspName returnRspName = null;
-        RenderedServicePath renderedServicePath = SfcProviderRenderedPathAPI.readRenderedServicePath(rspName);
+        RenderedServicePath renderedServicePath = SfcConfigurationCache.getRenderedServicePaths().get(rspName);
         if (renderedServicePath != null && renderedServicePath.getSymmetricPathId() != null) {
             // The RSP has a symmetric ("Reverse") Path
             returnRspName = SfcProviderRenderedPathAPI.generateReversedPathName(renderedServicePath.getName());
@@ -803,7 +781,7 @@ public final class SfcProviderRenderedPathAPI {
     public static RenderedServicePathFirstHop readRenderedServicePathFirstHop(RspName rspName) {
         RenderedServicePathFirstHop renderedServicePathFirstHop = null;
 
-        RenderedServicePath renderedServicePath = readRenderedServicePath(rspName);
+        RenderedServicePath renderedServicePath = SfcConfigurationCache.getRenderedServicePaths().get(rspName);
         if (renderedServicePath != null) {
             RenderedServicePathFirstHopBuilder renderedServicePathFirstHopBuilder =
                 new RenderedServicePathFirstHopBuilder();
@@ -904,7 +882,8 @@ public final class SfcProviderRenderedPathAPI {
 
         /* Build sfcName, pathName and ServiceFunction list */
         for (index = 0; index < serviceFunctionTypeList.size(); index++) {
-            serviceFunctionType = SfcProviderServiceTypeAPI.readServiceFunctionType(serviceFunctionTypeList.get(index));
+            serviceFunctionType = SfcConfigurationCache.getServiceFunctionTypes()
+                    .get(serviceFunctionTypeList.get(index));
             serviceTypeName = serviceFunctionType.getType().getValue();
             if (serviceTypeName == null) {
                 LOG.error("Unknown ServiceFunctionType: {}", serviceFunctionType.getType());
@@ -1025,8 +1004,8 @@ public final class SfcProviderRenderedPathAPI {
 
         List<RenderedServicePathHop> rspHops = rsp.getRenderedServicePathHop();
         for (RenderedServicePathHop hop : rspHops) {
-            ServiceFunction sf = SfcProviderServiceFunctionAPI.readServiceFunction(hop.getServiceFunctionName());
-            ServiceFunctionType sfType = SfcProviderServiceTypeAPI.readServiceFunctionType(sf.getType());
+            ServiceFunction sf = SfcConfigurationCache.getServiceFunctions().get(hop.getServiceFunctionName());
+            ServiceFunctionType sfType = SfcConfigurationCache.getServiceFunctionTypes().get(sf.getType());
             if (sfType == null) {
                 LOG.error("Service Function type [{}] for Service Function [{}] does not exist.", sf.getType(),
                         sf.getName());
@@ -191,9 +191,29 @@ public final class SfcProviderServiceForwarderAPI {
      * @return Nothing.
      */
     public static boolean addPathToServiceForwarderState(RenderedServicePath renderedServicePath) {
-        printTraceStart(LOG);
+        SfcDataStoreBatch batch = new SfcDataStoreBatch();
+        addPathToServiceForwarderState(renderedServicePath, batch);
+        if (!SfcDataStoreAPI.batchTransactionAPI(batch)) {
+            LOG.error("Failed to add path {} to SFF state.", renderedServicePath.getName());
+            return false;
+        }
+        return true;
+    }
 
-        boolean ret = true;
+    /**
+     * We add to the given batch the operations needed to add the path name to
+     * the operational store of each SFF.
+     *
+     * <p>
+     *
+     * @param renderedServicePath
+     *            RSP Object
+     * @param batch
+     *            batch the operations are added to
+     */
+    public static void addPathToServiceForwarderState(RenderedServicePath renderedServicePath,
+            SfcDataStoreBatch batch) {
+        printTraceStart(LOG);
 
         // TODO another example of strings being used to interchange types. Note
         // the constructor of
@@ -213,15 +233,9 @@ public final class SfcProviderServiceForwarderAPI {
                             .child(ServiceFunctionForwarderState.class, serviceFunctionForwarderStateKey)
                             .child(SffServicePath.class, sffServicePathKey).build();
 
-            if (!SfcDataStoreAPI.writePutTransactionAPI(sfStateIID, sffServicePathBuilder.build(),
-                    LogicalDatastoreType.OPERATIONAL)) {
-                ret = false;
-                LOG.error("Failed to add path {} to SFF {} state.", renderedServicePath.getName(),
-                        renderedServicePathHop.getServiceFunctionForwarder());
-            }
+            batch.put(sfStateIID, sffServicePathBuilder.build(), LogicalDatastoreType.OPERATIONAL);
         }
         printTraceStop(LOG);
-        return ret;
     }
 
     /**
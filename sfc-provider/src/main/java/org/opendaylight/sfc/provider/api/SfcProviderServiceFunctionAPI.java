@@ -187,6 +187,32 @@ public final class SfcProviderServiceFunctionAPI {
      * @return true if SFP was added, false otherwise
      */
     public static boolean addPathToServiceFunctionState(RenderedServicePath renderedServicePath) {
+        SfcDataStoreBatch batch = new SfcDataStoreBatch();
+        if (!addPathToServiceFunctionState(renderedServicePath, batch)) {
+            return false;
+        }
+        if (!SfcDataStoreAPI.batchTransactionAPI(batch)) {
+            LOG.error("{}: Could not add SFP {} to operational state of its SFs",
+                    Thread.currentThread().getStackTrace()[1], renderedServicePath.getName());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * This method adds to the given batch the operations needed to add a RSP
+     * name to the corresponding SF operational state.
+     *
+     * <p>
+     *
+     * @param renderedServicePath
+     *            RSP object
+     * @param batch
+     *            batch the operations are added to
+     * @return true if the RSP has any SF or SFG hop, false otherwise
+     */
+    public static boolean addPathToServiceFunctionState(RenderedServicePath renderedServicePath,
+            SfcDataStoreBatch batch) {
         boolean ret = false;
         printTraceStart(LOG);
 
@@ -210,14 +236,8 @@ public final class SfcProviderServiceFunctionAPI {
                         .child(ServiceFunctionState.class, serviceFunctionStateKey)
                         .child(SfServicePath.class, sfServicePathKey).build();
 
-                if (SfcDataStoreAPI.writePutTransactionAPI(sfStateIID, sfServicePathBuilder.build(),
-                        LogicalDatastoreType.OPERATIONAL)) {
-                    ret = true;
-                } else {
-                    LOG.error("{}: Could not add SFP {} to operational state of SF: {}",
-                            Thread.currentThread().getStackTrace()[1], renderedServicePath.getName(),
-                            renderedServicePathHop.getServiceFunctionName());
-                }
+                batch.put(sfStateIID, sfServicePathBuilder.build(), LogicalDatastoreType.OPERATIONAL);
+                ret = true;
             } else if (serviceFunctionGroupName != null) {
                 LOG.info("{}: Could not add SFP {} to operational state of SFG: {}",
                         Thread.currentThread().getStackTrace()[1], renderedServicePath.getName(),
@@ -85,10 +85,32 @@ public final class SfcProviderServicePathAPI {
      * @return Nothing.
      */
     public static boolean addRenderedPathToServicePathState(SfpName servicePathName, RspName renderedPathName) {
+        SfcDataStoreBatch batch = new SfcDataStoreBatch();
+        addRenderedPathToServicePathState(servicePathName, renderedPathName, batch);
+        if (!SfcDataStoreAPI.batchTransactionAPI(batch)) {
+            LOG.error("{}: Failed to create Service Function Path {} state. Rendered Service Path: {}",
+                    Thread.currentThread().getStackTrace()[1], servicePathName, renderedPathName);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Adds to the given batch the operation needed to add a rendered path to
+     * the service path operational state.
+     *
+     * @param servicePathName
+     *            Service Function Path name
+     * @param renderedPathName
+     *            Rendered Path name
+     * @param batch
+     *            batch the operation is added to
+     */
+    public static void addRenderedPathToServicePathState(SfpName servicePathName, RspName renderedPathName,
+            SfcDataStoreBatch batch) {
 
         printTraceStart(LOG);
         InstanceIdentifier<SfpRenderedServicePath> rspIID;
-        boolean ret = false;
 
         SfpRenderedServicePathBuilder sfpRenderedServicePathBuilder = new SfpRenderedServicePathBuilder();
         SfpRenderedServicePathKey sfpRenderedServicePathKey = new SfpRenderedServicePathKey(renderedPathName);
@@ -100,15 +122,8 @@ public final class SfcProviderServicePathAPI {
                 .child(ServiceFunctionPathState.class, serviceFunctionPathStateKey)
                 .child(SfpRenderedServicePath.class, sfpRenderedServicePathKey).build();
 
-        if (SfcDataStoreAPI.writeMergeTransactionAPI(rspIID, sfpRenderedServicePathBuilder.build(),
-                LogicalDatastoreType.OPERATIONAL)) {
-            ret = true;
-        } else {
-            LOG.error("{}: Failed to create Service Function Path {} state. Rendered Service Path: {}",
-                    Thread.currentThread().getStackTrace()[1], servicePathName, renderedPathName);
-        }
+        batch.merge(rspIID, sfpRenderedServicePathBuilder.build(), LogicalDatastoreType.OPERATIONAL);
         printTraceStop(LOG);
-        return ret;
     }
 
     /**
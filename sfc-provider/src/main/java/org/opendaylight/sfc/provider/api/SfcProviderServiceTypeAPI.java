@@ -83,6 +83,8 @@ public final class SfcProviderServiceTypeAPI {
         } else {
             LOG.error("Failed to create Service Function Type for Service Function: {}", serviceFunction.getName());
         }
+        // written outside of the listener, drop the cached type right away
+        SfcConfigurationCache.getServiceFunctionTypes().invalidate(serviceFunction.getType());
         printTraceStop(LOG);
         return ret;
     }
@@ -95,6 +97,7 @@ public final class SfcProviderServiceTypeAPI {
                 .child(ServiceFunctionType.class, sft.getKey()).build();
 
         ret = SfcDataStoreAPI.writePutTransactionAPI(sftEntryIID, sft, LogicalDatastoreType.CONFIGURATION);
+        SfcConfigurationCache.getServiceFunctionTypes().invalidate(sft.getType());
 
         printTraceStop(LOG);
         return ret;
@@ -155,6 +158,7 @@ public final class SfcProviderServiceTypeAPI {
             LOG.error("Failed to delete Service Function Type: {}, for Service Function: {}", serviceFunction.getType(),
                     serviceFunction.getName());
         }
+        SfcConfigurationCache.getServiceFunctionTypes().invalidate(serviceFunction.getType());
         List<SftServiceFunctionName> sftServiceFunctionNameList = readServiceFunctionType(serviceFunction.getType())
                 .getSftServiceFunctionName();
         if (sftServiceFunctionNameList != null) {
@@ -204,6 +208,7 @@ public final class SfcProviderServiceTypeAPI {
         } else {
             LOG.error("Failed to delete Service Type: {}", serviceFunctionType);
         }
+        SfcConfigurationCache.getServiceFunctionTypes().invalidate(serviceFunctionType.getType());
         printTraceStop(LOG);
         return ret;
     }
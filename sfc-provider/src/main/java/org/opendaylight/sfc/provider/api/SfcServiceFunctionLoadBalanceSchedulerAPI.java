@@ -61,7 +61,7 @@ public final class SfcServiceFunctionLoadBalanceSchedulerAPI extends SfcServiceF
             sfName = new SfName(curSftServiceFunctionName.getName());
 
             /* Check next one if curSftServiceFunctionName doesn't exist */
-            ServiceFunction serviceFunction = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
+            ServiceFunction serviceFunction = SfcConfigurationCache.getServiceFunctions().get(sfName);
             if (serviceFunction == null) {
                 LOG.error("ServiceFunction {} doesn't exist", sfName);
                 continue;
@@ -123,7 +123,7 @@ public final class SfcServiceFunctionLoadBalanceSchedulerAPI extends SfcServiceF
              */
 
             ServiceFunctionType serviceFunctionType;
-            serviceFunctionType = SfcProviderServiceTypeAPI.readServiceFunctionType(sfcServiceFunction.getType());
+            serviceFunctionType = SfcConfigurationCache.getServiceFunctionTypes().get(sfcServiceFunction.getType());
             if (serviceFunctionType != null) {
                 List<SftServiceFunctionName> sftServiceFunctionNameList = serviceFunctionType
                         .getSftServiceFunctionName();
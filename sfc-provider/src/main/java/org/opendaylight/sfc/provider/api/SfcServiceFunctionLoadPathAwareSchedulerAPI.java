@@ -14,15 +14,9 @@ import java.util.Map;
 import org.opendaylight.sfc.provider.topology.SfcProviderGraph;
 import org.opendaylight.sfc.provider.topology.SfcProviderTopologyNode;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctions;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChain;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.service.function.chain.SfcServiceFunction;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwarders;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ConnectedSffDictionary;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ServiceFunctionDictionary;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.service.function.type.SftServiceFunctionName;
@@ -93,7 +87,7 @@ public final class SfcServiceFunctionLoadPathAwareSchedulerAPI extends SfcServic
                 sfName = new SfName(curSftServiceFunctionName.getName());
 
                 /* Read sfName of the curSftServiceFunctionName */
-                ServiceFunction serviceFunction = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
+                ServiceFunction serviceFunction = SfcConfigurationCache.getServiceFunctions().get(sfName);
                 if (serviceFunction == null) {
                     LOG.error("ServiceFunction {} doesn't exist", sfName);
                     continue;
@@ -164,17 +158,15 @@ public final class SfcServiceFunctionLoadPathAwareSchedulerAPI extends SfcServic
                 continue;
             }
 
-            /* Get shotestpath length from the preSfName to curSfName */
-            List<SfcProviderTopologyNode> sfcProviderTopologyNodeList = sfcProviderGraph
-                    .getShortestPath(preSfName.getValue(), curSfName.getValue());
-            pathLength = sfcProviderTopologyNodeList.size() - 1;
+            /* Get shortest path length from the preSfName to curSfName, -1 if none */
+            pathLength = sfcProviderGraph.getDistance(preSfName.getValue(), curSfName.getValue());
             LOG.debug("Shortest path length between {} and {} : {}", preSfName, curSfName, pathLength);
 
             if (pathLength <= 1) {
                 LOG.debug("No path from {} to {}", preSfName, curSfName);
                 continue;
             }
-            ServiceFunction serviceFunction = SfcProviderServiceFunctionAPI.readServiceFunction(curSfName);
+            ServiceFunction serviceFunction = SfcConfigurationCache.getServiceFunctions().get(curSfName);
             if (serviceFunction == null) {
                 LOG.error("ServiceFunction {} doesn't exist", curSfName);
                 continue;
@@ -221,67 +213,6 @@ public final class SfcServiceFunctionLoadPathAwareSchedulerAPI extends SfcServic
         return sfcProviderTopologyNodeName;
     }
 
-    /**
-     * This method builds a SfcProviderGraph comprised of all the SFs and SFFs.
-     * sfcProviderGraph will store all the info about vertex/node and edge.
-     *
-     * <p>
-     *
-     * @param sfcProviderGraph
-     *            input and output of this method
-     */
-    private void buildTopologyGraph(SfcProviderGraph sfcProviderGraph) {
-        SfName sfName;
-        SffName sffName;
-        SffName toSffName;
-
-        /* Add all the ServiceFunction nodes */
-        ServiceFunctions sfs = SfcProviderServiceFunctionAPI.readAllServiceFunctions();
-        List<ServiceFunction> serviceFunctionList = sfs.getServiceFunction();
-        for (ServiceFunction serviceFunction : serviceFunctionList) {
-            sfName = serviceFunction.getName();
-            sfcProviderGraph.addNode(sfName.getValue());
-            LOG.debug("Add ServiceFunction: {}", sfName);
-        }
-
-        ServiceFunctionForwarders sffs = SfcProviderServiceForwarderAPI.readAllServiceFunctionForwarders();
-        List<ServiceFunctionForwarder> serviceFunctionForwarderList = sffs.getServiceFunctionForwarder();
-
-        /* Add edges and node for every ServiceFunctionForwarder */
-        for (ServiceFunctionForwarder serviceFunctionForwarder : serviceFunctionForwarderList) {
-            /* Add ServiceFunctionForwarder node */
-            sffName = serviceFunctionForwarder.getName();
-            sfcProviderGraph.addNode(sffName.getValue());
-            LOG.debug("Add ServiceFunctionForwarder: {}", sffName);
-
-            List<ServiceFunctionDictionary> serviceFunctionDictionaryList = serviceFunctionForwarder
-                    .getServiceFunctionDictionary();
-
-            /*
-             * Add edge for every ServiceFunction attached to
-             * serviceFunctionForwarder
-             */
-            for (ServiceFunctionDictionary serviceFunctionDictionary : serviceFunctionDictionaryList) {
-                sfName = serviceFunctionDictionary.getName();
-                sfcProviderGraph.addEdge(sfName.getValue(), sffName.getValue());
-                LOG.debug("Add SF-to-SFF edge: {} => {}", sfName, sffName);
-            }
-
-            List<ConnectedSffDictionary> connectedSffDictionaryList = serviceFunctionForwarder
-                    .getConnectedSffDictionary();
-
-            /*
-             * Add edge for every ServiceFunctionForwarder connected to
-             * serviceFunctionForwarder
-             */
-            for (ConnectedSffDictionary connectedSffDictionary : connectedSffDictionaryList) {
-                toSffName = connectedSffDictionary.getName();
-                sfcProviderGraph.addEdge(sffName.getValue(), toSffName.getValue());
-                LOG.debug("Add SFF-to-SFF edge: {} => {}", sffName, toSffName);
-            }
-        }
-    }
-
     /**
      * This method finds out the load and path-aware Service Function Path for
      * the given Service Function Chain. For each SF type in the given chain,
@@ -311,16 +242,10 @@ public final class SfcServiceFunctionLoadPathAwareSchedulerAPI extends SfcServic
         List<SfName> sfNameList = new ArrayList<>();
         List<SfcServiceFunction> sfcServiceFunctionList = new ArrayList<>();
         sfcServiceFunctionList.addAll(chain.getSfcServiceFunction());
-        SfcProviderGraph sfcProviderGraph = new SfcProviderGraph();
+        SfcProviderGraph sfcProviderGraph = getTopologyGraph();
         short index = 0;
         Map<Short, SfName> sfpMapping = getSFPHopSfMapping(sfp);
 
-        /*
-         * Build topology graph for all the nodes, including every
-         * ServiceFunction and ServiceFunctionForwarder
-         */
-        buildTopologyGraph(sfcProviderGraph);
-
         /*
          * Select a SF instance closest to previous hop in SFP for each
          * ServiceFunction type in sfcServiceFunctionList.
@@ -333,8 +258,8 @@ public final class SfcServiceFunctionLoadPathAwareSchedulerAPI extends SfcServic
                 continue;
             }
 
-            ServiceFunctionType serviceFunctionType = SfcProviderServiceTypeAPI
-                    .readServiceFunctionType(sfcServiceFunction.getType());
+            ServiceFunctionType serviceFunctionType = SfcConfigurationCache.getServiceFunctionTypes()
+                    .get(sfcServiceFunction.getType());
             if (serviceFunctionType != null) {
                 List<SftServiceFunctionName> sftServiceFunctionNameList = serviceFunctionType
                         .getSftServiceFunctionName();
@@ -51,7 +51,7 @@ public final class SfcServiceFunctionRandomSchedulerAPI extends SfcServiceFuncti
 
         while (maxTries > 0) {
             serviceFunctionName = new SfName(sftServiceFunctionNameList.get(start).getName());
-            serviceFunction = SfcProviderServiceFunctionAPI.readServiceFunction(serviceFunctionName);
+            serviceFunction = SfcConfigurationCache.getServiceFunctions().get(serviceFunctionName);
             if (serviceFunction != null) {
                 break;
             } else {
@@ -95,7 +95,7 @@ public final class SfcServiceFunctionRandomSchedulerAPI extends SfcServiceFuncti
              */
 
             ServiceFunctionType serviceFunctionType;
-            serviceFunctionType = SfcProviderServiceTypeAPI.readServiceFunctionType(sfcServiceFunction.getType());
+            serviceFunctionType = SfcConfigurationCache.getServiceFunctionTypes().get(sfcServiceFunction.getType());
             if (serviceFunctionType != null) {
                 List<SftServiceFunctionName> sftServiceFunctionNameList =
                         serviceFunctionType.getSftServiceFunctionName();
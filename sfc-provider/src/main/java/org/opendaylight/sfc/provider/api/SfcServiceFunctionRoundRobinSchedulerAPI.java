@@ -92,7 +92,7 @@ public final class SfcServiceFunctionRoundRobinSchedulerAPI extends SfcServiceFu
              * Pointer exceptions
              */
             ServiceFunctionType serviceFunctionType;
-            serviceFunctionType = SfcProviderServiceTypeAPI.readServiceFunctionType(sfcServiceFunction.getType());
+            serviceFunctionType = SfcConfigurationCache.getServiceFunctionTypes().get(sfcServiceFunction.getType());
             if (serviceFunctionType != null) {
                 List<SftServiceFunctionName> sftServiceFunctionNameList = serviceFunctionType
                         .getSftServiceFunctionName();
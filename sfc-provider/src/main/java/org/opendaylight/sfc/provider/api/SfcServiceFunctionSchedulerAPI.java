@@ -11,8 +11,12 @@ package org.opendaylight.sfc.provider.api;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.opendaylight.sfc.provider.topology.SfcProviderGraph;
+import org.opendaylight.sfc.provider.topology.SfcProviderTopology;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.ServiceFunctions;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChain;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.ServiceFunctionForwarders;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.ServiceFunctionPath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.service.function.path.ServicePathHop;
 
@@ -56,4 +60,23 @@ public abstract class SfcServiceFunctionSchedulerAPI {
         }
         return ret;
     }
+
+    /**
+     * Gets the topology graph comprised of all the SFs and SFFs. The shared
+     * topology maintained by the SF and SFF listeners is used when available,
+     * otherwise the graph is built from the datastore.
+     *
+     * @return the topology graph, which must not be modified
+     */
+    protected static SfcProviderGraph getTopologyGraph() {
+        SfcProviderGraph sfcProviderGraph = SfcProviderTopology.getInstance().getGraph();
+        if (sfcProviderGraph != null) {
+            return sfcProviderGraph;
+        }
+
+        ServiceFunctions sfs = SfcProviderServiceFunctionAPI.readAllServiceFunctions();
+        ServiceFunctionForwarders sffs = SfcProviderServiceForwarderAPI.readAllServiceFunctionForwarders();
+        return SfcProviderTopology.buildGraph(sfs != null ? sfs.getServiceFunction() : null,
+                sffs != null ? sffs.getServiceFunctionForwarder() : null);
+    }
 }
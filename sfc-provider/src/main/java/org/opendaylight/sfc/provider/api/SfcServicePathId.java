@@ -9,19 +9,23 @@
 package org.opendaylight.sfc.provider.api;
 
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.GenerationAlgorithmEnum;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.PathIdState;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ServicePathIds;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ServicePathIdsBuilder;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ServicePathId;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ServicePathIdBuilder;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ServicePathIdKey;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 /**
  * This class has the APIs to operate on the Service PathIds.
  *
  * <p>
+ * Path-ids are checked and allocated against the in-memory bitarray kept by
+ * {@link SfcServicePathIdAllocator}, which writes changes back to the
+ * datastore.
+ *
+ * <p>
  *
  * @author Reinaldo Penno (rapenno@gmail.com)
  * @version 0.1
@@ -36,7 +40,7 @@ public final class SfcServicePathId {
     private static final int MIN_PATH_ID = 0;
     private static final int DEFAULT_GENERATION_ALGORITHM = GenerationAlgorithmEnum.Random.getIntValue();
     private static final Random RANDOM_GENERATOR = new Random();
-    private static int nextPathId = 0;
+    private static final AtomicInteger NEXT_PATH_ID = new AtomicInteger();
     private static final int NUM_PATH_ID = MAX_PATH_ID - MIN_PATH_ID + 1;
 
     /* Determines the trade-off */
@@ -48,21 +52,21 @@ public final class SfcServicePathId {
     /**
      * Algorithm to randomize the generation of pathIds. Provides security by
      * making path-id less predictable. Adapted from NAT port allocation
-     * algorithm
+     * algorithm. Reserved pathIds are skipped.
      *
      * <p>
      *
      * @return Pathid or error if none available
      */
     public static int generatePathIdRandomIncrements() {
+        SfcServicePathIdAllocator allocator = SfcServicePathIdAllocator.getInstance();
         int pathid;
         int count = NUM_PATH_ID;
 
         do {
-            nextPathId = nextPathId + RANDOM_GENERATOR.nextInt(NUM_PATH_ID) % N + 1;
-            pathid = MIN_PATH_ID + nextPathId % NUM_PATH_ID;
+            pathid = MIN_PATH_ID + NEXT_PATH_ID.addAndGet(RANDOM_GENERATOR.nextInt(NUM_PATH_ID) % N + 1) % NUM_PATH_ID;
 
-            if (checkSuitablePathId(pathid)) {
+            if (!allocator.isAllocated(pathid) && !allocator.isReserved(pathid)) {
                 return pathid;
             }
             count--;
@@ -73,21 +77,52 @@ public final class SfcServicePathId {
     }
 
     /**
-     * Algorithm to sequentially generate pathIds.
+     * Randomly generate a pathId as {@link #generatePathIdRandomIncrements()}
+     * does, and allocate it. Reserved pathIds are skipped.
+     *
+     * <p>
+     *
+     * @return Pathid or error if none available
+     */
+    private static int allocatePathIdRandomIncrements() {
+        SfcServicePathIdAllocator allocator = SfcServicePathIdAllocator.getInstance();
+        int pathid;
+        int count = NUM_PATH_ID;
+
+        do {
+            pathid = MIN_PATH_ID + NEXT_PATH_ID.addAndGet(RANDOM_GENERATOR.nextInt(NUM_PATH_ID) % N + 1) % NUM_PATH_ID;
+
+            if (allocator.tryAllocateUnreserved(pathid)) {
+                return pathid;
+            }
+            count--;
+        }
+        while (count > 0);
+
+        return -1;
+    }
+
+    /**
+     * Algorithm to sequentially generate and allocate pathIds. Reserved
+     * pathIds are skipped.
      *
      * <p>
      *
      * @return Pathid or error if none available
      */
     private static int generatePathIdSequentialIncrements() {
+        SfcServicePathIdAllocator allocator = SfcServicePathIdAllocator.getInstance();
         int pathid;
         int count = NUM_PATH_ID;
 
         do {
-            nextPathId = nextPathId + 1;
-            pathid = MIN_PATH_ID + nextPathId;
+            pathid = MIN_PATH_ID + NEXT_PATH_ID.incrementAndGet();
 
-            if (checkSuitablePathId(pathid) && allocatePathId(pathid)) {
+            long reservedEnd = allocator.getReservedRangeEnd(pathid);
+            if (reservedEnd >= 0) {
+                // Jump over the whole reserved range at once
+                NEXT_PATH_ID.accumulateAndGet((int) reservedEnd - MIN_PATH_ID, Math::max);
+            } else if (allocator.tryAllocateUnreserved(pathid)) {
                 return pathid;
             }
 
@@ -108,23 +143,11 @@ public final class SfcServicePathId {
      * @return True if allocated, otherwise false.
      */
     public static long chechAndAllocatePathId(long pathid) {
-        if (SfcConcurrencyAPI.getPathIdLock()) {
-            try {
-                if (checkSuitablePathId(pathid) && allocatePathId(pathid)) {
-                    return pathid;
-                } else {
-                    return -1;
-                }
-            } finally {
-                SfcConcurrencyAPI.releasePathIdLock();
-            }
-        } else {
-            return -1;
-        }
+        return SfcServicePathIdAllocator.getInstance().tryAllocate(pathid) ? pathid : -1;
     }
 
     /**
-     * Check and allocate symmetric Pathid if available.
+     * Check and allocate symmetric Pathid if available and not reserved.
      *
      * <p>
      *
@@ -133,30 +156,14 @@ public final class SfcServicePathId {
      * @return True if allocated, otherwise false.
      */
     public static long checkAndAllocateSymmetricPathId(long pathid) {
-        if (SfcConcurrencyAPI.getPathIdLock()) {
-            try {
-                long symmetricId = -1;
-                GenerationAlgorithmEnum genAlg = getGenerationAlgorithm();
-                if (genAlg == GenerationAlgorithmEnum.Random) {
-                    symmetricId = pathid ^ 1 << 23;
-                    if (!checkSuitablePathId(symmetricId)) {
-                        symmetricId = -1;
-                    }
-                } else if (genAlg == GenerationAlgorithmEnum.Sequential) {
-                    symmetricId = generatePathIdSequentialIncrements();
-                }
-
-                if (symmetricId >= MIN_PATH_ID && allocatePathId(symmetricId)) {
-                    return symmetricId;
-                } else {
-                    return -1;
-                }
-            } finally {
-                SfcConcurrencyAPI.releasePathIdLock();
-            }
-        } else {
-            return -1;
+        GenerationAlgorithmEnum genAlg = getGenerationAlgorithm();
+        if (genAlg == GenerationAlgorithmEnum.Random) {
+            long symmetricId = pathid ^ 1 << 23;
+            return SfcServicePathIdAllocator.getInstance().tryAllocateUnreserved(symmetricId) ? symmetricId : -1;
+        } else if (genAlg == GenerationAlgorithmEnum.Sequential) {
+            return generatePathIdSequentialIncrements();
         }
+        return -1;
     }
 
     /**
@@ -167,27 +174,13 @@ public final class SfcServicePathId {
      * @return True if allocated, otherwise false.
      */
     public static long checkAndAllocatePathId() {
-        if (SfcConcurrencyAPI.getPathIdLock()) {
-            try {
-                long pathId = -1;
-                GenerationAlgorithmEnum genAlg = getGenerationAlgorithm();
-                if (genAlg == GenerationAlgorithmEnum.Random) {
-                    pathId = generatePathIdRandomIncrements();
-                } else if (genAlg == GenerationAlgorithmEnum.Sequential) {
-                    pathId = generatePathIdSequentialIncrements();
-                }
-
-                if (pathId >= MIN_PATH_ID && allocatePathId(pathId)) {
-                    return pathId;
-                } else {
-                    return -1;
-                }
-            } finally {
-                SfcConcurrencyAPI.releasePathIdLock();
-            }
-        } else {
-            return -1;
+        GenerationAlgorithmEnum genAlg = getGenerationAlgorithm();
+        if (genAlg == GenerationAlgorithmEnum.Random) {
+            return allocatePathIdRandomIncrements();
+        } else if (genAlg == GenerationAlgorithmEnum.Sequential) {
+            return generatePathIdSequentialIncrements();
         }
+        return -1;
     }
 
     /**
@@ -200,16 +193,7 @@ public final class SfcServicePathId {
      * @return True if available, otherwise false.
      */
     public static boolean checkSuitablePathId(long pathid) {
-        ServicePathIdKey servicePathIdKey = new ServicePathIdKey(pathid / Long.SIZE);
-
-        /* Entry into the bitarray */
-        long bitEntry = pathid % Long.SIZE;
-
-        InstanceIdentifier<ServicePathId> spIID;
-        spIID = InstanceIdentifier.builder(ServicePathIds.class).child(ServicePathId.class, servicePathIdKey).build();
-        ServicePathId servicePathId = SfcDataStoreAPI.readTransactionAPI(spIID, LogicalDatastoreType.OPERATIONAL);
-
-        return servicePathId == null || (1L << 64 - bitEntry & servicePathId.getPathIdBitarray()) == 0;
+        return !SfcServicePathIdAllocator.getInstance().isAllocated(pathid);
     }
 
     /**
@@ -222,28 +206,7 @@ public final class SfcServicePathId {
      * @return True if allocated, otherwise false.
      */
     public static boolean allocatePathId(long pathid) {
-        ServicePathIdKey servicePathIdKey = new ServicePathIdKey(pathid / Long.SIZE);
-
-        /* Entry into the bitarray */
-        long bitEntry = pathid % Long.SIZE;
-
-        long pathIdBitArray = 0;
-
-        InstanceIdentifier<ServicePathId> spIID;
-        spIID = InstanceIdentifier.builder(ServicePathIds.class).child(ServicePathId.class, servicePathIdKey).build();
-        ServicePathId servicePathId = SfcDataStoreAPI.readTransactionAPI(spIID, LogicalDatastoreType.OPERATIONAL);
-
-        if (servicePathId != null) {
-            pathIdBitArray = servicePathId.getPathIdBitarray() != null ? servicePathId.getPathIdBitarray() : 0;
-        }
-
-        ServicePathIdBuilder servicePathIdBuilder = new ServicePathIdBuilder();
-
-        servicePathIdBuilder.setPathIdBitarray(pathIdBitArray | 1L << Long.SIZE - bitEntry);
-        servicePathIdBuilder.setKey(servicePathIdKey);
-
-        return SfcDataStoreAPI.writeMergeTransactionAPI(spIID, servicePathIdBuilder.build(),
-                LogicalDatastoreType.OPERATIONAL);
+        return SfcServicePathIdAllocator.getInstance().allocate(pathid);
     }
 
     /**
@@ -256,35 +219,57 @@ public final class SfcServicePathId {
      * @return True if freed, otherwise false.
      */
     public static boolean freePathId(long pathid) {
-        if (SfcConcurrencyAPI.getPathIdLock()) {
-            try {
-                ServicePathIdKey servicePathIdKey = new ServicePathIdKey(pathid / Long.SIZE);
-
-                /* Entry into the bitarray */
-                long bitEntry = pathid % Long.SIZE;
-
-                InstanceIdentifier<ServicePathId> spIID;
-                spIID = InstanceIdentifier.builder(ServicePathIds.class).child(ServicePathId.class, servicePathIdKey)
-                        .build();
-                ServicePathId servicePathId = SfcDataStoreAPI.readTransactionAPI(spIID,
-                        LogicalDatastoreType.OPERATIONAL);
-
-                ServicePathIdBuilder servicePathIdBuilder = new ServicePathIdBuilder(servicePathId);
-                servicePathIdBuilder.setKey(servicePathIdKey);
-                servicePathIdBuilder
-                        .setPathIdBitarray(servicePathId.getPathIdBitarray() & ~(1L << Long.SIZE - bitEntry));
-
-                return SfcDataStoreAPI.writeMergeTransactionAPI(spIID, servicePathIdBuilder.build(),
-                        LogicalDatastoreType.OPERATIONAL);
-            } finally {
-                SfcConcurrencyAPI.releasePathIdLock();
-            }
+        return SfcServicePathIdAllocator.getInstance().free(pathid);
+    }
+
+    /**
+     * Reserve a range of Pathids, so that they are not generated by any of the
+     * generation algorithms. They can still be allocated explicitly.
+     *
+     * <p>
+     *
+     * @param start
+     *            First Path Id of the range
+     * @param end
+     *            Last Path Id of the range
+     * @return True if reserved, otherwise false.
+     */
+    public static boolean reservePathIdRange(long start, long end) {
+        return SfcServicePathIdAllocator.getInstance().reserveRange(start, end);
+    }
+
+    /**
+     * Release a reserved Pathid. The rest of its range stays reserved.
+     *
+     * <p>
+     *
+     * @param pathid
+     *            Reserved Path Id
+     * @return True if released, otherwise false.
+     */
+    public static boolean releaseReservedPathId(long pathid) {
+        return SfcServicePathIdAllocator.getInstance().releaseReserved(pathid);
+    }
+
+    /**
+     * Read the state of a Pathid.
+     *
+     * <p>
+     *
+     * @param pathid
+     *            Path Id
+     * @return allocated, reserved or available
+     */
+    public static PathIdState readPathIdState(long pathid) {
+        SfcServicePathIdAllocator allocator = SfcServicePathIdAllocator.getInstance();
+        if (allocator.isAllocated(pathid)) {
+            return PathIdState.Allocated;
         }
-        return false;
+        return allocator.isReserved(pathid) ? PathIdState.Reserved : PathIdState.Available;
     }
 
     /**
-     * Get the Path-Id Generation-algorithm from the data-store.
+     * Get the Path-Id Generation-algorithm.
      *
      * <p>
      * If its not present, create it with the default value.
@@ -294,15 +279,7 @@ public final class SfcServicePathId {
      * @return generation-algorithm enum value
      */
     private static GenerationAlgorithmEnum getGenerationAlgorithm() {
-        InstanceIdentifier<ServicePathIds> spIID = InstanceIdentifier.builder(ServicePathIds.class).build();
-        ServicePathIds servicePathIds = SfcDataStoreAPI.readTransactionAPI(spIID, LogicalDatastoreType.OPERATIONAL);
-
-        if (servicePathIds == null) {
-            setGenerationAlgorithm(DEFAULT_GENERATION_ALGORITHM);
-            return GenerationAlgorithmEnum.forValue(DEFAULT_GENERATION_ALGORITHM);
-        }
-
-        GenerationAlgorithmEnum genAlgorithm = servicePathIds.getGenerationAlgorithm();
+        GenerationAlgorithmEnum genAlgorithm = SfcServicePathIdAllocator.getInstance().getGenerationAlgorithm();
 
         if (genAlgorithm == null) {
             setGenerationAlgorithm(DEFAULT_GENERATION_ALGORITHM);
@@ -340,7 +317,11 @@ public final class SfcServicePathId {
         ServicePathIdsBuilder servicePathIdsBuilder = new ServicePathIdsBuilder();
         servicePathIdsBuilder.setGenerationAlgorithm(genAlgorithm);
 
-        return SfcDataStoreAPI.writeMergeTransactionAPI(spIID, servicePathIdsBuilder.build(),
-                LogicalDatastoreType.OPERATIONAL);
+        if (!SfcDataStoreAPI.writeMergeTransactionAPI(spIID, servicePathIdsBuilder.build(),
+                LogicalDatastoreType.OPERATIONAL)) {
+            return false;
+        }
+        SfcServicePathIdAllocator.getInstance().setGenerationAlgorithm(genAlgorithm);
+        return true;
     }
 }
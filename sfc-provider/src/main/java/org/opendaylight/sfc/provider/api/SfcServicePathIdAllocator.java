@@ -0,0 +1,445 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.GenerationAlgorithmEnum;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ServicePathIds;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ReservedPathIdRange;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ReservedPathIdRangeBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ReservedPathIdRangeKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ServicePathId;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ServicePathIdBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.service.path.ids.ServicePathIdKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory copy of the path-id bitarray kept in the OPERATIONAL datastore
+ * under {@link ServicePathIds}.
+ *
+ * <p>
+ * The bitarray is read once, the first time it is needed after the data
+ * provider is set, and from then on path-ids are checked, allocated and freed
+ * with CAS operations on its 64-bit words. Words that change are marked dirty
+ * and written back in a single transaction by a checkpoint that runs shortly
+ * after the first change, so the datastore copy keeps the exact same layout
+ * and remains the one loaded after a restart.
+ *
+ * <p>
+ * Reserved path-id ranges are also kept in memory, indexed by their start, and
+ * written to the datastore as soon as they are reserved or released. Releasing
+ * a single path-id splits the range around it. No lock is held while writing
+ * to the datastore.
+ */
+final class SfcServicePathIdAllocator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcServicePathIdAllocator.class);
+
+    /* Highest path-id accepted by service-path-id.yang */
+    static final long MAX_ALLOWED_PATH_ID = 16777216L;
+
+    private static final int NUM_WORDS = (int) (MAX_ALLOWED_PATH_ID / Long.SIZE) + 1;
+    private static final long CHECKPOINT_DELAY_MS = 100;
+
+    private static final ScheduledExecutorService CHECKPOINT_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("sfc-pathid-checkpoint-%d").setDaemon(true).build());
+
+    private static volatile SfcServicePathIdAllocator instance;
+
+    private final AtomicLongArray bitarray = new AtomicLongArray(NUM_WORDS);
+    private final Set<Integer> dirtyWords = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean checkpointScheduled = new AtomicBoolean();
+    private final ConcurrentSkipListMap<Long, Long> reservedRanges = new ConcurrentSkipListMap<>();
+    // shared by the allocations that skip reserved path-ids, exclusive to range changes
+    private final ReadWriteLock rangeLock = new ReentrantReadWriteLock();
+    private volatile GenerationAlgorithmEnum generationAlgorithm;
+
+    private SfcServicePathIdAllocator() {
+    }
+
+    /**
+     * Returns the allocator, loading it from the datastore if needed.
+     *
+     * @return the allocator
+     */
+    static SfcServicePathIdAllocator getInstance() {
+        SfcServicePathIdAllocator allocator = instance;
+        if (allocator == null) {
+            synchronized (SfcServicePathIdAllocator.class) {
+                allocator = instance;
+                if (allocator == null) {
+                    allocator = new SfcServicePathIdAllocator();
+                    allocator.load();
+                    instance = allocator;
+                }
+            }
+        }
+        return allocator;
+    }
+
+    /**
+     * Writes back any pending change and drops the in-memory copy, so that it
+     * is loaded again from the datastore on next use. Called whenever the data
+     * provider changes.
+     */
+    static void reset() {
+        synchronized (SfcServicePathIdAllocator.class) {
+            SfcServicePathIdAllocator allocator = instance;
+            instance = null;
+            if (allocator != null) {
+                allocator.checkpoint();
+            }
+        }
+    }
+
+    private void load() {
+        InstanceIdentifier<ServicePathIds> spIID = InstanceIdentifier.builder(ServicePathIds.class).build();
+        ServicePathIds servicePathIds = SfcDataStoreAPI.readTransactionAPI(spIID, LogicalDatastoreType.OPERATIONAL);
+        if (servicePathIds == null) {
+            return;
+        }
+        generationAlgorithm = servicePathIds.getGenerationAlgorithm();
+        if (servicePathIds.getReservedPathIdRange() != null) {
+            for (ReservedPathIdRange range : servicePathIds.getReservedPathIdRange()) {
+                reservedRanges.put(range.getPathIdStart(), range.getPathIdEnd());
+            }
+        }
+        if (servicePathIds.getServicePathId() == null) {
+            return;
+        }
+        for (ServicePathId servicePathId : servicePathIds.getServicePathId()) {
+            Long key = servicePathId.getPathIdKey();
+            Long word = servicePathId.getPathIdBitarray();
+            if (key != null && word != null && key >= 0 && key < NUM_WORDS) {
+                bitarray.set(key.intValue(), word);
+            }
+        }
+        LOG.debug("load: loaded {} path-id bitarray entries", servicePathIds.getServicePathId().size());
+    }
+
+    GenerationAlgorithmEnum getGenerationAlgorithm() {
+        return generationAlgorithm;
+    }
+
+    void setGenerationAlgorithm(GenerationAlgorithmEnum genAlgorithm) {
+        generationAlgorithm = genAlgorithm;
+    }
+
+    /* Same bit layout as the datastore bitarray */
+    private static long bitMask(long pathId) {
+        long bitEntry = pathId % Long.SIZE;
+        return 1L << Long.SIZE - bitEntry;
+    }
+
+    private static boolean isValid(long pathId) {
+        return pathId >= 0 && pathId <= MAX_ALLOWED_PATH_ID;
+    }
+
+    boolean isAllocated(long pathId) {
+        return isValid(pathId) && (bitarray.get((int) (pathId / Long.SIZE)) & bitMask(pathId)) != 0;
+    }
+
+    /**
+     * Allocates the path-id if it is free.
+     *
+     * @param pathId
+     *            path-id to allocate
+     * @return true if this call allocated it, false if it was already allocated
+     *         or is out of range
+     */
+    boolean tryAllocate(long pathId) {
+        if (!isValid(pathId)) {
+            return false;
+        }
+        int index = (int) (pathId / Long.SIZE);
+        long mask = bitMask(pathId);
+        long word;
+        do {
+            word = bitarray.get(index);
+            if ((word & mask) != 0) {
+                return false;
+            }
+        } while (!bitarray.compareAndSet(index, word, word | mask));
+        markDirty(index);
+        return true;
+    }
+
+    /**
+     * Allocates the path-id if it is free and not reserved. The reservation
+     * check and the allocation are atomic with respect to
+     * {@link #reserveRange(long, long)}.
+     *
+     * @param pathId
+     *            path-id to allocate
+     * @return true if this call allocated it, false if it was already
+     *         allocated, is reserved or is out of range
+     */
+    boolean tryAllocateUnreserved(long pathId) {
+        rangeLock.readLock().lock();
+        try {
+            return !isReserved(pathId) && tryAllocate(pathId);
+        } finally {
+            rangeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the path-id as allocated, whether or not it already was.
+     *
+     * @param pathId
+     *            path-id to allocate
+     * @return true if the path-id is allocated after the call
+     */
+    boolean allocate(long pathId) {
+        return tryAllocate(pathId) || isAllocated(pathId);
+    }
+
+    /**
+     * Frees the path-id.
+     *
+     * @param pathId
+     *            path-id to free
+     * @return true if the path-id is free after the call
+     */
+    boolean free(long pathId) {
+        if (!isValid(pathId)) {
+            return false;
+        }
+        int index = (int) (pathId / Long.SIZE);
+        long mask = bitMask(pathId);
+        long word;
+        do {
+            word = bitarray.get(index);
+            if ((word & mask) == 0) {
+                return true;
+            }
+        } while (!bitarray.compareAndSet(index, word, word & ~mask));
+        markDirty(index);
+        return true;
+    }
+
+    boolean isReserved(long pathId) {
+        return getReservedRangeEnd(pathId) >= 0;
+    }
+
+    /**
+     * Returns the last path-id of the reserved range containing the given one.
+     *
+     * @param pathId
+     *            path-id to look up
+     * @return last path-id of the range, or -1 if the path-id is not reserved
+     */
+    long getReservedRangeEnd(long pathId) {
+        Map.Entry<Long, Long> range = reservedRanges.floorEntry(pathId);
+        return range != null && pathId <= range.getValue() ? range.getValue() : -1;
+    }
+
+    /**
+     * Reserves the given range of path-ids, so that the generation algorithms
+     * skip them. The reservation is written to the datastore in a single
+     * transaction, whatever the size of the range.
+     *
+     * @param start
+     *            first path-id of the range
+     * @param end
+     *            last path-id of the range
+     * @return true if reserved, false if the range is invalid, overlaps another
+     *         reserved range, contains allocated path-ids or could not be
+     *         written
+     */
+    boolean reserveRange(long start, long end) {
+        if (!isValid(start) || !isValid(end) || start > end) {
+            return false;
+        }
+
+        // Publish the range first so that no new allocation can land in it
+        rangeLock.writeLock().lock();
+        try {
+            Map.Entry<Long, Long> previous = reservedRanges.floorEntry(end);
+            if (previous != null && previous.getValue() >= start) {
+                LOG.warn("reserveRange: range {}-{} overlaps reserved range {}-{}", start, end, previous.getKey(),
+                        previous.getValue());
+                return false;
+            }
+            reservedRanges.put(start, end);
+        } finally {
+            rangeLock.writeLock().unlock();
+        }
+
+        // Allocations that skip reserved path-ids either happened before the
+        // range was published, and are seen here, or see the range
+        for (long pathId = start; pathId <= end; pathId++) {
+            if (isAllocated(pathId)) {
+                LOG.warn("reserveRange: path-id {} in range {}-{} is already allocated", pathId, start, end);
+                reservedRanges.remove(start, end);
+                return false;
+            }
+        }
+
+        if (!SfcDataStoreAPI.writePutTransactionAPI(getRangeIID(start), buildRange(start, end),
+                LogicalDatastoreType.OPERATIONAL)) {
+            reservedRanges.remove(start, end);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Releases a single path-id from the reserved range that contains it. The
+     * rest of the range stays reserved, as the ranges left on each side of
+     * the path-id, written to the datastore in a single transaction.
+     *
+     * @param pathId
+     *            reserved path-id to release
+     * @return true if the path-id was released, false otherwise
+     */
+    boolean releaseReserved(long pathId) {
+        long start;
+        long end;
+        rangeLock.writeLock().lock();
+        try {
+            Map.Entry<Long, Long> range = reservedRanges.floorEntry(pathId);
+            if (range == null || pathId > range.getValue()) {
+                return false;
+            }
+            start = range.getKey();
+            end = range.getValue();
+            splitRange(start, end, pathId);
+        } finally {
+            rangeLock.writeLock().unlock();
+        }
+
+        SfcDataStoreBatch batch = new SfcDataStoreBatch();
+        if (start < pathId) {
+            batch.put(getRangeIID(start), buildRange(start, pathId - 1), LogicalDatastoreType.OPERATIONAL);
+        } else {
+            batch.delete(getRangeIID(start), LogicalDatastoreType.OPERATIONAL);
+        }
+        if (pathId < end) {
+            batch.put(getRangeIID(pathId + 1), buildRange(pathId + 1, end), LogicalDatastoreType.OPERATIONAL);
+        }
+
+        if (!SfcDataStoreAPI.batchTransactionAPI(batch)) {
+            LOG.error("releaseReserved: failed to release path-id {} from range {}-{}", pathId, start, end);
+            rangeLock.writeLock().lock();
+            try {
+                // unless reserved again meanwhile, restore the whole range
+                if (!isReserved(pathId)) {
+                    reservedRanges.remove(pathId + 1, end);
+                    reservedRanges.put(start, end);
+                }
+            } finally {
+                rangeLock.writeLock().unlock();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /* Replaces the range by the ranges left on each side of the path-id */
+    private void splitRange(long start, long end, long pathId) {
+        if (start < pathId) {
+            reservedRanges.put(start, pathId - 1);
+        } else {
+            reservedRanges.remove(start);
+        }
+        if (pathId < end) {
+            reservedRanges.put(pathId + 1, end);
+        }
+    }
+
+    private static InstanceIdentifier<ReservedPathIdRange> getRangeIID(long start) {
+        return InstanceIdentifier.builder(ServicePathIds.class)
+                .child(ReservedPathIdRange.class, new ReservedPathIdRangeKey(start)).build();
+    }
+
+    private static ReservedPathIdRange buildRange(long start, long end) {
+        ReservedPathIdRangeBuilder rangeBuilder = new ReservedPathIdRangeBuilder();
+        rangeBuilder.setKey(new ReservedPathIdRangeKey(start)).setPathIdStart(start).setPathIdEnd(end);
+        return rangeBuilder.build();
+    }
+
+    private void markDirty(int index) {
+        dirtyWords.add(index);
+        if (checkpointScheduled.compareAndSet(false, true)) {
+            CHECKPOINT_EXECUTOR.schedule(this::checkpoint, CHECKPOINT_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes all the dirty bitarray words to the datastore in a single
+     * transaction. The words are taken under the lock, and written outside of
+     * it.
+     *
+     * @return true if there was nothing to write or the write succeeded
+     */
+    boolean checkpoint() {
+        checkpointScheduled.set(false);
+        Map<Integer, Long> words = takeDirtyWords();
+        if (words.isEmpty()) {
+            return true;
+        }
+
+        SfcDataStoreBatch batch = new SfcDataStoreBatch();
+        for (Map.Entry<Integer, Long> word : words.entrySet()) {
+            ServicePathIdKey servicePathIdKey = new ServicePathIdKey(word.getKey().longValue());
+            InstanceIdentifier<ServicePathId> spIID = InstanceIdentifier.builder(ServicePathIds.class)
+                    .child(ServicePathId.class, servicePathIdKey).build();
+            ServicePathIdBuilder servicePathIdBuilder = new ServicePathIdBuilder();
+            servicePathIdBuilder.setKey(servicePathIdKey);
+            servicePathIdBuilder.setPathIdBitarray(word.getValue());
+            batch.merge(spIID, servicePathIdBuilder.build(), LogicalDatastoreType.OPERATIONAL);
+        }
+
+        if (!SfcDataStoreAPI.batchTransactionAPI(batch)) {
+            LOG.error("checkpoint: failed to write {} path-id bitarray entries", words.size());
+            if (instance == this) {
+                words.keySet().forEach(this::markDirty);
+            }
+            return false;
+        }
+        // a concurrent checkpoint may have written a newer word first
+        if (instance == this) {
+            words.forEach((index, word) -> {
+                if (bitarray.get(index) != word) {
+                    markDirty(index);
+                }
+            });
+        }
+        LOG.debug("checkpoint: wrote {} path-id bitarray entries", words.size());
+        return true;
+    }
+
+    /* Each dirty word is read after being unmarked, so a later change marks it again */
+    private synchronized Map<Integer, Long> takeDirtyWords() {
+        Map<Integer, Long> words = new HashMap<>();
+        for (Iterator<Integer> indexes = dirtyWords.iterator(); indexes.hasNext();) {
+            Integer index = indexes.next();
+            indexes.remove();
+            words.put(index, bitarray.get(index));
+        }
+        return words;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.sfc.provider.listeners;
+
+import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.genius.datastoreutils.listeners.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.provider.api.SfcConfigurationCache;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.RenderedServicePaths;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class listens to changes (addition, update, removal) in Rendered
+ * Service Paths, keeping the shared configuration cache up to date.
+ */
+@Singleton
+public class RenderedServicePathListener extends AbstractSyncDataTreeChangeListener<RenderedServicePath> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RenderedServicePathListener.class);
+
+    @Inject
+    public RenderedServicePathListener(DataBroker dataBroker) {
+        super(dataBroker, LogicalDatastoreType.OPERATIONAL,
+              InstanceIdentifier.create(RenderedServicePaths.class).child(RenderedServicePath.class));
+    }
+
+    @Override
+    @PostConstruct
+    public void register() {
+        SfcConfigurationCache.getRenderedServicePaths().setTracked(true);
+        super.register();
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        super.close();
+        SfcConfigurationCache.getRenderedServicePaths().setTracked(false);
+    }
+
+    @Override
+    public void add(@Nonnull RenderedServicePath renderedServicePath) {
+        LOG.debug("add: Rendered Service Path {}", renderedServicePath.getName());
+        SfcConfigurationCache.getRenderedServicePaths().put(renderedServicePath.getName(), renderedServicePath);
+    }
+
+    @Override
+    public void remove(@Nonnull RenderedServicePath renderedServicePath) {
+        LOG.debug("remove: Rendered Service Path {}", renderedServicePath.getName());
+        SfcConfigurationCache.getRenderedServicePaths().invalidate(renderedServicePath.getName());
+    }
+
+    @Override
+    public void update(@Nonnull RenderedServicePath originalRenderedServicePath,
+                       @Nonnull RenderedServicePath updatedRenderedServicePath) {
+        add(updatedRenderedServicePath);
+    }
+}
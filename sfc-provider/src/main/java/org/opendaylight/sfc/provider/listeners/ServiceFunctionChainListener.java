@@ -10,11 +10,14 @@ package org.opendaylight.sfc.provider.listeners;
 import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.genius.datastoreutils.listeners.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.provider.api.SfcConfigurationCache;
 import org.opendaylight.sfc.provider.validators.util.SfcDatastoreCache;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.ServiceFunctionChains;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChain;
@@ -38,9 +41,24 @@ public class ServiceFunctionChainListener extends AbstractSyncDataTreeChangeList
               InstanceIdentifier.create(ServiceFunctionChains.class).child(ServiceFunctionChain.class));
     }
 
+    @Override
+    @PostConstruct
+    public void register() {
+        SfcConfigurationCache.getServiceFunctionChains().setTracked(true);
+        super.register();
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        super.close();
+        SfcConfigurationCache.getServiceFunctionChains().setTracked(false);
+    }
+
     @Override
     public void add(@Nonnull ServiceFunctionChain serviceFunctionChain) {
         LOG.debug("add:starting..(new sfc name: {})", serviceFunctionChain.getName());
+        SfcConfigurationCache.getServiceFunctionChains().put(serviceFunctionChain.getName(), serviceFunctionChain);
         List<String> serviceFunctionTypesForChain = new ArrayList<>();
         for (SfcServiceFunction sfcSf : serviceFunctionChain.getSfcServiceFunction()) {
             LOG.debug("add:new sfc sf found; name={}, type={})", sfcSf.getName(), sfcSf.getType().getValue());
@@ -53,6 +71,7 @@ public class ServiceFunctionChainListener extends AbstractSyncDataTreeChangeList
     public void remove(@Nonnull ServiceFunctionChain serviceFunctionChain) {
         LOG.debug("remove: Deleting Service Function chain: {}", serviceFunctionChain.getName());
         SfcDatastoreCache.getSfChainToSfTypeList().invalidate(serviceFunctionChain.getName());
+        SfcConfigurationCache.getServiceFunctionChains().invalidate(serviceFunctionChain.getName());
     }
 
     @Override
@@ -12,13 +12,17 @@ import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.genius.datastoreutils.listeners.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.provider.api.SfcConfigurationCache;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
+import org.opendaylight.sfc.provider.topology.SfcProviderTopology;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
@@ -50,14 +54,43 @@ public class ServiceFunctionForwarderListener extends AbstractSyncDataTreeChange
               InstanceIdentifier.create(ServiceFunctionForwarders.class).child(ServiceFunctionForwarder.class));
     }
 
+    @Override
+    @PostConstruct
+    public void register() {
+        // seed the shared topology, the listener keeps it up to date from now on
+        SfcProviderTopology sfcProviderTopology = SfcProviderTopology.getInstance();
+        ServiceFunctionForwarders serviceFunctionForwarders = SfcProviderServiceForwarderAPI
+                .readAllServiceFunctionForwarders();
+        if (serviceFunctionForwarders != null && serviceFunctionForwarders.getServiceFunctionForwarder() != null) {
+            serviceFunctionForwarders.getServiceFunctionForwarder()
+                    .forEach(sfcProviderTopology::addServiceFunctionForwarder);
+        }
+        sfcProviderTopology.setServiceFunctionForwardersTracked(true);
+        SfcConfigurationCache.getServiceFunctionForwarders().setTracked(true);
+        super.register();
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        super.close();
+        SfcProviderTopology.getInstance().setServiceFunctionForwardersTracked(false);
+        SfcConfigurationCache.getServiceFunctionForwarders().setTracked(false);
+    }
+
     @Override
     public void add(@Nonnull ServiceFunctionForwarder serviceFunctionForwarder) {
         LOG.info("Adding Service Function Forwarder: {}", serviceFunctionForwarder.getName());
+        SfcConfigurationCache.getServiceFunctionForwarders().put(serviceFunctionForwarder.getName(),
+                serviceFunctionForwarder);
+        SfcProviderTopology.getInstance().addServiceFunctionForwarder(serviceFunctionForwarder);
     }
 
     @Override
     public void remove(@Nonnull ServiceFunctionForwarder serviceFunctionForwarder) {
         SffName sffName = serviceFunctionForwarder.getName();
+        SfcConfigurationCache.getServiceFunctionForwarders().invalidate(sffName);
+        SfcProviderTopology.getInstance().removeServiceFunctionForwarder(serviceFunctionForwarder);
         // Get RSPs of SFF
         LOG.debug("Deleting Service Function Forwarder {}", sffName);
         List<RspName> rspNames = SfcProviderServiceForwarderAPI.readRspNamesFromSffState(sffName);
@@ -69,6 +102,9 @@ public class ServiceFunctionForwarderListener extends AbstractSyncDataTreeChange
     public void update(@Nonnull ServiceFunctionForwarder originalServiceFunctionForwarder,
                        @Nonnull ServiceFunctionForwarder updatedServiceFunctionForwarder) {
         LOG.debug("Updating Service Function Forwarder: {}", originalServiceFunctionForwarder.getName());
+        SfcConfigurationCache.getServiceFunctionForwarders().put(updatedServiceFunctionForwarder.getName(),
+                updatedServiceFunctionForwarder);
+        SfcProviderTopology.getInstance().addServiceFunctionForwarder(updatedServiceFunctionForwarder);
         List<RspName> rspNames = findAffectedRsp(originalServiceFunctionForwarder, updatedServiceFunctionForwarder);
         LOG.debug("Deleting Rendered Service Paths {}", rspNames);
         SfcProviderRenderedPathAPI.deleteRenderedServicePathsAndStates(rspNames);
@@ -11,15 +11,19 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.genius.datastoreutils.listeners.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.provider.api.SfcConfigurationCache;
 import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceTypeAPI;
+import org.opendaylight.sfc.provider.topology.SfcProviderTopology;
 import org.opendaylight.sfc.provider.validators.util.SfcDatastoreCache;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
@@ -48,11 +52,35 @@ public class ServiceFunctionListener extends AbstractSyncDataTreeChangeListener<
               InstanceIdentifier.create(ServiceFunctions.class).child(ServiceFunction.class));
     }
 
+    @Override
+    @PostConstruct
+    public void register() {
+        // seed the shared topology, the listener keeps it up to date from now on
+        SfcProviderTopology sfcProviderTopology = SfcProviderTopology.getInstance();
+        ServiceFunctions serviceFunctions = SfcProviderServiceFunctionAPI.readAllServiceFunctions();
+        if (serviceFunctions != null && serviceFunctions.getServiceFunction() != null) {
+            serviceFunctions.getServiceFunction().forEach(sfcProviderTopology::addServiceFunction);
+        }
+        sfcProviderTopology.setServiceFunctionsTracked(true);
+        SfcConfigurationCache.getServiceFunctions().setTracked(true);
+        super.register();
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        super.close();
+        SfcProviderTopology.getInstance().setServiceFunctionsTracked(false);
+        SfcConfigurationCache.getServiceFunctions().setTracked(false);
+    }
+
     @Override
     public void add(@Nonnull ServiceFunction serviceFunction) {
         LOG.debug("add: storing name [{}] type [{}]", serviceFunction.getName().getValue(),
                   serviceFunction.getType().getValue());
         SfcDatastoreCache.getSfToSfTypeCache().put(serviceFunction.getName(), serviceFunction.getType().getValue());
+        SfcConfigurationCache.getServiceFunctions().put(serviceFunction.getName(), serviceFunction);
+        SfcProviderTopology.getInstance().addServiceFunction(serviceFunction);
         if (!SfcProviderServiceTypeAPI.createServiceFunctionTypeEntry(serviceFunction)) {
             LOG.error("add:Failed to create Service Function: ", serviceFunction.getName());
         }
@@ -64,6 +92,8 @@ public class ServiceFunctionListener extends AbstractSyncDataTreeChangeListener<
 
         // delete cache
         SfcDatastoreCache.getSfToSfTypeCache().invalidate(serviceFunction.getName());
+        SfcConfigurationCache.getServiceFunctions().invalidate(serviceFunction.getName());
+        SfcProviderTopology.getInstance().removeServiceFunction(serviceFunction);
 
         deleteSfRsps(serviceFunction);
         if (!SfcProviderServiceTypeAPI.deleteServiceFunctionTypeEntry(serviceFunction)) {
@@ -75,6 +105,7 @@ public class ServiceFunctionListener extends AbstractSyncDataTreeChangeListener<
     public void update(@Nonnull ServiceFunction originalServiceFunction,
                        @Nonnull ServiceFunction updatedServiceFunction) {
         LOG.debug("update:Updating Service Function: {}", originalServiceFunction.getName());
+        SfcConfigurationCache.getServiceFunctions().put(updatedServiceFunction.getName(), updatedServiceFunction);
 
         if (!compareSfs(originalServiceFunction, updatedServiceFunction)) {
             // We only update SF type entry if type has changed
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.sfc.provider.listeners;
+
+import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.genius.datastoreutils.listeners.AbstractSyncDataTreeChangeListener;
+import org.opendaylight.sfc.provider.api.SfcConfigurationCache;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.ServiceFunctionTypes;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sft.rev140701.service.function.types.ServiceFunctionType;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class listens to changes (addition, update, removal) in Service
+ * Function Types, keeping the shared configuration cache up to date.
+ */
+@Singleton
+public class ServiceFunctionTypeListener extends AbstractSyncDataTreeChangeListener<ServiceFunctionType> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ServiceFunctionTypeListener.class);
+
+    @Inject
+    public ServiceFunctionTypeListener(DataBroker dataBroker) {
+        super(dataBroker, LogicalDatastoreType.CONFIGURATION,
+              InstanceIdentifier.create(ServiceFunctionTypes.class).child(ServiceFunctionType.class));
+    }
+
+    @Override
+    @PostConstruct
+    public void register() {
+        SfcConfigurationCache.getServiceFunctionTypes().setTracked(true);
+        super.register();
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        super.close();
+        SfcConfigurationCache.getServiceFunctionTypes().setTracked(false);
+    }
+
+    @Override
+    public void add(@Nonnull ServiceFunctionType serviceFunctionType) {
+        LOG.debug("add: Service Function Type {}", serviceFunctionType.getType());
+        SfcConfigurationCache.getServiceFunctionTypes().put(serviceFunctionType.getType(), serviceFunctionType);
+    }
+
+    @Override
+    public void remove(@Nonnull ServiceFunctionType serviceFunctionType) {
+        LOG.debug("remove: Service Function Type {}", serviceFunctionType.getType());
+        SfcConfigurationCache.getServiceFunctionTypes().invalidate(serviceFunctionType.getType());
+    }
+
+    @Override
+    public void update(@Nonnull ServiceFunctionType originalServiceFunctionType,
+                       @Nonnull ServiceFunctionType updatedServiceFunctionType) {
+        add(updatedServiceFunctionType);
+    }
+}
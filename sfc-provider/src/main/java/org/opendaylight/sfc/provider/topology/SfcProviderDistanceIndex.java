@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.topology;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hop distances between the nodes of a {@link SfcProviderGraph}.
+ *
+ * <p>
+ * The graph is compiled into int indexed adjacency arrays when the index is
+ * created. A breadth first search is run at most once per source node, the
+ * distances and parents it yields are cached and reused by every later query
+ * from the same source. The index is immutable apart from that cache, and it
+ * is dropped by the graph as soon as a node or edge is added.
+ */
+final class SfcProviderDistanceIndex {
+
+    static final int UNREACHABLE = -1;
+
+    // bounds the cached searches to roughly MAX_CACHED_SOURCES * nodes ints
+    private static final int MAX_CACHED_SOURCES = 1024;
+
+    private final Map<String, Integer> nodeIds;
+    private final String[] nodeNames;
+    private final int[][] adjacency;
+    private final Map<Integer, SingleSource> sources = new ConcurrentHashMap<>();
+
+    SfcProviderDistanceIndex(Map<SfcProviderTopologyNode, ? extends Set<SfcProviderTopologyNode>> edges) {
+        int size = edges.size();
+        nodeIds = new HashMap<>(size * 2);
+        nodeNames = new String[size];
+        adjacency = new int[size][];
+        int id = 0;
+        for (SfcProviderTopologyNode node : edges.keySet()) {
+            nodeIds.put(node.getName(), id);
+            nodeNames[id] = node.getName();
+            id++;
+        }
+        // neighbors keep the iteration order of the graph so that paths match
+        // the ones found by the graph search
+        edges.forEach((node, neighbors) -> {
+            int[] neighborIds = new int[neighbors.size()];
+            int index = 0;
+            for (SfcProviderTopologyNode neighbor : neighbors) {
+                neighborIds[index++] = nodeIds.get(neighbor.getName());
+            }
+            adjacency[nodeIds.get(node.getName())] = neighborIds;
+        });
+    }
+
+    /**
+     * Gets the number of hops between two nodes.
+     *
+     * @param fromNodeName
+     *            source node
+     * @param toNodeName
+     *            destination node
+     * @return the number of hops, or {@link #UNREACHABLE} if any node does
+     *         not exist or there is no path between them
+     */
+    int getDistance(String fromNodeName, String toNodeName) {
+        Integer from = nodeIds.get(fromNodeName);
+        Integer to = nodeIds.get(toNodeName);
+        if (from == null || to == null) {
+            return UNREACHABLE;
+        }
+        return search(from).dist[to];
+    }
+
+    /**
+     * Gets the names of the nodes of the shortest path between two nodes,
+     * both included.
+     *
+     * @param fromNodeName
+     *            source node
+     * @param toNodeName
+     *            destination node
+     * @return the path, empty if there is no path
+     */
+    List<String> getPath(String fromNodeName, String toNodeName) {
+        Integer from = nodeIds.get(fromNodeName);
+        Integer to = nodeIds.get(toNodeName);
+        if (from == null || to == null) {
+            return Collections.emptyList();
+        }
+        SingleSource singleSource = search(from);
+        if (singleSource.dist[to] == UNREACHABLE) {
+            return Collections.emptyList();
+        }
+        String[] path = new String[singleSource.dist[to] + 1];
+        for (int id = to, index = path.length - 1; id != UNREACHABLE; id = singleSource.parent[id]) {
+            path[index--] = nodeNames[id];
+        }
+        List<String> pathList = new ArrayList<>(path.length);
+        Collections.addAll(pathList, path);
+        return pathList;
+    }
+
+    /**
+     * Gets the candidates closest to a node, nearest first. Candidates that do
+     * not exist, are not reachable or are the node itself are left out. Ties
+     * keep the order of the candidates.
+     *
+     * @param fromNodeName
+     *            source node
+     * @param candidateNodeNames
+     *            nodes to choose from, i.e. the instances of a SF type
+     * @param maxNodes
+     *            maximum number of nodes to return
+     * @return up to maxNodes candidate names
+     */
+    List<String> getNearestNodes(String fromNodeName, Iterable<String> candidateNodeNames, int maxNodes) {
+        Integer from = nodeIds.get(fromNodeName);
+        if (from == null || maxNodes <= 0) {
+            return Collections.emptyList();
+        }
+        int[] dist = search(from).dist;
+        List<String> nearest = new ArrayList<>();
+        List<Integer> nearestDist = new ArrayList<>();
+        for (String candidate : candidateNodeNames) {
+            Integer to = nodeIds.get(candidate);
+            if (to == null || dist[to] <= 0) {
+                continue;
+            }
+            // insertion into the sorted top maxNodes, after any equal distance
+            int index = nearest.size();
+            while (index > 0 && nearestDist.get(index - 1) > dist[to]) {
+                index--;
+            }
+            if (index < maxNodes) {
+                nearest.add(index, candidate);
+                nearestDist.add(index, dist[to]);
+                if (nearest.size() > maxNodes) {
+                    nearest.remove(maxNodes);
+                    nearestDist.remove(maxNodes);
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private SingleSource search(int from) {
+        SingleSource singleSource = sources.get(from);
+        if (singleSource == null) {
+            if (sources.size() >= MAX_CACHED_SOURCES) {
+                sources.clear();
+            }
+            singleSource = sources.computeIfAbsent(from, this::breadthFirstSearch);
+        }
+        return singleSource;
+    }
+
+    private SingleSource breadthFirstSearch(int from) {
+        int size = nodeNames.length;
+        int[] dist = new int[size];
+        int[] parent = new int[size];
+        int[] queue = new int[size];
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(parent, UNREACHABLE);
+
+        int head = 0;
+        int tail = 0;
+        dist[from] = 0;
+        queue[tail++] = from;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int neighbor : adjacency[node]) {
+                if (dist[neighbor] == UNREACHABLE) {
+                    dist[neighbor] = dist[node] + 1;
+                    parent[neighbor] = node;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return new SingleSource(dist, parent);
+    }
+
+    private static final class SingleSource {
+        private final int[] dist;
+        private final int[] parent;
+
+        SingleSource(int[] dist, int[] parent) {
+            this.dist = dist;
+            this.parent = parent;
+        }
+    }
+}
@@ -11,9 +11,7 @@ package org.opendaylight.sfc.provider.topology;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
 import java.util.TreeSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +24,10 @@ import org.slf4j.LoggerFactory;
  * shortest path between 'from' node and 'to' node in a graph.
  *
  * <p>
+ * Searches are run once per source node and cached until the graph is
+ * modified, see {@link SfcProviderDistanceIndex}. A graph that is no longer
+ * modified can be shared by several schedulers (see
+ * {@link SfcProviderTopology}).
  *
  * @author Shuqiang Zhao (shuqiangx.zhao@intel.com)
  * @author Yi Yang (yi.y.yang@intel.com)
@@ -35,11 +37,10 @@ import org.slf4j.LoggerFactory;
 public class SfcProviderGraph {
     private static final Logger LOG = LoggerFactory.getLogger(SfcProviderGraph.class);
     private static final TreeSet<SfcProviderTopologyNode> EMPTY_SET = new TreeSet<>();
-    private static final int WHITE = 2;
-    private static final int GRAY = 1;
     private static final int BLACK = 0;
     private final HashMap<SfcProviderTopologyNode, TreeSet<SfcProviderTopologyNode>> sfcProviderTopoEdges;
     private final HashMap<String, SfcProviderTopologyNode> sfcProviderTopoNodes;
+    private volatile SfcProviderDistanceIndex distanceIndex;
 
     public SfcProviderGraph() {
         sfcProviderTopoEdges = new HashMap<>();
@@ -53,6 +54,7 @@ public class SfcProviderGraph {
             node = new SfcProviderTopologyNode(nodeName);
             sfcProviderTopoNodes.put(nodeName, node);
             sfcProviderTopoEdges.put(node, new TreeSet<>());
+            distanceIndex = null;
         }
         return node;
     }
@@ -91,6 +93,7 @@ public class SfcProviderGraph {
             }
             sfcProviderTopoEdges.get(fromNode).add(toNode);
             sfcProviderTopoEdges.get(toNode).add(fromNode);
+            distanceIndex = null;
         }
         return true;
     }
@@ -106,45 +109,54 @@ public class SfcProviderGraph {
         return sfcProviderTopoNodes.values();
     }
 
-    private void breadthFirstSearch(String fromNodeName) {
-        /* Reset all nodes' color, dist, parent */
-        for (SfcProviderTopologyNode sfcNode : getAllNodes()) {
-            sfcNode.setColor(WHITE);
-            sfcNode.setDist(0);
-            sfcNode.setParent(null);
-        }
-
-        /* Mark fromNode as GRAY */
-        SfcProviderTopologyNode sfcProviderTopologyNode = getNode(fromNodeName);
-        sfcProviderTopologyNode.setColor(GRAY);
-        sfcProviderTopologyNode.setDist(0);
-        sfcProviderTopologyNode.setParent(null);
-
-        Queue<SfcProviderTopologyNode> queue = new LinkedList<>();
-        offer(queue, sfcProviderTopologyNode);
-
-        while (!queue.isEmpty()) {
-            SfcProviderTopologyNode sfcProviderNode = queue.poll();
-            for (SfcProviderTopologyNode sfcNode : getNeighborNodes(sfcProviderNode.getName())) {
-                if (sfcNode.getColor() == WHITE) {
-                    sfcNode.setColor(GRAY);
-                    sfcNode.setDist(sfcProviderNode.getDist() + 1);
-                    offer(queue, sfcNode);
-                    sfcNode.setParent(sfcProviderNode);
+    private SfcProviderDistanceIndex getDistanceIndex() {
+        SfcProviderDistanceIndex index = distanceIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = distanceIndex;
+                if (index == null) {
+                    index = new SfcProviderDistanceIndex(sfcProviderTopoEdges);
+                    distanceIndex = index;
                 }
             }
-            sfcProviderNode.setColor(BLACK);
         }
+        return index;
     }
 
-    private void offer(Queue<SfcProviderTopologyNode> queue, SfcProviderTopologyNode node) {
-        if (!queue.offer(node)) {
-            // Shouldn't happen since the queue is (currently) unbounded but checking avoids findbugs violation.
-            LOG.warn("Could not offer to queue");
-        }
+    /**
+     * Gets the number of hops between two nodes.
+     *
+     * @param fromNodeName
+     *            source node
+     * @param toNodeName
+     *            destination node
+     * @return the number of hops, or -1 if any node does not exist or there is
+     *         no path between them
+     */
+    public int getDistance(String fromNodeName, String toNodeName) {
+        return getDistanceIndex().getDistance(fromNodeName, toNodeName);
     }
 
-    public List<SfcProviderTopologyNode> getShortestPath(String fromNodeName, String toNodeName) {
+    /**
+     * Finds the nodes closest to a given node among a list of candidates,
+     * i.e. the nearest instances of a Service Function type to the previous
+     * hop. Candidates that do not exist, are not reachable or are the node
+     * itself are left out.
+     *
+     * @param fromNodeName
+     *            source node
+     * @param candidateNodeNames
+     *            nodes to choose from
+     * @param maxNodes
+     *            maximum number of nodes to return
+     * @return up to maxNodes candidate names, nearest first; candidates at the
+     *         same distance keep their order
+     */
+    public List<String> getNearestNodes(String fromNodeName, Iterable<String> candidateNodeNames, int maxNodes) {
+        return getDistanceIndex().getNearestNodes(fromNodeName, candidateNodeNames, maxNodes);
+    }
+
+    public synchronized List<SfcProviderTopologyNode> getShortestPath(String fromNodeName, String toNodeName) {
         SfcProviderTopologyNode fromNode = getNode(fromNodeName);
         SfcProviderTopologyNode toNode = getNode(toNodeName);
         if (fromNode == null || toNode == null) {
@@ -158,16 +170,15 @@ public class SfcProviderGraph {
             return sfcProviderTopologyNodePath;
         }
 
-        breadthFirstSearch(fromNodeName);
-        SfcProviderTopologyNode sfcProviderTopologyNode = getNode(toNodeName);
-        while (sfcProviderTopologyNode != null) {
-            sfcProviderTopologyNodePath.add(0, sfcProviderTopologyNode);
-            sfcProviderTopologyNode = sfcProviderTopologyNode.getParent();
-        }
-
-        /* No path if the first node isn't fromNode, so clear it. */
-        if (!sfcProviderTopologyNodePath.isEmpty() && !sfcProviderTopologyNodePath.get(0).equals(fromNode)) {
-            sfcProviderTopologyNodePath.clear();
+        /* Nodes on the path are updated with their parent and distance */
+        SfcProviderTopologyNode parent = null;
+        for (String nodeName : getDistanceIndex().getPath(fromNodeName, toNodeName)) {
+            SfcProviderTopologyNode sfcProviderTopologyNode = getNode(nodeName);
+            sfcProviderTopologyNode.setColor(BLACK);
+            sfcProviderTopologyNode.setDist(sfcProviderTopologyNodePath.size());
+            sfcProviderTopologyNode.setParent(parent);
+            sfcProviderTopologyNodePath.add(sfcProviderTopologyNode);
+            parent = sfcProviderTopologyNode;
         }
         return sfcProviderTopologyNodePath;
     }
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.topology;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ConnectedSffDictionary;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ServiceFunctionDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Controller wide topology of Service Functions and Service Function
+ * Forwarders, shared by all the schedulers.
+ *
+ * <p>
+ * The topology is maintained incrementally from the SF and SFF configuration
+ * listeners instead of being read back from the datastore every time a path is
+ * scheduled. Schedulers get a {@link SfcProviderGraph} snapshot which is only
+ * rebuilt after the topology has changed; a published snapshot is never
+ * modified and may be shared between threads.
+ *
+ * <p>
+ * The topology is only authoritative while both the SF and the SFF listeners
+ * are tracking it. Otherwise {@link #getGraph()} returns null and the caller
+ * is expected to build the graph from the datastore with
+ * {@link #buildGraph(List, List)}.
+ */
+public final class SfcProviderTopology {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcProviderTopology.class);
+
+    private static final SfcProviderTopology INSTANCE = new SfcProviderTopology();
+
+    private final Set<String> serviceFunctions = ConcurrentHashMap.newKeySet();
+    private final Map<String, SffEdges> serviceFunctionForwarders = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile boolean serviceFunctionsTracked;
+    private volatile boolean serviceFunctionForwardersTracked;
+    private volatile Snapshot snapshot;
+
+    private SfcProviderTopology() {
+    }
+
+    public static SfcProviderTopology getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts or stops tracking the Service Functions. Called by the Service
+     * Function listener on registration and close.
+     *
+     * @param tracked
+     *            whether the Service Functions are being tracked
+     */
+    public void setServiceFunctionsTracked(boolean tracked) {
+        if (!tracked) {
+            serviceFunctions.clear();
+        }
+        serviceFunctionsTracked = tracked;
+        version.incrementAndGet();
+    }
+
+    /**
+     * Starts or stops tracking the Service Function Forwarders. Called by the
+     * Service Function Forwarder listener on registration and close.
+     *
+     * @param tracked
+     *            whether the Service Function Forwarders are being tracked
+     */
+    public void setServiceFunctionForwardersTracked(boolean tracked) {
+        if (!tracked) {
+            serviceFunctionForwarders.clear();
+        }
+        serviceFunctionForwardersTracked = tracked;
+        version.incrementAndGet();
+    }
+
+    public boolean isTracked() {
+        return serviceFunctionsTracked && serviceFunctionForwardersTracked;
+    }
+
+    /**
+     * Drops all the topology information, i.e. when the data broker changes.
+     */
+    public void reset() {
+        serviceFunctionsTracked = false;
+        serviceFunctionForwardersTracked = false;
+        serviceFunctions.clear();
+        serviceFunctionForwarders.clear();
+        snapshot = null;
+        version.incrementAndGet();
+    }
+
+    public void addServiceFunction(ServiceFunction serviceFunction) {
+        if (serviceFunctions.add(serviceFunction.getName().getValue())) {
+            version.incrementAndGet();
+        }
+    }
+
+    public void removeServiceFunction(ServiceFunction serviceFunction) {
+        if (serviceFunctions.remove(serviceFunction.getName().getValue())) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Adds or replaces a Service Function Forwarder along with its edges to
+     * Service Functions and to other Service Function Forwarders.
+     *
+     * @param serviceFunctionForwarder
+     *            the added or updated SFF
+     */
+    public void addServiceFunctionForwarder(ServiceFunctionForwarder serviceFunctionForwarder) {
+        SffEdges sffEdges = new SffEdges(serviceFunctionForwarder);
+        SffEdges previous = serviceFunctionForwarders.put(serviceFunctionForwarder.getName().getValue(), sffEdges);
+        if (!sffEdges.equals(previous)) {
+            version.incrementAndGet();
+        }
+    }
+
+    public void removeServiceFunctionForwarder(ServiceFunctionForwarder serviceFunctionForwarder) {
+        if (serviceFunctionForwarders.remove(serviceFunctionForwarder.getName().getValue()) != null) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the version of the topology, which changes every time a node or
+     * an edge is added or removed.
+     *
+     * @return the topology version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Gets a graph with the current topology. The same graph instance is
+     * returned until the topology changes.
+     *
+     * @return the topology graph, or null if the topology is not being tracked
+     */
+    public SfcProviderGraph getGraph() {
+        if (!isTracked()) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        if (current != null && current.version == version.get()) {
+            return current.graph;
+        }
+        synchronized (this) {
+            current = snapshot;
+            // read the version before building so that concurrent changes
+            // leave the new snapshot stale instead of being lost
+            long currentVersion = version.get();
+            if (current == null || current.version != currentVersion) {
+                SfcProviderGraph graph = new SfcProviderGraph();
+                serviceFunctions.forEach(graph::addNode);
+                serviceFunctionForwarders.forEach((sffName, sffEdges) -> sffEdges.addTo(sffName, graph));
+                current = new Snapshot(currentVersion, graph);
+                snapshot = current;
+                LOG.debug("getGraph: rebuilt topology graph version {}", currentVersion);
+            }
+            return current.graph;
+        }
+    }
+
+    /**
+     * Builds a graph comprised of the given SFs and SFFs. Node/vertex are the
+     * SFs and SFFs, edges are the SF-to-SFF dictionary and SFF-to-SFF
+     * connected dictionary entries.
+     *
+     * @param serviceFunctions
+     *            list of Service Functions, may be null
+     * @param serviceFunctionForwarders
+     *            list of Service Function Forwarders, may be null
+     * @return the topology graph
+     */
+    public static SfcProviderGraph buildGraph(List<ServiceFunction> serviceFunctions,
+            List<ServiceFunctionForwarder> serviceFunctionForwarders) {
+        SfcProviderGraph sfcProviderGraph = new SfcProviderGraph();
+        if (serviceFunctions != null) {
+            for (ServiceFunction serviceFunction : serviceFunctions) {
+                sfcProviderGraph.addNode(serviceFunction.getName().getValue());
+                LOG.debug("Add ServiceFunction: {}", serviceFunction.getName());
+            }
+        }
+        if (serviceFunctionForwarders != null) {
+            for (ServiceFunctionForwarder serviceFunctionForwarder : serviceFunctionForwarders) {
+                new SffEdges(serviceFunctionForwarder).addTo(serviceFunctionForwarder.getName().getValue(),
+                        sfcProviderGraph);
+            }
+        }
+        return sfcProviderGraph;
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final SfcProviderGraph graph;
+
+        Snapshot(long version, SfcProviderGraph graph) {
+            this.version = version;
+            this.graph = graph;
+        }
+    }
+
+    /**
+     * Names of the SFs and SFFs a SFF is attached to.
+     */
+    private static final class SffEdges {
+        private final List<String> sfNames;
+        private final List<String> connectedSffNames;
+
+        SffEdges(ServiceFunctionForwarder serviceFunctionForwarder) {
+            List<ServiceFunctionDictionary> sfDictionaries = serviceFunctionForwarder.getServiceFunctionDictionary();
+            List<ConnectedSffDictionary> sffDictionaries = serviceFunctionForwarder.getConnectedSffDictionary();
+            List<String> sfs = new ArrayList<>();
+            List<String> sffs = new ArrayList<>();
+            if (sfDictionaries != null) {
+                sfDictionaries.forEach(dictionary -> sfs.add(dictionary.getName().getValue()));
+            }
+            if (sffDictionaries != null) {
+                sffDictionaries.forEach(dictionary -> sffs.add(dictionary.getName().getValue()));
+            }
+            this.sfNames = Collections.unmodifiableList(sfs);
+            this.connectedSffNames = Collections.unmodifiableList(sffs);
+        }
+
+        void addTo(String sffName, SfcProviderGraph sfcProviderGraph) {
+            sfcProviderGraph.addNode(sffName);
+            LOG.debug("Add ServiceFunctionForwarder: {}", sffName);
+            for (String sfName : sfNames) {
+                sfcProviderGraph.addEdge(sfName, sffName);
+                LOG.debug("Add SF-to-SFF edge: {} => {}", sfName, sffName);
+            }
+            for (String toSffName : connectedSffNames) {
+                sfcProviderGraph.addEdge(sffName, toSffName);
+                LOG.debug("Add SFF-to-SFF edge: {} => {}", sffName, toSffName);
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof SffEdges)) {
+                return false;
+            }
+            SffEdges other = (SffEdges) obj;
+            return sfNames.equals(other.sfNames) && connectedSffNames.equals(other.connectedSffNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sfNames.hashCode() + connectedSffNames.hashCode();
+        }
+    }
+}
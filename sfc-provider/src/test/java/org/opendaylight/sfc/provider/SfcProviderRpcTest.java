@@ -31,6 +31,11 @@ import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionGroupAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServicePathAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceTypeAPI;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.AllocatePathIdInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.DeletePathIdInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.PathIdState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ReadPathIdInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.ReservePathIdRangeInputBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfDataPlaneLocatorName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
@@ -404,6 +409,40 @@ public class SfcProviderRpcTest extends AbstractSfcRendererServicePathAPITest {
                 serviceFunctionChainsFromDataStore.getServiceFunctionChain().get(0).getName());
     }
 
+    @Test
+    public void pathIdRpcsTest() throws Exception {
+        ReservePathIdRangeInputBuilder reservePathIdRangeInputBuilder = new ReservePathIdRangeInputBuilder();
+        reservePathIdRangeInputBuilder.setPathIdStart(10000L).setPathIdEnd(10999L);
+        assertTrue(sfcProviderRpc.reservePathIdRange(reservePathIdRangeInputBuilder.build()).get().getResult()
+                .isResult());
+
+        ReadPathIdInputBuilder readPathIdInputBuilder = new ReadPathIdInputBuilder().setPathId(10500L);
+        assertEquals(PathIdState.Reserved,
+                sfcProviderRpc.readPathId(readPathIdInputBuilder.build()).get().getResult().getState());
+
+        AllocatePathIdInputBuilder allocatePathIdInputBuilder = new AllocatePathIdInputBuilder().setPathId(10500L);
+        assertTrue(sfcProviderRpc.allocatePathId(allocatePathIdInputBuilder.build()).get().getResult().isResult());
+        assertFalse(sfcProviderRpc.allocatePathId(allocatePathIdInputBuilder.build()).get().getResult().isResult());
+        assertEquals(PathIdState.Allocated,
+                sfcProviderRpc.readPathId(readPathIdInputBuilder.build()).get().getResult().getState());
+
+        // deleting an allocated path-id frees it, back to its reservation
+        DeletePathIdInputBuilder deletePathIdInputBuilder = new DeletePathIdInputBuilder().setPathId(10500L);
+        assertTrue(sfcProviderRpc.deletePathId(deletePathIdInputBuilder.build()).get().getResult().isResult());
+        assertEquals(PathIdState.Reserved,
+                sfcProviderRpc.readPathId(readPathIdInputBuilder.build()).get().getResult().getState());
+
+        // deleting a reserved path-id releases only that path-id
+        assertTrue(sfcProviderRpc.deletePathId(deletePathIdInputBuilder.build()).get().getResult().isResult());
+        assertEquals(PathIdState.Available,
+                sfcProviderRpc.readPathId(readPathIdInputBuilder.build()).get().getResult().getState());
+        for (long pathId : new long[] {10000L, 10499L, 10501L, 10999L}) {
+            assertEquals(PathIdState.Reserved, sfcProviderRpc.readPathId(new ReadPathIdInputBuilder()
+                    .setPathId(pathId).build()).get().getResult().getState());
+        }
+        assertFalse(sfcProviderRpc.deletePathId(deletePathIdInputBuilder.build()).get().getResult().isResult());
+    }
+
     @Test
     public void instantiateServiceFunctionChainTest() {
         InstantiateServiceFunctionChainInputBuilder instantiateServiceFunctionChainInput =
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.sfc.provider.AbstractDataStoreManager;
+import org.opendaylight.sfc.provider.api.SfcConfigurationCache.ConfigurationCache;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SftTypeName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunctionBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunctionKey;
+
+public class SfcConfigurationCacheTest extends AbstractDataStoreManager {
+
+    private static final SfName SF_NAME = new SfName("SF1");
+
+    private ConfigurationCache<SfName, ServiceFunction> serviceFunctions;
+
+    @Before
+    public void before() {
+        setupSfc();
+        serviceFunctions = SfcConfigurationCache.getServiceFunctions();
+    }
+
+    @After
+    public void after() {
+        SfcConfigurationCache.reset();
+    }
+
+    private static ServiceFunction buildServiceFunction(String type) {
+        return new ServiceFunctionBuilder().setName(SF_NAME).setKey(new ServiceFunctionKey(SF_NAME))
+                .setType(new SftTypeName(type)).build();
+    }
+
+    @Test
+    public void testNotTracked() {
+        ServiceFunction serviceFunction = buildServiceFunction("firewall");
+        SfcProviderServiceFunctionAPI.putServiceFunction(serviceFunction);
+
+        // every get goes to the datastore and puts are ignored
+        assertEquals("Must be equal", serviceFunction, serviceFunctions.get(SF_NAME));
+        serviceFunctions.put(SF_NAME, buildServiceFunction("dpi"));
+        assertEquals("Must be equal", serviceFunction, serviceFunctions.get(SF_NAME));
+    }
+
+    @Test
+    public void testTracked() {
+        serviceFunctions.setTracked(true);
+        long misses = serviceFunctions.getStats().missCount();
+        long hits = serviceFunctions.getStats().hitCount();
+
+        // missing objects are not cached
+        assertNull(serviceFunctions.get(SF_NAME));
+        ServiceFunction serviceFunction = buildServiceFunction("firewall");
+        SfcProviderServiceFunctionAPI.putServiceFunction(serviceFunction);
+        assertEquals("Must be equal", serviceFunction, serviceFunctions.get(SF_NAME));
+        assertEquals("Must be equal", serviceFunction, serviceFunctions.get(SF_NAME));
+        assertEquals("Must be equal", misses + 2, serviceFunctions.getStats().missCount());
+        assertEquals("Must be equal", hits + 1, serviceFunctions.getStats().hitCount());
+
+        // the listener puts the updated object
+        ServiceFunction updatedServiceFunction = buildServiceFunction("dpi");
+        serviceFunctions.put(SF_NAME, updatedServiceFunction);
+        assertEquals("Must be equal", updatedServiceFunction, serviceFunctions.get(SF_NAME));
+
+        // and drops the removed one
+        SfcProviderServiceFunctionAPI.deleteServiceFunction(SF_NAME);
+        serviceFunctions.invalidate(SF_NAME);
+        assertNull(serviceFunctions.get(SF_NAME));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.provider.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.sfc.provider.AbstractDataStoreManager;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfpName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.ServiceFunctionPathsState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.state.ServiceFunctionPathState;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.state.ServiceFunctionPathStateKey;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfp.rev140701.service.function.paths.state.service.function.path.state.SfpRenderedServicePath;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+/**
+ * This class contains unit tests for class SfcDataStoreBatch.
+ */
+public class SfcDataStoreBatchTest extends AbstractDataStoreManager {
+
+    private static final SfpName SFP_NAME = new SfpName("sfpKey");
+    private static final RspName RSP_NAME1 = new RspName("rspKey1");
+    private static final RspName RSP_NAME2 = new RspName("rspKey2");
+
+    @Before
+    public void before() {
+        setupSfc();
+    }
+
+    // both operations of the batch are visible after a single commit
+    @Test
+    public void testBatchTransaction() {
+        SfcDataStoreBatch batch = new SfcDataStoreBatch();
+        SfcProviderServicePathAPI.addRenderedPathToServicePathState(SFP_NAME, RSP_NAME1, batch);
+        SfcProviderServicePathAPI.addRenderedPathToServicePathState(SFP_NAME, RSP_NAME2, batch);
+        assertEquals("Must be equal", 2, batch.size());
+
+        // nothing is written until the batch is committed
+        assertNull("Must be null", SfcProviderServicePathAPI.readServicePathState(SFP_NAME));
+
+        assertTrue("Must be true", SfcDataStoreAPI.batchTransactionAPI(batch));
+
+        List<SfpRenderedServicePath> sfpList = SfcProviderServicePathAPI.readServicePathState(SFP_NAME);
+        assertNotNull("Must not be null", sfpList);
+        assertEquals("Must be equal", 2, sfpList.size());
+    }
+
+    // puts and deletes are applied in order on asynchronous submit
+    @Test
+    public void testSubmitBatchTransaction() throws Exception {
+        InstanceIdentifier<ServiceFunctionPathState> sfpStateIID = InstanceIdentifier
+                .builder(ServiceFunctionPathsState.class)
+                .child(ServiceFunctionPathState.class, new ServiceFunctionPathStateKey(SFP_NAME)).build();
+
+        SfcDataStoreBatch batch = new SfcDataStoreBatch();
+        SfcProviderServicePathAPI.addRenderedPathToServicePathState(SFP_NAME, RSP_NAME1, batch);
+        batch.delete(sfpStateIID, LogicalDatastoreType.OPERATIONAL);
+        SfcProviderServicePathAPI.addRenderedPathToServicePathState(SFP_NAME, RSP_NAME2, batch);
+        SfcDataStoreAPI.submitBatchTransactionAPI(batch).get();
+
+        List<SfpRenderedServicePath> sfpList = SfcProviderServicePathAPI.readServicePathState(SFP_NAME);
+        assertNotNull("Must not be null", sfpList);
+        assertEquals("Must be equal", 1, sfpList.size());
+        assertEquals("Must be equal", RSP_NAME2, sfpList.get(0).getName());
+    }
+
+    // an empty batch does not need a transaction
+    @Test
+    public void testEmptyBatchTransaction() throws Exception {
+        SfcDataStoreBatch batch = new SfcDataStoreBatch();
+        assertTrue("Must be true", batch.isEmpty());
+        assertTrue("Must be true", SfcDataStoreAPI.batchTransactionAPI(batch));
+        assertNull("Must be null", SfcDataStoreAPI.submitBatchTransactionAPI(batch).get());
+    }
+}
@@ -19,6 +19,7 @@ import java.util.LinkedList;
 import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.GenerationAlgorithmEnum;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.service.path.id.rev150804.PathIdState;
 
 /**
  * SfcServicePathId Tester.
@@ -169,4 +170,86 @@ public class SfcServicePathIdTest extends AbstractSfcRendererServicePathAPITest
             assertTrue(SfcServicePathId.freePathId(pathId));
         }
     }
+
+    @Test
+    public void testPathIdBitarrayCheckpoint() throws Exception {
+        for (Integer pathId : pathIdList) {
+            assertTrue(SfcServicePathId.allocatePathId(pathId));
+        }
+        assertTrue(SfcServicePathIdAllocator.getInstance().checkpoint());
+
+        // Allocations must survive reloading the bitarray from the datastore
+        SfcServicePathIdAllocator.reset();
+        for (Integer pathId : pathIdList) {
+            assertFalse(SfcServicePathId.checkSuitablePathId(pathId));
+        }
+        for (Integer pathId : pathIdList) {
+            assertTrue(SfcServicePathId.freePathId(pathId));
+        }
+
+        // And so must a pending free, written back on reset
+        SfcServicePathIdAllocator.reset();
+        for (Integer pathId : pathIdList) {
+            assertTrue(SfcServicePathId.checkSuitablePathId(pathId));
+        }
+    }
+
+    @Test
+    public void testReservePathIdRange() throws Exception {
+        SfcServicePathId.setGenerationAlgorithm(GenerationAlgorithmEnum.Sequential);
+        final long firstPathId = SfcServicePathId.checkAndAllocatePathId();
+        final long rangeStart = firstPathId + 1;
+        final long rangeEnd = firstPathId + 100;
+
+        assertTrue(SfcServicePathId.reservePathIdRange(rangeStart, rangeEnd));
+        assertEquals(PathIdState.Reserved, SfcServicePathId.readPathIdState(rangeStart));
+        assertEquals(PathIdState.Reserved, SfcServicePathId.readPathIdState(rangeEnd));
+        assertEquals(PathIdState.Allocated, SfcServicePathId.readPathIdState(firstPathId));
+
+        // Overlapping or already allocated ranges can not be reserved
+        assertFalse(SfcServicePathId.reservePathIdRange(rangeEnd, rangeEnd + 10));
+        assertFalse(SfcServicePathId.reservePathIdRange(firstPathId, firstPathId));
+
+        // Generated path-ids skip the reserved range
+        assertEquals(rangeEnd + 1, SfcServicePathId.checkAndAllocatePathId());
+
+        // Reserved path-ids can still be allocated explicitly
+        assertEquals(rangeStart, SfcServicePathId.chechAndAllocatePathId(rangeStart));
+        assertEquals(PathIdState.Allocated, SfcServicePathId.readPathIdState(rangeStart));
+
+        // The reservation survives reloading from the datastore
+        SfcServicePathIdAllocator.reset();
+        assertEquals(PathIdState.Reserved, SfcServicePathId.readPathIdState(rangeEnd));
+
+        // Releasing a path-id leaves the rest of its range reserved
+        assertTrue(SfcServicePathId.releaseReservedPathId(rangeEnd));
+        assertEquals(PathIdState.Available, SfcServicePathId.readPathIdState(rangeEnd));
+        assertEquals(PathIdState.Reserved, SfcServicePathId.readPathIdState(rangeEnd - 1));
+        assertTrue(SfcServicePathId.releaseReservedPathId(rangeStart + 1));
+        assertEquals(PathIdState.Reserved, SfcServicePathId.readPathIdState(rangeStart + 2));
+
+        // The split range survives reloading from the datastore
+        SfcServicePathIdAllocator.reset();
+        assertEquals(PathIdState.Available, SfcServicePathId.readPathIdState(rangeStart + 1));
+        assertEquals(PathIdState.Reserved, SfcServicePathId.readPathIdState(rangeEnd - 1));
+
+        for (long pathId : Arrays.asList(firstPathId, rangeStart, rangeEnd + 1)) {
+            assertTrue(SfcServicePathId.freePathId(pathId));
+        }
+    }
+
+    @Test
+    public void testSymmetricPathIdSkipsReservedRange() throws Exception {
+        SfcServicePathId.setGenerationAlgorithm(GenerationAlgorithmEnum.Random);
+        final long pathId = 5;
+        final long symmetricPathId = pathId ^ 1 << 23;
+
+        assertTrue(SfcServicePathId.reservePathIdRange(symmetricPathId, symmetricPathId));
+        assertEquals(-1, SfcServicePathId.checkAndAllocateSymmetricPathId(pathId));
+        assertEquals(PathIdState.Reserved, SfcServicePathId.readPathIdState(symmetricPathId));
+
+        assertTrue(SfcServicePathId.releaseReservedPathId(symmetricPathId));
+        assertEquals(symmetricPathId, SfcServicePathId.checkAndAllocateSymmetricPathId(pathId));
+        assertTrue(SfcServicePathId.freePathId(symmetricPathId));
+    }
 }
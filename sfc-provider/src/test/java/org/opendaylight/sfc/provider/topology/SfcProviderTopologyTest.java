@@ -11,13 +11,27 @@ package org.opendaylight.sfc.provider.topology;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.TreeSet;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.controller.md.sal.binding.test.AssertCollections;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunctionBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.ServiceFunctionForwarderBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ConnectedSffDictionaryBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.ServiceFunctionDictionaryBuilder;
 
 /**
  * This class contains unit tests for SfcProviderGraph.
@@ -34,6 +48,12 @@ public class SfcProviderTopologyTest {
     @Before
     public void init() {
         sfcProviderGraph = new SfcProviderGraph();
+        SfcProviderTopology.getInstance().reset();
+    }
+
+    @After
+    public void after() {
+        SfcProviderTopology.getInstance().reset();
     }
 
     /*
@@ -129,4 +149,111 @@ public class SfcProviderTopologyTest {
         sfcProviderTopologyNodeList = sfcProviderGraph.getShortestPath(NODE_NAME + 1, NODE_NAME + 1);
         assertEquals("Must be equal", sfcProviderTopologyNodeList.get(0).getName(), NODE_NAME + 1);
     }
+
+    /*
+     * distances and nearest candidates come from the cached searches, which
+     * are dropped when an edge is added
+     */
+    @Test
+    public void testDistances() {
+        // sf1 - sff1 - sff2 - sf2, sff2 - sf3, sff1 - sf4
+        sfcProviderGraph.addEdge("sf1", "sff1");
+        sfcProviderGraph.addEdge("sff1", "sff2");
+        sfcProviderGraph.addEdge("sff2", "sf2");
+        sfcProviderGraph.addEdge("sff2", "sf3");
+        sfcProviderGraph.addEdge("sff1", "sf4");
+        sfcProviderGraph.addNode("sf5");
+
+        assertEquals("Must be equal", 0, sfcProviderGraph.getDistance("sf1", "sf1"));
+        assertEquals("Must be equal", 3, sfcProviderGraph.getDistance("sf1", "sf2"));
+        assertEquals("Must be equal", 2, sfcProviderGraph.getDistance("sf1", "sf4"));
+        assertEquals("Must be equal", -1, sfcProviderGraph.getDistance("sf1", "sf5"));
+        assertEquals("Must be equal", -1, sfcProviderGraph.getDistance("sf1", "sf6"));
+
+        // unknown, unreachable and the source itself are left out
+        List<String> candidates = Arrays.asList("sf6", "sf5", "sf1", "sf2", "sf3", "sf4");
+        assertEquals("Must be equal", Arrays.asList("sf4", "sf2", "sf3"),
+                sfcProviderGraph.getNearestNodes("sf1", candidates, 3));
+        assertEquals("Must be equal", Collections.singletonList("sf4"),
+                sfcProviderGraph.getNearestNodes("sf1", candidates, 1));
+        AssertCollections.assertEmpty(sfcProviderGraph.getNearestNodes("sf5", candidates, 1));
+
+        // a new edge is taken into account
+        sfcProviderGraph.addEdge("sff1", "sf5");
+        assertEquals("Must be equal", 2, sfcProviderGraph.getDistance("sf1", "sf5"));
+        assertEquals("Must be equal", Arrays.asList("sf5", "sf4"),
+                sfcProviderGraph.getNearestNodes("sf1", Arrays.asList("sf2", "sf5", "sf4"), 2));
+
+        List<SfcProviderTopologyNode> path = sfcProviderGraph.getShortestPath("sf1", "sf3");
+        assertEquals("Must be equal", 4, path.size());
+        assertEquals("Must be equal", "sff2", path.get(2).getName());
+        assertEquals("Must be equal", 3, path.get(3).getDist());
+    }
+
+    /*
+     * the shared topology is only available while tracked, and its graph is
+     * only rebuilt when SFs or SFFs change
+     */
+    @Test
+    public void testSharedTopology() {
+        SfcProviderTopology sfcProviderTopology = SfcProviderTopology.getInstance();
+        ServiceFunction sf1 = buildServiceFunction("sf1");
+        ServiceFunction sf2 = buildServiceFunction("sf2");
+        ServiceFunctionForwarder sff1 = buildServiceFunctionForwarder("sff1", "sf1", "sff2");
+        ServiceFunctionForwarder sff2 = buildServiceFunctionForwarder("sff2", "sf2", "sff1");
+
+        sfcProviderTopology.addServiceFunction(sf1);
+        sfcProviderTopology.addServiceFunction(sf2);
+        sfcProviderTopology.addServiceFunctionForwarder(sff1);
+        sfcProviderTopology.addServiceFunctionForwarder(sff2);
+
+        // not available until both SFs and SFFs are tracked
+        sfcProviderTopology.setServiceFunctionsTracked(true);
+        assertNull("Must be null", sfcProviderTopology.getGraph());
+        sfcProviderTopology.setServiceFunctionForwardersTracked(true);
+
+        SfcProviderGraph graph = sfcProviderTopology.getGraph();
+        assertNotNull("Must not be null", graph);
+        assertEquals("Must be equal", 4, graph.getShortestPath("sf1", "sf2").size());
+
+        // no change, same snapshot
+        sfcProviderTopology.addServiceFunction(sf1);
+        sfcProviderTopology.addServiceFunctionForwarder(sff1);
+        assertSame("Must be same", graph, sfcProviderTopology.getGraph());
+
+        // SFF-to-SFF edge removed, new snapshot without path
+        sfcProviderTopology.addServiceFunctionForwarder(buildServiceFunctionForwarder("sff1", "sf1", null));
+        sfcProviderTopology.addServiceFunctionForwarder(buildServiceFunctionForwarder("sff2", "sf2", null));
+        SfcProviderGraph updatedGraph = sfcProviderTopology.getGraph();
+        assertNotSame("Must not be same", graph, updatedGraph);
+        AssertCollections.assertEmpty(updatedGraph.getShortestPath("sf1", "sf2"));
+
+        // the previous snapshot is untouched
+        assertEquals("Must be equal", 4, graph.getShortestPath("sf1", "sf2").size());
+
+        // SF removed
+        sfcProviderTopology.removeServiceFunction(sf2);
+        sfcProviderTopology.removeServiceFunctionForwarder(sff2);
+        assertFalse("Must be false", sfcProviderTopology.getGraph().hasNode("sf2"));
+
+        // stop tracking
+        sfcProviderTopology.setServiceFunctionsTracked(false);
+        assertNull("Must be null", sfcProviderTopology.getGraph());
+    }
+
+    private static ServiceFunction buildServiceFunction(String name) {
+        return new ServiceFunctionBuilder().setName(new SfName(name)).build();
+    }
+
+    private static ServiceFunctionForwarder buildServiceFunctionForwarder(String name, String sfName,
+            String connectedSffName) {
+        ServiceFunctionForwarderBuilder sffBuilder = new ServiceFunctionForwarderBuilder().setName(new SffName(name));
+        sffBuilder.setServiceFunctionDictionary(Collections.singletonList(
+                new ServiceFunctionDictionaryBuilder().setName(new SfName(sfName)).build()));
+        if (connectedSffName != null) {
+            sffBuilder.setConnectedSffDictionary(Collections.singletonList(
+                    new ConnectedSffDictionaryBuilder().setName(new SffName(connectedSffName)).build()));
+        }
+        return sffBuilder.build();
+    }
 }
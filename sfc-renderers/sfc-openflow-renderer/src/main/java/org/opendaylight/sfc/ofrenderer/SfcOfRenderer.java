@@ -20,6 +20,8 @@ import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerInterface;
 import org.opendaylight.sfc.ofrenderer.processors.SfcOfRspProcessor;
 import org.opendaylight.sfc.ofrenderer.utils.SfcOfBaseProviderUtils;
 import org.opendaylight.sfc.ofrenderer.utils.SfcOfProviderUtils;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfRenderingExecutor;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfSffLocks;
 import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
 import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
 import org.opendaylight.yangtools.concepts.Registration;
@@ -31,11 +33,19 @@ import org.slf4j.LoggerFactory;
  */
 public final class SfcOfRenderer implements AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(SfcOfRenderer.class);
+    private static final int MAX_PENDING_RENDERING_TASKS = 1024;
+    // the number of flows written per transaction, lowered if the switch
+    // rejects large bundles
+    private static final int MAX_FLOWS_PER_TRANSACTION = Integer.getInteger("sfc.of.max-flows-per-transaction",
+            500);
+    private static final int MAX_PENDING_TRANSACTIONS_PER_LANE = 16;
+    private static final long FLOW_COALESCING_WINDOW_MILLIS = 100;
 
     private final SfcOfRspProcessor sfcOfRspProcessor;
     private final SfcOfFlowProgrammerInterface sfcOfFlowProgrammer;
     private final Registration pktInRegistration;
     private final SfcSynchronizer sfcSynchronizer;
+    private final SfcOfRenderingExecutor renderingExecutor;
 
     private SfcOfRspDataListener openflowRspDataListener;
     private SfcOfSfgDataListener sfcOfSfgDataListener;
@@ -49,16 +59,25 @@ public final class SfcOfRenderer implements AutoCloseable {
         this.sfcSynchronizer = new SfcSynchronizer();
         SfcOfFlowWriterImpl sfcofflowwriterimpl = new SfcOfFlowWriterImpl();
         sfcofflowwriterimpl.setDataProvider(dataBroker);
+        int flowWriterLanes = Runtime.getRuntime().availableProcessors();
+        sfcofflowwriterimpl.setShardedWrites(flowWriterLanes, MAX_FLOWS_PER_TRANSACTION,
+                flowWriterLanes * MAX_PENDING_TRANSACTIONS_PER_LANE);
+        sfcofflowwriterimpl.setCoalescingWindow(FLOW_COALESCING_WINDOW_MILLIS);
         this.sfcOfFlowProgrammer = new SfcOfFlowProgrammerImpl(sfcofflowwriterimpl);
         SfcOfBaseProviderUtils sfcOfProviderUtils = new SfcOfProviderUtils();
-        this.sfcOfRspProcessor = new SfcOfRspProcessor(sfcOfFlowProgrammer, sfcOfProviderUtils, sfcSynchronizer,
-                rpcProviderRegistry, dataBroker);
+        SfcOfSffLocks sffLocks = new SfcOfSffLocks();
+        this.sfcOfRspProcessor = new SfcOfRspProcessor(sfcOfFlowProgrammer, sfcOfProviderUtils, rpcProviderRegistry,
+                dataBroker, sffLocks);
 
-        this.openflowRspDataListener = new SfcOfRspDataListener(dataBroker, sfcOfRspProcessor);
+        this.renderingExecutor = new SfcOfRenderingExecutor(Runtime.getRuntime().availableProcessors(),
+                MAX_PENDING_RENDERING_TASKS);
+        this.openflowRspDataListener = new SfcOfRspDataListener(dataBroker, sfcOfRspProcessor, renderingExecutor);
         this.sfcOfSfgDataListener = new SfcOfSfgDataListener(dataBroker, sfcOfFlowProgrammer, sfcOfProviderUtils);
-        this.sfcOfRendererListener = new SfcOfRendererDataListener(dataBroker, sfcOfFlowProgrammer, sfcSynchronizer);
+        this.sfcOfRendererListener = new SfcOfRendererDataListener(dataBroker, sfcOfFlowProgrammer, sfcSynchronizer,
+                sffLocks);
 
-        this.packetInHandler = new SfcIpv4PacketInHandler((SfcOfFlowProgrammerImpl) sfcOfFlowProgrammer);
+        this.packetInHandler = new SfcIpv4PacketInHandler((SfcOfFlowProgrammerImpl) sfcOfFlowProgrammer,
+                sfcSynchronizer);
         this.pktInRegistration = notificationService.registerNotificationListener(packetInHandler);
 
         LOG.info("SfcOfRenderer successfully started the SfcOfRenderer plugin");
@@ -71,13 +90,17 @@ public final class SfcOfRenderer implements AutoCloseable {
     public void close() throws Exception {
         LOG.info("SfcOfRenderer auto-closed");
         try {
-            if (sfcOfFlowProgrammer != null) {
-                sfcOfFlowProgrammer.shutdown();
-            }
             if (pktInRegistration != null) {
                 pktInRegistration.close();
             }
+            // write the flows of the last packet-ins before the flow writer
+            // goes away
+            packetInHandler.close();
+            if (sfcOfFlowProgrammer != null) {
+                sfcOfFlowProgrammer.shutdown();
+            }
             openflowRspDataListener.close();
+            renderingExecutor.close();
         } finally {
             openflowRspDataListener = null;
         }
@@ -16,6 +16,7 @@ import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerInterface;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfSffLocks;
 import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
 import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.of.renderer.rev151123.SfcOfRendererConfig;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.table.types.rev131026.TableId;
@@ -36,14 +37,16 @@ public class SfcOfRendererDataListener extends SfcOfAbstractDataListener<SfcOfRe
     private static final Logger LOG = LoggerFactory.getLogger(SfcOfRendererDataListener.class);
     private final SfcOfFlowProgrammerInterface sfcOfFlowProgrammer;
     private final SfcSynchronizer sfcSynchronizer;
+    private final SfcOfSffLocks sffLocks;
     private final ExecutorService threadExecutor;
 
     public SfcOfRendererDataListener(DataBroker dataBroker, SfcOfFlowProgrammerInterface sfcOfFlowProgrammer,
-            SfcSynchronizer sfcSynchronizer) {
+            SfcSynchronizer sfcSynchronizer, SfcOfSffLocks sffLocks) {
         registerAsDataChangeListener(dataBroker, LogicalDatastoreType.CONFIGURATION,
                 InstanceIdentifier.builder(SfcOfRendererConfig.class).build());
         this.sfcOfFlowProgrammer = sfcOfFlowProgrammer;
         this.sfcSynchronizer = sfcSynchronizer;
+        this.sffLocks = sffLocks;
         threadExecutor = Executors.newSingleThreadExecutor();
     }
 
@@ -153,14 +156,18 @@ public class SfcOfRendererDataListener extends SfcOfAbstractDataListener<SfcOfRe
 
         @Override
         public void run() {
+            // The offsets are changed neither while the RSPs are rendered
+            // nor while the packet-in flows are written
+            sfcSynchronizer.lock();
+            sffLocks.lockAll();
             try {
-                sfcSynchronizer.lock();
                 sfcOfFlowProgrammer.setTableBase(this.sfcOffsetTable);
                 sfcOfFlowProgrammer.setTableEgress(this.sfcAppEgressTable);
 
                 LOG.info("UpdateOpenFlowTableOffsets complete tableOffset [{}] egressTable [{}]", this.sfcOffsetTable,
                         this.sfcAppEgressTable);
             } finally {
+                sffLocks.unlockAll();
                 sfcSynchronizer.unlock();
             }
         }
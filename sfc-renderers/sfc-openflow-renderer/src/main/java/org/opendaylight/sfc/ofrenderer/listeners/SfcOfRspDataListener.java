@@ -8,7 +8,9 @@
 
 package org.opendaylight.sfc.ofrenderer.listeners;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import javax.annotation.Nonnull;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
@@ -17,8 +19,10 @@ import org.opendaylight.controller.md.sal.binding.api.DataTreeIdentifier;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.ofrenderer.processors.SfcOfRspProcessor;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfRenderingExecutor;
 import org.opendaylight.sfc.provider.api.SfcInstanceIdentifiers;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,12 +38,31 @@ import org.slf4j.LoggerFactory;
 public class SfcOfRspDataListener implements DataTreeChangeListener<RenderedServicePath>, AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(SfcOfRspDataListener.class);
     private final SfcOfRspProcessor sfcOfRspProcessor;
+    private final SfcOfRenderingExecutor renderingExecutor;
     private final ListenerRegistration<SfcOfRspDataListener> rspListenerRegistration;
 
     public SfcOfRspDataListener(DataBroker dataBroker, SfcOfRspProcessor sfcOfRspProcessor) {
+        this(dataBroker, sfcOfRspProcessor, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dataBroker
+     *            the data broker to listen to
+     * @param sfcOfRspProcessor
+     *            the RSP processor
+     * @param renderingExecutor
+     *            executor used to render RSPs concurrently, keeping the order
+     *            of the changes per SFF; if null, RSPs are rendered in the
+     *            notification thread
+     */
+    public SfcOfRspDataListener(DataBroker dataBroker, SfcOfRspProcessor sfcOfRspProcessor,
+            SfcOfRenderingExecutor renderingExecutor) {
+        this.sfcOfRspProcessor = sfcOfRspProcessor;
+        this.renderingExecutor = renderingExecutor;
         rspListenerRegistration = dataBroker.registerDataTreeChangeListener(
                 new DataTreeIdentifier<>(LogicalDatastoreType.OPERATIONAL, SfcInstanceIdentifiers.RSP_ENTRY_IID), this);
-        this.sfcOfRspProcessor = sfcOfRspProcessor;
     }
 
     @Override
@@ -52,19 +75,24 @@ public class SfcOfRspDataListener implements DataTreeChangeListener<RenderedServ
                 case SUBTREE_MODIFIED:
                     if (rootNode.getDataBefore() == null && rootNode.getDataAfter() != null) {
                         LOG.info("SfcOfRspDataListener.onDataTreeChanged create RSP {}", rootNode.getDataBefore());
-                        sfcOfRspProcessor.processRenderedServicePath(rootNode.getDataAfter());
+                        RenderedServicePath createdRsp = rootNode.getDataAfter();
+                        render(createdRsp, () -> sfcOfRspProcessor.processRenderedServicePath(createdRsp));
                     } else if (rootNode.getDataAfter().equals(rootNode.getDataBefore())) {
                         LOG.info("SfcOfRspDataListener.onDataTreeChanged update RSP Before:{} After:{}",
                                 rootNode.getDataAfter(), rootNode.getDataBefore());
                         // This clause supports re-rendering of unmodified RSPs
-                        sfcOfRspProcessor.deleteRenderedServicePath(rootNode.getDataBefore());
-                        sfcOfRspProcessor.processRenderedServicePath(rootNode.getDataAfter());
+                        RenderedServicePath rsp = rootNode.getDataAfter();
+                        render(rsp, () -> {
+                            sfcOfRspProcessor.deleteRenderedServicePath(rsp);
+                            sfcOfRspProcessor.processRenderedServicePath(rsp);
+                        });
                     }
                     break;
                 case DELETE:
                     if (rootNode.getDataBefore() != null) {
                         LOG.info("SfcOfRspDataListener.onDataTreeChanged delete RSP {}", rootNode.getDataBefore());
-                        sfcOfRspProcessor.deleteRenderedServicePath(rootNode.getDataBefore());
+                        RenderedServicePath deletedRsp = rootNode.getDataBefore();
+                        render(deletedRsp, () -> sfcOfRspProcessor.deleteRenderedServicePath(deletedRsp));
                     }
                     break;
                 default:
@@ -73,6 +101,32 @@ public class SfcOfRspDataListener implements DataTreeChangeListener<RenderedServ
         }
     }
 
+    /**
+     * Run a rendering task for a RSP, either right away or on the rendering
+     * executor after any previous task for the same RSP or any of its SFFs.
+     *
+     * @param rsp
+     *            the RSP being rendered
+     * @param task
+     *            the rendering task
+     */
+    private void render(RenderedServicePath rsp, Runnable task) {
+        if (renderingExecutor == null) {
+            task.run();
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        keys.add("rsp/" + rsp.getName().getValue());
+        if (rsp.getRenderedServicePathHop() != null) {
+            for (RenderedServicePathHop hop : rsp.getRenderedServicePathHop()) {
+                if (hop.getServiceFunctionForwarder() != null) {
+                    keys.add("sff/" + hop.getServiceFunctionForwarder().getValue());
+                }
+            }
+        }
+        renderingExecutor.execute(keys, task);
+    }
+
     @Override
     public void close() throws Exception {
         rspListenerRegistration.close();
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.openflow;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Batches the PathMapperAcl flows created from packet-ins per SFF node, so
+ * that they are written a batch at a time instead of a packet at a time.
+ *
+ * <p>
+ * The batch of a node is handed over on the calling thread as soon as it
+ * reaches the maximum number of flows. The remaining batches are handed over
+ * on a timer thread once the time window elapses, the window starting with
+ * the first flow added after the previous hand over.
+ */
+final class PathMapperAclFlowBatcher {
+    private static final Logger LOG = LoggerFactory.getLogger(PathMapperAclFlowBatcher.class);
+    private static final long SHUTDOWN_TIME = 5;
+
+    private final long windowMillis;
+    private final int maxFlows;
+    private final Consumer<List<FlowDetails>> flowWriter;
+    private final ScheduledExecutorService scheduler;
+
+    // pending flows per SFF node, guarded by this
+    private Map<String, List<FlowDetails>> batches = new HashMap<>();
+    private boolean flushScheduled;
+
+    PathMapperAclFlowBatcher(long windowMillis, int maxFlows, Consumer<List<FlowDetails>> flowWriter) {
+        this.windowMillis = windowMillis;
+        this.maxFlows = maxFlows;
+        this.flowWriter = flowWriter;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("sfc-of-pktin-flow-batcher-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Add flows to the batch of a node.
+     *
+     * @param sffNodeName
+     *            the SFF the flows are written to
+     * @param flows
+     *            the details of the flows
+     */
+    void addFlows(String sffNodeName, Collection<FlowDetails> flows) {
+        List<FlowDetails> fullBatch = null;
+        synchronized (this) {
+            List<FlowDetails> batch = batches.computeIfAbsent(sffNodeName, name -> new ArrayList<>());
+            batch.addAll(flows);
+            if (batch.size() >= maxFlows) {
+                fullBatch = batches.remove(sffNodeName);
+            } else {
+                scheduleFlush();
+            }
+        }
+        if (fullBatch != null) {
+            LOG.debug("addFlows: writing a full batch of {} flows to node {}", fullBatch.size(), sffNodeName);
+            flowWriter.accept(fullBatch);
+        }
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled) {
+            return;
+        }
+        try {
+            scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+            flushScheduled = true;
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Path mapper ACL flow batcher is shut down, pending flows will not be written", e);
+        }
+    }
+
+    /**
+     * Hand over the pending batches right away.
+     */
+    void flush() {
+        final Map<String, List<FlowDetails>> pending;
+        synchronized (this) {
+            pending = batches;
+            batches = new HashMap<>();
+            flushScheduled = false;
+        }
+        pending.forEach((sffNodeName, batch) -> {
+            LOG.debug("flush: writing {} flows to node {}", batch.size(), sffNodeName);
+            flowWriter.accept(batch);
+        });
+    }
+
+    /**
+     * Stop the timer and hand over whatever is still pending.
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting for a running flush
+     */
+    void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        if (!scheduler.awaitTermination(SHUTDOWN_TIME, TimeUnit.SECONDS)) {
+            List<Runnable> droppedTasks = scheduler.shutdownNow();
+            LOG.error("Path mapper ACL flow batcher was abruptly shut down. [{}] tasks will not be executed.",
+                    droppedTasks.size());
+        }
+        flush();
+    }
+}
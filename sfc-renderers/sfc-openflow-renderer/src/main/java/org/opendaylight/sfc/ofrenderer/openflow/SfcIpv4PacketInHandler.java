@@ -9,13 +9,13 @@
 package org.opendaylight.sfc.ofrenderer.openflow;
 
 import java.math.BigInteger;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
+import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.Node;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.nodes.NodeKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.model.match.types.rev131026.match.Metadata;
@@ -39,6 +39,20 @@ import org.slf4j.LoggerFactory;
  * the SF will establish a connection with the client (send TCP SynAck to
  * client), and then establish a separate connection with the server (send TCP
  * Syn to server).
+ *
+ * <p>
+ * As every packet of a flow is sent to the controller until the rules are in
+ * place, packet-ins are deduplicated by source and destination IP address
+ * before anything else is done with them. The addresses are read straight
+ * from the payload and packed into a long, and the time each pair was last
+ * processed is kept in a concurrent map, so the handler may be called from
+ * several threads.
+ *
+ * <p>
+ * The PathMapperAcl flows are not written one packet at a time: they are
+ * batched per SFF for a short time window, and each batch is written in a
+ * single transaction. The {@link SfcSynchronizer} held while writing a batch
+ * only excludes the table offset updates, not RSP rendering.
  */
 
 public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoCloseable {
@@ -48,22 +62,31 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
     private static final int PACKET_OFFSET_IP = 14;
     private static final int PACKET_OFFSET_IP_SRC = PACKET_OFFSET_IP + 12;
     private static final int PACKET_OFFSET_IP_DST = PACKET_OFFSET_IP + 16;
+    private static final int PACKET_MIN_LENGTH = PACKET_OFFSET_IP_DST + 4;
     public static final int ETHERTYPE_IPV4 = 0x0800;
     private static final int DEFAULT_MAX_BUFFER_TIME = 60000; // 60 milliseconds
     private static final int DEFAULT_PACKET_COUNT_PURGE = 100;
+    private static final long FLOW_BATCH_WINDOW_MILLIS = 5;
+    private static final int FLOW_BATCH_MAX_FLOWS = 256;
 
     private final SfcOfFlowProgrammerImpl flowProgrammer;
-    private final Map<String, Long> pktInBuffer;
-    private int maxBufferTime;
-    private int packetCountPurge;
-    private int packetCount;
-
-    public SfcIpv4PacketInHandler(SfcOfFlowProgrammerImpl flowProgrammer) {
+    private final SfcSynchronizer sfcSynchronizer;
+    private final PathMapperAclFlowBatcher flowBatcher;
+    // time each src/dst IP pair was last processed, keyed by the packed pair
+    private final ConcurrentMap<Long, Long> pktInBuffer;
+    private final AtomicInteger packetCount;
+    private volatile int maxBufferTime;
+    private volatile int packetCountPurge;
+
+    public SfcIpv4PacketInHandler(SfcOfFlowProgrammerImpl flowProgrammer, SfcSynchronizer sfcSynchronizer) {
         this.flowProgrammer = flowProgrammer;
-        pktInBuffer = new HashMap<>();
+        this.sfcSynchronizer = sfcSynchronizer;
+        this.flowBatcher = new PathMapperAclFlowBatcher(FLOW_BATCH_WINDOW_MILLIS, FLOW_BATCH_MAX_FLOWS,
+                this::writeFlows);
+        pktInBuffer = new ConcurrentHashMap<>();
         maxBufferTime = DEFAULT_MAX_BUFFER_TIME;
         packetCountPurge = DEFAULT_PACKET_COUNT_PURGE;
-        packetCount = 0;
+        packetCount = new AtomicInteger();
     }
 
     public int getMaxBufferTime() {
@@ -98,50 +121,44 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
             return;
         }
 
-        ++packetCount;
-        if (packetCount > packetCountPurge) {
-            packetCount = 0;
+        if (packetCount.incrementAndGet() > packetCountPurge) {
+            packetCount.set(0);
             purgePktInBuffer();
         }
 
-        // Make sure the PacketIn is due to our Classification table pktInAction
-        if (!this.flowProgrammer.compareClassificationTableCookie(packetIn.getFlowCookie())) {
-            LOG.debug("SfcIpv4PacketInHandler discarding packet by Flow Cookie");
-            return;
-        }
-
         // TODO figure out how to get the IDataPacketService which will parse
         // the packet for us
 
         final byte[] rawPacket = packetIn.getPayload();
 
         // Get the EtherType and check that its an IP packet
-        if (getEtherType(rawPacket) != ETHERTYPE_IPV4) {
+        if (rawPacket == null || rawPacket.length < PACKET_MIN_LENGTH || getEtherType(rawPacket) != ETHERTYPE_IPV4) {
             LOG.debug("SfcIpv4PacketInHandler discarding NON-IPv4");
             return;
         }
 
-        // Get the SrcIp and DstIp Addresses
-        String pktSrcIpStr = getSrcIpStr(rawPacket);
-        if (pktSrcIpStr == null) {
-            LOG.error("SfcIpv4PacketInHandler Cant get Src IP address, discarding packet");
+        // Since all packets sent to SF are PktIn, only need to handle the first
+        // one
+        // In OpenFlow 1.5 we'll be able to do the PktIn on TCP Syn only
+        final int pktSrcIp = getInt(rawPacket, PACKET_OFFSET_IP_SRC);
+        final int pktDstIp = getInt(rawPacket, PACKET_OFFSET_IP_DST);
+        final long key = (long) pktSrcIp << 32 | pktDstIp & 0xffffffffL;
+        final long currentMillis = System.currentTimeMillis();
+        if (isPktInBuffered(key, currentMillis)) {
             return;
         }
 
-        String pktDstIpStr = getDstIpStr(rawPacket);
-        if (pktDstIpStr == null) {
-            LOG.error("SfcIpv4PacketInHandler Cant get Src IP address, discarding packet");
+        // Make sure the PacketIn is due to our Classification table pktInAction
+        if (!this.flowProgrammer.compareClassificationTableCookie(packetIn.getFlowCookie())) {
+            LOG.debug("SfcIpv4PacketInHandler discarding packet by Flow Cookie");
             return;
         }
 
-        // Since all packets sent to SF are PktIn, only need to handle the first
-        // one
-        // In OpenFlow 1.5 we'll be able to do the PktIn on TCP Syn only
-        if (bufferPktIn(pktSrcIpStr, pktDstIpStr)) {
-            LOG.info("SfcIpv4PacketInHandler PacketIn buffered");
+        // Another thread may have processed the same IPs meanwhile
+        if (bufferPktIn(key, currentMillis)) {
             return;
         }
-        LOG.info("SfcIpv4PacketInHandler PacketIn NOT buffered");
+        LOG.debug("SfcIpv4PacketInHandler PacketIn NOT buffered");
 
         // Get the metadata
         if (packetIn.getMatch() == null) {
@@ -160,8 +177,10 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
         // Assuming the RSP is symmetric
         short dlPathId = (short) (ulPathId + 1);
 
-        LOG.info("SfcIpv4PacketInHandler Src IP [{}] Dst IP [{}] ulPathId [{}] dlPathId [{}]", pktSrcIpStr, pktDstIpStr,
-                ulPathId, dlPathId);
+        final String pktSrcIpStr = toIpStr(pktSrcIp);
+        final String pktDstIpStr = toIpStr(pktDstIp);
+        LOG.debug("SfcIpv4PacketInHandler Src IP [{}] Dst IP [{}] ulPathId [{}] dlPathId [{}]", pktSrcIpStr,
+                pktDstIpStr, ulPathId, dlPathId);
 
         // Get the Node name, by getting the following
         // - Ingress nodeConnectorRef
@@ -170,21 +189,48 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
         final String nodeName = packetIn.getIngress().getValue().firstKeyOf(Node.class, NodeKey.class).getId()
                 .getValue();
 
+        List<FlowDetails> flows = new ArrayList<>(2);
+
         // Configure the uplink packet
         if (ulPathId >= 0) {
-            this.flowProgrammer.setFlowRspId((long) ulPathId);
-            this.flowProgrammer.configurePathMapperAclFlow(nodeName, pktSrcIpStr, pktDstIpStr, ulPathId);
+            flows.add(flowProgrammer.createPathMapperAclFlow(nodeName, pktSrcIpStr, pktDstIpStr, ulPathId));
         }
 
         // Configure the downlink packet
         if (dlPathId >= 0) {
-            this.flowProgrammer.setFlowRspId((long) dlPathId);
-            this.flowProgrammer.configurePathMapperAclFlow(nodeName, pktDstIpStr, pktSrcIpStr, dlPathId);
+            flows.add(flowProgrammer.createPathMapperAclFlow(nodeName, pktDstIpStr, pktSrcIpStr, dlPathId));
+        }
+
+        if (!flows.isEmpty()) {
+            flowBatcher.addFlows(nodeName, flows);
         }
     }
 
+    /**
+     * Write a batch of PathMapperAcl flows in a single transaction.
+     *
+     * @param flows
+     *            the details of the flows
+     */
+    private void writeFlows(List<FlowDetails> flows) {
+        // Only excludes the table offset updates, the batch is written with
+        // its own programmer
+        sfcSynchronizer.lock();
+        try {
+            SfcOfFlowProgrammerImpl batchProgrammer = flowProgrammer.newRenderProgrammer();
+            batchProgrammer.writeFlows(flows);
+            batchProgrammer.flushFlows();
+        } finally {
+            sfcSynchronizer.unlock();
+        }
+    }
+
+    /**
+     * Write the PathMapperAcl flows still waiting in a batch.
+     */
     @Override
     public void close() throws Exception {
+        flowBatcher.shutdown();
     }
 
     /**
@@ -193,93 +239,71 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
      * @param rawPacket packet
      * @return etherType
      */
-    private short getEtherType(final byte[] rawPacket) {
-        final byte[] etherTypeBytes = Arrays.copyOfRange(rawPacket, PACKET_OFFSET_ETHERTYPE,
-                PACKET_OFFSET_ETHERTYPE + 2);
-        return packShort(etherTypeBytes);
+    private int getEtherType(final byte[] rawPacket) {
+        return (rawPacket[PACKET_OFFSET_ETHERTYPE] & 0xff) << 8 | rawPacket[PACKET_OFFSET_ETHERTYPE + 1] & 0xff;
     }
 
     /**
-     * Given a raw packet, return the SrcIp.
+     * Read a 4-byte big endian value, such as an IPv4 address, from a raw
+     * packet.
      *
      * @param rawPacket packet
-     * @return srcIp String
+     * @param offset offset of the value in the packet
+     * @return the value
      */
-    private String getSrcIpStr(final byte[] rawPacket) {
-        final byte[] ipSrcBytes = Arrays.copyOfRange(rawPacket, PACKET_OFFSET_IP_SRC, PACKET_OFFSET_IP_SRC + 4);
-        String pktSrcIpStr = null;
-        try {
-            pktSrcIpStr = InetAddress.getByAddress(ipSrcBytes).getHostAddress();
-        } catch (UnknownHostException e) {
-            LOG.error("Exception getting Src IP address [{}]", e.getMessage(), e);
-        }
-        return pktSrcIpStr;
+    private static int getInt(final byte[] rawPacket, final int offset) {
+        return (rawPacket[offset] & 0xff) << 24 | (rawPacket[offset + 1] & 0xff) << 16
+                | (rawPacket[offset + 2] & 0xff) << 8 | rawPacket[offset + 3] & 0xff;
     }
 
     /**
-     * Given a raw packet, return the DstIp.
+     * Format an IPv4 address in dotted decimal notation.
      *
-     * @param rawPacket packet
-     * @return dstIp String
+     * @param ip the address
+     * @return the address String
      */
-    private String getDstIpStr(final byte[] rawPacket) {
-        final byte[] ipDstBytes = Arrays.copyOfRange(rawPacket, PACKET_OFFSET_IP_DST, PACKET_OFFSET_IP_DST + 4);
-        String pktDstIpStr = null;
-        try {
-            pktDstIpStr = InetAddress.getByAddress(ipDstBytes).getHostAddress();
-        } catch (UnknownHostException e) {
-            LOG.error("Exception getting Dst IP address [{}]", e.getMessage(), e);
-        }
-        return pktDstIpStr;
+    private static String toIpStr(final int ip) {
+        return new StringBuilder(15).append(ip >>> 24).append('.').append(ip >>> 16 & 0xff).append('.')
+                .append(ip >>> 8 & 0xff).append('.').append(ip & 0xff).toString();
     }
 
     /**
-     * Simple internal utility function to convert from a 2-byte array to a
-     * short.
+     * Decide if packets with the same src/dst IP have already been processed
+     * recently, without storing anything.
      *
-     * @param bytes byte array
-     * @return the bytes packed into a short
+     * @param key the packed src/dst IP
+     * @param currentMillis the current time
+     * @return True if the src/dst IP has already been processed, False
+     *         otherwise
      */
-    private short packShort(byte[] bytes) {
-        short val = (short) 0;
-        for (int i = 0; i < 2; i++) {
-            val <<= 8;
-            val |= bytes[i] & 0xff;
-        }
-
-        return val;
+    private boolean isPktInBuffered(final long key, final long currentMillis) {
+        Long bufferedTime = pktInBuffer.get(key);
+        return bufferedTime != null && currentMillis - bufferedTime <= maxBufferTime;
     }
 
     /**
      * Decide if packets with the same src/dst IP have already been processed.
      * If they haven't been processed, store the IPs so they will be considered
-     * processed.
+     * processed. Only one of several concurrent callers with the same IPs is
+     * told they haven't been processed.
      *
-     * @param srcIpStr source IP
-     * @param dstIpStr destination IP
+     * @param key the packed src/dst IP
+     * @param currentMillis the current time
      * @return True if the src/dst IP has already been processed, False
      *         otherwise
      */
-    private boolean bufferPktIn(final String srcIpStr, final String dstIpStr) {
-        String key = srcIpStr + dstIpStr;
-        long currentMillis = System.currentTimeMillis();
-
-        Long bufferedTime = pktInBuffer.get(key);
+    private boolean bufferPktIn(final long key, final long currentMillis) {
+        Long bufferedTime = pktInBuffer.putIfAbsent(key, currentMillis);
 
-        // If the entry does not exist, add it and return false indicating the
-        // packet needs to be processed
+        // If the entry did not exist, the packet needs to be processed
         if (bufferedTime == null) {
-            // Add the entry
-            pktInBuffer.put(key, currentMillis);
             return false;
         }
 
-        // If the entry is old, update it and return false indicating the packet
-        // needs to be processed
+        // If the entry is old, update it and the packet needs to be processed,
+        // unless another thread updated it first
         if (currentMillis - bufferedTime > maxBufferTime) {
-            // Update the entry
-            pktInBuffer.put(key, currentMillis);
-            return false;
+            return !pktInBuffer.replace(key, bufferedTime, currentMillis);
         }
 
         return true;
@@ -290,15 +314,6 @@ public class SfcIpv4PacketInHandler implements PacketProcessingListener, AutoClo
      */
     private void purgePktInBuffer() {
         long currentMillis = System.currentTimeMillis();
-        Iterator<Entry<String, Long>> iter = pktInBuffer.entrySet().iterator();
-        while (iter.hasNext()) {
-            Entry<String, Long> entry = iter.next();
-            Long bufferedTime = entry.getValue();
-            if (currentMillis - bufferedTime > maxBufferTime) {
-                // This also removes the entry from the pktInBuffer map and
-                // doesnt invalidate iteration
-                iter.remove();
-            }
-        }
+        pktInBuffer.values().removeIf(bufferedTime -> currentMillis - bufferedTime > maxBufferTime);
     }
 }
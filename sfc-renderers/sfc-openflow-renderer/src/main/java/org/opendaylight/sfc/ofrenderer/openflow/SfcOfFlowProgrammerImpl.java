@@ -11,6 +11,7 @@ package org.opendaylight.sfc.ofrenderer.openflow;
 import com.google.common.net.InetAddresses;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
@@ -23,6 +24,7 @@ import org.opendaylight.sfc.ofrenderer.sfg.GroupBucketInfo;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
 import org.opendaylight.sfc.util.openflow.OpenflowConstants;
 import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
+import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
 import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterInterface;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
@@ -32,6 +34,8 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.acti
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.Action;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.ActionBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.action.types.rev131112.action.list.ActionKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.FlowCookie;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.OutputPortValues;
@@ -158,9 +162,11 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
     private static final String LOCALHOST_IP = "127.0.0.1";
 
     // Instance variables
-    private short tableBase;
+    private volatile short tableBase;
     // Used for app-coexistence
-    private short tableEgress;
+    private volatile short tableEgress;
+    // The RSP and the table index mapper of the flows being created are set
+    // per programmer, each RSP being rendered with its own programmer
     private Long flowRspId;
     private SfcOfFlowWriterInterface sfcOfFlowWriter = null;
 
@@ -179,6 +185,14 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         this.sfcOfFlowWriter = sfcOfFlowWriter;
     }
 
+    @Override
+    public SfcOfFlowProgrammerImpl newRenderProgrammer() {
+        SfcOfFlowProgrammerImpl renderProgrammer = new SfcOfFlowProgrammerImpl(sfcOfFlowWriter.newRenderWriter());
+        renderProgrammer.setTableBase(tableBase);
+        renderProgrammer.setTableEgress(tableEgress);
+        return renderProgrammer;
+    }
+
     @Override
     public void setFlowWriter(SfcOfFlowWriterInterface sfcOfFlowWriter) {
         this.sfcOfFlowWriter = sfcOfFlowWriter;
@@ -226,8 +240,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
 
     @Override
     public Set<NodeId> deleteRspFlows(final long rspId) {
-        sfcOfFlowWriter.deleteRspFlows(rspId);
-        Set<NodeId> nodes = sfcOfFlowWriter.clearSffsIfNoRspExists();
+        Set<NodeId> nodes = sfcOfFlowWriter.deleteRspFlowsAndOrphanSffs(rspId);
         sfcOfFlowWriter.deleteFlowSet();
         return nodes;
     }
@@ -237,6 +250,16 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         this.sfcOfFlowWriter.flushFlows();
     }
 
+    /**
+     * Store flows previously created, to be written on the next flush.
+     *
+     * @param flows
+     *            - the details of the flows
+     */
+    public void writeFlows(Collection<FlowDetails> flows) {
+        this.sfcOfFlowWriter.writeFlows(flows);
+    }
+
     @Override
     public void purgeFlows() {
         this.sfcOfFlowWriter.purgeFlows();
@@ -941,6 +964,35 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
      */
     public void configurePathMapperAclFlow(final String sffNodeName, final String pktSrcIpStr, final String pktDstIpStr,
             short pathId) {
+        FlowBuilder ingressFlow = buildPathMapperAclFlow(sffNodeName, pktSrcIpStr, pktDstIpStr, pathId);
+        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, ingressFlow);
+    }
+
+    /**
+     * Create a PathMapperAcl flow without storing it, so that it can be
+     * written later along with others by {@link #writeFlows(Collection)}. The
+     * flow belongs to the RSP with the given path ID, and no state of the flow
+     * programmer is modified.
+     *
+     * @param sffNodeName
+     *            - the SFF to write the flow to
+     * @param pktSrcIpStr
+     *            - Src IP to match on
+     * @param pktDstIpStr
+     *            - Dst IP to match on
+     * @param pathId
+     *            - the RSP ID to write to the metadata
+     * @return the details of the flow
+     */
+    public FlowDetails createPathMapperAclFlow(final String sffNodeName, final String pktSrcIpStr,
+            final String pktDstIpStr, short pathId) {
+        Flow ingressFlow = buildPathMapperAclFlow(sffNodeName, pktSrcIpStr, pktDstIpStr, pathId).build();
+        return new FlowDetails(sffNodeName, ingressFlow.getKey(), new TableKey(ingressFlow.getTableId()),
+                ingressFlow, (long) pathId);
+    }
+
+    private FlowBuilder buildPathMapperAclFlow(final String sffNodeName, final String pktSrcIpStr,
+            final String pktDstIpStr, short pathId) {
         LOG.debug("SfcProviderSffFlowWriter.configurePathMapperAclFlow sff [{}] srcIp [{}] dstIp [{}] pathId [{}]",
                 sffNodeName, pktSrcIpStr, pktDstIpStr, pathId);
 
@@ -963,7 +1015,7 @@ public class SfcOfFlowProgrammerImpl implements SfcOfFlowProgrammerInterface {
         // Set an idle timeout on this flow
         ingressFlow.setIdleTimeout(PKTIN_IDLE_TIMEOUT);
 
-        sfcOfFlowWriter.writeFlow(flowRspId, sffNodeName, ingressFlow);
+        return ingressFlow;
     }
 
     //
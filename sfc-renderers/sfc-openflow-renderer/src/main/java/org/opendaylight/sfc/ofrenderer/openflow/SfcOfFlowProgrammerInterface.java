@@ -30,6 +30,15 @@ public interface SfcOfFlowProgrammerInterface {
 
     void shutdown() throws ExecutionException, InterruptedException;
 
+    /**
+     * Create a programmer to render a single RSP with. It holds its own RSP
+     * Id, table index mapper and flows to be flushed, writes them through the
+     * flow writer of this programmer, and starts with its table offsets.
+     *
+     * @return the programmer
+     */
+    SfcOfFlowProgrammerInterface newRenderProgrammer();
+
     // These table methods are used for app-coexistence
 
     short getTableBase();
@@ -8,11 +8,17 @@
 
 package org.opendaylight.sfc.ofrenderer.processors;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
 import org.opendaylight.genius.mdsalutil.NwConstants;
@@ -20,7 +26,7 @@ import org.opendaylight.sfc.genius.util.SfcGeniusDataUtils;
 import org.opendaylight.sfc.genius.util.SfcGeniusRpcClient;
 import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerInterface;
 import org.opendaylight.sfc.ofrenderer.utils.SfcOfBaseProviderUtils;
-import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfSffLocks;
 import org.opendaylight.sfc.ofrenderer.utils.operdsupdate.OperDsUpdateHandlerInterface;
 import org.opendaylight.sfc.ofrenderer.utils.operdsupdate.OperDsUpdateHandlerLSFFImpl;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
@@ -52,10 +58,10 @@ public class SfcOfRspProcessor {
     private static final Logger LOG = LoggerFactory.getLogger(SfcOfRspProcessor.class);
     private final SfcOfFlowProgrammerInterface sfcOfFlowProgrammer;
     private final SfcOfBaseProviderUtils sfcOfProviderUtils;
-    private final SfcSynchronizer sfcSynchronizer;
+    private final SfcOfSffLocks sffLocks;
     private final Map<NodeId, Boolean> sffInitialized;
     private final OperDsUpdateHandlerInterface operDsHandler;
-    private final Map<String, SfcRspTransportProcessorBase> rspTransportProcessors;
+    private final Map<String, Supplier<SfcRspTransportProcessorBase>> rspTransportProcessors;
     private final SfcGeniusRpcClient theGeniusRpcClient;
     private static final String TRANSPORT_ENCAP_SEPARATOR_STRING = "//";
 
@@ -69,52 +75,70 @@ public class SfcOfRspProcessor {
             + TRANSPORT_ENCAP_SEPARATOR_STRING + Nsh.class.getName();
 
     public SfcOfRspProcessor(SfcOfFlowProgrammerInterface sfcOfFlowProgrammer,
-            SfcOfBaseProviderUtils sfcOfProviderUtils, SfcSynchronizer sfcSynchronizer,
-            RpcProviderRegistry rpcProviderRegistry, DataBroker dataBroker) {
+            SfcOfBaseProviderUtils sfcOfProviderUtils, RpcProviderRegistry rpcProviderRegistry,
+            DataBroker dataBroker) {
+        this(sfcOfFlowProgrammer, sfcOfProviderUtils, rpcProviderRegistry, dataBroker, new SfcOfSffLocks());
+    }
+
+    public SfcOfRspProcessor(SfcOfFlowProgrammerInterface sfcOfFlowProgrammer,
+            SfcOfBaseProviderUtils sfcOfProviderUtils, RpcProviderRegistry rpcProviderRegistry,
+            DataBroker dataBroker, SfcOfSffLocks sffLocks) {
         this.sfcOfFlowProgrammer = sfcOfFlowProgrammer;
         this.sfcOfProviderUtils = sfcOfProviderUtils;
-        this.sfcSynchronizer = sfcSynchronizer;
-        this.sffInitialized = new HashMap<>();
+        this.sffLocks = sffLocks;
+        this.sffInitialized = new ConcurrentHashMap<>();
         this.theGeniusRpcClient = new SfcGeniusRpcClient(rpcProviderRegistry);
         this.operDsHandler = new OperDsUpdateHandlerLSFFImpl(dataBroker);
         this.rspTransportProcessors = new HashMap<>();
 
         this.rspTransportProcessors.put(getTransportEncapName(VxlanGpe.class.getName(), Nsh.class.getName()),
-                new SfcRspProcessorNshVxgpe());
+                SfcRspProcessorNshVxgpe::new);
         this.rspTransportProcessors.put(getTransportEncapName(Mac.class.getName(), Nsh.class.getName()),
-                new SfcRspProcessorNshEth());
+                SfcRspProcessorNshEth::new);
         this.rspTransportProcessors.put(getTransportEncapName(Mpls.class.getName(), Transport.class.getName()),
-                new SfcRspProcessorMpls());
+                SfcRspProcessorMpls::new);
         this.rspTransportProcessors.put(getTransportEncapName(Mac.class.getName(), Transport.class.getName()),
-                new SfcRspProcessorVlan());
+                SfcRspProcessorVlan::new);
         this.rspTransportProcessors.put(getTransportEncapName(Mac.class.getName(), MacChaining.class.getName()),
-                new SfcRspProcessorMacChaining());
+                SfcRspProcessorMacChaining::new);
         this.rspTransportProcessors.put(LOGICAL_SFF_TRANSPORT_PROCESSOR_KEY,
-                new SfcRspProcessorLogicalSff(getGeniusRpcClient(), getOperDsHandler()));
-        rspTransportProcessors.forEach((key, value) -> value.setFlowProgrammer(sfcOfFlowProgrammer));
-        rspTransportProcessors.forEach((key, value) -> value.setSfcProviderUtils(sfcOfProviderUtils));
+                () -> new SfcRspProcessorLogicalSff(getGeniusRpcClient(), getOperDsHandler()));
     }
 
     /**
      * Main entry point for processing an RSP. Orchestrates logic to call
      * different FlowProgrammer flow creation methods.
      *
+     * <p>
+     * The SFF graph, which needs Genius RPCs and datastore reads, is built
+     * before locking the SFFs of the RSP. Only the SFFs of the RSP are locked,
+     * so RSPs going through different SFFs are rendered concurrently, while
+     * the flows of RSPs sharing an SFF are written in rendering order. Each RSP
+     * is rendered with its own flow programmer, holding the flows of the RSP
+     * until they are flushed, and its own transport processor.
+     *
      * @param rsp
      *            - a newly created/updated Rendered Service Path
      */
     public void processRenderedServicePath(RenderedServicePath rsp) {
-        // if this method takes too long, consider launching it in a thread
+        List<String> lockedSffs = null;
+        SfcOfFlowProgrammerInterface flowProgrammer = null;
         try {
-            // This call blocks until the lock is obtained
-            sfcSynchronizer.lock();
-
             sfcOfProviderUtils.addRsp(rsp.getPathId());
 
             //
             // Populate the SFF Connection Graph
             //
             SffGraph sffGraph = populateSffGraph(rsp);
+            readServiceFunctionForwarders(sffGraph);
+
+            // This call blocks until the SFFs of the RSP are locked
+            lockedSffs = sffLocks.lock(getSffNames(rsp));
+
+            // The table offsets can't change while the SFFs are locked
+            flowProgrammer = sfcOfFlowProgrammer.newRenderProgrammer();
             SfcRspTransportProcessorBase transportProcessor = getTransportProcessor(sffGraph, rsp);
+            transportProcessor.setFlowProgrammer(flowProgrammer);
 
             //
             // Populate the SFF ingress and egress DPLs from the sffGraph
@@ -132,7 +156,7 @@ public class SfcOfRspProcessor {
             //
             SffGraph.SffGraphEntry entry;
             Iterator<SffGraph.SffGraphEntry> sffGraphIter = sffGraph.getGraphEntryIterator();
-            sfcOfFlowProgrammer.setTableIndexMapper(transportProcessor.getTableIndexMapper().isPresent()
+            flowProgrammer.setTableIndexMapper(transportProcessor.getTableIndexMapper().isPresent()
                     ? transportProcessor.getTableIndexMapper().get()
                     : null);
             while (sffGraphIter.hasNext()) {
@@ -140,9 +164,9 @@ public class SfcOfRspProcessor {
                 LOG.debug("build flows of entry: {}", entry);
                 // The flows created by initializeSff dont belong to any
                 // particular RSP
-                sfcOfFlowProgrammer.setFlowRspId(OpenflowConstants.SFC_FLOWS);
-                initializeSff(entry, transportProcessor);
-                sfcOfFlowProgrammer.setFlowRspId(rsp.getPathId());
+                flowProgrammer.setFlowRspId(OpenflowConstants.SFC_FLOWS);
+                initializeSff(entry, transportProcessor, flowProgrammer);
+                flowProgrammer.setFlowRspId(rsp.getPathId());
                 configureTransportIngressFlows(entry, sffGraph, transportProcessor);
                 configurePathMapperFlows(entry, sffGraph, transportProcessor);
                 configureNextHopFlows(entry, sffGraph, transportProcessor);
@@ -150,7 +174,7 @@ public class SfcOfRspProcessor {
             }
 
             // Flush the flows to the data store
-            this.sfcOfFlowProgrammer.flushFlows();
+            flowProgrammer.flushFlows();
 
             // Update the operational datastore if necessary (without blocking)
             transportProcessor.updateOperationalDSInfo(sffGraph, rsp);
@@ -160,10 +184,14 @@ public class SfcOfRspProcessor {
         } catch (SfcRenderingException e) {
             LOG.error("SfcRenderingException in processRenderedServicePath: ", e.getMessage(), e);
         } finally {
-            // If there were any errors, purge any remaining flows so they're
-            // not written
-            this.sfcOfFlowProgrammer.purgeFlows();
-            sfcSynchronizer.unlock();
+            if (flowProgrammer != null) {
+                // If there were any errors, purge any remaining flows so
+                // they're not written
+                flowProgrammer.purgeFlows();
+            }
+            if (lockedSffs != null) {
+                sffLocks.unlock(lockedSffs);
+            }
             sfcOfProviderUtils.removeRsp(rsp.getPathId());
         }
     }
@@ -175,9 +203,17 @@ public class SfcOfRspProcessor {
      *            - the Rendered Service Path to delete
      */
     public void deleteRenderedServicePath(RenderedServicePath rsp) {
-        Set<NodeId> clearedSffNodeIDs = sfcOfFlowProgrammer.deleteRspFlows(rsp.getPathId());
-        for (NodeId sffNodeId : clearedSffNodeIDs) {
-            setSffInitialized(sffNodeId, false);
+        // Only the SFFs left without RSPs by this deletion are cleared, so
+        // the SFFs of this RSP are locked against the RSPs being processed
+        List<String> lockedSffs = sffLocks.lock(getSffNames(rsp));
+        try {
+            Set<NodeId> clearedSffNodeIDs = sfcOfFlowProgrammer.newRenderProgrammer()
+                    .deleteRspFlows(rsp.getPathId());
+            for (NodeId sffNodeId : clearedSffNodeIDs) {
+                setSffInitialized(sffNodeId, false);
+            }
+        } finally {
+            sffLocks.unlock(lockedSffs);
         }
 
         // not necessary to build a transport processor; simply update SFF state
@@ -190,10 +226,28 @@ public class SfcOfRspProcessor {
         return operDsHandler;
     }
 
+    /**
+     * Get the names of the SFFs an RSP goes through.
+     *
+     * @param rsp
+     *            - the rendered service path
+     * @return the names of the SFFs of the RSP
+     */
+    private static Set<String> getSffNames(RenderedServicePath rsp) {
+        if (rsp.getRenderedServicePathHop() == null) {
+            return Collections.emptySet();
+        }
+        return rsp.getRenderedServicePathHop().stream()
+                .map(RenderedServicePathHop::getServiceFunctionForwarder)
+                .filter(Objects::nonNull)
+                .map(SffName::getValue)
+                .collect(Collectors.toSet());
+    }
+
     /**
      * Given the RSP transport type + encapsulation (and the rsp graph, for
-     * lsff), return a RSP Transport Processor that will call the appropriate
-     * FlowProgrammer methods.
+     * lsff), return a new RSP Transport Processor that will call the
+     * appropriate FlowProgrammer methods.
      *
      * @param sffGraph
      *            - sffGraph generated for the RSP
@@ -205,11 +259,15 @@ public class SfcOfRspProcessor {
     private SfcRspTransportProcessorBase getReusableTransportProcessor(SffGraph sffGraph, RenderedServicePath rsp) {
         String transportProcessorKey = sffGraph.isUsingLogicalSFF() ? LOGICAL_SFF_TRANSPORT_PROCESSOR_KEY
                 : getTransportEncapName(rsp.getTransportType().getName(), rsp.getSfcEncapsulation().getName());
-        SfcRspTransportProcessorBase transportProcessor = rspTransportProcessors.get(transportProcessorKey);
-        if (transportProcessor == null) {
+        Supplier<SfcRspTransportProcessorBase> transportProcessorSupplier =
+                rspTransportProcessors.get(transportProcessorKey);
+        if (transportProcessorSupplier == null) {
             throw new SfcRenderingException("getTransportProcessor no processor for transport ["
                     + rsp.getTransportType().getName() + "] encap [" + rsp.getSfcEncapsulation() + "] ");
         }
+        SfcRspTransportProcessorBase transportProcessor = transportProcessorSupplier.get();
+        transportProcessor.setFlowProgrammer(sfcOfFlowProgrammer);
+        transportProcessor.setSfcProviderUtils(sfcOfProviderUtils);
         LOG.debug("getTransportProcessor :: transport [{}] encap [{} selected transport processor [{}]]",
                 rsp.getTransportType().getName(), rsp.getSfcEncapsulation(), transportProcessor.getClass());
         return transportProcessor;
@@ -256,6 +314,8 @@ public class SfcOfRspProcessor {
         SffGraph.SffGraphEntry entry;
         short lastServiceIndex = rsp.getStartingIndex();
 
+        prefetchDpnIds(rsp);
+
         while (servicePathHopIter.hasNext()) {
             RenderedServicePathHop rspHop = servicePathHopIter.next();
             SffName curSffName = rspHop.getServiceFunctionForwarder();
@@ -299,6 +359,42 @@ public class SfcOfRspProcessor {
         return sffGraph;
     }
 
+    /**
+     * Request from Genius the dataplane node ids of all the SFs of the RSP
+     * which use a logical interface at once, instead of hop by hop, so that
+     * the lookups done while populating the graph are answered from the
+     * Genius RPC client cache.
+     *
+     * @param rsp
+     *            - the rendered service path
+     */
+    private void prefetchDpnIds(RenderedServicePath rsp) {
+        for (RenderedServicePathHop rspHop : rsp.getRenderedServicePathHop()) {
+            ServiceFunction sf = sfcOfProviderUtils.getServiceFunction(rspHop.getServiceFunctionName(),
+                    rsp.getPathId());
+            if (SfcGeniusDataUtils.isSfUsingALogicalInterface(sf)) {
+                getGeniusRpcClient().getDpnIdFromInterfaceNameAsync(sfcOfProviderUtils.getSfLogicalInterfaceName(sf));
+            }
+        }
+    }
+
+    /**
+     * Read the SFFs of the graph ahead of flow generation, so that they are
+     * already cached for the RSP when the lock is taken.
+     *
+     * @param sffGraph
+     *            - the graph used for rsp generation
+     */
+    private void readServiceFunctionForwarders(SffGraph sffGraph) {
+        Iterator<SffGraph.SffGraphEntry> sffGraphIter = sffGraph.getGraphEntryIterator();
+        while (sffGraphIter.hasNext()) {
+            SffGraph.SffGraphEntry entry = sffGraphIter.next();
+            if (!entry.getDstSff().equals(SffGraph.EGRESS)) {
+                sfcOfProviderUtils.getServiceFunctionForwarder(entry.getDstSff(), entry.getPathId());
+            }
+        }
+    }
+
     /**
      * Call the appropriate flow creation methods on the TransportProcessor for
      * the TransportIngress table.
@@ -525,8 +621,11 @@ public class SfcOfRspProcessor {
      * @param transportProcessor
      *            the transport processor to use when initialization flows are
      *            transport-dependent
+     * @param flowProgrammer
+     *            the flow programmer the RSP is rendered with
      */
-    private void initializeSff(SffGraph.SffGraphEntry entry, SfcRspTransportProcessorBase transportProcessor) {
+    private void initializeSff(SffGraph.SffGraphEntry entry, SfcRspTransportProcessorBase transportProcessor,
+            SfcOfFlowProgrammerInterface flowProgrammer) {
         if (entry.getDstSff().equals(SffGraph.EGRESS)) {
             return;
         }
@@ -544,23 +643,23 @@ public class SfcOfRspProcessor {
             /* For OVS DPDK, add default NORMAL action flows */
             Long outputPort = SfcOvsUtil.getDpdkOfPort(sffNodeName, null);
             if (outputPort != null) {
-                this.sfcOfFlowProgrammer.configureClassifierTableDpdkOutput(sffNodeName, outputPort);
-                this.sfcOfFlowProgrammer.configureClassifierTableDpdkInput(sffNodeName, outputPort);
+                flowProgrammer.configureClassifierTableDpdkOutput(sffNodeName, outputPort);
+                flowProgrammer.configureClassifierTableDpdkInput(sffNodeName, outputPort);
             }
 
             transportProcessor.configureClassifierTableMatchAny(sffNodeName);
             if (entry.usesLogicalSFF()) {
-                this.sfcOfFlowProgrammer.configureTransportIngressTableMatchAnyResubmit(sffNodeName,
+                flowProgrammer.configureTransportIngressTableMatchAnyResubmit(sffNodeName,
                         NwConstants.LPORT_DISPATCHER_TABLE);
-                this.sfcOfFlowProgrammer.configureTransportEgressTableMatchAnyResubmit(sffNodeName,
+                flowProgrammer.configureTransportEgressTableMatchAnyResubmit(sffNodeName,
                         NwConstants.LPORT_DISPATCHER_TABLE);
             } else {
-                this.sfcOfFlowProgrammer.configureTransportIngressTableMatchAny(sffNodeName);
-                this.sfcOfFlowProgrammer.configureTransportEgressTableMatchAny(sffNodeName);
+                flowProgrammer.configureTransportIngressTableMatchAny(sffNodeName);
+                flowProgrammer.configureTransportEgressTableMatchAny(sffNodeName);
             }
-            this.sfcOfFlowProgrammer.configurePathMapperTableMatchAny(sffNodeName);
-            this.sfcOfFlowProgrammer.configurePathMapperAclTableMatchAny(sffNodeName);
-            this.sfcOfFlowProgrammer.configureNextHopTableMatchAny(sffNodeName);
+            flowProgrammer.configurePathMapperTableMatchAny(sffNodeName);
+            flowProgrammer.configurePathMapperAclTableMatchAny(sffNodeName);
+            flowProgrammer.configureNextHopTableMatchAny(sffNodeName);
 
             setSffInitialized(sffNodeId, true);
         }
@@ -13,13 +13,13 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
+import org.opendaylight.sfc.provider.api.SfcConfigurationCache;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
-import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionGroupAPI;
-import org.opendaylight.sfc.provider.api.SfcProviderServiceTypeAPI;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
@@ -65,7 +65,7 @@ public class SfcOfProviderUtils extends SfcOfBaseProviderUtils {
     private final Map<Long, RspContext> rspIdToContext;
 
     public SfcOfProviderUtils() {
-        rspIdToContext = new HashMap<>();
+        rspIdToContext = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -93,7 +93,7 @@ public class SfcOfProviderUtils extends SfcOfBaseProviderUtils {
 
         ServiceFunction sf = rspContext.serviceFunctions.get(sfName);
         if (sf == null) {
-            sf = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
+            sf = SfcConfigurationCache.getServiceFunctions().get(sfName);
             if (sf != null) {
                 rspContext.serviceFunctions.put(sfName, sf);
             }
@@ -111,7 +111,7 @@ public class SfcOfProviderUtils extends SfcOfBaseProviderUtils {
      */
     @Override
     public ServiceFunctionType getServiceFunctionType(final SfName sfName, long rspId) {
-        return SfcProviderServiceTypeAPI.readServiceFunctionType(getServiceFunction(sfName, rspId).getType());
+        return SfcConfigurationCache.getServiceFunctionTypes().get(getServiceFunction(sfName, rspId).getType());
     }
 
     /**
@@ -129,7 +129,7 @@ public class SfcOfProviderUtils extends SfcOfBaseProviderUtils {
 
         ServiceFunctionForwarder sff = rspContext.serviceFunctionFowarders.get(sffName);
         if (sff == null) {
-            sff = SfcProviderServiceForwarderAPI.readServiceFunctionForwarder(sffName);
+            sff = SfcConfigurationCache.getServiceFunctionForwarders().get(sffName);
             if (sff != null) {
                 sff = SfcOvsUtil.augmentSffWithOpenFlowNodeId(sff);
                 rspContext.serviceFunctionFowarders.put(sffName, sff);
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.utils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs rendering tasks on a bounded pool of threads, keeping the submission
+ * order of the tasks that share a key.
+ *
+ * <p>
+ * Every task is submitted along with the keys it touches, i.e. the SFFs of a
+ * RSP. A task only starts once all the previously submitted tasks sharing any
+ * of its keys are done, so tasks for the same switch run one after the other
+ * while tasks touching disjoint switches run concurrently. Submission blocks
+ * once the maximum number of pending tasks is reached.
+ */
+public class SfcOfRenderingExecutor implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(SfcOfRenderingExecutor.class);
+    private static final long SHUTDOWN_TIME = 5;
+
+    private final ExecutorService executorService;
+    private final Semaphore pendingTasks;
+    // last task submitted per key, guarded by this
+    private final Map<String, CompletableFuture<Void>> lastTasks = new HashMap<>();
+
+    public SfcOfRenderingExecutor(int threads, int maxPendingTasks) {
+        this.executorService = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("sfc-of-rendering-%d").setDaemon(true).build());
+        this.pendingTasks = new Semaphore(maxPendingTasks);
+    }
+
+    /**
+     * Submit a task. This call blocks while the maximum number of pending
+     * tasks is reached.
+     *
+     * @param keys
+     *            the keys the task touches
+     * @param task
+     *            the task to run
+     * @return a future completed once the task has run
+     */
+    public CompletableFuture<Void> execute(Collection<String> keys, Runnable task) {
+        try {
+            pendingTasks.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        CompletableFuture<Void> future;
+        synchronized (this) {
+            CompletableFuture<?>[] previousTasks = keys.stream().map(lastTasks::get).filter(Objects::nonNull)
+                    .distinct().toArray(CompletableFuture[]::new);
+            // a failed task must not prevent the following ones from running
+            future = CompletableFuture.allOf(previousTasks).handle((result, throwable) -> null)
+                    .thenRunAsync(task, executorService);
+            for (String key : keys) {
+                lastTasks.put(key, future);
+            }
+        }
+
+        final CompletableFuture<Void> submittedTask = future;
+        submittedTask.whenComplete((result, throwable) -> {
+            pendingTasks.release();
+            if (throwable != null) {
+                LOG.error("Rendering task for {} failed", keys, throwable);
+            }
+            removeLastTask(keys, submittedTask);
+        });
+        return submittedTask;
+    }
+
+    private synchronized void removeLastTask(Collection<String> keys, CompletableFuture<Void> task) {
+        keys.forEach(key -> lastTasks.remove(key, task));
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executorService.shutdown();
+        if (!executorService.awaitTermination(SHUTDOWN_TIME, TimeUnit.SECONDS)) {
+            LOG.error("SfcOfRenderingExecutor did not terminate in the specified time.");
+            executorService.shutdownNow();
+        }
+    }
+}
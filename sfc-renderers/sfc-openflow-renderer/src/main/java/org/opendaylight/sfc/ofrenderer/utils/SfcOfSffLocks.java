@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Locks the SFFs whose flows are being rendered, so RSPs going through
+ * different SFFs are rendered concurrently while the flows of RSPs sharing an
+ * SFF are created one RSP after the other.
+ *
+ * <p>
+ * The locks of the SFFs of an RSP are always taken in the natural order of
+ * the SFF names, so two RSPs sharing several SFFs cannot deadlock.
+ *
+ * <p>
+ * All the SFFs are locked at once, exclusively with any other lock, when the
+ * settings all the flows depend on, as the table offsets, are changed.
+ */
+public class SfcOfSffLocks {
+    private final ConcurrentMap<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+    // shared by the holders of SFF locks, exclusive for lockAll()
+    private final ReentrantReadWriteLock allSffsLock = new ReentrantReadWriteLock();
+
+    /**
+     * Lock the given SFFs. This is a blocking call.
+     *
+     * @param sffNames
+     *            - the names of the SFFs to lock, duplicates are allowed
+     * @return the names of the locked SFFs, to be given to
+     *         {@link #unlock(List)}
+     */
+    public List<String> lock(Collection<String> sffNames) {
+        List<String> locked = new ArrayList<>(new TreeSet<>(sffNames));
+        allSffsLock.readLock().lock();
+        for (String sffName : locked) {
+            locks.computeIfAbsent(sffName, name -> new ReentrantLock()).lock();
+        }
+        return locked;
+    }
+
+    /**
+     * Release the locks taken by {@link #lock(Collection)}, in reverse order.
+     *
+     * @param lockedSffNames
+     *            - the names returned by {@link #lock(Collection)}
+     */
+    public void unlock(List<String> lockedSffNames) {
+        for (int i = lockedSffNames.size() - 1; i >= 0; i--) {
+            locks.get(lockedSffNames.get(i)).unlock();
+        }
+        allSffsLock.readLock().unlock();
+    }
+
+    /**
+     * Lock all the SFFs. This is a blocking call, waiting for the SFFs locked
+     * by {@link #lock(Collection)} to be unlocked.
+     */
+    public void lockAll() {
+        allSffsLock.writeLock().lock();
+    }
+
+    /**
+     * Release the lock taken by {@link #lockAll()}.
+     */
+    public void unlockAll() {
+        allSffsLock.writeLock().unlock();
+    }
+
+    /**
+     * Query if an SFF is locked.
+     *
+     * @param sffName
+     *            - the name of the SFF
+     * @return true if the SFF, or all of them, are locked by any thread, false
+     *         otherwise
+     */
+    public boolean isLocked(String sffName) {
+        ReentrantLock lock = locks.get(sffName);
+        return lock != null && lock.isLocked() || allSffsLock.isWriteLocked();
+    }
+}
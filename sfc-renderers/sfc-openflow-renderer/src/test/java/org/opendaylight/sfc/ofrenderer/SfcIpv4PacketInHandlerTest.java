@@ -9,21 +9,26 @@
 package org.opendaylight.sfc.ofrenderer;
 
 import static org.junit.Assert.assertEquals;
-import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyShort;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigInteger;
+import java.util.Collection;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.opendaylight.sfc.ofrenderer.openflow.SfcIpv4PacketInHandler;
 import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl;
+import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
+import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.types.rev131026.FlowCookie;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeConnectorRef;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.inventory.rev130819.NodeId;
@@ -44,7 +49,7 @@ public class SfcIpv4PacketInHandlerTest {
         this.flowProgrammerMock = mock(SfcOfFlowProgrammerImpl.class);
         when(this.flowProgrammerMock.compareClassificationTableCookie((FlowCookie) anyObject())).thenReturn(true);
 
-        this.pktInHandler = new SfcIpv4PacketInHandler(this.flowProgrammerMock);
+        this.pktInHandler = new SfcIpv4PacketInHandler(this.flowProgrammerMock, new SfcSynchronizer());
     }
 
     @Test
@@ -58,9 +63,15 @@ public class SfcIpv4PacketInHandlerTest {
         this.pktInHandler.onPacketReceived(createPacket());
         this.pktInHandler.close();
 
-        verify(this.flowProgrammerMock, times(2)).setFlowRspId(anyLong());
-        verify(this.flowProgrammerMock, times(2)).configurePathMapperAclFlow(anyString(), anyString(), anyString(),
-                anyShort());
+        verify(this.flowProgrammerMock).createPathMapperAclFlow("openflow:1", "10.10.0.1", "11.11.0.1",
+                (short) 100);
+        verify(this.flowProgrammerMock).createPathMapperAclFlow("openflow:1", "11.11.0.1", "10.10.0.1",
+                (short) 101);
+        // both flows are written in a single batch
+        ArgumentCaptor<Collection> flows = ArgumentCaptor.forClass(Collection.class);
+        verify(this.flowProgrammerMock).writeFlows(flows.capture());
+        assertEquals(flows.getValue().size(), 2);
+        verify(this.flowProgrammerMock).flushFlows();
         verify(this.flowProgrammerMock, times(1)).compareClassificationTableCookie((FlowCookie) anyObject());
         verifyNoMoreInteractions(this.flowProgrammerMock);
     }
@@ -72,9 +83,7 @@ public class SfcIpv4PacketInHandlerTest {
         PacketReceived pkt = createPacket();
 
         this.pktInHandler.onPacketReceived(pkt);
-        verify(this.flowProgrammerMock, times(2)).setFlowRspId(anyLong());
-        verify(this.flowProgrammerMock, times(2)).configurePathMapperAclFlow(anyString(), anyString(), anyString(),
-                anyShort());
+        verifyFlowsWritten();
         verify(this.flowProgrammerMock, times(1)).compareClassificationTableCookie((FlowCookie) anyObject());
         verifyNoMoreInteractions(this.flowProgrammerMock);
 
@@ -82,8 +91,8 @@ public class SfcIpv4PacketInHandlerTest {
         // the FlowProgrammer since the pkt is buffered
         resetFlowProgrammerMock();
         this.pktInHandler.onPacketReceived(pkt);
-        verify(this.flowProgrammerMock, times(1)).compareClassificationTableCookie((FlowCookie) anyObject());
         verifyNoMoreInteractions(this.flowProgrammerMock);
+        assertEquals(this.pktInHandler.getBufferSize(), 1);
     }
 
     @Test
@@ -93,9 +102,7 @@ public class SfcIpv4PacketInHandlerTest {
         PacketReceived pkt = createPacket();
 
         this.pktInHandler.onPacketReceived(pkt);
-        verify(this.flowProgrammerMock, times(2)).setFlowRspId(anyLong());
-        verify(this.flowProgrammerMock, times(2)).configurePathMapperAclFlow(anyString(), anyString(), anyString(),
-                anyShort());
+        verifyFlowsWritten();
         verify(this.flowProgrammerMock, times(1)).compareClassificationTableCookie((FlowCookie) anyObject());
         verifyNoMoreInteractions(this.flowProgrammerMock);
 
@@ -105,9 +112,7 @@ public class SfcIpv4PacketInHandlerTest {
                             // expire
         resetFlowProgrammerMock();
         this.pktInHandler.onPacketReceived(pkt);
-        verify(this.flowProgrammerMock, times(2)).setFlowRspId(anyLong());
-        verify(this.flowProgrammerMock, times(2)).configurePathMapperAclFlow(anyString(), anyString(), anyString(),
-                anyShort());
+        verifyFlowsWritten();
         verify(this.flowProgrammerMock, times(1)).compareClassificationTableCookie((FlowCookie) anyObject());
         verifyNoMoreInteractions(this.flowProgrammerMock);
     }
@@ -120,9 +125,7 @@ public class SfcIpv4PacketInHandlerTest {
 
         assertEquals(this.pktInHandler.getBufferSize(), 0);
         this.pktInHandler.onPacketReceived(pkt);
-        verify(this.flowProgrammerMock, times(2)).setFlowRspId(anyLong());
-        verify(this.flowProgrammerMock, times(2)).configurePathMapperAclFlow(anyString(), anyString(), anyString(),
-                anyShort());
+        verifyFlowsWritten();
         verify(this.flowProgrammerMock, times(1)).compareClassificationTableCookie((FlowCookie) anyObject());
         verifyNoMoreInteractions(this.flowProgrammerMock);
         assertEquals(this.pktInHandler.getBufferSize(), 1);
@@ -133,14 +136,20 @@ public class SfcIpv4PacketInHandlerTest {
                             // expire
         resetFlowProgrammerMock();
         this.pktInHandler.onPacketReceived(pkt);
-        verify(this.flowProgrammerMock, times(2)).setFlowRspId(anyLong());
-        verify(this.flowProgrammerMock, times(2)).configurePathMapperAclFlow(anyString(), anyString(), anyString(),
-                anyShort());
+        verifyFlowsWritten();
         verify(this.flowProgrammerMock, times(1)).compareClassificationTableCookie((FlowCookie) anyObject());
         verifyNoMoreInteractions(this.flowProgrammerMock);
         assertEquals(this.pktInHandler.getBufferSize(), 1);
     }
 
+    // The flows are written in a batch by the batcher thread, wait for it
+    private void verifyFlowsWritten() {
+        verify(this.flowProgrammerMock, times(2)).createPathMapperAclFlow(anyString(), anyString(), anyString(),
+                anyShort());
+        verify(this.flowProgrammerMock, timeout(1000)).flushFlows();
+        verify(this.flowProgrammerMock).writeFlows(anyCollectionOf(FlowDetails.class));
+    }
+
     // When we want to reset the method call counters,
     // it also resets the stubs, so do both together
     private void resetFlowProgrammerMock() {
@@ -37,7 +37,6 @@ import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl;
 import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerInterface;
 import org.opendaylight.sfc.ofrenderer.processors.SfcOfRspProcessor;
 import org.opendaylight.sfc.ofrenderer.utils.SfcOfProviderUtilsTestMock;
-import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
 import org.opendaylight.sfc.util.openflow.OpenflowConstants;
 import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
 import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterImpl;
@@ -96,6 +95,8 @@ public class SfcOfRspTransactionalProcessorTest {
 
         Mockito.doNothing().when(sfcFlowWriterTestMock).flushFlows();
         Mockito.doNothing().when(sfcFlowWriterTestMock).deleteFlowSet();
+        // the RSPs are rendered with programmers writing through the spy
+        Mockito.doReturn(sfcFlowWriterTestMock).when(sfcFlowWriterTestMock).newRenderWriter();
 
         dataBroker = Mockito.mock(DataBroker.class);
         Mockito.when(dataBroker.newWriteOnlyTransaction()).thenReturn(Mockito.mock(WriteTransaction.class));
@@ -103,7 +104,7 @@ public class SfcOfRspTransactionalProcessorTest {
         this.sfcUtilsTestMock = new SfcOfProviderUtilsTestMock();
         // spied in order to check private methods
         this.sfcOfRspProcessor = PowerMockito.spy(new SfcOfRspProcessor(this.flowProgrammerTestMock,
-                this.sfcUtilsTestMock, new SfcSynchronizer(), null, dataBroker));
+                this.sfcUtilsTestMock, null, dataBroker));
 
         this.rspBuilder = new RspBuilder(this.sfcUtilsTestMock);
         this.sfTypes = new ArrayList<>();
@@ -137,6 +138,24 @@ public class SfcOfRspTransactionalProcessorTest {
         return theMap.get(OpenflowConstants.SFC_FLOWS).entrySet().stream().allMatch(emptySff);
     }
 
+    /**
+     * Helper function to get a snapshot of the flows stored by the flow writer.
+     *
+     * @return the cache of installed flows per sff, per RSP
+     */
+    private Map<Long, Map<String, List<FlowDetails>>> getFlowCache() throws Exception {
+        Object flowIndex = Whitebox.getInternalState(sfcFlowWriterTestMock, "rspFlowIndex");
+        return Whitebox.invokeMethod(flowIndex, "snapshot");
+    }
+
+    /**
+     * Helper function to clear the flows stored by the flow writer.
+     */
+    private void clearFlowCache() throws Exception {
+        Object flowIndex = Whitebox.getInternalState(sfcFlowWriterTestMock, "rspFlowIndex");
+        Whitebox.invokeMethod(flowIndex, "clear");
+    }
+
     /**
      * Attempt to delete an RSP that does not exist.
      */
@@ -180,8 +199,7 @@ public class SfcOfRspTransactionalProcessorTest {
         Set<FlowDetails> deletedFlows = Whitebox.getInternalState(sfcFlowWriterTestMock, "setOfFlowsToDelete");
 
         // fetch the flow cache
-        Map<Long, Map<String, List<FlowDetails>>> theMap = Whitebox.getInternalState(sfcFlowWriterTestMock,
-                "rspNameToFlowsMap");
+        Map<Long, Map<String, List<FlowDetails>>> theMap = getFlowCache();
 
         // all the initialization flows belong to a dummy RSP - check
         // SfcOfRspProcessor SFC_FLOWS constant
@@ -222,8 +240,7 @@ public class SfcOfRspTransactionalProcessorTest {
         this.sfcOfRspProcessor.processRenderedServicePath(nshRsp);
 
         // Store the list of flows created at this point
-        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap1 = Whitebox.getInternalState(sfcFlowWriterTestMock,
-                "rspNameToFlowsMap");
+        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap1 = getFlowCache();
         verify(sfcFlowWriterTestMock).flushFlows();
 
         Set<FlowDetails> allFlowsAfterRsp1 = new HashSet<>();
@@ -245,8 +262,7 @@ public class SfcOfRspTransactionalProcessorTest {
         // ---------------------
         this.sfcOfRspProcessor.processRenderedServicePath(nshRsp2);
         // Store the list of flows created at this point
-        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap2 = Whitebox.getInternalState(sfcFlowWriterTestMock,
-                "rspNameToFlowsMap");
+        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap2 = getFlowCache();
         verify(sfcFlowWriterTestMock, times(2)).flushFlows();
 
         Set<FlowDetails> allFlowsAfterRsp2 = new HashSet<>();
@@ -269,8 +285,7 @@ public class SfcOfRspTransactionalProcessorTest {
         this.sfcOfRspProcessor.deleteRenderedServicePath(nshRsp2);
 
         // Store the list of flows created at this point
-        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap3 = Whitebox.getInternalState(sfcFlowWriterTestMock,
-                "rspNameToFlowsMap");
+        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap3 = getFlowCache();
         verify(sfcFlowWriterTestMock).deleteFlowSet();
 
         Set<FlowDetails> deletedFlowsRsp2 = Whitebox.getInternalState(sfcFlowWriterTestMock, "setOfFlowsToDelete");
@@ -290,8 +305,7 @@ public class SfcOfRspTransactionalProcessorTest {
         this.sfcOfRspProcessor.deleteRenderedServicePath(nshRsp);
 
         // Store the list of flows created at this point
-        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap4 = Whitebox.getInternalState(sfcFlowWriterTestMock,
-                "rspNameToFlowsMap");
+        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap4 = getFlowCache();
         verify(sfcFlowWriterTestMock, times(2)).deleteFlowSet();
 
         // get the list of deleted flows belonging to RSP1
@@ -333,8 +347,7 @@ public class SfcOfRspTransactionalProcessorTest {
         // with the set of flows after C:RSP1-C:RSP2-D:RSP1 (end of Step 3)
         // ---------------------------------------------------------------------------------------------------------
         this.sfcOfRspProcessor.processRenderedServicePath(nshRsp2);
-        Map<Long, Map<String, List<FlowDetails>>> currentRspCache = Whitebox.getInternalState(sfcFlowWriterTestMock,
-                "rspNameToFlowsMap");
+        Map<Long, Map<String, List<FlowDetails>>> currentRspCache = getFlowCache();
 
         Map<Long, Map<String, List<FlowDetails>>> theRspToFlowsMapWithRSP2Only = new HashMap<>(currentRspCache);
 
@@ -353,7 +366,7 @@ public class SfcOfRspTransactionalProcessorTest {
 
         // got to reset the internal buffer of the writer
         sfcFlowWriterTestMock.purgeFlows();
-        currentRspCache.clear();
+        clearFlowCache();
 
         // ---------------------
         // Step 1. Create RSP 1
@@ -361,8 +374,7 @@ public class SfcOfRspTransactionalProcessorTest {
         this.sfcOfRspProcessor.processRenderedServicePath(nshRsp);
 
         // Store the list of flows created at this point
-        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap1 = Whitebox.getInternalState(sfcFlowWriterTestMock,
-                "rspNameToFlowsMap");
+        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap1 = getFlowCache();
 
         verify(sfcFlowWriterTestMock, times(2)).flushFlows();
 
@@ -383,8 +395,7 @@ public class SfcOfRspTransactionalProcessorTest {
         // ---------------------
         this.sfcOfRspProcessor.processRenderedServicePath(nshRsp2);
         // Store the list of flows created at this point
-        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap2 = Whitebox.getInternalState(sfcFlowWriterTestMock,
-                "rspNameToFlowsMap");
+        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap2 = getFlowCache();
         verify(sfcFlowWriterTestMock, times(3)).flushFlows();
 
         Set<FlowDetails> allFlowsAfterRsp2 = new HashSet<>();
@@ -407,8 +418,7 @@ public class SfcOfRspTransactionalProcessorTest {
         this.sfcOfRspProcessor.deleteRenderedServicePath(nshRsp);
 
         // Store the list of flows created at this point
-        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap3 = Whitebox.getInternalState(sfcFlowWriterTestMock,
-                "rspNameToFlowsMap");
+        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap3 = getFlowCache();
         verify(sfcFlowWriterTestMock, times(2)).deleteFlowSet();
 
         Set<FlowDetails> deletedFlowsRsp1 = Whitebox.getInternalState(sfcFlowWriterTestMock, "setOfFlowsToDelete");
@@ -434,8 +444,7 @@ public class SfcOfRspTransactionalProcessorTest {
         this.sfcOfRspProcessor.deleteRenderedServicePath(nshRsp2);
 
         // Store the list of flows created at this point
-        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap4 = Whitebox.getInternalState(sfcFlowWriterTestMock,
-                "rspNameToFlowsMap");
+        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMap4 = getFlowCache();
         verify(sfcFlowWriterTestMock, times(3)).deleteFlowSet();
 
         Set<FlowDetails> deleteAllFlows = Whitebox.getInternalState(sfcFlowWriterTestMock, "setOfFlowsToDelete");
@@ -451,4 +460,33 @@ public class SfcOfRspTransactionalProcessorTest {
         // assure that the SFFs don't have any initialization flows
         Assert.assertTrue(areSffsFreeOfInitializationFlows(rspToFlowsMap4));
     }
+
+    /*
+     * Create RSP 2 alone and store its flows. Delete it, then create RSP 1 and
+     * RSP 2 and delete RSP 1. The flows left must be the very flows of RSP 2
+     * alone, not only the same number of flows. In summary: C:RSP2 D:RSP2
+     * C:RSP1 C:RSP2 D:RSP1
+     */
+    @Test
+    public void testMultiRSPDeletionKeepsTheFlowsOfTheRemainingRsp() throws Exception {
+
+        LOG.info("testMultiRSPDeletionKeepsTheFlowsOfTheRemainingRsp - starting");
+
+        this.nshRsp = rspBuilder.createRspFromSfTypes(serviceFunctionChain1, VxlanGpe.class, Nsh.class);
+        this.nshRsp2 = rspBuilder.createRspFromSfTypes(serviceFunctionChain2, VxlanGpe.class, Nsh.class);
+
+        this.sfcOfRspProcessor.processRenderedServicePath(nshRsp2);
+        Map<Long, Map<String, List<FlowDetails>>> rspToFlowsMapWithRsp2Only = new HashMap<>(getFlowCache());
+        this.sfcOfRspProcessor.deleteRenderedServicePath(nshRsp2);
+        sfcFlowWriterTestMock.purgeFlows();
+
+        this.sfcOfRspProcessor.processRenderedServicePath(nshRsp);
+        this.sfcOfRspProcessor.processRenderedServicePath(nshRsp2);
+        this.sfcOfRspProcessor.deleteRenderedServicePath(nshRsp);
+
+        // the initialization flows of the SFFs of RSP 2 are kept along with
+        // the flows of RSP 2
+        Assert.assertEquals(2, rspToFlowsMapWithRsp2Only.size());
+        Assert.assertEquals(rspToFlowsMapWithRsp2Only, new HashMap<>(getFlowCache()));
+    }
 }
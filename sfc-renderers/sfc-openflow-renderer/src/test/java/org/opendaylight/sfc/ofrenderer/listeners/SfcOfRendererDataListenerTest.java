@@ -24,6 +24,7 @@ import org.opendaylight.controller.md.sal.common.api.data.AsyncDataChangeEvent;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl;
 import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerInterface;
+import org.opendaylight.sfc.ofrenderer.utils.SfcOfSffLocks;
 import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
 import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterInterface;
 import org.opendaylight.yang.gen.v1.urn.ericsson.params.xml.ns.yang.sfc.of.renderer.rev151123.SfcOfRendererConfig;
@@ -48,7 +49,7 @@ public class SfcOfRendererDataListenerTest {
         SfcSynchronizer sfcSynchronizer = mock(SfcSynchronizer.class);
 
         this.sfcOfRendererDataListener = new SfcOfRendererDataListener(dataBroker, this.sfcOfFlowProgrammer,
-                sfcSynchronizer);
+                sfcSynchronizer, new SfcOfSffLocks());
     }
 
     @Test
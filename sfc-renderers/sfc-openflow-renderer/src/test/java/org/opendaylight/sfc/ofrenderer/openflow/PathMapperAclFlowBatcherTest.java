@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2017 Ericsson Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.openflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.After;
+import org.junit.Test;
+import org.opendaylight.sfc.util.openflow.writer.FlowDetails;
+
+public class PathMapperAclFlowBatcherTest {
+
+    private final List<List<FlowDetails>> writtenBatches = new CopyOnWriteArrayList<>();
+    private PathMapperAclFlowBatcher flowBatcher;
+
+    @After
+    public void teardown() throws Exception {
+        flowBatcher.shutdown();
+    }
+
+    @Test
+    public void fullBatchIsWrittenRightAway() {
+        // the time window never elapses during the test
+        flowBatcher = new PathMapperAclFlowBatcher(60000, 4, writtenBatches::add);
+        FlowDetails flow1 = mock(FlowDetails.class);
+        FlowDetails flow2 = mock(FlowDetails.class);
+        FlowDetails flow3 = mock(FlowDetails.class);
+        FlowDetails flow4 = mock(FlowDetails.class);
+
+        flowBatcher.addFlows("openflow:1", Arrays.asList(flow1, flow2));
+        flowBatcher.addFlows("openflow:2", Arrays.asList(flow3, flow4));
+        assertTrue(writtenBatches.isEmpty());
+
+        flowBatcher.addFlows("openflow:1", Arrays.asList(flow3, flow4));
+        assertEquals(1, writtenBatches.size());
+        assertEquals(Arrays.asList(flow1, flow2, flow3, flow4), writtenBatches.get(0));
+
+        // the pending batch of the other node is written on flush
+        flowBatcher.flush();
+        assertEquals(2, writtenBatches.size());
+        assertEquals(Arrays.asList(flow3, flow4), writtenBatches.get(1));
+    }
+
+    @Test
+    public void batchesAreWrittenOnceTheWindowElapses() throws Exception {
+        flowBatcher = new PathMapperAclFlowBatcher(5, 256, writtenBatches::add);
+        FlowDetails flow1 = mock(FlowDetails.class);
+        FlowDetails flow2 = mock(FlowDetails.class);
+
+        flowBatcher.addFlows("openflow:1", Arrays.asList(flow1, flow2));
+
+        for (int i = 0; i < 100 && writtenBatches.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, writtenBatches.size());
+        assertEquals(Arrays.asList(flow1, flow2), writtenBatches.get(0));
+    }
+}
@@ -12,6 +12,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -54,7 +55,6 @@ import org.opendaylight.sfc.genius.util.SfcGeniusRpcClient;
 import org.opendaylight.sfc.ofrenderer.RspBuilder;
 import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl;
 import org.opendaylight.sfc.ofrenderer.utils.SfcOfProviderUtilsTestMock;
-import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
 import org.opendaylight.sfc.ofrenderer.utils.operdsupdate.OperDsUpdateHandlerLSFFImpl;
 import org.opendaylight.sfc.ovs.provider.SfcOvsUtil;
 import org.opendaylight.sfc.util.openflow.SfcOpenflowUtils;
@@ -184,14 +184,17 @@ public class SfcOfLogicalSffRspProcessorTest {
 
         operDsUpdateHandler = PowerMockito.spy(new OperDsUpdateHandlerLSFFImpl(dataBroker));
         flowProgrammer.setFlowWriter(ofFlowWriter);
+        // the RSPs are rendered with the spied programmer, writing through the
+        // spied writer
+        doReturn(flowProgrammer).when(flowProgrammer).newRenderProgrammer();
         sfcUtils = new SfcOfProviderUtilsTestMock();
         geniusClient = PowerMockito.spy(new SfcGeniusRpcClient(rpcProviderRegistry));
         logicalSffProcessor = new SfcRspProcessorLogicalSff(geniusClient, operDsUpdateHandler);
         logicalSffProcessor.setSfcProviderUtils(sfcUtils);
         logicalSffProcessor.setFlowProgrammer(flowProgrammer);
 
-        sfcOfRspProcessor = PowerMockito.spy(new SfcOfRspProcessor(flowProgrammer, sfcUtils, new SfcSynchronizer(),
-                rpcProviderRegistry, dataBroker));
+        sfcOfRspProcessor = PowerMockito.spy(new SfcOfRspProcessor(flowProgrammer, sfcUtils, rpcProviderRegistry,
+                dataBroker));
         PowerMockito.when(sfcOfRspProcessor, "getOperDsHandler").thenReturn(operDsUpdateHandler);
 
         rspBuilder = new RspBuilder(sfcUtils);
@@ -289,12 +292,12 @@ public class SfcOfLogicalSffRspProcessorTest {
 
         checkOperationalDatastoreUpdateOnRSPCreation();
 
-        // two times when SFs are in the same compute node (only one invocation
-        // per SF). When SFs
-        // are in different compute nodes, there is a third invocation (for the
-        // interface used
-        // to go from SF1 to SF2)
-        verify(interfaceManagerRpcService, times(sfTypes.size()))
+        // one invocation per SF logical interface when SFs are in the same
+        // compute node. When SFs are in different compute nodes, there is
+        // another invocation (for the interface used to go from SF1 to SF2).
+        // All the SFs share the same logical interface in this test, so the
+        // egress actions are retrieved once and then served from the cache
+        verify(interfaceManagerRpcService, times(1))
                 .getEgressActionsForInterface(any(GetEgressActionsForInterfaceInput.class));
 
         // just one compute node: there must be no tunnel interface requests to
@@ -444,7 +447,9 @@ public class SfcOfLogicalSffRspProcessorTest {
         sfcOfRspProcessor.processRenderedServicePath(vlanRsp);
 
         int numberOfHops = sfTypes.size() + 1;
-        verify(interfaceManagerRpcService, times(numberOfHops))
+        // the SFs share the same logical interface, whose egress actions are
+        // cached, plus the tunnel interface between the SFFs
+        verify(interfaceManagerRpcService, times(2))
                 .getEgressActionsForInterface(any(GetEgressActionsForInterfaceInput.class));
 
         // 2 SFFs, meaning 1 hop between SFFs, must get the logical interface
@@ -8,6 +8,9 @@
 
 package org.opendaylight.sfc.ofrenderer.processors;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
@@ -16,21 +19,27 @@ import static org.mockito.Matchers.anyShort;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.sfc.ofrenderer.RspBuilder;
 import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerImpl;
 import org.opendaylight.sfc.ofrenderer.openflow.SfcOfFlowProgrammerInterface;
 import org.opendaylight.sfc.ofrenderer.utils.SfcOfProviderUtilsTestMock;
-import org.opendaylight.sfc.ofrenderer.utils.SfcSynchronizer;
 import org.opendaylight.sfc.ofrenderer.utils.operdsupdate.OperDsUpdateHandlerInterface;
 import org.opendaylight.sfc.util.openflow.writer.SfcOfFlowWriterInterface;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
@@ -77,9 +86,11 @@ public class SfcOfRspProcessorTest {
 
         this.flowProgrammerTestMoc = mock(SfcOfFlowProgrammerImpl.class);
         this.flowProgrammerTestMoc.setFlowWriter(mock(SfcOfFlowWriterInterface.class));
+        // the RSPs are rendered with the programmer mock itself
+        when(this.flowProgrammerTestMoc.newRenderProgrammer()).thenReturn(this.flowProgrammerTestMoc);
         this.sfcUtilsTestMock = new SfcOfProviderUtilsTestMock();
         this.sfcOfRspProcessor = new SfcOfRspProcessor(this.flowProgrammerTestMoc, this.sfcUtilsTestMock,
-                new SfcSynchronizer(), null, null);
+                null, null);
         this.rspBuilder = new RspBuilder(this.sfcUtilsTestMock);
 
         this.sfTypes = new ArrayList<>();
@@ -122,6 +133,7 @@ public class SfcOfRspProcessorTest {
 
         verify(this.flowProgrammerTestMoc, atLeastOnce()).setFlowRspId(anyLong());
         verify(this.flowProgrammerTestMoc, atLeastOnce()).setFlowWriter((SfcOfFlowWriterInterface) anyObject());
+        verify(this.flowProgrammerTestMoc, atLeastOnce()).newRenderProgrammer();
 
         // Verify calls to configureVlanTransportIngressFlow
         verify(this.flowProgrammerTestMoc, times(2)).configureVlanTransportIngressFlow("SFF_0");
@@ -189,6 +201,7 @@ public class SfcOfRspProcessorTest {
 
         verify(this.flowProgrammerTestMoc, atLeastOnce()).setFlowRspId(anyLong());
         verify(this.flowProgrammerTestMoc, atLeastOnce()).setFlowWriter((SfcOfFlowWriterInterface) anyObject());
+        verify(this.flowProgrammerTestMoc, atLeastOnce()).newRenderProgrammer();
 
         // The calls to the VLAN methods are for the packets sent between SFF-SF
 
@@ -253,6 +266,7 @@ public class SfcOfRspProcessorTest {
 
         verify(this.flowProgrammerTestMoc, atLeastOnce()).setFlowRspId(anyLong());
         verify(this.flowProgrammerTestMoc, atLeastOnce()).setFlowWriter((SfcOfFlowWriterInterface) anyObject());
+        verify(this.flowProgrammerTestMoc, atLeastOnce()).newRenderProgrammer();
 
         // Verify calls to configureNshVxgpeTransportIngressFlow
         verify(this.flowProgrammerTestMoc, times(1)).configureNshVxgpeTransportIngressFlow(eq("SFF_0"), anyLong(),
@@ -306,6 +320,7 @@ public class SfcOfRspProcessorTest {
 
         verify(this.flowProgrammerTestMoc, atLeastOnce()).setFlowRspId(anyLong());
         verify(this.flowProgrammerTestMoc, atLeastOnce()).setFlowWriter((SfcOfFlowWriterInterface) anyObject());
+        verify(this.flowProgrammerTestMoc, atLeastOnce()).newRenderProgrammer();
 
         // Verify calls to configureNshVxgpeTransportIngressFlow
         verify(this.flowProgrammerTestMoc, times(1)).configureNshVxgpeTransportIngressFlow(eq("SFF_0"), anyLong(),
@@ -357,6 +372,7 @@ public class SfcOfRspProcessorTest {
 
         verify(this.flowProgrammerTestMoc, atLeastOnce()).setFlowRspId(anyLong());
         verify(this.flowProgrammerTestMoc, atLeastOnce()).setFlowWriter((SfcOfFlowWriterInterface) anyObject());
+        verify(this.flowProgrammerTestMoc, atLeastOnce()).newRenderProgrammer();
 
         // Verify calls to configureNshVxgpeTransportIngressFlow
         verify(this.flowProgrammerTestMoc, times(1)).configureNshVxgpeTransportIngressFlow(eq(sffName), anyLong(),
@@ -406,6 +422,7 @@ public class SfcOfRspProcessorTest {
 
         verify(this.flowProgrammerTestMoc, atLeastOnce()).setFlowRspId(anyLong());
         verify(this.flowProgrammerTestMoc, atLeastOnce()).setFlowWriter((SfcOfFlowWriterInterface) anyObject());
+        verify(this.flowProgrammerTestMoc, atLeastOnce()).newRenderProgrammer();
 
         // Verify calls to configureMacChainingTransportIngressFlow
         verify(this.flowProgrammerTestMoc, times(2)).configureMacChainingTransportIngressFlow(eq(sffName));
@@ -453,6 +470,7 @@ public class SfcOfRspProcessorTest {
 
         verify(this.flowProgrammerTestMoc, atLeastOnce()).setFlowRspId(anyLong());
         verify(this.flowProgrammerTestMoc, atLeastOnce()).setFlowWriter((SfcOfFlowWriterInterface) anyObject());
+        verify(this.flowProgrammerTestMoc, atLeastOnce()).newRenderProgrammer();
 
         // Verify calls to configureVlanTransportIngressFlow
         verify(this.flowProgrammerTestMoc, times(2)).configureVlanTransportIngressFlow(eq("SFF_0"));
@@ -490,4 +508,52 @@ public class SfcOfRspProcessorTest {
 
         verifyNoMoreInteractions(this.flowProgrammerTestMoc);
     }
+
+    @Test
+    public void testRspsOnDisjointSffsRenderConcurrently() throws Exception {
+        LOG.info("SfcOfRspProcessorTest testRspsOnDisjointSffsRenderConcurrently");
+        String sharedSffName = "SFF_SHARED";
+        ServiceFunction sf = rspBuilder.createServiceFunction(new SfName("SF-shared"), new SffName(sharedSffName),
+                new SftTypeName("firewall"), VxlanGpe.class);
+        RenderedServicePath firstSharingRsp = rspBuilder.createRspFromSfList(Collections.singletonList(sf),
+                new SffName(sharedSffName), VxlanGpe.class, Nsh.class);
+        RenderedServicePath secondSharingRsp = rspBuilder.createRspFromSfList(Collections.singletonList(sf),
+                new SffName(sharedSffName), VxlanGpe.class, Nsh.class);
+        RenderedServicePath disjointRsp = rspBuilder.createRspFromSfTypes(this.sfTypes, VxlanGpe.class, Nsh.class);
+
+        // the first RSP blocks while flushing its flows, holding its SFF
+        CountDownLatch firstFlushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> flushed = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            String rspName = Thread.currentThread().getName();
+            flushed.add(rspName);
+            if (rspName.equals("first")) {
+                firstFlushing.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(this.flowProgrammerTestMoc).flushFlows();
+
+        Thread first = new Thread(() -> sfcOfRspProcessor.processRenderedServicePath(firstSharingRsp), "first");
+        first.start();
+        assertTrue(firstFlushing.await(10, TimeUnit.SECONDS));
+
+        Thread second = new Thread(() -> sfcOfRspProcessor.processRenderedServicePath(secondSharingRsp), "second");
+        second.start();
+
+        // the RSP on other SFFs is rendered while the first one is blocked
+        Thread disjoint = new Thread(() -> sfcOfRspProcessor.processRenderedServicePath(disjointRsp), "disjoint");
+        disjoint.start();
+        disjoint.join(10000);
+        assertFalse(disjoint.isAlive());
+        assertEquals(Arrays.asList("first", "disjoint"), flushed);
+
+        // the RSP sharing the SFF is rendered after the first one
+        release.countDown();
+        first.join(10000);
+        second.join(10000);
+        assertFalse(second.isAlive());
+        assertEquals(Arrays.asList("first", "disjoint", "second"), flushed);
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.ofrenderer.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SfcOfRenderingExecutorTest {
+
+    private SfcOfRenderingExecutor renderingExecutor;
+
+    @Before
+    public void setup() {
+        renderingExecutor = new SfcOfRenderingExecutor(4, 16);
+    }
+
+    @After
+    public void teardown() throws Exception {
+        renderingExecutor.close();
+    }
+
+    @Test
+    public void tasksWithDisjointKeysRunConcurrently() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> blocked = renderingExecutor.execute(Collections.singletonList("sff1"), () -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // does not wait for the blocked task
+        renderingExecutor.execute(Collections.singletonList("sff2"), () -> { }).get(10, TimeUnit.SECONDS);
+        assertFalse(blocked.isDone());
+
+        release.countDown();
+        blocked.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void tasksSharingAKeyRunInOrder() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> executed = new CopyOnWriteArrayList<>();
+        renderingExecutor.execute(Collections.singletonList("sff1"), () -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executed.add("first");
+        });
+        renderingExecutor.execute(Arrays.asList("sff2", "sff1"), () -> {
+            throw new IllegalStateException("failed task");
+        });
+        CompletableFuture<Void> last = renderingExecutor.execute(Collections.singletonList("sff2"),
+            () -> executed.add("last"));
+
+        assertFalse(last.isDone());
+        release.countDown();
+        last.get(10, TimeUnit.SECONDS);
+
+        // the failed task in between does not stop the following ones
+        assertTrue(last.isDone());
+        assertEquals(Arrays.asList("first", "last"), executed);
+    }
+}
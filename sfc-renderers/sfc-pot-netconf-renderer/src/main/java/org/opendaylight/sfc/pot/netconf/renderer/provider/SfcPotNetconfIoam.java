@@ -8,22 +8,34 @@
 
 package org.opendaylight.sfc.pot.netconf.renderer.provider;
 
-import io.netty.util.Timeout;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.sfc.pot.netconf.renderer.provider.api.SfcPotPolyAPI;
 import org.opendaylight.sfc.pot.netconf.renderer.utils.SfcPotNetconfReaderWriterAPI;
-import org.opendaylight.sfc.provider.api.SfcProviderRenderedPathAPI;
-import org.opendaylight.sfc.provider.api.SfcProviderServiceChainAPI;
+import org.opendaylight.sfc.provider.api.SfcConfigurationCache;
 import org.opendaylight.sfc.provider.api.SfcProviderServiceForwarderAPI;
 import org.opendaylight.sfc.provider.api.SfcProviderServicePathAPI;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
@@ -40,12 +52,12 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.Coeffs;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.Lpcs;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.rev170112.PotProfiles;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.rev170112.PotProfilesBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.rev170112.ProfileIndexRange;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.rev170112.pot.profile.PotProfileList;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.rev170112.pot.profile.PotProfileListBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.rev170112.pot.profiles.PotProfileSet;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.rev170112.pot.profiles.PotProfileSetBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.rev170112.pot.profiles.PotProfileSetKey;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfc.rev140701.service.function.chain.grouping.ServiceFunctionChain;
@@ -74,19 +86,35 @@ public class SfcPotNetconfIoam {
     private static final long CFG_REFRESH_INTERVAL_FUZZ_MS = 250;
     private static final long DEF_NUM_POT_PROFILES = 2;
     private static final long MIN_SFC_SIZE = 3;
+    private static final long NODE_CFG_TIMEOUT_MS = 5000;
+    private static final int CFG_THREADS = 8;
 
     private static final InstanceIdentifier<PotProfiles> POT_PROFILES_IID = InstanceIdentifier
             .create(PotProfiles.class);
 
     private static class Config {
         NodeId nodeId;
-        InstanceIdentifier<PotProfiles> iid;
-        DataBroker broker;
+        InstanceIdentifier<PotProfileSet> iid;
 
-        Config(NodeId nodeId, InstanceIdentifier<PotProfiles> iid, DataBroker broker) {
+        Config(NodeId nodeId, InstanceIdentifier<PotProfileSet> iid) {
             this.nodeId = nodeId;
             this.iid = iid;
-            this.broker = broker;
+        }
+    }
+
+    /* The profiles to send to the nodes of an RSP */
+    private static class RspProfiles {
+        final RspName rspName;
+        final int newActiveIndex;
+        /* profiles of all the hops but the first one, with an invalid activeIndex */
+        final Map<NodeId, List<PotProfileSet>> hopProfiles = new HashMap<>();
+        /* profile of the first hop, with the new activeIndex */
+        NodeId firstHopNodeId;
+        PotProfileSet firstHopProfile;
+
+        RspProfiles(RspName rspName, int newActiveIndex) {
+            this.rspName = rspName;
+            this.newActiveIndex = newActiveIndex;
         }
     }
 
@@ -95,10 +123,22 @@ public class SfcPotNetconfIoam {
 
     private final SfcPotNetconfNodeManager nodeManager;
 
+    private final SfcPotRefreshScheduler refreshScheduler;
+
+    /* Renews the profiles of the RSPs and configures the nodes, one task each */
+    private final ExecutorService configExecutor = Executors.newFixedThreadPool(CFG_THREADS,
+            new ThreadFactoryBuilder().setNameFormat("sfc-pot-config-%d").setDaemon(true).build());
+
     @Inject
     public SfcPotNetconfIoam(SfcPotNetconfNodeManager sfcPotNetconfNodeManager) {
         this.nodeManager = sfcPotNetconfNodeManager;
         this.pathConfig = new HashMap<>();
+        this.refreshScheduler = new SfcPotRefreshScheduler(this::refreshSfcPots);
+    }
+
+    public void close() {
+        refreshScheduler.close();
+        configExecutor.shutdownNow();
     }
 
     /* Utility functions */
@@ -136,98 +176,131 @@ public class SfcPotNetconfIoam {
         return val;
     }
 
+    private static InstanceIdentifier<PotProfileSet> getPotProfileSetIid(String profileName) {
+        return POT_PROFILES_IID.child(PotProfileSet.class, new PotProfileSetKey(profileName));
+    }
+
     /**
-     * Utility function that handles common processing to send configuration to
-     * nodes.
+     * Utility function that looks up the nodes of the hops of an RSP.
      *
-     * @return current active index.
+     * @return the node of each hop, null on error.
      */
-    private int sendIoamPotConfig(RenderedServicePath rsp, SfcPotPolyAPI potApi, HashSet<Config> configHash,
+    private List<NodeId> getHopNodeIds(RenderedServicePath rsp, Map<IpAddress, NodeId> sffNodeIds) {
+        List<NodeId> hopNodeIds = new ArrayList<>();
+        for (RenderedServicePathHop h : rsp.getRenderedServicePathHop()) {
+            SffName sffName = h.getServiceFunctionForwarder();
+            NodeId sffNode = getSffNodeId(sffName, sffNodeIds);
+            if (sffNode == null) {
+                LOG.warn("iOAM:PoT:SB:sffNode is null for sffName: {}", sffName);
+                return null;
+            }
+            hopNodeIds.add(sffNode);
+        }
+        return hopNodeIds;
+    }
+
+    /**
+     * Utility function that builds the profiles to send to the nodes of an
+     * RSP, from the current PoT configuration.
+     *
+     * @return the profiles, null on error.
+     */
+    private RspProfiles buildRspProfiles(RenderedServicePath rsp, List<NodeId> hopNodeIds, SfcPotPolyAPI potApi,
             int newActiveIndex) {
         int posIndex = 0;
         String rspName = rsp.getName().getValue();
-        SffName sffName;
+        RspProfiles rspProfiles = new RspProfiles(rsp.getName(), newActiveIndex);
 
         PolyParameters ioamPotParams = potApi.getIoamPotParameters();
         if (ioamPotParams == null) {
             LOG.warn("iOAM:PoT:SB:profile parameters not present in RSP:{}", rsp.getName());
-            return -1;
+            return null;
         }
 
-        List<RenderedServicePathHop> hopList = rsp.getRenderedServicePathHop();
-        for (RenderedServicePathHop h : hopList) {
-            sffName = h.getServiceFunctionForwarder();
-            NodeId sffNode = getSffNodeId(sffName);
-            if (sffNode == null) {
-                LOG.warn("iOAM:PoT:SB:sffNode is null for sffName: {}", sffName);
-                return -1;
-            }
+        for (RenderedServicePathHop h : rsp.getRenderedServicePathHop()) {
+            NodeId sffNode = hopNodeIds.get(posIndex);
 
             PolySecrets ioamPotHopParams = potApi.getIoamPotHopParameters(posIndex);
             if (ioamPotHopParams == null) {
                 LOG.warn("iOAM:PoT:SB:Hop parameters not available for RSP:{}", rsp.getName());
-                return -1;
+                return null;
             }
 
-            /*
-             * Initially, all profiles are downloaded with invalid activeIndex
-             */
-            PotProfiles profile = buildProfile(rspName + '-' + h.getServiceIndex(), ioamPotParams, ioamPotHopParams,
-                    posIndex, -1);
-            if (!configSF(configHash, sffNode, profile)) {
-                /* Error already logged */
-                return -1;
+            String profileName = rspName + '-' + h.getServiceIndex();
+            if (posIndex == 0) {
+                /* profiles are updated at the first node */
+                rspProfiles.firstHopNodeId = sffNode;
+                rspProfiles.firstHopProfile = buildProfile(profileName, ioamPotParams, ioamPotHopParams, posIndex,
+                        newActiveIndex);
+            } else {
+                /*
+                 * Initially, all profiles are downloaded with invalid
+                 * activeIndex
+                 */
+                rspProfiles.hopProfiles.computeIfAbsent(sffNode, nodeId -> new ArrayList<>())
+                        .add(buildProfile(profileName, ioamPotParams, ioamPotHopParams, posIndex, -1));
             }
             posIndex++;
         }
 
+        if (rspProfiles.firstHopProfile == null) {
+            LOG.warn("iOAM:PoT:SB:No hops in RSP:{}", rsp.getName());
+            return null;
+        }
+
+        return rspProfiles;
+    }
+
+    /**
+     * Utility function that sends the profiles of RSPs to their nodes, with a
+     * single edit per node.
+     *
+     * @return the profiles successfully sent.
+     */
+    private List<RspProfiles> sendRspProfiles(Collection<RspProfiles> rspProfilesList) {
+        Map<NodeId, List<PotProfileSet>> nodeProfiles = new HashMap<>();
+        for (RspProfiles rspProfiles : rspProfilesList) {
+            rspProfiles.hopProfiles.forEach((nodeId, profiles) -> nodeProfiles
+                    .computeIfAbsent(nodeId, key -> new ArrayList<>()).addAll(profiles));
+        }
+        Set<NodeId> failedNodes = configNodes(nodeProfiles);
+
         /*
          * When the initial download is successful, the first node of the hop is
          * notified of what is the activeIndex. This is as per the protocol
          * required at the SB nodes.
          */
-        posIndex = 0;
-
-        RenderedServicePathHop hop = hopList.iterator().next();
-        NodeId sffNode;
-        sffName = hop.getServiceFunctionForwarder();
-        sffNode = getSffNodeId(sffName);
-        if (sffNode == null) {
-            LOG.warn("iOAM:PoT:SB:sffNode is null for sffName: {}", sffName);
-            return -1;
-        }
-
-        PolySecrets ioamPotHopParams = potApi.getIoamPotHopParameters(posIndex);
-        if (ioamPotHopParams == null) {
-            LOG.warn("iOAM:PoT:SB: Hop parameters cannot be got for RSP:{}", rsp.getName());
-            return -1;
+        List<RspProfiles> downloadedProfiles = new ArrayList<>();
+        Map<NodeId, List<PotProfileSet>> firstHopNodeProfiles = new HashMap<>();
+        for (RspProfiles rspProfiles : rspProfilesList) {
+            if (Collections.disjoint(rspProfiles.hopProfiles.keySet(), failedNodes)) {
+                downloadedProfiles.add(rspProfiles);
+                firstHopNodeProfiles.computeIfAbsent(rspProfiles.firstHopNodeId, key -> new ArrayList<>())
+                        .add(rspProfiles.firstHopProfile);
+            }
         }
+        Set<NodeId> failedFirstHopNodes = configNodes(firstHopNodeProfiles);
 
-        /* profiles are updated at the first node */
-        PotProfiles profile = buildProfile(rspName + '-' + hop.getServiceIndex(), ioamPotParams, ioamPotHopParams,
-                posIndex, newActiveIndex);
-        if (!configSF(configHash, sffNode, profile)) {
-            /* Error already logged */
-            return -1;
+        List<RspProfiles> sentProfiles = new ArrayList<>();
+        for (RspProfiles rspProfiles : downloadedProfiles) {
+            if (!failedFirstHopNodes.contains(rspProfiles.firstHopNodeId)) {
+                sentProfiles.add(rspProfiles);
+            }
         }
-
-        return newActiveIndex;
+        return sentProfiles;
     }
 
     /**
-     * Utility function that handles common processing for config creation and
-     * re-generation.
+     * Utility function that handles processing for config creation.
      *
      * @return Current Active Index.
      */
     private int processRspIoamPot(RenderedServicePath rsp, int sfcSize,
             final Class<? extends TimeResolution> refreshPeriodTimeUnits, Long refreshPeriodValue,
-            BitMaskOptions ioamPotProfileBitMask, Long ioamPotNumProfiles, int currActiveIndex, boolean flagRenew) {
+            BitMaskOptions ioamPotProfileBitMask, Long ioamPotNumProfiles) {
 
-        Long adjRefreshPeriodValue;
-        int newActiveIndex = currActiveIndex;
         String rspName = rsp.getName().getValue();
-        HashSet<Config> configHash = new HashSet<>();
+        RspProfiles rspProfiles;
 
         SfcPotPolyAPI potApi = SfcPotPolyAPI.getInstance();
         if (potApi == null) {
@@ -235,63 +308,59 @@ public class SfcPotNetconfIoam {
             return -1;
         }
 
-        if (!flagRenew) {
-            if (!potApi.init(rsp.getName().getValue(), sfcSize, refreshPeriodTimeUnits, refreshPeriodValue,
-                    ioamPotProfileBitMask, ioamPotNumProfiles)) {
+        List<NodeId> hopNodeIds = getHopNodeIds(rsp, new HashMap<>());
+        if (hopNodeIds == null) {
+            LOG.warn("iOAM:PoT:SB:profile could not be sent for RSP:{}", rsp.getName());
+            return -1;
+        }
+
+        /* the PoT API holds the configuration of the RSP last initialized or renewed */
+        synchronized (potApi) {
+            if (!potApi.init(rspName, sfcSize, refreshPeriodTimeUnits, refreshPeriodValue, ioamPotProfileBitMask,
+                    ioamPotNumProfiles)) {
                 LOG.warn("iOAM:PoT:SB: Profile not initialized for RSP:{}", rsp.getName());
                 return -1;
             }
-        } else {
-            newActiveIndex = potApi.initRenew(rsp.getName().getValue(), sfcSize, currActiveIndex);
-            if (newActiveIndex == -1) {
-                LOG.warn("iOAM:PoT:SB: Profile could not be renewed for RSP:{}", rsp.getName());
-                return -1;
-            }
+            rspProfiles = buildRspProfiles(rsp, hopNodeIds, potApi, 0);
         }
 
-        int ret = sendIoamPotConfig(rsp, potApi, configHash, newActiveIndex);
-        if (ret == -1) {
+        if (rspProfiles == null || sendRspProfiles(Collections.singletonList(rspProfiles)).isEmpty()) {
             LOG.warn("iOAM:PoT:SB:profile could not be sent for RSP:{}", rsp.getName());
             return -1;
         }
 
-        /* Initial config send: Set up timer for periodic config regeneration */
-        if (!flagRenew) {
-            /* Set up timer for periodic config regeneration */
-            SfcPotTimerTask potTimerTask = new SfcPotTimerTask(rsp.getName());
-            SfcPotTimerWheel potTimerWheel = SfcPotTimerWheel.getInstance();
-            SfcPotTimerData potTimerData = SfcPotTimerData.getInstance();
-
-            /*
-             * NOTE: This is done to start a timer for a period a bit before the
-             * actual refresh timer expiry so that config refresh can happen
-             * before the configurations expire at the nodes.
-             */
-            /* NOTE:TODO: support other time units. Currently assume ms */
-            adjRefreshPeriodValue = refreshPeriodValue - CFG_REFRESH_INTERVAL_FUZZ_MS;
-
-            Timeout potTimeout = potTimerWheel.setTimerContext(potTimerTask, adjRefreshPeriodValue,
-                    TimeUnit.MILLISECONDS);
-            /* Start off with active cfg index 0 */
-            potTimerData.addRspData(rsp.getName(), adjRefreshPeriodValue, refreshPeriodTimeUnits, 0, sfcSize,
-                    potTimerTask, potTimeout);
+        /*
+         * NOTE: This is done to schedule the refresh a bit before the actual
+         * refresh period expiry so that config refresh can happen before the
+         * configurations expire at the nodes.
+         */
+        /* NOTE:TODO: support other time units. Currently assume ms */
+        Long adjRefreshPeriodValue = refreshPeriodValue - CFG_REFRESH_INTERVAL_FUZZ_MS;
 
-            LOG.debug("iOAM:PoT:SB:Started timer for RSP:{}, sfc:{}", rsp.getName(), sfcSize);
+        /* Start off with active cfg index 0 */
+        SfcPotTimerData.getInstance().addRspData(rsp.getName(), adjRefreshPeriodValue, refreshPeriodTimeUnits, 0,
+                sfcSize);
+        refreshScheduler.schedule(rsp.getName(), adjRefreshPeriodValue);
 
-            pathConfig.put(rspName, configHash);
+        LOG.debug("iOAM:PoT:SB:Scheduled refresh for RSP:{}, sfc:{}", rsp.getName(), sfcSize);
 
-            return 0;
-        }
+        HashSet<Config> configHash = new HashSet<>();
+        rspProfiles.hopProfiles.forEach((nodeId, profiles) -> profiles
+                .forEach(profile -> configHash.add(new Config(nodeId, getPotProfileSetIid(profile.getName())))));
+        configHash.add(new Config(rspProfiles.firstHopNodeId,
+                getPotProfileSetIid(rspProfiles.firstHopProfile.getName())));
+        pathConfig.put(rspName, configHash);
 
-        return newActiveIndex;
+        return 0;
     }
 
     /**
-     * Returns an PotProfiles object representing the PoT related configuration.
+     * Returns an PotProfileSet object representing the PoT related
+     * configuration of a hop.
      *
-     * @return PotProfiles object.
+     * @return PotProfileSet object.
      */
-    private PotProfiles buildProfile(String profileName, PolyParameters params, PolySecrets secrets, int posIndex,
+    private PotProfileSet buildProfile(String profileName, PolyParameters params, PolySecrets secrets, int posIndex,
             int activeIndex) {
         List<BigInteger> coeffs;
         List<Long> lpcs;
@@ -332,44 +401,86 @@ public class SfcPotNetconfIoam {
         sbuilder.setPotProfileList(potProfileList).setName(profileName)
                 .setActiveProfileIndex(new ProfileIndexRange(activeIndex)).setPathIdentifier(null);
 
-        ArrayList<PotProfileSet> potProfileSet = new ArrayList<>();
-        potProfileSet.add(sbuilder.build());
-        PotProfilesBuilder pbuilder = new PotProfilesBuilder();
-        pbuilder.setPotProfileSet(potProfileSet);
-        return pbuilder.build();
+        return sbuilder.build();
     }
 
     /**
-     * Sends out configuration to the SB node via Netconf.
+     * Sends out configuration to the SB nodes via Netconf. Each node gets all
+     * its profiles in a single edit, the nodes being configured concurrently,
+     * each one by its own task.
      *
-     * @return Success or Failure.
+     * @return the nodes that could not be configured.
      */
-    private boolean configSF(HashSet<Config> configHash, final NodeId nodeId, PotProfiles profile) {
-        InstanceIdentifier<PotProfiles> iid = POT_PROFILES_IID;
+    private Set<NodeId> configNodes(Map<NodeId, List<PotProfileSet>> nodeProfiles) {
+        Map<NodeId, CompletableFuture<Boolean>> nodeTasks = new HashMap<>();
+        nodeProfiles.forEach((nodeId, profiles) -> {
+            CompletableFuture<Boolean> nodeTask;
+            try {
+                nodeTask = CompletableFuture.supplyAsync(() -> configNode(nodeId, profiles), configExecutor);
+            } catch (RejectedExecutionException e) {
+                LOG.warn("iOAM:SB:PoT:SF node {} not configured, renderer closed", nodeId.getValue());
+                nodeTask = CompletableFuture.completedFuture(false);
+            }
+            nodeTasks.put(nodeId, nodeTask);
+        });
+
+        Set<NodeId> failedNodes = new HashSet<>();
+        nodeTasks.forEach((nodeId, nodeTask) -> {
+            try {
+                if (!nodeTask.join()) {
+                    failedNodes.add(nodeId);
+                }
+            } catch (CompletionException e) {
+                LOG.warn("iOAM:SB:PoT:Error configuring SF node {}", nodeId.getValue(), e.getCause());
+                failedNodes.add(nodeId);
+            }
+        });
 
+        return failedNodes;
+    }
+
+    /**
+     * Sends out the profiles of a SB node via Netconf, waiting at most
+     * NODE_CFG_TIMEOUT_MS for the node, so that a hung node does not hold
+     * back the refresh of the other nodes.
+     *
+     * @return true if the node was configured.
+     */
+    private boolean configNode(NodeId nodeId, List<PotProfileSet> nodeProfiles) {
         DataBroker broker = nodeManager.getMountPointFromNodeId(nodeId);
         if (broker == null) {
-            LOG.warn("iOAM:SB:PoT:Error configuring SF node. Broker invalid.");
+            LOG.warn("iOAM:SB:PoT:Error configuring SF node {}. Broker invalid.", nodeId.getValue());
             return false;
         }
 
-        if (SfcPotNetconfReaderWriterAPI.put(broker, LogicalDatastoreType.CONFIGURATION, iid, profile)) {
-            LOG.info("iOAM:SB:PoT:Successfully configured SF node {}", nodeId.getValue());
-            /*
-             * Duplicates not added, as configSF could be called more than once
-             * for first node
-             */
-            configHash.add(new Config(nodeId, iid, broker));
-        } else {
-            LOG.warn("iOAM:SB:PoT:Error configuring SF node {} via NETCONF", nodeId.getValue());
-            return false;
+        Map<InstanceIdentifier<PotProfileSet>, PotProfileSet> profiles = new LinkedHashMap<>();
+        for (PotProfileSet profile : nodeProfiles) {
+            profiles.put(getPotProfileSetIid(profile.getName()), profile);
         }
+        ListenableFuture<Void> future = SfcPotNetconfReaderWriterAPI.submitPuts(broker,
+                LogicalDatastoreType.CONFIGURATION, profiles);
 
-        return true;
+        try {
+            future.get(NODE_CFG_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            LOG.info("iOAM:SB:PoT:Successfully configured SF node {}", nodeId.getValue());
+            return true;
+        } catch (ExecutionException e) {
+            LOG.warn("iOAM:SB:PoT:Error configuring SF node {} via NETCONF", nodeId.getValue(), e);
+        } catch (TimeoutException e) {
+            LOG.warn("iOAM:SB:PoT:Timed out configuring SF node {} via NETCONF", nodeId.getValue());
+            future.cancel(true);
+        } catch (InterruptedException e) {
+            LOG.warn("iOAM:SB:PoT:Interrupted configuring SF node {}", nodeId.getValue());
+            Thread.currentThread().interrupt();
+        }
+        return false;
     }
 
-    /* This function returns NodeId given the IP address of the node */
-    private NodeId getSffNodeId(SffName sffName) {
+    /*
+     * This function returns NodeId given the IP address of the node. The
+     * nodes already looked up are taken from the given map.
+     */
+    private NodeId getSffNodeId(SffName sffName, Map<IpAddress, NodeId> sffNodeIds) {
         if (sffName == null) {
             LOG.warn("iOAM:PoT:SB:SFF name invalid");
             return null;
@@ -388,8 +499,8 @@ public class SfcPotNetconfIoam {
             return null;
         }
 
-        return nodeManager
-                .getNodeIdFromIpAddress(new IpAddress(new Ipv4Address(sffMgmtIp.getIpv4Address().getValue())));
+        return sffNodeIds.computeIfAbsent(new IpAddress(new Ipv4Address(sffMgmtIp.getIpv4Address().getValue())),
+                nodeManager::getNodeIdFromIpAddress);
     }
 
     /*
@@ -417,7 +528,7 @@ public class SfcPotNetconfIoam {
 
         SfcName serviceFunctionChainNameObj = sfp.getServiceChainName();
         ServiceFunctionChain serviceFunctionChain = serviceFunctionChainNameObj != null
-                ? SfcProviderServiceChainAPI.readServiceFunctionChain(serviceFunctionChainNameObj) : null;
+                ? SfcConfigurationCache.getServiceFunctionChains().get(serviceFunctionChainNameObj) : null;
         if (serviceFunctionChain == null) {
             LOG.warn("iOAM:PoT:SB:SFC name for Path {} is null.", sfp.getName());
             return;
@@ -439,10 +550,10 @@ public class SfcPotNetconfIoam {
         if (!potAugmentation.isIoamPotEnable()) {
             LOG.info("iOAM:PoT:SB:RSP {}:iOAM Proof of Transit disabled.", rsp.getName());
 
-            /* Disable timers to handle case of PoT disable */
-            SfcPotTimerWheel timer = SfcPotTimerWheel.getInstance();
-            timer.clearTimerContext(potTimerData.getRspDataTimeout(rsp.getName()));
+            /* Disable refresh to handle case of PoT disable */
+            refreshScheduler.cancel(rsp.getName());
             potTimerData.delRspData(rsp.getName());
+            SfcPotPolyAPI.getInstance().deleteRsp(rspName);
 
             /*
              * NOTE:TODO: send down disabled config. For now let config expire
@@ -477,7 +588,7 @@ public class SfcPotNetconfIoam {
         /* Call the utility function to do the work */
         BitMaskOptions ioamPotProfileBitMask = potAugmentation.getIoamPotBitMask();
         int ret = processRspIoamPot(rsp, sfcSize, refreshPeriodTimeUnits, refreshPeriodValue, ioamPotProfileBitMask,
-                ioamPotNumProfiles, 0, false);
+                ioamPotNumProfiles);
         if (ret < 0) {
             LOG.warn("iOAM:PoT:SB:RSP:{} processing error in proof of transit.", rsp.getName());
         } else {
@@ -487,22 +598,88 @@ public class SfcPotNetconfIoam {
 
     /*
      * This function processes RSP refresh requests to send out related
-     * configuration for PoT renewal or refresh configuration options.
+     * configuration for PoT renewal. The profiles of all the RSPs due are
+     * renewed first, one task per RSP, then sent to the nodes with a single
+     * edit per node.
+     *
+     * Returns the RSPs successfully refreshed.
      */
-    public int refreshSfcPot(RspName rspName, int currActiveIndex, int sfcSize, Long refreshPeriodValue) {
-        RenderedServicePath rsp = SfcProviderRenderedPathAPI.readRenderedServicePath(rspName);
+    private Collection<RspName> refreshSfcPots(Collection<RspName> rspNames) {
+        SfcPotTimerData potTimerData = SfcPotTimerData.getInstance();
+        Map<IpAddress, NodeId> sffNodeIds = new ConcurrentHashMap<>();
+
+        List<CompletableFuture<RspProfiles>> renewals = new ArrayList<>();
+        for (RspName rspName : rspNames) {
+            try {
+                renewals.add(CompletableFuture.supplyAsync(() -> renewRspProfiles(rspName, sffNodeIds),
+                        configExecutor));
+            } catch (RejectedExecutionException e) {
+                LOG.warn("iOAM:PoT:SB:RSP {} not renewed, renderer closed", rspName);
+            }
+        }
+
+        List<RspProfiles> renewedProfiles = new ArrayList<>();
+        for (CompletableFuture<RspProfiles> renewal : renewals) {
+            try {
+                RspProfiles rspProfiles = renewal.join();
+                if (rspProfiles != null) {
+                    renewedProfiles.add(rspProfiles);
+                }
+            } catch (CompletionException e) {
+                LOG.warn("iOAM:PoT:SB:Error renewing the profiles of an RSP", e.getCause());
+            }
+        }
+
+        List<RspName> refreshedRsps = new ArrayList<>();
+        for (RspProfiles rspProfiles : sendRspProfiles(renewedProfiles)) {
+            potTimerData.setRspDataConfigActiveIndex(rspProfiles.rspName, rspProfiles.newActiveIndex);
+            refreshedRsps.add(rspProfiles.rspName);
+        }
+
+        if (refreshedRsps.size() < rspNames.size()) {
+            LOG.warn("iOAM:PoT:SB:{} of {} RSPs could not be refreshed.", rspNames.size() - refreshedRsps.size(),
+                    rspNames.size());
+        }
+        return refreshedRsps;
+    }
 
+    /*
+     * This function renews the PoT configuration of an RSP and builds the
+     * profiles to send to its nodes. The nodes are looked up before taking
+     * the PoT API, which only holds the configuration of one RSP at a time.
+     *
+     * Returns the profiles, null on error.
+     */
+    private RspProfiles renewRspProfiles(RspName rspName, Map<IpAddress, NodeId> sffNodeIds) {
+        SfcPotTimerData potTimerData = SfcPotTimerData.getInstance();
+        SfcPotPolyAPI potApi = SfcPotPolyAPI.getInstance();
+
+        RenderedServicePath rsp = SfcConfigurationCache.getRenderedServicePaths().get(rspName);
         if (rsp == null) {
             LOG.warn("iOAM:PoT:SB:RSP for SFC: {} is invalid.", rspName);
-            return -1;
+            return null;
         }
 
+        int sfcSize = potTimerData.getRspDataSfcSize(rspName);
         if (sfcSize == 0) {
             LOG.warn("iOAM:PoT:SB:Service Function Chain is empty.");
-            return -1;
+            return null;
         }
 
-        return processRspIoamPot(rsp, sfcSize, null, refreshPeriodValue, null, null, currActiveIndex, true);
+        List<NodeId> hopNodeIds = getHopNodeIds(rsp, sffNodeIds);
+        if (hopNodeIds == null) {
+            return null;
+        }
+
+        synchronized (potApi) {
+            int newActiveIndex = potApi.initRenew(rspName.getValue(), sfcSize,
+                    potTimerData.getRspDataConfigActiveIndex(rspName));
+            if (newActiveIndex == -1) {
+                LOG.warn("iOAM:PoT:SB: Profile could not be renewed for RSP:{}", rspName);
+                return null;
+            }
+            return buildRspProfiles(rsp, hopNodeIds, potApi, newActiveIndex);
+        }
     }
 
     /*
@@ -513,15 +690,20 @@ public class SfcPotNetconfIoam {
         HashSet<Config> configHash = pathConfig.get(rsp.getName().getValue());
         SfcPotTimerData potTimerData = SfcPotTimerData.getInstance();
 
-        /* Disable timers */
-        SfcPotTimerWheel timer = SfcPotTimerWheel.getInstance();
-        timer.clearTimerContext(potTimerData.getRspDataTimeout(rsp.getName()));
+        /* Disable refresh */
+        refreshScheduler.cancel(rsp.getName());
         potTimerData.delRspData(rsp.getName());
+        SfcPotPolyAPI.getInstance().deleteRsp(rsp.getName().getValue());
 
         if (configHash != null) {
             for (Config cfg : configHash) {
                 LOG.debug("iOAM:PoT:SB:Cleaning up for node:{}", cfg.nodeId);
-                SfcPotNetconfReaderWriterAPI.delete(cfg.broker, LogicalDatastoreType.CONFIGURATION, cfg.iid);
+                DataBroker broker = nodeManager.getMountPointFromNodeId(cfg.nodeId);
+                if (broker == null) {
+                    LOG.warn("iOAM:SB:PoT:Error cleaning up SF node {}. Broker invalid.", cfg.nodeId.getValue());
+                    continue;
+                }
+                SfcPotNetconfReaderWriterAPI.delete(broker, LogicalDatastoreType.CONFIGURATION, cfg.iid);
             }
             pathConfig.remove(rsp.getName().getValue());
         }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.pot.netconf.renderer.provider;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class schedules the periodic PoT configuration refresh of the RSPs.
+ *
+ * <p>
+ * Each RSP is refreshed at a random time within the last tenth of its refresh
+ * period, so that RSPs created together with the same period do not all
+ * become due at the same time. The RSPs becoming due within a short window
+ * are refreshed together, in one batch, on a dedicated thread, and are
+ * scheduled again once their refresh succeeded.
+ */
+public final class SfcPotRefreshScheduler implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(SfcPotRefreshScheduler.class);
+
+    private static final long JITTER_DIVISOR = 10;
+    private static final long BATCH_WINDOW_MS = 50;
+
+    /**
+     * Refreshes the PoT configuration of a batch of RSPs.
+     */
+    @FunctionalInterface
+    public interface Refresher {
+        /**
+         * Refreshes the PoT configuration of RSPs.
+         *
+         * @param rspNames
+         *            the RSPs to refresh
+         * @return the RSPs successfully refreshed, to schedule again
+         */
+        Collection<RspName> refresh(Collection<RspName> rspNames);
+    }
+
+    private final Refresher refresher;
+    private final ConcurrentMap<RspName, Long> refreshPeriods = new ConcurrentHashMap<>();
+    private final ConcurrentMap<RspName, ScheduledFuture<?>> scheduledRefreshes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+    private final ExecutorService refreshExecutor;
+
+    // guarded by this
+    private final Set<RspName> dueRsps = new LinkedHashSet<>();
+    private boolean batchScheduled;
+
+    public SfcPotRefreshScheduler(Refresher refresher) {
+        this(refresher,
+                Executors.newSingleThreadScheduledExecutor(
+                        new ThreadFactoryBuilder().setNameFormat("sfc-pot-refresh-timer-%d").setDaemon(true).build()),
+                Executors.newSingleThreadExecutor(
+                        new ThreadFactoryBuilder().setNameFormat("sfc-pot-refresh-%d").setDaemon(true).build()));
+    }
+
+    /**
+     * Constructor with the timer scheduling the refreshes and the executor
+     * running them, which are shut down on close.
+     */
+    SfcPotRefreshScheduler(Refresher refresher, ScheduledExecutorService timer, ExecutorService refreshExecutor) {
+        this.refresher = refresher;
+        this.timer = timer;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Schedules the periodic refresh of an RSP, replacing any previous
+     * schedule of the RSP.
+     *
+     * @param rspName
+     *            the RSP name
+     * @param refreshPeriodMs
+     *            the refresh period, in milliseconds
+     */
+    public void schedule(RspName rspName, long refreshPeriodMs) {
+        refreshPeriods.put(rspName, refreshPeriodMs);
+        scheduleNext(rspName, refreshPeriodMs);
+    }
+
+    /**
+     * Cancels the periodic refresh of an RSP.
+     *
+     * @param rspName
+     *            the RSP name
+     */
+    public void cancel(RspName rspName) {
+        refreshPeriods.remove(rspName);
+        ScheduledFuture<?> scheduledRefresh = scheduledRefreshes.remove(rspName);
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+        synchronized (this) {
+            dueRsps.remove(rspName);
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        refreshExecutor.shutdownNow();
+        refreshPeriods.clear();
+        scheduledRefreshes.clear();
+    }
+
+    private void scheduleNext(RspName rspName, long refreshPeriodMs) {
+        long jitterWindow = refreshPeriodMs / JITTER_DIVISOR;
+        long delay = refreshPeriodMs - (jitterWindow > 0 ? ThreadLocalRandom.current().nextLong(jitterWindow) : 0);
+        try {
+            ScheduledFuture<?> previousRefresh = scheduledRefreshes.put(rspName,
+                    timer.schedule(() -> refreshDue(rspName), delay, TimeUnit.MILLISECONDS));
+            if (previousRefresh != null) {
+                previousRefresh.cancel(false);
+            }
+        } catch (RejectedExecutionException e) {
+            LOG.warn("iOAM:PoT:SB:Refresh of RSP {} rejected, scheduler closed", rspName);
+        }
+    }
+
+    private void refreshDue(RspName rspName) {
+        synchronized (this) {
+            dueRsps.add(rspName);
+            if (batchScheduled) {
+                return;
+            }
+            batchScheduled = true;
+        }
+        timer.schedule(() -> refreshExecutor.execute(this::refreshBatch), BATCH_WINDOW_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshBatch() {
+        List<RspName> batch;
+        synchronized (this) {
+            batch = new ArrayList<>(dueRsps);
+            dueRsps.clear();
+            batchScheduled = false;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        LOG.debug("iOAM:PoT:SB:Refreshing {} RSPs", batch.size());
+        Collection<RspName> refreshedRsps;
+        try {
+            refreshedRsps = refresher.refresh(batch);
+        } catch (RuntimeException e) {
+            LOG.error("iOAM:PoT:SB:Error refreshing RSPs {}", batch, e);
+            return;
+        }
+
+        for (RspName rspName : refreshedRsps) {
+            // the RSP may have been deleted during the refresh
+            Long refreshPeriodMs = refreshPeriods.get(rspName);
+            if (refreshPeriodMs != null) {
+                scheduleNext(rspName, refreshPeriodMs);
+            }
+        }
+    }
+}
@@ -8,9 +8,8 @@
 
 package org.opendaylight.sfc.pot.netconf.renderer.provider;
 
-import io.netty.util.Timeout;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.nb.pot.rev161122.TimeResolution;
 
@@ -28,25 +27,20 @@ public final class SfcPotTimerData {
 
     private static class SfcPotRspInfo {
         Long configSendTimerValue;
-        int currActiveIndex;
-        SfcPotTimerTask potTimerTask;
-        Timeout potTimeout;
+        volatile int currActiveIndex;
         int sfcSize;
 
-        SfcPotRspInfo(Long configVal, int currActiveIndex, int sfcSize, SfcPotTimerTask potTimerTask,
-                Timeout potTimeout) {
+        SfcPotRspInfo(Long configVal, int currActiveIndex, int sfcSize) {
             this.configSendTimerValue = configVal;
             this.currActiveIndex = currActiveIndex;
             this.sfcSize = sfcSize;
-            this.potTimerTask = potTimerTask;
-            this.potTimeout = potTimeout;
         }
     }
 
     private final Map<String, SfcPotRspInfo> potRspInfoStore;
 
     private SfcPotTimerData() {
-        potRspInfoStore = new HashMap<>();
+        potRspInfoStore = new ConcurrentHashMap<>();
     }
 
     public static SfcPotTimerData getInstance() {
@@ -58,15 +52,14 @@ public final class SfcPotTimerData {
     }
 
     public boolean addRspData(RspName rspName, Long refreshPeriodValue,
-            final Class<? extends TimeResolution> refreshPeriodTimeUnits, int currActiveIndex, int sfcSize,
-            SfcPotTimerTask potTimerTask, Timeout potTimeout) {
+            final Class<? extends TimeResolution> refreshPeriodTimeUnits, int currActiveIndex, int sfcSize) {
         SfcPotRspInfo potRspInfo;
 
         if (potRspInfoStore == null) {
             return false;
         }
 
-        potRspInfo = new SfcPotRspInfo(refreshPeriodValue, currActiveIndex, sfcSize, potTimerTask, potTimeout);
+        potRspInfo = new SfcPotRspInfo(refreshPeriodValue, currActiveIndex, sfcSize);
 
         potRspInfoStore.put(rspName.getValue(), potRspInfo);
 
@@ -143,48 +136,4 @@ public final class SfcPotTimerData {
 
         return false;
     }
-
-    public SfcPotTimerTask getRspDataTimerTask(RspName rspName) {
-        SfcPotRspInfo potRspInfo;
-
-        if (potRspInfoStore == null) {
-            return null;
-        }
-
-        potRspInfo = potRspInfoStore.get(rspName.getValue());
-        if (potRspInfo != null) {
-            return potRspInfo.potTimerTask;
-        }
-
-        return null;
-    }
-
-    public Timeout getRspDataTimeout(RspName rspName) {
-        SfcPotRspInfo potRspInfo;
-
-        if (potRspInfoStore == null) {
-            return null;
-        }
-
-        potRspInfo = potRspInfoStore.get(rspName.getValue());
-        if (potRspInfo != null) {
-            return potRspInfo.potTimeout;
-        }
-
-        return null;
-    }
-
-    public void setRspDataTimeout(RspName rspName, Timeout potTimeout) {
-        SfcPotRspInfo potRspInfo;
-
-        if (potRspInfoStore == null) {
-            return;
-        }
-
-        potRspInfo = potRspInfoStore.get(rspName.getValue());
-        if (potRspInfo != null) {
-            potRspInfo.potTimeout = potTimeout;
-            potRspInfoStore.put(rspName.getValue(), potRspInfo);
-        }
-    }
 }
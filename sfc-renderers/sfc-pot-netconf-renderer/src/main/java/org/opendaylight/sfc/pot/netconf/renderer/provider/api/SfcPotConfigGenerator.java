@@ -8,11 +8,17 @@
 package org.opendaylight.sfc.pot.netconf.renderer.provider.api;
 
 import java.math.BigInteger;
-import java.util.Random;
+import java.security.SecureRandom;
 
 /**
  * This class is used for configuration generation for SFC Proof of Transit.
  *
+ * <p>
+ * Polynomials are evaluated with Horner's rule, using primitive long modular
+ * arithmetic when the prime fits in 62 bits (the default number of bits
+ * does) and BigInteger arithmetic otherwise. All the generators draw their
+ * random numbers from a single SecureRandom.
+ *
  * @author Sagar Srivastav (sagsriva@cisco.com)
  * @version 0.2
  * @since 2016-05-01
@@ -21,6 +27,8 @@ public class SfcPotConfigGenerator {
     private static final String VERSION = "0.5";
     private static final int MAX_SERVICE_NODES = 100;
     private static final short DEFAULT_NUM_BITS = 60;
+    private static final int MAX_LONG_PRIME_BITS = 62;
+    private static final SecureRandom RANDOM = new SecureRandom();
 
     private short noOfBits;
     private int noOfServices = -1;
@@ -29,16 +37,18 @@ public class SfcPotConfigGenerator {
     private long[] coeffOfPoly1;
     private long[] coeffOfPoly2;
     private BigInteger bigPrime;
+    // the prime when it fits the long arithmetic, 0 otherwise
+    private long longPrime;
     private final short[] serviceIndices;
-    private final BigInteger[] preEvalPoly2;
-    private final BigInteger[] lpcs;
+    private final long[] preEvalPoly2;
+    private final long[] lpcs;
 
     public SfcPotConfigGenerator(int noOfServices) {
         this.noOfServices = noOfServices;
         secretSharePoly1 = new long[noOfServices];
         serviceIndices = new short[noOfServices];
-        preEvalPoly2 = new BigInteger[noOfServices];
-        lpcs = new BigInteger[noOfServices];
+        preEvalPoly2 = new long[noOfServices];
+        lpcs = new long[noOfServices];
         setNoOfBits(DEFAULT_NUM_BITS);
         /* default, calling to set numLimit; */
     }
@@ -49,11 +59,8 @@ public class SfcPotConfigGenerator {
         coeffOfPoly1 = new long[noOfServices];
         coeffOfPoly2 = new long[noOfServices];
         for (int i = 0; i < noOfServices; i++) {
-            coeffOfPoly1[i] = 0;
-            coeffOfPoly2[i] = 0;
-            Random randomNumber = new Random();
-            coeffOfPoly1[i] = absLong(randomNumber.nextLong()) % numLimit + 1;
-            coeffOfPoly2[i] = absLong(randomNumber.nextLong()) % numLimit + 1;
+            coeffOfPoly1[i] = absLong(RANDOM.nextLong()) % numLimit + 1;
+            coeffOfPoly2[i] = absLong(RANDOM.nextLong()) % numLimit + 1;
             if (coeffOfPoly1[i] > largestCoeff) {
                 largestCoeff = coeffOfPoly1[i];
             }
@@ -61,61 +68,125 @@ public class SfcPotConfigGenerator {
                 largestCoeff = coeffOfPoly2[i];
             }
         }
-        bigPrime = new BigInteger(Long.toUnsignedString(largestCoeff)).nextProbablePrime();
+        bigPrime = BigInteger.valueOf(largestCoeff).nextProbablePrime();
+        longPrime = bigPrime.bitLength() <= MAX_LONG_PRIME_BITS ? bigPrime.longValue() : 0;
     }
 
     /*
      * Function to evaluate a polynomial without the constant part given the
-     * value and coefficients.
+     * value and coefficients, using Horner's rule.
      */
     @SuppressWarnings("checkstyle:ParameterName")
-    private BigInteger evaluatePoly(int x, long[] coefficients) {
-        BigInteger term;
-        BigInteger precomputeShare = new BigInteger("0");
-        BigInteger powX = new BigInteger("1");
-        for (int exp = 1; exp < noOfServices; exp++) {
-            powX = powX.multiply(new BigInteger("" + x));
-            term = powX.multiply(new BigInteger(Long.toUnsignedString(coefficients[exp])));
-            precomputeShare = precomputeShare.add(term);
-        }
-        precomputeShare = precomputeShare.mod(bigPrime);
+    private long evaluatePoly(int x, long[] coefficients) {
+        if (longPrime == 0) {
+            return evaluateBigPoly(x, coefficients).longValue();
+        }
+        long modX = x % longPrime;
+        long precomputeShare = 0;
+        for (int exp = noOfServices - 1; exp >= 1; exp--) {
+            precomputeShare = addMod(precomputeShare, coefficients[exp] % longPrime, longPrime);
+            precomputeShare = mulMod(precomputeShare, modX, longPrime);
+        }
+        return precomputeShare;
+    }
+
+    /* Same as evaluatePoly, for primes not fitting the long arithmetic */
+    @SuppressWarnings("checkstyle:ParameterName")
+    private BigInteger evaluateBigPoly(int x, long[] coefficients) {
+        BigInteger bigX = BigInteger.valueOf(x);
+        BigInteger precomputeShare = BigInteger.ZERO;
+        for (int exp = noOfServices - 1; exp >= 1; exp--) {
+            precomputeShare = precomputeShare.add(BigInteger.valueOf(coefficients[exp])).multiply(bigX)
+                    .mod(bigPrime);
+        }
         return precomputeShare;
     }
 
     /* Add secret-key to the evaluated polynomial and prime mod it. */
     private long splitShareIndex(int index) {
-        BigInteger bigShare = evaluatePoly(index, coeffOfPoly1);
-        bigShare = bigShare.add(new BigInteger(Long.toUnsignedString(coeffOfPoly1[0])));
-        bigShare = bigShare.remainder(bigPrime);
-        return bigShare.longValue();
+        if (longPrime == 0) {
+            return evaluateBigPoly(index, coeffOfPoly1).add(BigInteger.valueOf(coeffOfPoly1[0])).mod(bigPrime)
+                    .longValue();
+        }
+        return addMod(evaluatePoly(index, coeffOfPoly1), coeffOfPoly1[0] % longPrime, longPrime);
     }
 
     /* calculate Lpc */
-    private BigInteger calculateLpc(int index) {
-        int count;
-        long startPosition;
-        long nextPosition;
-        BigInteger bigNumerator;
-
-        BigInteger bigDenom = new BigInteger("1");
-        bigNumerator = new BigInteger("1");
-        for (count = 0; count < noOfServices; count++) {
+    private long calculateLpc(int index) {
+        if (longPrime == 0) {
+            return calculateBigLpc(index).longValue();
+        }
+        long numerator = 1;
+        long denom = 1;
+        for (int count = 0; count < noOfServices; count++) {
+            if (index == count) {
+                continue;
+            }
+            long startPosition = serviceIndices[index];
+            long nextPosition = serviceIndices[count];
+            numerator = mulMod(numerator, Math.floorMod(-nextPosition, longPrime), longPrime);
+            denom = mulMod(denom, Math.floorMod(startPosition - nextPosition, longPrime), longPrime);
+        }
+        return mulMod(numerator, invMod(denom, longPrime), longPrime);
+    }
+
+    /* Same as calculateLpc, for primes not fitting the long arithmetic */
+    private BigInteger calculateBigLpc(int index) {
+        BigInteger bigNumerator = BigInteger.ONE;
+        BigInteger bigDenom = BigInteger.ONE;
+        for (int count = 0; count < noOfServices; count++) {
             if (index == count) {
                 continue;
             }
-            startPosition = serviceIndices[index];
-            nextPosition = serviceIndices[count];
-            bigNumerator = bigNumerator.multiply(new BigInteger(Long.toString(-1 * nextPosition)));
-            bigNumerator = bigNumerator.mod(bigPrime);
-            bigDenom = bigDenom.multiply(new BigInteger(Long.toString(startPosition - nextPosition)));
-            bigDenom = bigDenom.mod(bigPrime);
+            long startPosition = serviceIndices[index];
+            long nextPosition = serviceIndices[count];
+            bigNumerator = bigNumerator.multiply(BigInteger.valueOf(-nextPosition)).mod(bigPrime);
+            bigDenom = bigDenom.multiply(BigInteger.valueOf(startPosition - nextPosition)).mod(bigPrime);
         }
-        bigDenom = bigDenom.modInverse(bigPrime);
-        BigInteger bigLpc;
-        bigLpc = bigNumerator.multiply(bigDenom);
-        bigLpc = bigLpc.mod(bigPrime);
+        return bigNumerator.multiply(bigDenom.modInverse(bigPrime)).mod(bigPrime);
+    }
+
+    /* (a + b) mod m, for a and b in [0, m) and m below 2^62 */
+    static long addMod(long a, long b, long m) {
+        long sum = a + b;
+        return sum >= m ? sum - m : sum;
+    }
 
-        return bigLpc;
+    /* (a * b) mod m, for a and b in [0, m) and m below 2^62 */
+    static long mulMod(long a, long b, long m) {
+        if (a == 0 || b <= Long.MAX_VALUE / a) {
+            return a * b % m;
+        }
+        long result = 0;
+        long addend = a;
+        for (long factor = b; factor != 0; factor >>>= 1) {
+            if ((factor & 1) != 0) {
+                result = addMod(result, addend, m);
+            }
+            addend = addMod(addend, addend, m);
+        }
+        return result;
+    }
+
+    /* a^-1 mod m, for a in (0, m) and m prime, by the extended Euclidean algorithm */
+    static long invMod(long a, long m) {
+        long oldR = a;
+        long r = m;
+        long oldS = 1;
+        long s = 0;
+        while (r != 0) {
+            long quotient = oldR / r;
+            long tmp = r;
+            r = oldR - quotient * r;
+            oldR = tmp;
+            tmp = s;
+            s = oldS - quotient * s;
+            oldS = tmp;
+        }
+        if (oldR != 1) {
+            throw new ArithmeticException("Not invertible: " + a + " mod " + m);
+        }
+        return Math.floorMod(oldS, m);
     }
 
     /* setup service indices */
@@ -124,10 +195,9 @@ public class SfcPotConfigGenerator {
             serviceIndices[i] = (short) ((i + 1) * 2);
         }
         // shuffle indices
-        Random randomNumber = new Random();
-        for (int i = 0; i < noOfServices; i++) {
-            int index = randomNumber.nextInt(noOfServices);
-            Short temp = serviceIndices[i];
+        for (int i = noOfServices - 1; i > 0; i--) {
+            int index = RANDOM.nextInt(i + 1);
+            short temp = serviceIndices[i];
             serviceIndices[i] = serviceIndices[index];
             serviceIndices[index] = temp;
         }
@@ -163,6 +233,11 @@ public class SfcPotConfigGenerator {
         setupPreEvalPoly2();
     }
 
+    /* values computed modulo a prime above 2^63 are unsigned */
+    private static BigInteger toBigInteger(long value) {
+        return value >= 0 ? BigInteger.valueOf(value) : new BigInteger(Long.toUnsignedString(value));
+    }
+
     /* method to make the first bit 0 of the number to get a positive number */
     private long absLong(long number) {
         return number << 1 >>> 1;
@@ -221,7 +296,7 @@ public class SfcPotConfigGenerator {
     }
 
     public BigInteger getPublicPoly(int index) {
-        return preEvalPoly2[index];
+        return toBigInteger(preEvalPoly2[index]);
     }
 
     public void setNumLimit(final long numLimit) {
@@ -231,7 +306,9 @@ public class SfcPotConfigGenerator {
 
     public BigInteger[] getLpcs() {
         BigInteger[] res = new BigInteger[lpcs.length];
-        System.arraycopy(lpcs, 0, res, 0, lpcs.length);
+        for (int i = 0; i < lpcs.length; i++) {
+            res[i] = toBigInteger(lpcs[i]);
+        }
         return res;
     }
 
@@ -240,6 +317,6 @@ public class SfcPotConfigGenerator {
     }
 
     public BigInteger getLpc(int index) {
-        return lpcs[index];
+        return toBigInteger(lpcs[index]);
     }
 }
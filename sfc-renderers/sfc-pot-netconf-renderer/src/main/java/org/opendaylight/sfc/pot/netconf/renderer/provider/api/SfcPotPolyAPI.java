@@ -23,9 +23,7 @@ import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.PolyParameterBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.PolyParameterKey;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.Coeffs;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.CoeffsBuilder;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.Lpcs;
-import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.LpcsBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +43,7 @@ public final class SfcPotPolyAPI {
     private Long ioamPotNumProfiles;
 
     private final SfcPotPolyClassAPI sfcPotPolyClassAPI;
+    private final SfcPotProfileGenerator profileGenerator;
 
     private List<SfcPotPolyClass> polyClassList;
 
@@ -52,6 +51,7 @@ public final class SfcPotPolyAPI {
 
     private SfcPotPolyAPI() {
         sfcPotPolyClassAPI = new SfcPotPolyClassAPI();
+        profileGenerator = new SfcPotProfileGenerator();
     }
 
     public static SfcPotPolyAPI getInstance() {
@@ -71,22 +71,6 @@ public final class SfcPotPolyAPI {
      */
     public boolean init(String rspName, int sfSize, final Class<? extends TimeResolution> refreshPeriodTimeUnits,
             Long refreshPeriodValue, BitMaskOptions ioamPotProfileBitMask, Long ioamPotNumProfiles) {
-        long prime;
-        long secret;
-        List<Coeffs> coeffs = new ArrayList<>();
-        List<Long> shares = new ArrayList<>();
-        List<Lpcs> lpcs = new ArrayList<>();
-
-        /*
-         * Lookup polylist for this rsp and if not present, create one.
-         */
-        if (polyClassList == null) {
-            polyClassList = sfcPotPolyClassAPI.getPolyClassList(rspName);
-            if (polyClassList == null) {
-                polyClassList = new ArrayList<>();
-            }
-        }
-
         this.refreshPeriodTimeUnits = refreshPeriodTimeUnits;
         this.refreshPeriodValue = refreshPeriodValue;
         this.ioamPotProfileBitMask = ioamPotProfileBitMask;
@@ -95,29 +79,16 @@ public final class SfcPotPolyAPI {
         sfcPotPolyClassAPI.setNumProfiles(ioamPotNumProfiles);
 
         /* Also set the SB profiles information appropriately. */
-        SfcPotConfigGenerator configGenerator = new SfcPotConfigGenerator(sfSize);
-        configGenerator.generateScvConfig();
-
+        polyClassList = new ArrayList<>();
         for (long j = 0; j < ioamPotNumProfiles; j++) {
-            prime = configGenerator.getPrime();
-            secret = configGenerator.getSecret();
-            for (int i = 1; i < sfSize; i++) {
-                coeffs.add(new CoeffsBuilder().setCoeff(configGenerator.getCoeff(i)).build());
-                lpcs.add(new LpcsBuilder().setLpc(configGenerator.getLpc(i).longValue()).build());
-            }
-            for (int i = 0; i < sfSize; i++) {
-                shares.add(configGenerator.getSecretShare(i));
-            }
-            polyClassList.add(new SfcPotPolyClass(prime, secret, coeffs, shares, lpcs, sfSize));
-
-            /* Re-Initialize containers.... */
-            coeffs = new ArrayList<>();
-            shares = new ArrayList<>();
-            lpcs = new ArrayList<>();
+            polyClassList.add(SfcPotProfileGenerator.generateProfile(sfSize));
         }
 
         /* add/update it in a separate memory store */
         sfcPotPolyClassAPI.putPolyClassList(rspName, polyClassList);
+
+        /* The profile used on the first renew is generated in the background */
+        profileGenerator.prepareNextProfile(rspName, sfSize);
         return true;
     }
 
@@ -127,27 +98,12 @@ public final class SfcPotPolyAPI {
      * then make the nodes use the updated configuration.
      */
     public int initRenew(String rspName, int sfSize, int currActiveIndex) {
-        List<Coeffs> coeffs = new ArrayList<>();
-        List<Long> shares = new ArrayList<>();
-        List<Lpcs> lpcs = new ArrayList<>();
-        List<SfcPotPolyClass> polyClassListCopy = new ArrayList<>();
-
-        if (polyClassList == null) {
-            polyClassList = sfcPotPolyClassAPI.getPolyClassList(rspName);
-            if (polyClassList == null) {
-                LOG.warn("iOAM:PoT:SB:initRenew:Error in getting parameters for renew:RSP:{}", rspName);
-                return -1;
-            }
-        }
-
-        SfcPotConfigGenerator configGenerator = new SfcPotConfigGenerator(sfSize);
-        configGenerator.generateScvConfig();
-
-        boolean ret = polyClassListCopy.addAll(0, polyClassList);
-        if (!ret) {
-            LOG.warn("iOAM:PoT:SB:initRenew:Internal error...");
+        List<SfcPotPolyClass> currPolyClassList = sfcPotPolyClassAPI.getPolyClassList(rspName);
+        if (currPolyClassList == null) {
+            LOG.warn("iOAM:PoT:SB:initRenew:Error in getting parameters for renew:RSP:{}", rspName);
             return -1;
         }
+        List<SfcPotPolyClass> polyClassListCopy = new ArrayList<>(currPolyClassList);
 
         /*
          * Get the index that needs the config renew. Odd if current is even
@@ -155,35 +111,30 @@ public final class SfcPotPolyAPI {
          */
         int newActiveIndex = getNewActiveIndex(currActiveIndex);
 
-        /* Generate the cfg at the renew index */
-        long prime = configGenerator.getPrime();
-        long secret = configGenerator.getSecret();
-        for (int i = 1; i < sfSize; i++) {
-            coeffs.add(new CoeffsBuilder().setCoeff(configGenerator.getCoeff(i)).build());
-            lpcs.add(new LpcsBuilder().setLpc(configGenerator.getLpc(i).longValue()).build());
-        }
-        for (int i = 0; i < sfSize; i++) {
-            shares.add(configGenerator.getSecretShare(i));
-        }
-
-        /* set: overwrites the existing element */
+        /* set: overwrites the existing element with the cfg generated in advance */
         try {
-            polyClassListCopy.set(newActiveIndex, new SfcPotPolyClass(prime, secret, coeffs, shares, lpcs, sfSize));
+            polyClassListCopy.set(newActiveIndex, profileGenerator.takeNextProfile(rspName, sfSize));
         } catch (IndexOutOfBoundsException err) {
             LOG.warn("iOAM:PoT:SB:Index out of bounds: {} ", newActiveIndex, err);
         }
 
         /* add/update it in a memory store */
         sfcPotPolyClassAPI.putPolyClassList(rspName, polyClassListCopy);
-
-        /* re-fetch */
-        polyClassList = sfcPotPolyClassAPI.getPolyClassList(rspName);
+        polyClassList = polyClassListCopy;
 
         LOG.debug("iOAM:PoT:SB:initRenew:Configuration updated at {}...", newActiveIndex);
 
         return newActiveIndex;
     }
 
+    /*
+     * This function is used to clean up the configuration of a deleted RSP.
+     */
+    public void deleteRsp(String rspName) {
+        profileGenerator.deleteRsp(rspName);
+        sfcPotPolyClassAPI.deleteRsp(rspName);
+    }
+
     public PolySecrets getIoamPotHopParameters(int posIndex) {
         List<Long> shares;
         long secret;
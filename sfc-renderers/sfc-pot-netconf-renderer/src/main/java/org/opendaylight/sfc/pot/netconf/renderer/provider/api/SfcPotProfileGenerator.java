@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.pot.netconf.renderer.provider.api;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.Coeffs;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.CoeffsBuilder;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.Lpcs;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.ioam.sb.pot.params.rev161205.poly.parameters.poly.parameter.LpcsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class generates the PoT profiles of the RSPs.
+ *
+ * <p>
+ * Once a profile has been taken for an RSP, the profile to use on its next
+ * refresh is generated in the background, on a small bounded pool of threads,
+ * so that the refresh timers only have to pick up ready profiles. When the
+ * next profile is not ready, or could not be queued, it is generated on the
+ * calling thread instead.
+ */
+public final class SfcPotProfileGenerator {
+    private static final Logger LOG = LoggerFactory.getLogger(SfcPotProfileGenerator.class);
+
+    private static final int MAX_GENERATOR_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+    private static final int MAX_QUEUED_PROFILES = 4096;
+
+    private final ConcurrentMap<String, Future<SfcPotPolyClass>> nextProfiles = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+
+    public SfcPotProfileGenerator() {
+        executor = new ThreadPoolExecutor(MAX_GENERATOR_THREADS, MAX_GENERATOR_THREADS, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_PROFILES),
+                new ThreadFactoryBuilder().setNameFormat("sfc-pot-profile-generator-%d").setDaemon(true)
+                        .setPriority(Thread.MIN_PRIORITY).build());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Generates a profile for a service chain.
+     *
+     * @param sfSize
+     *            the number of service functions in the chain
+     * @return the profile
+     */
+    public static SfcPotPolyClass generateProfile(int sfSize) {
+        SfcPotConfigGenerator configGenerator = new SfcPotConfigGenerator(sfSize);
+        configGenerator.generateScvConfig();
+
+        List<Coeffs> coeffs = new ArrayList<>(sfSize);
+        List<Long> shares = new ArrayList<>(sfSize);
+        List<Lpcs> lpcs = new ArrayList<>(sfSize);
+        for (int i = 1; i < sfSize; i++) {
+            coeffs.add(new CoeffsBuilder().setCoeff(configGenerator.getCoeff(i)).build());
+            lpcs.add(new LpcsBuilder().setLpc(configGenerator.getLpc(i).longValue()).build());
+        }
+        for (int i = 0; i < sfSize; i++) {
+            shares.add(configGenerator.getSecretShare(i));
+        }
+        return new SfcPotPolyClass(configGenerator.getPrime(), configGenerator.getSecret(), coeffs, shares, lpcs,
+                sfSize);
+    }
+
+    /**
+     * Takes the next profile of an RSP, generated in the background if ready,
+     * and starts generating the profile following it.
+     *
+     * @param rspName
+     *            the RSP name
+     * @param sfSize
+     *            the number of service functions in the chain of the RSP
+     * @return the profile
+     */
+    public SfcPotPolyClass takeNextProfile(String rspName, int sfSize) {
+        SfcPotPolyClass profile = null;
+        Future<SfcPotPolyClass> nextProfile = nextProfiles.remove(rspName);
+        if (nextProfile != null) {
+            if (nextProfile.isDone()) {
+                profile = getProfile(rspName, nextProfile);
+            } else {
+                nextProfile.cancel(false);
+            }
+        }
+        if (profile == null || profile.getSfcSize() != sfSize) {
+            LOG.debug("iOAM:PoT:SB:No profile generated in advance for RSP:{}", rspName);
+            profile = generateProfile(sfSize);
+        }
+        prepareNextProfile(rspName, sfSize);
+        return profile;
+    }
+
+    /**
+     * Forgets the profile generated in advance for an RSP, if any.
+     *
+     * @param rspName
+     *            the RSP name
+     */
+    public void deleteRsp(String rspName) {
+        Future<SfcPotPolyClass> nextProfile = nextProfiles.remove(rspName);
+        if (nextProfile != null) {
+            nextProfile.cancel(false);
+        }
+    }
+
+    /**
+     * Starts generating the next profile of an RSP in the background.
+     *
+     * @param rspName
+     *            the RSP name
+     * @param sfSize
+     *            the number of service functions in the chain of the RSP
+     */
+    public void prepareNextProfile(String rspName, int sfSize) {
+        FutureTask<SfcPotPolyClass> nextProfile = new FutureTask<>(() -> generateProfile(sfSize));
+        try {
+            executor.execute(nextProfile);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("iOAM:PoT:SB:Profile generation in advance rejected for RSP:{}", rspName);
+            return;
+        }
+        Future<SfcPotPolyClass> previousProfile = nextProfiles.put(rspName, nextProfile);
+        if (previousProfile != null) {
+            previousProfile.cancel(false);
+        }
+    }
+
+    private static SfcPotPolyClass getProfile(String rspName, Future<SfcPotPolyClass> nextProfile) {
+        try {
+            return nextProfile.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (CancellationException e) {
+            LOG.debug("iOAM:PoT:SB:Profile generation cancelled for RSP:{}", rspName);
+        } catch (ExecutionException e) {
+            LOG.warn("iOAM:PoT:SB:Profile generation failed for RSP:{}", rspName, e.getCause());
+        }
+        return null;
+    }
+}
@@ -9,6 +9,7 @@
 package org.opendaylight.sfc.pot.netconf.renderer.utils;
 
 import com.google.common.util.concurrent.ListenableFuture;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
@@ -39,6 +40,17 @@ public final class SfcPotNetconfReaderWriterAPI {
         }
     }
 
+    /*
+     * Puts several objects in a single transaction, i.e. a single edit for a
+     * Netconf node, without waiting for the transaction to complete.
+     */
+    public static <T extends DataObject> ListenableFuture<Void> submitPuts(DataBroker broker,
+            LogicalDatastoreType logicalDatastoreType, Map<InstanceIdentifier<T>, T> dataObjects) {
+        WriteTransaction tx = broker.newWriteOnlyTransaction();
+        dataObjects.forEach((iid, dataObject) -> tx.put(logicalDatastoreType, iid, dataObject));
+        return tx.submit();
+    }
+
     public static <T extends DataObject> boolean delete(DataBroker broker, LogicalDatastoreType logicalDatastoreType,
             InstanceIdentifier<T> iid) {
         try {
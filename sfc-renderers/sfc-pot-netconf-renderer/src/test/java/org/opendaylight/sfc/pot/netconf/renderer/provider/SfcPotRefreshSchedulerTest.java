@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.pot.netconf.renderer.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.RspName;
+
+/**
+ * The timer is a mock whose scheduled tasks are run by the test, and the
+ * refreshes run on the calling thread, so that no test depends on timing.
+ */
+public class SfcPotRefreshSchedulerTest {
+
+    private final List<List<RspName>> refreshBatches = new ArrayList<>();
+    private final List<Runnable> timerTasks = new ArrayList<>();
+    private final List<Long> timerDelays = new ArrayList<>();
+    private final List<ScheduledFuture<?>> timerFutures = new ArrayList<>();
+    private ScheduledExecutorService timer;
+    private SfcPotRefreshScheduler refreshScheduler;
+
+    @Before
+    public void setup() {
+        timer = mock(ScheduledExecutorService.class);
+        when(timer.schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS))).thenAnswer(invocation -> {
+            timerTasks.add((Runnable) invocation.getArguments()[0]);
+            timerDelays.add((Long) invocation.getArguments()[1]);
+            ScheduledFuture<?> timerFuture = mock(ScheduledFuture.class);
+            timerFutures.add(timerFuture);
+            return timerFuture;
+        });
+    }
+
+    @After
+    public void teardown() {
+        refreshScheduler.close();
+    }
+
+    private void newRefreshScheduler(SfcPotRefreshScheduler.Refresher refresher) {
+        refreshScheduler = new SfcPotRefreshScheduler(refresher, timer, MoreExecutors.newDirectExecutorService());
+    }
+
+    // runs the timer tasks scheduled so far, returning how many were run
+    private int runTimerTasks() {
+        List<Runnable> dueTasks = new ArrayList<>(timerTasks);
+        timerTasks.clear();
+        dueTasks.forEach(Runnable::run);
+        return dueTasks.size();
+    }
+
+    @Test
+    public void dueRspsAreRefreshedInBatches() {
+        final int numRsps = 10;
+        newRefreshScheduler(rspNames -> {
+            refreshBatches.add(new ArrayList<>(rspNames));
+            return Collections.emptyList();
+        });
+
+        List<RspName> rspNames = new ArrayList<>();
+        for (int i = 0; i < numRsps; i++) {
+            rspNames.add(new RspName("rsp-" + i));
+            refreshScheduler.schedule(rspNames.get(i), 100);
+        }
+        // each RSP is due within the last tenth of its period
+        timerDelays.forEach(delay -> assertTrue(delay > 90 && delay <= 100));
+
+        // the RSPs become due, a single batch is scheduled and then run
+        assertEquals(numRsps, runTimerTasks());
+        assertTrue(refreshBatches.isEmpty());
+        assertEquals(1, runTimerTasks());
+
+        assertEquals(Collections.singletonList(rspNames), refreshBatches);
+        // not refreshed, so not scheduled again
+        assertTrue(timerTasks.isEmpty());
+    }
+
+    @Test
+    public void refreshedRspsAreScheduledAgain() {
+        newRefreshScheduler(rspNames -> {
+            refreshBatches.add(new ArrayList<>(rspNames));
+            return rspNames;
+        });
+        RspName rspName = new RspName("rsp");
+
+        refreshScheduler.schedule(rspName, 20);
+        for (int i = 0; i < 3; i++) {
+            runTimerTasks();
+            runTimerTasks();
+        }
+        assertEquals(3, refreshBatches.size());
+        assertEquals(1, timerTasks.size());
+
+        refreshScheduler.cancel(rspName);
+        verify(timerFutures.get(timerFutures.size() - 1)).cancel(false);
+    }
+
+    @Test
+    public void cancelledRspsAreNotRefreshed() {
+        newRefreshScheduler(rspNames -> {
+            refreshBatches.add(new ArrayList<>(rspNames));
+            return rspNames;
+        });
+        RspName rspName = new RspName("rsp");
+
+        refreshScheduler.schedule(rspName, 100);
+        refreshScheduler.cancel(rspName);
+        verify(timerFutures.get(0)).cancel(false);
+        // a cancelled task is not run by the timer
+        timerTasks.clear();
+
+        // the RSP became due before being cancelled
+        refreshScheduler.schedule(rspName, 100);
+        runTimerTasks();
+        refreshScheduler.cancel(rspName);
+        runTimerTasks();
+        assertTrue(refreshBatches.isEmpty());
+    }
+}
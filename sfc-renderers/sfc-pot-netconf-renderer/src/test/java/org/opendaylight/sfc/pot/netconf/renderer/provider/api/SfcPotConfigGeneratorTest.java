@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.pot.netconf.renderer.provider.api;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.Test;
+
+public class SfcPotConfigGeneratorTest {
+
+    private static final int SF_SIZE = 5;
+
+    private static BigInteger unsigned(long value) {
+        return new BigInteger(Long.toUnsignedString(value));
+    }
+
+    /* The secret is the sum of the shares weighted by their Lagrange coefficients */
+    private static void verifySecretReconstruction(SfcPotConfigGenerator configGenerator) {
+        BigInteger prime = unsigned(configGenerator.getPrime());
+        BigInteger[] lpcs = configGenerator.getLpcs();
+        BigInteger secret = BigInteger.ZERO;
+        for (int i = 0; i < SF_SIZE; i++) {
+            secret = secret.add(unsigned(configGenerator.getSecretShare(i)).multiply(lpcs[i]));
+        }
+        assertEquals("Must be equal", unsigned(configGenerator.getSecret()), secret.mod(prime));
+    }
+
+    @Test
+    public void testSecretReconstruction() {
+        SfcPotConfigGenerator configGenerator = new SfcPotConfigGenerator(SF_SIZE);
+        for (int i = 0; i < 10; i++) {
+            configGenerator.generateScvConfig();
+            verifySecretReconstruction(configGenerator);
+        }
+    }
+
+    @Test
+    public void testSecretReconstructionLargePrime() {
+        SfcPotConfigGenerator configGenerator = new SfcPotConfigGenerator(SF_SIZE);
+        configGenerator.setNoOfBits((short) 64);
+        for (int i = 0; i < 10; i++) {
+            configGenerator.generateScvConfig();
+            verifySecretReconstruction(configGenerator);
+        }
+    }
+
+    @Test
+    public void testModularArithmetic() {
+        final long prime = BigInteger.ONE.shiftLeft(61).nextProbablePrime().longValue();
+        final BigInteger bigPrime = BigInteger.valueOf(prime);
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            long first = Math.floorMod(random.nextLong(), prime);
+            long second = Math.floorMod(random.nextLong(), prime);
+            BigInteger bigFirst = BigInteger.valueOf(first);
+            BigInteger bigSecond = BigInteger.valueOf(second);
+
+            assertEquals("Must be equal", bigFirst.add(bigSecond).mod(bigPrime).longValue(),
+                    SfcPotConfigGenerator.addMod(first, second, prime));
+            assertEquals("Must be equal", bigFirst.multiply(bigSecond).mod(bigPrime).longValue(),
+                    SfcPotConfigGenerator.mulMod(first, second, prime));
+            if (first != 0) {
+                assertEquals("Must be equal", bigFirst.modInverse(bigPrime).longValue(),
+                        SfcPotConfigGenerator.invMod(first, prime));
+            }
+        }
+    }
+}
@@ -24,6 +24,7 @@ public class SfcVppRenderer {
     private final RenderedPathListener rspListener;
     private final ServiceForwarderListener sffListener;
     private final VppNodeListener vppNodeListener;
+    private final VppRspProcessor rspProcessor;
 
     public SfcVppRenderer(DataBroker dataBroker, BindingAwareBroker bindingAwareBroker) {
         VppNodeManager vppNodeManager = new VppNodeManager(bindingAwareBroker);
@@ -32,7 +33,7 @@ public class SfcVppRenderer {
         VppSffManager sffManager = new VppSffManager(vppNodeManager);
         sffListener = new ServiceForwarderListener(dataBroker, sffManager);
 
-        VppRspProcessor rspProcessor = new VppRspProcessor(vppNodeManager);
+        rspProcessor = new VppRspProcessor(vppNodeManager);
         rspListener = new RenderedPathListener(dataBroker, rspProcessor);
     }
 
@@ -40,5 +41,6 @@ public class SfcVppRenderer {
         vppNodeListener.close();
         rspListener.close();
         sffListener.close();
+        rspProcessor.close();
     }
 }
@@ -13,9 +13,9 @@ import com.google.common.base.Preconditions;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
@@ -26,6 +26,8 @@ import org.opendaylight.controller.sal.binding.api.BindingAwareBroker.ProviderCo
 import org.opendaylight.controller.sal.binding.api.BindingAwareBroker;
 import org.opendaylight.controller.sal.binding.api.BindingAwareProvider;
 import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
+import org.opendaylight.sfc.util.vpp.SfcVppUtils;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Host;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
@@ -61,9 +63,9 @@ public class VppNodeManager implements BindingAwareProvider {
         NetworkTopology.class).child(Topology.class, new TopologyKey(new TopologyId(TopologyNetconf.QNAME
         .getLocalName()))).build();
 
-    // Data
-    private final Map<NodeId, Node> connectedNodes = new HashMap<>();
-    private final Map<NodeId, DataBroker> activeMountPoints = new HashMap<>();
+    // Data, read by the renderer threads while updated by the node listener
+    private final Map<NodeId, Node> connectedNodes = new ConcurrentHashMap<>();
+    private final Map<NodeId, DataBroker> activeMountPoints = new ConcurrentHashMap<>();
 
     public VppNodeManager(BindingAwareBroker bindingAwareBroker) {
         // Register provider
@@ -96,9 +98,29 @@ public class VppNodeManager implements BindingAwareProvider {
             }
         } else {
             LOG.debug("Node {} isn't connected", node.getNodeId().getValue());
+            // the mount point of the node is gone until it connects again
+            connectedNodes.remove(netconfNodeId);
+            activeMountPoints.remove(netconfNodeId);
         }
     }
 
+    /**
+     * Gets the mount point data broker of the netconf node of an SFF, from
+     * the mount points of the connected nodes or, if the node has not been
+     * notified yet, from the mount point service.
+     *
+     * @param sffName
+     *            the SFF name, which is the netconf node id
+     * @return the data broker, or null if the node is not mounted
+     */
+    public DataBroker getMountPoint(SffName sffName) {
+        DataBroker dataBroker = activeMountPoints.get(new NodeId(sffName.getValue()));
+        if (dataBroker == null) {
+            dataBroker = SfcVppUtils.getSffMountpoint(mountService, sffName);
+        }
+        return dataBroker;
+    }
+
     public void removeNode(Node node) {
         NetconfNode netconfNode = node.getAugmentation(NetconfNode.class);
         Preconditions.checkNotNull(netconfNode, "Netconf is null");
@@ -8,11 +8,16 @@
 package org.opendaylight.sfc.sfc_vpp_renderer.renderer;
 
 import com.google.common.base.Preconditions;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
-import org.opendaylight.sfc.provider.api.SfcProviderServiceFunctionAPI;
+import org.opendaylight.sfc.provider.api.SfcConfigurationCache;
+import org.opendaylight.sfc.util.vpp.SfcVppNodeExecutor;
 import org.opendaylight.sfc.util.vpp.SfcVppUtils;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SfName;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
@@ -30,7 +35,8 @@ public class VppRspProcessor {
     private final VppNodeManager nodeManager;
     private static final String SFC_BD_NAME = "SFCVPP";
     private static final String DUMMY_BD_NAME = "SFCDUMMY";
-    private final Map<String, String> bridgeDomainCreated = new HashMap<>();
+    private final Map<String, String> bridgeDomainCreated = new ConcurrentHashMap<>();
+    private final SfcVppNodeExecutor nodeExecutor = new SfcVppNodeExecutor("sfc-vpp-rsp");
 
     public VppRspProcessor(VppNodeManager nodeManager) {
         this.nodeManager = Preconditions.checkNotNull(nodeManager);
@@ -48,7 +54,9 @@ public class VppRspProcessor {
         IpAddress localIp = null;
         IpAddress remoteIp;
         IpAddress preLocalIp;
-        boolean ret;
+        // the configuration steps of each VPP node, rendered concurrently
+        Map<String, List<Runnable>> nodeConfigurations = new LinkedHashMap<>();
+        Set<String> bridgeDomainNodes = new HashSet<>();
 
         if (renderedServicePath.getRenderedServicePathHop() == null
             || renderedServicePath.getRenderedServicePathHop().isEmpty()) {
@@ -62,7 +70,7 @@ public class VppRspProcessor {
             preLocalIp = localIp;
             RenderedServicePathHop hop = renderedServicePathHop;
             currentSffName = hop.getServiceFunctionForwarder();
-            currentMountpoint = SfcVppUtils.getSffMountpoint(this.nodeManager.getMountPointService(), currentSffName);
+            currentMountpoint = nodeManager.getMountPoint(currentSffName);
             if (currentMountpoint == null) {
                 LOG.error("Resolving of RSP {} failed in updateRsp, mountpoint for SFF {} is null",
                           renderedServicePath.getName().getValue(), currentSffName.getValue());
@@ -71,7 +79,7 @@ public class VppRspProcessor {
 
             sfName = hop.getServiceFunctionName();
             final Short serviceIndex = hop.getServiceIndex();
-            ServiceFunction serviceFunction = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
+            ServiceFunction serviceFunction = SfcConfigurationCache.getServiceFunctions().get(sfName);
             if (serviceFunction == null) {
                 LOG.error("Service function {} not present in datastore", sfName.getValue());
                 return;
@@ -85,43 +93,43 @@ public class VppRspProcessor {
             localIp = ipList.get(0);
             remoteIp = ipList.get(1);
 
+            final DataBroker mountPoint = currentMountpoint;
+            final SffName sffName = currentSffName;
+            final IpAddress sffIp = localIp;
+            final IpAddress sfIp = remoteIp;
+
             /* Create BridgeDomain */
-            if (!bridgeDomainCreated.containsKey(currentSffName.getValue())) {
-                SfcVppUtils.addDummyBridgeDomain(currentMountpoint, DUMMY_BD_NAME, currentSffName.getValue());
-                SfcVppUtils.addDummyNshEntry(currentMountpoint, 0L, (short) 1, currentSffName.getValue());
-                SfcVppUtils.addDummyNshMap(currentMountpoint, 0L, (short) 1, 0L, (short) 1, "local0",
-                                           currentSffName.getValue());
-                SfcVppUtils.addBridgeDomain(currentMountpoint, SFC_BD_NAME, currentSffName.getValue());
-                bridgeDomainCreated.put(currentSffName.getValue(), SFC_BD_NAME);
+            if (!bridgeDomainCreated.containsKey(sffName.getValue()) && bridgeDomainNodes.add(sffName.getValue())) {
+                addConfiguration(nodeConfigurations, sffName, () -> {
+                    SfcVppUtils.addDummyBridgeDomain(mountPoint, DUMMY_BD_NAME, sffName.getValue());
+                    SfcVppUtils.addDummyNshEntry(mountPoint, 0L, (short) 1, sffName.getValue());
+                    SfcVppUtils.addDummyNshMap(mountPoint, 0L, (short) 1, 0L, (short) 1, "local0",
+                                               sffName.getValue());
+                    SfcVppUtils.addBridgeDomain(mountPoint, SFC_BD_NAME, sffName.getValue());
+                });
             }
 
-            ret = SfcVppUtils
-                    .configureVxlanGpeNsh(currentMountpoint, currentSffName, SFC_BD_NAME, localIp, remoteIp, pathId,
-                                          serviceIndex);
-            if (!ret) {
-                LOG.error("failed to configure VxLAN-gpe and NSH for RSP {} in SFF {} for SF hop",
-                          renderedServicePath.getName().getValue(), currentSffName.getValue());
-                return;
-            }
+            addConfiguration(nodeConfigurations, sffName, () -> SfcVppUtils
+                    .configureVxlanGpeNsh(mountPoint, sffName, SFC_BD_NAME, sffIp, sfIp, pathId, serviceIndex));
 
             //previous SFF <-> current SFF
             if (previousSffName != null && !previousSffName.equals(currentSffName)) {
-                ret = SfcVppUtils
-                        .configureVxlanGpeNsh(previousMountPoint, previousSffName, SFC_BD_NAME, preLocalIp, localIp,
-                                              pathId, serviceIndex);
-                if (!ret) {
-                    LOG.error("failed to configure VxLAN-gpe and NSH for RSP {} in SFF {} for SFF hop",
-                              renderedServicePath.getName().getValue(), previousSffName.getValue());
-                    return;
-                }
+                final DataBroker preMountPoint = previousMountPoint;
+                final SffName preSffName = previousSffName;
+                final IpAddress preSffIp = preLocalIp;
+                addConfiguration(nodeConfigurations, preSffName, () -> SfcVppUtils
+                        .configureVxlanGpeNsh(preMountPoint, preSffName, SFC_BD_NAME, preSffIp, sffIp, pathId,
+                                              serviceIndex));
             }
         }
 
+        bridgeDomainNodes.forEach(vppNode -> bridgeDomainCreated.put(vppNode, SFC_BD_NAME));
+        nodeExecutor.render("RSP " + renderedServicePath.getName().getValue(), nodeConfigurations);
+
         /* vpp classifier will configure VxlanGpeNsh for last hop to classifier */
     }
 
     public void deleteRsp(RenderedServicePath renderedServicePath) {
-        boolean ret;
         Preconditions.checkNotNull(renderedServicePath);
         Long pathId = renderedServicePath.getPathId();
         DataBroker previousMountPoint;
@@ -133,6 +141,8 @@ public class VppRspProcessor {
         IpAddress localIp = null;
         IpAddress remoteIp;
         IpAddress preLocalIp;
+        // the configuration steps of each VPP node, rendered concurrently
+        Map<String, List<Runnable>> nodeConfigurations = new LinkedHashMap<>();
 
         if (renderedServicePath.getRenderedServicePathHop() == null
             || renderedServicePath.getRenderedServicePathHop().isEmpty()) {
@@ -146,7 +156,7 @@ public class VppRspProcessor {
             preLocalIp = localIp;
             RenderedServicePathHop hop = renderedServicePathHop;
             currentSffName = hop.getServiceFunctionForwarder();
-            currentMountpoint = SfcVppUtils.getSffMountpoint(this.nodeManager.getMountPointService(), currentSffName);
+            currentMountpoint = nodeManager.getMountPoint(currentSffName);
             if (currentMountpoint == null) {
                 LOG.error("Resolving of RSP {} failed in deleteRsp, mountpoint for SFF {} is null",
                           renderedServicePath.getName().getValue(), currentSffName.getValue());
@@ -155,7 +165,7 @@ public class VppRspProcessor {
 
             sfName = hop.getServiceFunctionName();
             final Short serviceIndex = hop.getServiceIndex();
-            ServiceFunction serviceFunction = SfcProviderServiceFunctionAPI.readServiceFunction(sfName);
+            ServiceFunction serviceFunction = SfcConfigurationCache.getServiceFunctions().get(sfName);
             if (serviceFunction == null) {
                 LOG.error("Service function {} not present in datastore", sfName.getValue());
                 return;
@@ -169,26 +179,34 @@ public class VppRspProcessor {
             localIp = ipList.get(0);
             remoteIp = ipList.get(1);
 
-            ret = SfcVppUtils
-                    .removeVxlanGpeNsh(currentMountpoint, currentSffName, localIp, remoteIp, pathId, serviceIndex);
-            if (!ret) {
-                LOG.error("failed to remove VxLAN-gpe and NSH for RSP {} in SFF {}",
-                          renderedServicePath.getName().getValue(), currentSffName.getValue());
-                return;
-            }
+            final DataBroker mountPoint = currentMountpoint;
+            final SffName sffName = currentSffName;
+            final IpAddress sffIp = localIp;
+            final IpAddress sfIp = remoteIp;
+
+            addConfiguration(nodeConfigurations, sffName, () -> SfcVppUtils
+                    .removeVxlanGpeNsh(mountPoint, sffName, sffIp, sfIp, pathId, serviceIndex));
 
             //previous SFF <-> current SFF
             if (previousSffName != null && !previousSffName.equals(currentSffName)) {
-                ret = SfcVppUtils.removeVxlanGpeNsh(previousMountPoint, previousSffName, preLocalIp, localIp, pathId,
-                                                    serviceIndex);
-                if (!ret) {
-                    LOG.error("failed to remove VxLAN-gpe and NSH for RSP {} in SFF {}",
-                              renderedServicePath.getName().getValue(), previousSffName.getValue());
-                    return;
-                }
+                final DataBroker preMountPoint = previousMountPoint;
+                final SffName preSffName = previousSffName;
+                final IpAddress preSffIp = preLocalIp;
+                addConfiguration(nodeConfigurations, preSffName, () -> SfcVppUtils
+                        .removeVxlanGpeNsh(preMountPoint, preSffName, preSffIp, sffIp, pathId, serviceIndex));
             }
         }
+
+        nodeExecutor.render("RSP " + renderedServicePath.getName().getValue() + " removal", nodeConfigurations);
         /* vpp classifier will remove VxlanGpeNsh for last hop to classifier */
     }
 
+    public void close() {
+        nodeExecutor.close();
+    }
+
+    private static void addConfiguration(Map<String, List<Runnable>> nodeConfigurations, SffName sffName,
+                                         Runnable configuration) {
+        nodeConfigurations.computeIfAbsent(sffName.getValue(), vppNode -> new ArrayList<>()).add(configuration);
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.sfc_vpp_renderer.renderer;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.MountPoint;
+import org.opendaylight.controller.md.sal.binding.api.MountPointService;
+import org.opendaylight.controller.sal.binding.api.BindingAwareBroker;
+import org.opendaylight.controller.sal.binding.api.BindingAwareBroker.ProviderContext;
+import org.opendaylight.controller.sal.binding.api.BindingAwareProvider;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNodeConnectionStatus.ConnectionStatus;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class VppNodeManagerTest {
+
+    private static final String VPP_NODE = "vpp1";
+
+    private MountPointService mountService;
+    private DataBroker mountPointDataBroker;
+    private VppNodeManager vppNodeManager;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        mountPointDataBroker = mock(DataBroker.class);
+        MountPoint mountPoint = mock(MountPoint.class);
+        when(mountPoint.getService(DataBroker.class)).thenReturn(Optional.of(mountPointDataBroker));
+        mountService = mock(MountPointService.class);
+        when(mountService.getMountPoint(any(InstanceIdentifier.class))).thenReturn(Optional.of(mountPoint));
+
+        ProviderContext providerContext = mock(ProviderContext.class);
+        when(providerContext.getSALService(MountPointService.class)).thenReturn(mountService);
+        BindingAwareBroker bindingAwareBroker = mock(BindingAwareBroker.class);
+        when(bindingAwareBroker.registerProvider(any(BindingAwareProvider.class))).thenReturn(providerContext);
+        vppNodeManager = new VppNodeManager(bindingAwareBroker);
+    }
+
+    private static Node buildNode(ConnectionStatus connectionStatus) {
+        NodeId nodeId = new NodeId(VPP_NODE);
+        NetconfNode netconfNode = new NetconfNodeBuilder().setConnectionStatus(connectionStatus).build();
+        return new NodeBuilder().setNodeId(nodeId).setKey(new NodeKey(nodeId))
+                .addAugmentation(NetconfNode.class, netconfNode).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void mountPointOfConnectedNodeIsCached() {
+        vppNodeManager.updateNode(buildNode(ConnectionStatus.Connected));
+        verify(mountService, times(1)).getMountPoint(any(InstanceIdentifier.class));
+
+        assertSame(mountPointDataBroker, vppNodeManager.getMountPoint(new SffName(VPP_NODE)));
+        assertSame(mountPointDataBroker, vppNodeManager.getMountPoint(new SffName(VPP_NODE)));
+        // looked up only once, when the node connected
+        verify(mountService, times(1)).getMountPoint(any(InstanceIdentifier.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void mountPointIsDroppedOnDisconnect() {
+        vppNodeManager.updateNode(buildNode(ConnectionStatus.Connected));
+        vppNodeManager.updateNode(buildNode(ConnectionStatus.Connecting));
+        assertTrue(vppNodeManager.getActiveMountPoints().isEmpty());
+        when(mountService.getMountPoint(any(InstanceIdentifier.class))).thenReturn(Optional.absent());
+
+        // not cached anymore, so looked up again
+        assertNull(vppNodeManager.getMountPoint(new SffName(VPP_NODE)));
+        verify(mountService, times(2)).getMountPoint(any(InstanceIdentifier.class));
+    }
+}
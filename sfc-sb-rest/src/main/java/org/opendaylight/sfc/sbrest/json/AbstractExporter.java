@@ -8,13 +8,22 @@
 
 package org.opendaylight.sfc.sbrest.json;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Iterator;
+import java.util.Map.Entry;
 
 /**
  * Abstract exporter.
  *
  * <p>
+ * All the exporters share a single, pre-configured mapper, which is thread
+ * safe. The JSON is written through a {@link JsonGenerator} straight into the
+ * resulting String, leaving out the fields with a null value.
  *
  * @author Andrej Kincel (andrej.kincel@gmail.com)
  * @version 0.1
@@ -22,10 +31,94 @@ import com.fasterxml.jackson.databind.SerializationFeature;
  */
 public abstract class AbstractExporter {
 
-    protected ObjectMapper mapper;
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(SerializationFeature.WRITE_NULL_MAP_VALUES, false);
+
+    protected final ObjectMapper mapper = MAPPER;
 
     AbstractExporter() {
-        this.mapper = new ObjectMapper();
-        this.mapper.configure(SerializationFeature.WRITE_NULL_MAP_VALUES, false);
+    }
+
+    /**
+     * Writes the content of a JSON field.
+     */
+    @FunctionalInterface
+    protected interface JsonFieldWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    /**
+     * Write a JSON object with a single field.
+     *
+     * @param fieldName
+     *            the name of the field
+     * @param fieldWriter
+     *            writes the value of the field
+     * @return the JSON String
+     * @throws IOException
+     *             if the JSON cannot be written
+     */
+    protected String writeJson(String fieldName, JsonFieldWriter fieldWriter) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeFieldName(fieldName);
+            fieldWriter.write(generator);
+            generator.writeEndObject();
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Write a JSON object with a single field holding a tree, leaving out the
+     * null fields of the tree objects.
+     *
+     * @param fieldName
+     *            the name of the field
+     * @param tree
+     *            the value of the field
+     * @return the JSON String
+     * @throws IOException
+     *             if the JSON cannot be written
+     */
+    protected String writeJson(String fieldName, JsonNode tree) throws IOException {
+        return writeJson(fieldName, generator -> writeNonNullFields(generator, tree));
+    }
+
+    private static void writeNonNullFields(JsonGenerator generator, JsonNode node) throws IOException {
+        if (node.isObject()) {
+            generator.writeStartObject();
+            Iterator<Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Entry<String, JsonNode> field = fields.next();
+                if (!field.getValue().isNull()) {
+                    generator.writeFieldName(field.getKey());
+                    writeNonNullFields(generator, field.getValue());
+                }
+            }
+            generator.writeEndObject();
+        } else if (node.isArray()) {
+            generator.writeStartArray();
+            for (JsonNode element : node) {
+                writeNonNullFields(generator, element);
+            }
+            generator.writeEndArray();
+        } else {
+            generator.writeTree(node);
+        }
+    }
+
+    protected static void writeStringField(JsonGenerator generator, String fieldName, String value)
+            throws IOException {
+        if (value != null) {
+            generator.writeStringField(fieldName, value);
+        }
+    }
+
+    protected static void writeNumberField(JsonGenerator generator, String fieldName, Number value)
+            throws IOException {
+        if (value != null) {
+            generator.writeNumberField(fieldName, value.longValue());
+        }
     }
 }
@@ -7,9 +7,10 @@
  */
 package org.opendaylight.sfc.sbrest.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
 import java.util.List;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Actions1;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.acl.rev151001.Matches1;
@@ -31,7 +32,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Abstract exporter.
+ * Access List exporter. The entries are written as they are read, without
+ * building a JSON tree of the whole Access List.
  *
  * @author Andrej Kincel (andrej.kincel@gmail.com)
  * @version 0.1
@@ -84,40 +86,14 @@ class AclExporter extends AbstractExporter implements Exporter {
         if (dataObject instanceof Acl) {
             Acl acl = (Acl) dataObject;
 
-            ArrayNode aclArray = mapper.createArrayNode();
-
-            ObjectNode aclNode = mapper.createObjectNode();
-            aclNode.put(ACL_NAME, acl.getAclName());
-
-            if (acl.getAccessListEntries() != null) {
-                ObjectNode acessListEntriesNode = mapper.createObjectNode();
-                List<Ace> aceList = acl.getAccessListEntries().getAce();
-
-                if (aceList != null) {
-                    ArrayNode aceArrayNode = mapper.createArrayNode();
-                    for (Ace ace : aceList) {
-                        ObjectNode aceNode = mapper.createObjectNode();
-                        aceNode.put(RULE_NAME, ace.getRuleName());
-                        aceNode.put(MATCHES, this.getMatchesObjectNode(ace.getMatches()));
-                        aceNode.put(ACTIONS, this.getActionsObjectNode(ace.getActions()));
-                        aceNode.put(ACE_OPER_DATA, this.getAceOperDataObjectNode(ace.getAceOperData()));
-
-                        aceArrayNode.add(aceNode);
-                    }
-
-                    acessListEntriesNode.putArray(ACE).addAll(aceArrayNode);
-                }
-
-                aclNode.put(ACCESS_LIST_ENTRIES, acessListEntriesNode);
-            }
-
-            aclArray.add(aclNode);
             try {
-                Object aclObject = mapper.treeToValue(aclArray, Object.class);
-                ret = mapper.writeValueAsString(aclObject);
-                ret = "{\"" + ACL + "\":" + ret + "}";
+                ret = writeJson(ACL, generator -> {
+                    generator.writeStartArray();
+                    writeAcl(generator, acl);
+                    generator.writeEndArray();
+                });
                 LOG.debug("Created Access List JSON: {}", ret);
-            } catch (JsonProcessingException e) {
+            } catch (IOException e) {
                 LOG.error("Error during creation of JSON for Access List {}", acl.getAclName());
             }
         } else {
@@ -149,17 +125,42 @@ class AclExporter extends AbstractExporter implements Exporter {
         return ret;
     }
 
-    private ObjectNode getMatchesObjectNode(Matches matches) {
-        if (matches == null) {
-            return null;
+    private void writeAcl(JsonGenerator generator, Acl acl) throws IOException {
+        generator.writeStartObject();
+        writeStringField(generator, ACL_NAME, acl.getAclName());
+
+        if (acl.getAccessListEntries() != null) {
+            generator.writeObjectFieldStart(ACCESS_LIST_ENTRIES);
+            List<Ace> aceList = acl.getAccessListEntries().getAce();
+
+            if (aceList != null) {
+                generator.writeArrayFieldStart(ACE);
+                for (Ace ace : aceList) {
+                    generator.writeStartObject();
+                    writeStringField(generator, RULE_NAME, ace.getRuleName());
+                    this.writeMatches(generator, ace.getMatches());
+                    this.writeActions(generator, ace.getActions());
+                    this.writeAceOperData(generator, ace.getAceOperData());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            }
+
+            generator.writeEndObject();
         }
 
-        ObjectNode matchesNode = mapper.createObjectNode();
+        generator.writeEndObject();
+    }
 
-        if (matches.getInputInterface() != null) {
-            matchesNode.put(INPUT_INTERFACE, matches.getInputInterface());
+    private void writeMatches(JsonGenerator generator, Matches matches) throws IOException {
+        if (matches == null) {
+            return;
         }
 
+        generator.writeObjectFieldStart(MATCHES);
+
+        writeStringField(generator, INPUT_INTERFACE, matches.getInputInterface());
+
         if (matches.getAceType() != null) {
             String aceType = matches.getAceType().getImplementedInterface().getSimpleName();
 
@@ -167,26 +168,29 @@ class AclExporter extends AbstractExporter implements Exporter {
                 case ACE_IP:
                     AceIp aceIp = (AceIp) matches.getAceType();
                     if (aceIp.getDscp() != null) {
-                        matchesNode.put(DSCP, aceIp.getDscp().getValue());
+                        writeNumberField(generator, DSCP, aceIp.getDscp().getValue());
                     }
-                    matchesNode.put(PROTOCOL, aceIp.getProtocol());
-                    matchesNode.put(SOURCE_PORT_RANGE, this.getSourcePortRangeObjectNode(aceIp));
-                    matchesNode.put(DESTINATION_PORT_RANGE, this.getDestinationPortRangeObjectNode(aceIp));
-                    matchesNode = this.getAceIpVersionObjectNode(aceIp, matchesNode);
+                    writeNumberField(generator, PROTOCOL, aceIp.getProtocol());
+                    this.writeSourcePortRange(generator, aceIp);
+                    this.writeDestinationPortRange(generator, aceIp);
+                    this.writeAceIpVersion(generator, aceIp);
                     break;
                 case ACE_ETH:
                     AceEth aceEth = (AceEth) matches.getAceType();
                     if (aceEth.getDestinationMacAddress() != null) {
-                        matchesNode.put(DESTINATION_MAC_ADDRESS, aceEth.getDestinationMacAddress().getValue());
+                        writeStringField(generator, DESTINATION_MAC_ADDRESS,
+                                aceEth.getDestinationMacAddress().getValue());
                     }
                     if (aceEth.getDestinationMacAddressMask() != null) {
-                        matchesNode.put(DESTINATION_MAC_ADDRESS_MASK, aceEth.getDestinationMacAddressMask().getValue());
+                        writeStringField(generator, DESTINATION_MAC_ADDRESS_MASK,
+                                aceEth.getDestinationMacAddressMask().getValue());
                     }
                     if (aceEth.getSourceMacAddress() != null) {
-                        matchesNode.put(SOURCE_MAC_ADDRESS, aceEth.getSourceMacAddress().getValue());
+                        writeStringField(generator, SOURCE_MAC_ADDRESS, aceEth.getSourceMacAddress().getValue());
                     }
                     if (aceEth.getSourceMacAddressMask() != null) {
-                        matchesNode.put(SOURCE_MAC_ADDRESS_MASK, aceEth.getSourceMacAddressMask().getValue());
+                        writeStringField(generator, SOURCE_MAC_ADDRESS_MASK,
+                                aceEth.getSourceMacAddressMask().getValue());
                     }
                     break;
                 default:
@@ -199,63 +203,46 @@ class AclExporter extends AbstractExporter implements Exporter {
             List<String> appIds = matches1.getApplicationId();
 
             if (appIds != null) {
-                ArrayNode an = matchesNode.putArray(ACE_APPLICATIONIDS);
+                generator.writeArrayFieldStart(ACE_APPLICATIONIDS);
                 for (String appId : appIds) {
-                    an.add(appId);
+                    generator.writeString(appId);
                 }
+                generator.writeEndArray();
             }
         }
 
-        return matchesNode;
+        generator.writeEndObject();
     }
 
-    private ObjectNode getSourcePortRangeObjectNode(AceIp aceIp) {
-        if (aceIp == null) {
-            return null;
-        }
-
-        ObjectNode sourcePortRangeNode = null;
-
+    private void writeSourcePortRange(JsonGenerator generator, AceIp aceIp) throws IOException {
         SourcePortRange sourcePortRange = aceIp.getSourcePortRange();
         if (sourcePortRange != null) {
-            sourcePortRangeNode = mapper.createObjectNode();
+            generator.writeObjectFieldStart(SOURCE_PORT_RANGE);
             if (sourcePortRange.getLowerPort() != null) {
-                sourcePortRangeNode.put(LOWER_PORT, sourcePortRange.getLowerPort().getValue());
+                writeNumberField(generator, LOWER_PORT, sourcePortRange.getLowerPort().getValue());
             }
             if (sourcePortRange.getUpperPort() != null) {
-                sourcePortRangeNode.put(UPPER_PORT, sourcePortRange.getUpperPort().getValue());
+                writeNumberField(generator, UPPER_PORT, sourcePortRange.getUpperPort().getValue());
             }
+            generator.writeEndObject();
         }
-
-        return sourcePortRangeNode;
     }
 
-    private ObjectNode getDestinationPortRangeObjectNode(AceIp aceIp) {
-        if (aceIp == null) {
-            return null;
-        }
-
-        ObjectNode destinationPortRangeNode = null;
-
+    private void writeDestinationPortRange(JsonGenerator generator, AceIp aceIp) throws IOException {
         DestinationPortRange destinationPortRange = aceIp.getDestinationPortRange();
         if (destinationPortRange != null) {
-            destinationPortRangeNode = mapper.createObjectNode();
+            generator.writeObjectFieldStart(DESTINATION_PORT_RANGE);
             if (destinationPortRange.getLowerPort() != null) {
-                destinationPortRangeNode.put(LOWER_PORT, destinationPortRange.getLowerPort().getValue());
+                writeNumberField(generator, LOWER_PORT, destinationPortRange.getLowerPort().getValue());
             }
             if (destinationPortRange.getUpperPort() != null) {
-                destinationPortRangeNode.put(UPPER_PORT, destinationPortRange.getUpperPort().getValue());
+                writeNumberField(generator, UPPER_PORT, destinationPortRange.getUpperPort().getValue());
             }
+            generator.writeEndObject();
         }
-
-        return destinationPortRangeNode;
     }
 
-    private ObjectNode getAceIpVersionObjectNode(AceIp aceIp, ObjectNode matchesNode) {
-        if (aceIp == null) {
-            return matchesNode;
-        }
-
+    private void writeAceIpVersion(JsonGenerator generator, AceIp aceIp) throws IOException {
         if (aceIp.getAceIpVersion() != null) {
             String aceIpVersion = aceIp.getAceIpVersion().getImplementedInterface().getSimpleName();
 
@@ -263,91 +250,73 @@ class AclExporter extends AbstractExporter implements Exporter {
                 case ACE_IPV4:
                     AceIpv4 aceIpv4 = (AceIpv4) aceIp.getAceIpVersion();
                     if (aceIpv4.getDestinationIpv4Network() != null) {
-                        matchesNode.put(DESTINATION_IPV4_NETWORK, aceIpv4.getDestinationIpv4Network().getValue());
+                        writeStringField(generator, DESTINATION_IPV4_NETWORK,
+                                aceIpv4.getDestinationIpv4Network().getValue());
                     }
                     if (aceIpv4.getSourceIpv4Network() != null) {
-                        matchesNode.put(SOURCE_IPV4_NETWORK, aceIpv4.getSourceIpv4Network().getValue());
+                        writeStringField(generator, SOURCE_IPV4_NETWORK, aceIpv4.getSourceIpv4Network().getValue());
                     }
                     break;
                 case ACE_IPV6:
                     AceIpv6 aceIpv6 = (AceIpv6) aceIp.getAceIpVersion();
                     if (aceIpv6.getDestinationIpv6Network() != null) {
-                        matchesNode.put(DESTINATION_IPV6_NETWORK, aceIpv6.getDestinationIpv6Network().getValue());
+                        writeStringField(generator, DESTINATION_IPV6_NETWORK,
+                                aceIpv6.getDestinationIpv6Network().getValue());
                     }
                     if (aceIpv6.getSourceIpv6Network() != null) {
-                        matchesNode.put(SOURCE_IPV6_NETWORK, aceIpv6.getSourceIpv6Network().getValue());
+                        writeStringField(generator, SOURCE_IPV6_NETWORK, aceIpv6.getSourceIpv6Network().getValue());
                     }
                     if (aceIpv6.getFlowLabel() != null) {
-                        matchesNode.put(FLOW_LABEL, aceIpv6.getFlowLabel().getValue());
+                        writeNumberField(generator, FLOW_LABEL, aceIpv6.getFlowLabel().getValue());
                     }
                     break;
                 default:
                     break;
             }
         }
-
-        return matchesNode;
     }
 
-    private ObjectNode getActionsObjectNode(Actions actions) {
+    private void writeActions(JsonGenerator generator, Actions actions) throws IOException {
         if (actions == null) {
-            return null;
+            return;
         }
 
-        ObjectNode actionsNode = mapper.createObjectNode();
-
+        String packetHandling = null;
         if (actions.getPacketHandling() != null) {
             String actionType = actions.getPacketHandling().getImplementedInterface().getSimpleName();
-
-            switch (actionType) {
-                case PERMIT:
-                    actionsNode.put(PERMIT, "");
-                    break;
-                case DENY:
-                default:
-                    actionsNode.put(DENY, "");
-                    break;
-            }
+            packetHandling = PERMIT.equals(actionType) ? PERMIT : DENY;
         }
 
+        AclRenderedServicePath aclRenderedServicePath = null;
         Actions1 actions1 = actions.getAugmentation(Actions1.class);
         if (actions1 != null) {
             SfcAction sfcAction = actions1.getSfcAction();
-
-            if (sfcAction != null) {
-                String sfcActionType = sfcAction.getImplementedInterface().getSimpleName();
-
-                switch (sfcActionType) {
-                    case ACL_RENDERED_SERVICE_PATH:
-                        AclRenderedServicePath aclRenderedServicePath = (AclRenderedServicePath) sfcAction;
-                        actionsNode.put(SERVICE_FUNCTION_ACL_RENDERED_SERVICE_PATH,
-                                aclRenderedServicePath.getRenderedServicePath());
-                        break;
-                    default:
-                        break;
-                }
+            if (sfcAction != null
+                    && ACL_RENDERED_SERVICE_PATH.equals(sfcAction.getImplementedInterface().getSimpleName())) {
+                aclRenderedServicePath = (AclRenderedServicePath) sfcAction;
             }
         }
 
-        if (actionsNode.size() == 0) {
-            return null;
+        if (packetHandling == null && aclRenderedServicePath == null) {
+            return;
         }
 
-        return actionsNode;
-    }
-
-    private ObjectNode getAceOperDataObjectNode(AceOperData aceOperData) {
-        if (aceOperData == null) {
-            return null;
+        generator.writeObjectFieldStart(ACTIONS);
+        if (packetHandling != null) {
+            generator.writeStringField(packetHandling, "");
         }
-
-        ObjectNode aceOperDataNode = null;
-
-        if (aceOperData.getMatchCounter() != null) {
-            aceOperDataNode = mapper.createObjectNode();
-            aceOperDataNode.put(MATCH_COUNTER, aceOperData.getMatchCounter().getValue().longValue());
+        if (aclRenderedServicePath != null) {
+            writeStringField(generator, SERVICE_FUNCTION_ACL_RENDERED_SERVICE_PATH,
+                    aclRenderedServicePath.getRenderedServicePath());
         }
+        generator.writeEndObject();
+    }
 
-        return aceOperDataNode;
+    private void writeAceOperData(JsonGenerator generator, AceOperData aceOperData) throws IOException {
+        if (aceOperData != null && aceOperData.getMatchCounter() != null) {
+            generator.writeObjectFieldStart(ACE_OPER_DATA);
+            writeNumberField(generator, MATCH_COUNTER, aceOperData.getMatchCounter().getValue());
+            generator.writeEndObject();
+        }
     }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.sfc.sbrest.json;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+
+/**
+ * Exporter caching the JSON exported for each version of an object, so that
+ * an object which has not changed is not exported again, whatever the task or
+ * the REST agent it is exported for.
+ *
+ * <p>
+ * Binding objects being immutable and compared by value, each cached JSON is
+ * keyed on the object it was exported from, its hash code being compared
+ * first. The cache is shared by all the instances and bounded by the length of
+ * the cached JSON, which grows with the size of the objects. Name only exports
+ * are cheap and not cached.
+ */
+public final class CachingExporter implements Exporter {
+
+    private static final long MAX_CACHED_CHARS = 16L * 1024 * 1024;
+    private static final Cache<CacheKey, String> EXPORTED_JSON = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_CACHED_CHARS).weigher((CacheKey key, String json) -> json.length()).build();
+
+    private final Exporter exporter;
+
+    public CachingExporter(Exporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @Override
+    public String exportJson(DataObject dataObject) {
+        CacheKey key = CacheKey.of(exporter.getClass(), dataObject);
+        String json = EXPORTED_JSON.getIfPresent(key);
+        if (json == null) {
+            json = exporter.exportJson(dataObject);
+            if (json != null) {
+                EXPORTED_JSON.put(key, json);
+            }
+        }
+        return json;
+    }
+
+    @Override
+    public String exportJsonNameOnly(DataObject dataObject) {
+        return exporter.exportJsonNameOnly(dataObject);
+    }
+
+    private static final class CacheKey {
+        private final Class<?> exporterClass;
+        private final DataObject dataObject;
+        private final int dataObjectHash;
+
+        private CacheKey(Class<?> exporterClass, DataObject dataObject) {
+            this.exporterClass = exporterClass;
+            this.dataObject = dataObject;
+            this.dataObjectHash = dataObject.hashCode();
+        }
+
+        static CacheKey of(Class<?> exporterClass, DataObject dataObject) {
+            return new CacheKey(exporterClass, dataObject);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            // the hash codes rule out most other objects before comparing them
+            return dataObjectHash == other.dataObjectHash && exporterClass.equals(other.exporterClass)
+                    && dataObject.equals(other.dataObject);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * exporterClass.hashCode() + dataObjectHash;
+        }
+    }
+}
@@ -8,7 +8,7 @@
 
 package org.opendaylight.sfc.sbrest.json;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.util.Locale;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.rev140701.service.function.forwarders.service.function.forwarder.service.function.dictionary.SffSfDataPlaneLocator;
@@ -60,8 +60,7 @@ public final class ExporterUtil {
             return null;
         }
 
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectNode sffSfDplNode = mapper.createObjectNode();
+        ObjectNode sffSfDplNode = JsonNodeFactory.instance.objectNode();
 
         if (sffSfDpl.getSfDplName() != null) {
             sffSfDplNode.put(SF_DPL_NAME, sffSfDpl.getSfDplName().getValue());
@@ -79,11 +78,10 @@ public final class ExporterUtil {
             return null;
         }
 
-        ObjectMapper mapper = new ObjectMapper();
         ObjectNode locatorNode = null;
 
         if (dataPlaneLocator.getLocatorType() != null) {
-            locatorNode = mapper.createObjectNode();
+            locatorNode = JsonNodeFactory.instance.objectNode();
             String type = dataPlaneLocator.getLocatorType().getImplementedInterface().getSimpleName()
                     .toLowerCase(Locale.getDefault());
             switch (type) {
@@ -120,7 +118,7 @@ public final class ExporterUtil {
 
         if (dataPlaneLocator.getTransport() != null) {
             if (locatorNode == null) {
-                locatorNode = mapper.createObjectNode();
+                locatorNode = JsonNodeFactory.instance.objectNode();
             }
             locatorNode.put(TRANSPORT, getDataPlaneLocatorTransport(dataPlaneLocator));
         }
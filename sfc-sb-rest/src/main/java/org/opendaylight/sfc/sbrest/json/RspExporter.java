@@ -7,9 +7,9 @@
  */
 package org.opendaylight.sfc.sbrest.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
 import java.util.List;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.RenderedServicePath;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.rsp.rev140701.rendered.service.paths.rendered.service.path.RenderedServicePathHop;
@@ -78,11 +78,9 @@ class RspExporter extends AbstractExporter implements Exporter {
             ArrayNode rspArray = mapper.createArrayNode();
             rspArray.add(node);
             try {
-                Object rspObject = mapper.treeToValue(rspArray, Object.class);
-                ret = mapper.writeValueAsString(rspObject);
-                ret = "{\"" + RENDERED_SERVICE_PATH + "\":" + ret + "}";
+                ret = writeJson(RENDERED_SERVICE_PATH, rspArray);
                 LOG.debug("Created Rendered Service Path JSON: {}", ret);
-            } catch (JsonProcessingException e) {
+            } catch (IOException e) {
                 LOG.error("Error during creation of JSON for Rendered Service Path {}", rsp.getName());
             }
 
@@ -7,9 +7,9 @@
  */
 package org.opendaylight.sfc.sbrest.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
 import java.util.Locale;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.function.base.SfDataPlaneLocator;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.ServiceFunction;
@@ -62,11 +62,9 @@ class SfExporter extends AbstractExporter implements Exporter {
             ArrayNode sfArray = mapper.createArrayNode();
             sfArray.add(sfNode);
             try {
-                Object sfObject = mapper.treeToValue(sfArray, Object.class);
-                ret = mapper.writeValueAsString(sfObject);
-                ret = "{\"" + SERVICE_FUNCTION + "\":" + ret + "}";
+                ret = writeJson(SERVICE_FUNCTION, sfArray);
                 LOG.debug("Created Service Function JSON: {}", ret);
-            } catch (JsonProcessingException e) {
+            } catch (IOException e) {
                 LOG.error("Error during creation of JSON for Service Function {}", sf.getName());
             }
 
@@ -7,9 +7,9 @@
  */
 package org.opendaylight.sfc.sbrest.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.ovs.rev140701.SffOvsLocatorBridgeAugmentation;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.ovs.rev140701.bridge.OvsBridge;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sff.ovs.rev140701.bridge.ovs.bridge.ExternalIds;
@@ -85,11 +85,9 @@ class SffExporter extends AbstractExporter implements Exporter {
             ArrayNode sffArray = mapper.createArrayNode();
             sffArray.add(sffNode);
             try {
-                Object sffObject = mapper.treeToValue(sffArray, Object.class);
-                ret = mapper.writeValueAsString(sffObject);
-                ret = "{\"" + SERVICE_FUNCTION_FORWARDER + "\":" + ret + "}";
+                ret = writeJson(SERVICE_FUNCTION_FORWARDER, sffArray);
                 LOG.debug("Created Service Function Forwarder JSON: {}", ret);
-            } catch (JsonProcessingException e) {
+            } catch (IOException e) {
                 LOG.error("Error during creation of JSON for Service Function Forwarder {}", sff.getName());
             }
         } else {
@@ -7,9 +7,9 @@
  */
 package org.opendaylight.sfc.sbrest.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
 import java.util.Locale;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfg.rev150214.service.function.group.entry.SfcServiceFunction;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sfg.rev150214.service.function.groups.ServiceFunctionGroup;
@@ -63,11 +63,9 @@ class SfgExporter extends AbstractExporter implements Exporter {
             ArrayNode sfgArray = mapper.createArrayNode();
             sfgArray.add(sfgNode);
             try {
-                Object sfObject = mapper.treeToValue(sfgArray, Object.class);
-                ret = mapper.writeValueAsString(sfObject);
-                ret = "{\"" + SERVICE_FUNCTION_GROUP + "\":" + ret + "}";
+                ret = writeJson(SERVICE_FUNCTION_GROUP, sfgArray);
                 LOG.debug("Created Service Function Group JSON: {}", ret);
-            } catch (JsonProcessingException e) {
+            } catch (IOException e) {
                 LOG.error("Error during creation of JSON for Service Function {}", sfg.getName());
             }
 
@@ -7,9 +7,9 @@
  */
 package org.opendaylight.sfc.sbrest.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
 import java.util.Locale;
 import org.opendaylight.yang.gen.v1.urn.intel.params.xml.ns.yang.sfc.sfst.rev150312.service.function.scheduler.types.ServiceFunctionSchedulerType;
 import org.opendaylight.yangtools.yang.binding.DataObject;
@@ -41,11 +41,9 @@ class SfstExporter extends AbstractExporter implements Exporter {
             ArrayNode sfstArray = mapper.createArrayNode();
             sfstArray.add(sfstNode);
             try {
-                Object sfstObject = mapper.treeToValue(sfstArray, Object.class);
-                ret = mapper.writeValueAsString(sfstObject);
-                ret = "{\"" + SERVICE_FUNCTION_SCHEDULE_TYPE + "\":" + ret + "}";
+                ret = writeJson(SERVICE_FUNCTION_SCHEDULE_TYPE, sfstArray);
                 LOG.debug("Created Service Function Schedule Type JSON: {}", ret);
-            } catch (JsonProcessingException e) {
+            } catch (IOException e) {
                 LOG.error("Error during creation of JSON for Service Function Schedule Type {}", sfst.getName());
             }
         } else {
@@ -7,9 +7,9 @@
  */
 package org.opendaylight.sfc.sbrest.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
 import java.util.List;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.state.ServiceFunctionState;
 import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.sf.rev140701.service.functions.state.service.function.state.SfServicePath;
@@ -116,11 +116,9 @@ class SfstateExporter extends AbstractExporter implements Exporter {
             sfstateArray.add(sfstateNode);
 
             try {
-                Object sfstateObject = mapper.treeToValue(sfstateArray, Object.class);
-                ret = mapper.writeValueAsString(sfstateObject);
-                ret = "{\"" + SERVICE_FUNCTION_STATE + "\":" + ret + "}";
+                ret = writeJson(SERVICE_FUNCTION_STATE, sfstateArray);
                 LOG.debug("Created Service Function State JSON: {}", ret);
-            } catch (JsonProcessingException e) {
+            } catch (IOException e) {
                 LOG.error("Error during creation of JSON for Service Function State {}", sfstate.getName());
             }
         } else {
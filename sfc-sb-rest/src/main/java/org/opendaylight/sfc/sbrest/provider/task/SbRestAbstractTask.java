@@ -8,12 +8,15 @@
 package org.opendaylight.sfc.sbrest.provider.task;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.opendaylight.sfc.sbrest.json.CachingExporter;
 import org.opendaylight.sfc.sbrest.json.ExporterFactory;
 import org.opendaylight.yangtools.yang.binding.DataObject;
 
@@ -21,7 +24,8 @@ public abstract class SbRestAbstractTask implements Runnable {
 
     private final ExecutorService odlExecutor;
     private final RestOperation restOperation;
-    private final String jsonObject;
+    // exported on first use, so that superseded requests are never exported
+    private final Supplier<String> jsonObject;
     private final List<String> restUriList = new ArrayList<>();
 
     public SbRestAbstractTask(@Nonnull RestOperation restOperation, @Nonnull ExporterFactory exporterFactory,
@@ -30,18 +34,19 @@ public abstract class SbRestAbstractTask implements Runnable {
         this.odlExecutor = odlExecutor;
 
         if (dataObject == null) {
-            this.jsonObject = null;
+            this.jsonObject = Suppliers.ofInstance(null);
         } else if (restOperation.equals(RestOperation.DELETE)) {
-            this.jsonObject = exporterFactory.getExporter().exportJsonNameOnly(dataObject);
+            this.jsonObject = Suppliers.memoize(() -> exporterFactory.getExporter().exportJsonNameOnly(dataObject));
         } else {
-            this.jsonObject = exporterFactory.getExporter().exportJson(dataObject);
+            this.jsonObject = Suppliers.memoize(
+                () -> new CachingExporter(exporterFactory.getExporter()).exportJson(dataObject));
         }
     }
 
     @Override
     public void run() {
         for (String restUri : this.restUriList) {
-            odlExecutor.execute(new WsTask(restUri, restOperation, jsonObject));
+            SbRestClient.execute(restUri, new WsTask(restUri, restOperation, jsonObject), odlExecutor);
         }
     }
 
@@ -51,7 +56,7 @@ public abstract class SbRestAbstractTask implements Runnable {
 
     @VisibleForTesting
     String getJsonObject() {
-        return jsonObject;
+        return jsonObject.get();
     }
 
     @VisibleForTesting
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.sfc.sbrest.provider.task;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.config.ClientConfig;
+import com.sun.jersey.api.client.config.DefaultClientConfig;
+import java.net.URI;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The HTTP client shared by all the SB REST tasks.
+ *
+ * <p>
+ * A single Jersey client, with connect and read timeouts, is used for every
+ * request. The underlying connections are kept alive and reused between the
+ * requests to the same REST agent, as long as the responses are closed.
+ *
+ * <p>
+ * Requests are queued per REST agent and only sent once a short coalescing
+ * window has elapsed. A request for a URL replaces the request for the same
+ * URL still waiting in the queue, so that a REST agent only receives the last
+ * state of an object updated several times in a row. Requests for the same
+ * URL are never in flight at the same time, which keeps them in order.
+ *
+ * <p>
+ * At most {@link #MAX_REQUESTS_PER_AGENT} requests are in flight per REST
+ * agent, the following ones waiting in the queue until the previous ones
+ * complete. The limit is below the number of idle connections the JDK keeps
+ * per destination, so every connection opened to an agent is reused instead
+ * of being closed once the request is done.
+ */
+public final class SbRestClient {
+
+    static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    static final int READ_TIMEOUT_MILLIS = 10000;
+    static final int MAX_REQUESTS_PER_AGENT = 4;
+    static final long COALESCING_WINDOW_MILLIS = 20;
+
+    private static final Logger LOG = LoggerFactory.getLogger(SbRestClient.class);
+    private static final Client CLIENT = createClient();
+    private static final ConcurrentMap<String, AgentQueue> AGENT_QUEUES = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("sfc-sb-rest-coalescer-%d").setDaemon(true).build());
+
+    private SbRestClient() {
+    }
+
+    private static Client createClient() {
+        ClientConfig clientConfig = new DefaultClientConfig();
+        clientConfig.getProperties().put(ClientConfig.PROPERTY_CONNECT_TIMEOUT, CONNECT_TIMEOUT_MILLIS);
+        clientConfig.getProperties().put(ClientConfig.PROPERTY_READ_TIMEOUT, READ_TIMEOUT_MILLIS);
+        return Client.create(clientConfig);
+    }
+
+    /**
+     * Get the shared client. It is thread safe.
+     *
+     * @return the client
+     */
+    public static Client getClient() {
+        return CLIENT;
+    }
+
+    /**
+     * Execute a request to a REST agent, once the coalescing window has
+     * elapsed and fewer than {@link #MAX_REQUESTS_PER_AGENT} requests to the
+     * same agent are in flight. The request is dropped if another request for
+     * the same URL is executed before it is sent. This call does not block.
+     *
+     * @param url
+     *            the URL of the request, identifying the REST agent
+     * @param request
+     *            the request
+     * @param executor
+     *            the executor to run the request on
+     */
+    public static void execute(String url, Runnable request, Executor executor) {
+        AGENT_QUEUES.computeIfAbsent(getAgent(url), agent -> new AgentQueue()).execute(url, request, executor);
+    }
+
+    /**
+     * Get the REST agent of a URL, i.e. its scheme and authority.
+     *
+     * @param url
+     *            the URL
+     * @return the agent
+     */
+    @VisibleForTesting
+    static String getAgent(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getAuthority() != null) {
+                return uri.getScheme() + "://" + uri.getAuthority();
+            }
+        } catch (IllegalArgumentException e) {
+            LOG.debug("Invalid REST URI {}", url, e);
+        }
+        return url;
+    }
+
+    /**
+     * The requests waiting for a REST agent, by URL.
+     */
+    private static final class AgentQueue {
+        // guarded by this
+        private final Map<String, Runnable> pendingRequests = new LinkedHashMap<>();
+        private final Set<String> urlsInFlight = new HashSet<>();
+        private boolean flushScheduled;
+
+        void execute(String url, Runnable request, Executor executor) {
+            synchronized (this) {
+                if (pendingRequests.put(url, request) != null) {
+                    LOG.debug("Pending request to {} superseded", url);
+                }
+                if (flushScheduled) {
+                    return;
+                }
+                flushScheduled = true;
+            }
+            try {
+                SCHEDULER.schedule(() -> flush(executor), COALESCING_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                LOG.error("SB REST coalescing timer rejected the flush", e);
+                flush(executor);
+            }
+        }
+
+        private void flush(Executor executor) {
+            synchronized (this) {
+                flushScheduled = false;
+            }
+            submitPendingRequests(executor);
+        }
+
+        private void submitPendingRequests(Executor executor) {
+            Entry<String, Runnable> nextRequest;
+            while ((nextRequest = pollNextRequest()) != null) {
+                final String url = nextRequest.getKey();
+                final Runnable request = nextRequest.getValue();
+                try {
+                    executor.execute(() -> {
+                        try {
+                            request.run();
+                        } finally {
+                            requestDone(url, executor);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    LOG.error("SB REST request to {} rejected by the executor", url, e);
+                    synchronized (this) {
+                        urlsInFlight.remove(url);
+                    }
+                }
+            }
+        }
+
+        private void requestDone(String url, Executor executor) {
+            synchronized (this) {
+                urlsInFlight.remove(url);
+            }
+            submitPendingRequests(executor);
+        }
+
+        // the oldest pending request that can be sent now, if any
+        private synchronized Entry<String, Runnable> pollNextRequest() {
+            if (urlsInFlight.size() >= MAX_REQUESTS_PER_AGENT) {
+                return null;
+            }
+            Iterator<Entry<String, Runnable>> iterator = pendingRequests.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Entry<String, Runnable> pendingRequest = iterator.next();
+                String url = pendingRequest.getKey();
+                if (!urlsInFlight.contains(url)) {
+                    Entry<String, Runnable> nextRequest = new SimpleImmutableEntry<>(url, pendingRequest.getValue());
+                    iterator.remove();
+                    urlsInFlight.add(url);
+                    return nextRequest;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -7,13 +7,12 @@
  */
 package org.opendaylight.sfc.sbrest.provider.task;
 
-import com.sun.jersey.api.client.Client;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.sun.jersey.api.client.ClientHandlerException;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.UniformInterfaceException;
 import com.sun.jersey.api.client.WebResource;
-import com.sun.jersey.api.client.config.ClientConfig;
-import com.sun.jersey.api.client.config.DefaultClientConfig;
 import java.net.ConnectException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,9 +26,13 @@ public class WsTask implements Runnable {
 
     String url;
     RestOperation restOperation;
-    String json;
+    Supplier<String> json;
 
     public WsTask(String url, RestOperation restOperation, String json) {
+        this(url, restOperation, Suppliers.ofInstance(json));
+    }
+
+    public WsTask(String url, RestOperation restOperation, Supplier<String> json) {
         this.url = url;
         this.restOperation = restOperation;
         this.json = json;
@@ -37,85 +40,43 @@ public class WsTask implements Runnable {
 
     @Override
     public void run() {
-        ClientConfig clientConfig = new DefaultClientConfig();
-        Client client = Client.create(clientConfig);
+        WebResource.Builder wrb = SbRestClient.getClient().resource(url).type(APPLICATION_JSON);
         ClientResponse clientRemoteResponse = null;
 
-        WebResource.Builder wrb = null;
-        wrb = client.resource(url).type(APPLICATION_JSON);
-
-        if (wrb != null) {
+        try {
             switch (restOperation) {
                 case PUT:
-                    try {
-                        clientRemoteResponse = wrb.put(ClientResponse.class, json);
-                    } catch (UniformInterfaceException e) {
-                        // http://stackoverflow.com/questions/12502233/jersey-uniforminterfaceexception-trying-to-proxy-to-rest-post-service
-                        LOG.error("REST Server error. Message: {}", e.getMessage());
-                    } catch (ClientHandlerException e) {
-                        if (e.getCause() instanceof ConnectException) {
-                            LOG.error("Failed to communicate with REST Server: {} ", this.url);
-                        } else {
-                            LOG.error("ClientHandlerException on {}: {}", Thread.currentThread().getStackTrace()[1],
-                                    e.getMessage());
-                        }
-                    } finally {
-                        if (clientRemoteResponse != null) {
-                            if (clientRemoteResponse.getStatus() != HTTP_OK) {
-                                throw new UniformInterfaceException(HTTP_ERROR_MSG + clientRemoteResponse.getStatus(),
-                                        clientRemoteResponse);
-                            }
-                            clientRemoteResponse.close();
-                        }
-                    }
+                    clientRemoteResponse = wrb.put(ClientResponse.class, json.get());
                     break;
                 case POST:
-                    try {
-                        clientRemoteResponse = wrb.post(ClientResponse.class, json);
-                    } catch (UniformInterfaceException e) {
-                        LOG.error("REST Server error. Message: {}", e.getMessage());
-                    } catch (ClientHandlerException e) {
-                        if (e.getCause() instanceof ConnectException) {
-                            LOG.error("Failed to communicate with REST Server: {} ", this.url);
-                        } else {
-                            LOG.error("ClientHandlerException on {}: {}", Thread.currentThread().getStackTrace()[1],
-                                    e.getMessage());
-                        }
-                    } finally {
-                        if (clientRemoteResponse != null) {
-                            if (clientRemoteResponse.getStatus() != HTTP_OK) {
-                                throw new UniformInterfaceException(HTTP_ERROR_MSG + clientRemoteResponse.getStatus(),
-                                        clientRemoteResponse);
-                            }
-                            clientRemoteResponse.close();
-                        }
-                    }
+                    clientRemoteResponse = wrb.post(ClientResponse.class, json.get());
                     break;
                 case DELETE:
-                    try {
-                        clientRemoteResponse = wrb.delete(ClientResponse.class);
-                    } catch (UniformInterfaceException e) {
-                        LOG.error("REST Server error. Message: {}", e.getMessage());
-                    } catch (ClientHandlerException e) {
-                        if (e.getCause() instanceof ConnectException) {
-                            LOG.error("Failed to communicate with REST Server: {} ", this.url);
-                        } else {
-                            LOG.error("ClientHandlerException on {}: {}", Thread.currentThread().getStackTrace()[1],
-                                    e.getMessage());
-                        }
-                    } finally {
-                        if (clientRemoteResponse != null) {
-                            if (clientRemoteResponse.getStatus() != HTTP_OK) {
-                                throw new UniformInterfaceException(HTTP_ERROR_MSG + clientRemoteResponse.getStatus(),
-                                        clientRemoteResponse);
-                            }
-                            clientRemoteResponse.close();
-                        }
-                    }
+                    clientRemoteResponse = wrb.delete(ClientResponse.class);
                     break;
                 default:
                     break;
             }
+        } catch (UniformInterfaceException e) {
+            // http://stackoverflow.com/questions/12502233/jersey-uniforminterfaceexception-trying-to-proxy-to-rest-post-service
+            LOG.error("REST Server error. Message: {}", e.getMessage());
+        } catch (ClientHandlerException e) {
+            if (e.getCause() instanceof ConnectException) {
+                LOG.error("Failed to communicate with REST Server: {} ", this.url);
+            } else {
+                LOG.error("ClientHandlerException on {}: {}", Thread.currentThread().getStackTrace()[1],
+                        e.getMessage());
+            }
+        }
+
+        if (clientRemoteResponse != null) {
+            // Always close the response, so that the connection is kept alive
+            // for the next request to the same REST server
+            int status = clientRemoteResponse.getStatus();
+            clientRemoteResponse.close();
+            if (status != HTTP_OK) {
+                throw new UniformInterfaceException(HTTP_ERROR_MSG + status, clientRemoteResponse);
+            }
         }
     }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.sfc.sbrest.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.binding.DataContainer;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+
+public class CachingExporterTest {
+
+    @Test
+    public void testExportJsonIsCached() {
+        Exporter exporter = mock(Exporter.class);
+        DataObject dataObject = mock(DataObject.class);
+        when(exporter.exportJson(dataObject)).thenReturn("{\"json\":[]}");
+        when(exporter.exportJsonNameOnly(dataObject)).thenReturn("{\"name\":[]}");
+
+        // a new caching exporter is used for every task
+        assertEquals("Must be equal", "{\"json\":[]}", new CachingExporter(exporter).exportJson(dataObject));
+        assertEquals("Must be equal", "{\"json\":[]}", new CachingExporter(exporter).exportJson(dataObject));
+        verify(exporter, times(1)).exportJson(dataObject);
+
+        assertEquals("Must be equal", "{\"name\":[]}", new CachingExporter(exporter).exportJsonNameOnly(dataObject));
+        assertEquals("Must be equal", "{\"name\":[]}", new CachingExporter(exporter).exportJsonNameOnly(dataObject));
+        verify(exporter, times(2)).exportJsonNameOnly(dataObject);
+    }
+
+    @Test
+    public void testChangedObjectIsExportedAgain() {
+        Exporter exporter = mock(Exporter.class);
+        DataObject dataObject = mock(DataObject.class);
+        DataObject changedDataObject = mock(DataObject.class);
+        when(exporter.exportJson(dataObject)).thenReturn("{\"json\":[]}");
+        when(exporter.exportJson(changedDataObject)).thenReturn("{\"json\":[1]}");
+
+        assertEquals("Must be equal", "{\"json\":[]}", new CachingExporter(exporter).exportJson(dataObject));
+        assertEquals("Must be equal", "{\"json\":[1]}", new CachingExporter(exporter).exportJson(changedDataObject));
+        verify(exporter, times(1)).exportJson(dataObject);
+        verify(exporter, times(1)).exportJson(changedDataObject);
+    }
+
+    @Test
+    public void testObjectsWithTheSameHashAreExportedApart() {
+        Exporter exporter = mock(Exporter.class);
+        DataObject dataObject = new CollidingDataObject();
+        DataObject otherDataObject = new CollidingDataObject();
+        when(exporter.exportJson(dataObject)).thenReturn("{\"json\":[]}");
+        when(exporter.exportJson(otherDataObject)).thenReturn("{\"json\":[1]}");
+
+        assertEquals("Must be equal", "{\"json\":[]}", new CachingExporter(exporter).exportJson(dataObject));
+        assertEquals("Must be equal", "{\"json\":[1]}", new CachingExporter(exporter).exportJson(otherDataObject));
+    }
+
+    @Test
+    public void testFailedExportIsNotCached() {
+        Exporter exporter = mock(Exporter.class);
+        DataObject dataObject = mock(DataObject.class);
+
+        new CachingExporter(exporter).exportJson(dataObject);
+        new CachingExporter(exporter).exportJson(dataObject);
+        verify(exporter, times(2)).exportJson(dataObject);
+    }
+
+    // distinct objects sharing a hash code
+    private static final class CollidingDataObject implements DataObject {
+        @Override
+        public Class<? extends DataContainer> getImplementedInterface() {
+            return DataObject.class;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.sfc.sbrest.provider.task;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SbRestClientTest {
+
+    private ExecutorService executorService;
+
+    @Before
+    public void init() {
+        executorService = Executors.newFixedThreadPool(10);
+    }
+
+    @After
+    public void teardown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testGetAgent() {
+        assertEquals("Must be equal", "http://10.0.0.1:5000",
+                SbRestClient.getAgent("http://10.0.0.1:5000/config/service-function:service-functions/"));
+        assertEquals("Must be equal", "not a URI", SbRestClient.getAgent("not a URI"));
+    }
+
+    @Test
+    public void testSharedClient() {
+        assertSame("Must be the same", SbRestClient.getClient(), SbRestClient.getClient());
+    }
+
+    @Test
+    public void testSupersededRequestsAreDropped() throws Exception {
+        final String url = "http://10.0.0.4:5000/config/rendered-service-path:rendered-service-paths/RSP1";
+        List<String> sentRequests = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        SbRestClient.execute(url, () -> sentRequests.add("PUT1"), executorService);
+        SbRestClient.execute(url, () -> sentRequests.add("PUT2"), executorService);
+        SbRestClient.execute(url, () -> {
+            sentRequests.add("DELETE");
+            done.countDown();
+        }, executorService);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals("Must be equal", Collections.singletonList("DELETE"), sentRequests);
+    }
+
+    @Test
+    public void testRequestsPerAgentAreLimited() throws Exception {
+        final int requests = SbRestClient.MAX_REQUESTS_PER_AGENT + 4;
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(requests);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        for (int i = 0; i < requests; i++) {
+            SbRestClient.execute("http://10.0.0.2:5000/config/" + i, () -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                inFlight.decrementAndGet();
+                done.countDown();
+            }, executorService);
+        }
+
+        // requests to another agent are not held back
+        CountDownLatch otherAgent = new CountDownLatch(1);
+        SbRestClient.execute("http://10.0.0.3:5000/config/", otherAgent::countDown, executorService);
+        assertTrue(otherAgent.await(10, TimeUnit.SECONDS));
+
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals("Must be equal", SbRestClient.MAX_REQUESTS_PER_AGENT, maxInFlight.get());
+    }
+}
@@ -8,13 +8,15 @@
 
 package org.opendaylight.sfc.util.openflow.writer;
 
+import java.util.Objects;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
 
 /**
  * Class used to store the details of a flow for easier creation / deletion
- * later.
+ * later. Two flow details are equal when all their details are, so that the
+ * details rebuilt for a deletion match the ones originally stored.
  */
 public class FlowDetails {
 
@@ -82,4 +84,24 @@ public class FlowDetails {
     public final long getRspId() {
         return rspId;
     }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof FlowDetails)) {
+            return false;
+        }
+        FlowDetails other = (FlowDetails) obj;
+        return Objects.equals(sffNodeName, other.sffNodeName) && Objects.equals(flowKey, other.flowKey)
+                && Objects.equals(tableKey, other.tableKey) && Objects.equals(rspId, other.rspId)
+                && Objects.equals(flow, other.flow);
+    }
+
+    @Override
+    public int hashCode() {
+        // the flow is left out, hashing it is expensive and the keys suffice
+        return Objects.hash(sffNodeName, flowKey, tableKey, rspId);
+    }
 }
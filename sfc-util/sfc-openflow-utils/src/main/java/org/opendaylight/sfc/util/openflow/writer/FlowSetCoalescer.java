@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.openflow.writer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds back flow additions and removals for a short time window and only
+ * passes on the net change per (node, table, flow key).
+ *
+ * <p>
+ * A removal followed by an addition of the same flow, i.e. with the same
+ * node, table, flow key and flow content, cancels out, so the
+ * datastore is left unmodified and nothing reaches the switch. When the added
+ * flow differs from the removed one, the removal is dropped in favor of the
+ * addition, which overwrites the flow in a single write. Repeated additions
+ * keep the last flow, and an addition followed by a removal keeps the
+ * removal. The window starts with the first change after
+ * the previous drain, so changes are delayed by at most the window.
+ *
+ * <p>
+ * Removals are handed over before additions, and drains never overlap, so the
+ * flow writer sees the changes in the order they were made.
+ */
+class FlowSetCoalescer {
+    private static final Logger LOG = LoggerFactory.getLogger(FlowSetCoalescer.class);
+    private static final long SHUTDOWN_TIME = 5;
+
+    private final long windowMillis;
+    private final Consumer<Collection<FlowDetails>> flowWriter;
+    private final Consumer<Collection<FlowDetails>> flowRemover;
+    private final ScheduledExecutorService scheduler;
+    // serializes the drains so that the handed over changes keep their order
+    private final Object drainLock = new Object();
+
+    // pending changes, guarded by this
+    private Map<FlowId, FlowDetails> flowsToAdd = new LinkedHashMap<>();
+    private Map<FlowId, FlowDetails> flowsToDelete = new LinkedHashMap<>();
+    private boolean drainScheduled;
+    private long coalescedChanges;
+
+    FlowSetCoalescer(long windowMillis, Consumer<Collection<FlowDetails>> flowWriter,
+            Consumer<Collection<FlowDetails>> flowRemover) {
+        this.windowMillis = windowMillis;
+        this.flowWriter = flowWriter;
+        this.flowRemover = flowRemover;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("sfc-of-flow-coalescer-%d").setDaemon(true).build());
+    }
+
+    synchronized void writeFlows(Collection<FlowDetails> flows) {
+        for (FlowDetails flow : flows) {
+            FlowId flowId = new FlowId(flow);
+            FlowDetails pendingDelete = flowsToDelete.remove(flowId);
+            // the removals rebuilt from the RSP flow index carry the flow
+            // written, the RSP id may differ from the one of the addition
+            if (pendingDelete != null && pendingDelete.getFlow() != null
+                    && pendingDelete.getFlow().equals(flow.getFlow())) {
+                // the flow is removed and added back unchanged
+                coalescedChanges++;
+                continue;
+            }
+            boolean merged = flowsToAdd.put(flowId, flow) != null;
+            if (pendingDelete != null || merged) {
+                coalescedChanges++;
+            }
+        }
+        scheduleDrain();
+    }
+
+    synchronized void removeFlows(Collection<FlowDetails> flows) {
+        for (FlowDetails flow : flows) {
+            FlowId flowId = new FlowId(flow);
+            boolean cancelled = flowsToAdd.remove(flowId) != null;
+            boolean merged = flowsToDelete.put(flowId, flow) != null;
+            if (cancelled || merged) {
+                coalescedChanges++;
+            }
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled) {
+            return;
+        }
+        try {
+            scheduler.schedule(this::drain, windowMillis, TimeUnit.MILLISECONDS);
+            drainScheduled = true;
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Flow coalescer is shut down, pending flows will be handed over on shutdown", e);
+        }
+    }
+
+    /**
+     * Hand over the pending changes right away.
+     */
+    void drain() {
+        synchronized (drainLock) {
+            final Map<FlowId, FlowDetails> deletes;
+            final Map<FlowId, FlowDetails> adds;
+            synchronized (this) {
+                deletes = flowsToDelete;
+                adds = flowsToAdd;
+                flowsToDelete = new LinkedHashMap<>();
+                flowsToAdd = new LinkedHashMap<>();
+                drainScheduled = false;
+                LOG.debug("drain: removing {} flows, writing {} flows, {} changes coalesced", deletes.size(),
+                        adds.size(), coalescedChanges);
+                coalescedChanges = 0;
+            }
+            if (!deletes.isEmpty()) {
+                flowRemover.accept(new ArrayList<>(deletes.values()));
+            }
+            if (!adds.isEmpty()) {
+                flowWriter.accept(new ArrayList<>(adds.values()));
+            }
+        }
+    }
+
+    /**
+     * Stop the timer and hand over whatever is still pending.
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting for a running drain
+     */
+    void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        if (!scheduler.awaitTermination(SHUTDOWN_TIME, TimeUnit.SECONDS)) {
+            List<Runnable> droppedTasks = scheduler.shutdownNow();
+            LOG.error("Flow coalescer was abruptly shut down. [{}] tasks will not be executed.",
+                    droppedTasks.size());
+        }
+        drain();
+    }
+
+    /**
+     * Identity of a flow in the datastore.
+     */
+    private static final class FlowId {
+        private final String sffNodeName;
+        private final TableKey tableKey;
+        private final FlowKey flowKey;
+
+        FlowId(FlowDetails flowDetails) {
+            this.sffNodeName = flowDetails.getSffNodeName();
+            this.tableKey = flowDetails.getTableKey();
+            this.flowKey = flowDetails.getFlowKey();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FlowId)) {
+                return false;
+            }
+            FlowId other = (FlowId) obj;
+            return Objects.equals(sffNodeName, other.sffNodeName) && Objects.equals(tableKey, other.tableKey)
+                    && Objects.equals(flowKey, other.flowKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sffNodeName, tableKey, flowKey);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.openflow.writer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes and removes flows on a set of single threaded lanes.
+ *
+ * <p>
+ * Flows are sharded by SFF node, all the flows of a node always go through
+ * the same lane, so the transactions for a given switch are committed in the
+ * order they were submitted while different switches commit in parallel.
+ * Each transaction holds at most a maximum number of flows. Submitting blocks
+ * while the maximum number of pending transactions is reached, so that
+ * callers are slowed down when the lanes fall behind.
+ */
+class FlowSetLaneExecutor {
+    private static final Logger LOG = LoggerFactory.getLogger(FlowSetLaneExecutor.class);
+    private static final long SHUTDOWN_TIME = 5;
+
+    private final DataBroker dataProvider;
+    private final ExecutorService[] lanes;
+    private final int maxFlowsPerTransaction;
+    private final Semaphore pendingTransactions;
+
+    FlowSetLaneExecutor(DataBroker dataProvider, int numberOfLanes, int maxFlowsPerTransaction,
+            int maxPendingTransactions) {
+        this.dataProvider = dataProvider;
+        this.maxFlowsPerTransaction = maxFlowsPerTransaction;
+        this.pendingTransactions = new Semaphore(maxPendingTransactions);
+        this.lanes = new ExecutorService[numberOfLanes];
+        for (int i = 0; i < numberOfLanes; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("sfc-of-flow-writer-" + i).setDaemon(true).build());
+        }
+    }
+
+    void writeFlows(Collection<FlowDetails> flows) {
+        submit(flows, flowSet -> new FlowSetWriterTask(dataProvider, flowSet));
+    }
+
+    void removeFlows(Collection<FlowDetails> flows) {
+        submit(flows, flowSet -> new FlowSetRemoverTask(dataProvider, flowSet));
+    }
+
+    // package-private so that the tests can provide their own tasks
+    void submit(Collection<FlowDetails> flows, Function<List<FlowDetails>, Runnable> taskFactory) {
+        List<List<FlowDetails>> flowsPerLane = new ArrayList<>(lanes.length);
+        for (int i = 0; i < lanes.length; i++) {
+            flowsPerLane.add(new ArrayList<>());
+        }
+        flows.forEach(flow -> flowsPerLane.get(getLane(flow.getSffNodeName())).add(flow));
+
+        for (int i = 0; i < lanes.length; i++) {
+            List<FlowDetails> laneFlows = flowsPerLane.get(i);
+            for (int from = 0; from < laneFlows.size(); from += maxFlowsPerTransaction) {
+                List<FlowDetails> flowSet = laneFlows.subList(from,
+                        Math.min(from + maxFlowsPerTransaction, laneFlows.size()));
+                execute(lanes[i], taskFactory.apply(flowSet));
+            }
+        }
+    }
+
+    private void execute(ExecutorService lane, Runnable task) {
+        try {
+            pendingTransactions.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Interrupted while waiting for the flow writer lanes, flows not written", e);
+            return;
+        }
+        try {
+            lane.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    pendingTransactions.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingTransactions.release();
+            LOG.error("Flow writer lane rejected the flows", e);
+        }
+    }
+
+    private int getLane(String sffNodeName) {
+        return Math.floorMod(sffNodeName.hashCode(), lanes.length);
+    }
+
+    void shutdown() throws InterruptedException {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        for (ExecutorService lane : lanes) {
+            if (!lane.awaitTermination(SHUTDOWN_TIME, TimeUnit.SECONDS)) {
+                List<Runnable> droppedTasks = lane.shutdownNow();
+                LOG.error("Flow writer lane was abruptly shut down. [{}] tasks will not be executed.",
+                        droppedTasks.size());
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@
 package org.opendaylight.sfc.util.openflow.writer;
 
 import com.google.common.util.concurrent.ListenableFuture;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
@@ -37,13 +38,13 @@ public class FlowSetRemoverTask implements Runnable {
     private WriteTransaction tx;
     private DataBroker dataProvider = null;
 
-    public FlowSetRemoverTask(DataBroker dataBroker, Set<FlowDetails> flowsToDelete) {
+    public FlowSetRemoverTask(DataBroker dataBroker, Collection<FlowDetails> flowsToDelete) {
         tx = null;
         dataProvider = dataBroker;
         this.flowsToDelete.addAll(flowsToDelete);
     }
 
-    public FlowSetRemoverTask(Set<FlowDetails> flowsToDelete, WriteTransaction theTx) {
+    public FlowSetRemoverTask(Collection<FlowDetails> flowsToDelete, WriteTransaction theTx) {
         this(null, flowsToDelete);
         tx = theTx;
     }
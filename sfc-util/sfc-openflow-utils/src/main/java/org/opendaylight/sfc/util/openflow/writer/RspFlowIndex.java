@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.openflow.writer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+
+/**
+ * Index of the flows written for each RSP and SFF, kept to delete them later.
+ *
+ * <p>
+ * Only what is needed to delete a flow is stored: SFF names are interned to
+ * int ids and the flows of an RSP on a SFF are packed into a table id array,
+ * a flow id array and an array of the written flows, so no key or
+ * {@link FlowDetails} object is kept per flow. The written flow is kept so
+ * that a removal can be told apart from an unchanged re-addition of the same
+ * flow. The {@link FlowDetails} are only built back when the flows are
+ * removed from the index.
+ *
+ * <p>
+ * The number of RSPs featuring each SFF is maintained along, so that finding
+ * out whether a SFF is only featured by a given RSP does not need to go over
+ * all the RSPs.
+ */
+final class RspFlowIndex {
+
+    private static final int INITIAL_FLOWS_PER_SFF = 4;
+
+    // interned SFF names
+    private final Map<String, Integer> nodeIds = new HashMap<>();
+    private final List<String> nodeNames = new ArrayList<>();
+    // number of RSPs featuring each SFF, indexed by SFF id
+    private int[] rspsPerNode = new int[16];
+
+    private final Map<Long, Map<Integer, NodeFlows>> rsps = new HashMap<>();
+
+    /**
+     * Store a flow written for an RSP.
+     *
+     * @param rspId
+     *            the RSP the flow belongs to
+     * @param sffNodeName
+     *            the SFF the flow is written to
+     * @param tableId
+     *            the table the flow is written to
+     * @param flowKey
+     *            the flow key
+     * @param flow
+     *            the written flow, null if unknown
+     */
+    synchronized void addFlow(long rspId, String sffNodeName, short tableId, FlowKey flowKey, Flow flow) {
+        Map<Integer, NodeFlows> rspFlows = rsps.computeIfAbsent(rspId, id -> new HashMap<>());
+        int nodeId = internNode(sffNodeName);
+        NodeFlows nodeFlows = rspFlows.get(nodeId);
+        if (nodeFlows == null) {
+            nodeFlows = new NodeFlows();
+            rspFlows.put(nodeId, nodeFlows);
+            rspsPerNode[nodeId]++;
+        }
+        nodeFlows.add(tableId, flowKey.getId().getValue(), flow);
+    }
+
+    synchronized boolean containsRsp(long rspId) {
+        return rsps.containsKey(rspId);
+    }
+
+    /**
+     * Remove an RSP and all its flows.
+     *
+     * @param rspId
+     *            the RSP to remove
+     * @return the flows of the RSP, or null if the RSP does not exist
+     */
+    synchronized List<FlowDetails> removeRsp(long rspId) {
+        Map<Integer, NodeFlows> rspFlows = rsps.remove(rspId);
+        if (rspFlows == null) {
+            return null;
+        }
+        List<FlowDetails> flowDetailsList = new ArrayList<>();
+        rspFlows.forEach((nodeId, nodeFlows) -> {
+            rspsPerNode[nodeId]--;
+            nodeFlows.addTo(flowDetailsList, nodeNames.get(nodeId), rspId);
+        });
+        return flowDetailsList;
+    }
+
+    /**
+     * Get the SFFs of an RSP that are not featured in any other RSP.
+     *
+     * @param rspId
+     *            the RSP
+     * @return the names of the SFFs only featured in the given RSP
+     */
+    synchronized Set<String> getNodesOnlyIn(long rspId) {
+        Map<Integer, NodeFlows> rspFlows = rsps.get(rspId);
+        if (rspFlows == null) {
+            return Collections.emptySet();
+        }
+        Set<String> nodes = new HashSet<>();
+        rspFlows.keySet().stream().filter(nodeId -> rspsPerNode[nodeId] == 1)
+                .forEach(nodeId -> nodes.add(nodeNames.get(nodeId)));
+        return nodes;
+    }
+
+    /**
+     * Remove the flows of an RSP on a given SFF. The RSP is kept even if it
+     * is left without flows.
+     *
+     * @param rspId
+     *            the RSP
+     * @param sffNodeName
+     *            the SFF
+     * @return the removed flows
+     */
+    synchronized List<FlowDetails> removeNodeFlows(long rspId, String sffNodeName) {
+        Map<Integer, NodeFlows> rspFlows = rsps.get(rspId);
+        Integer nodeId = nodeIds.get(sffNodeName);
+        NodeFlows nodeFlows = rspFlows == null || nodeId == null ? null : rspFlows.remove(nodeId);
+        if (nodeFlows == null) {
+            return Collections.emptyList();
+        }
+        rspsPerNode[nodeId]--;
+        List<FlowDetails> flowDetailsList = new ArrayList<>(nodeFlows.size);
+        nodeFlows.addTo(flowDetailsList, sffNodeName, rspId);
+        return flowDetailsList;
+    }
+
+    /**
+     * Remove all the RSPs and their flows.
+     */
+    synchronized void clear() {
+        rsps.clear();
+        Arrays.fill(rspsPerNode, 0);
+    }
+
+    /**
+     * Get a copy of the index contents, flows per SFF per RSP. Meant for
+     * debugging and testing only as it builds every {@link FlowDetails}.
+     * Later changes to the index are not reflected in the copy, and changes to
+     * the copy are not reflected in the index.
+     *
+     * @return the flows per SFF name per RSP id
+     */
+    synchronized Map<Long, Map<String, List<FlowDetails>>> snapshot() {
+        Map<Long, Map<String, List<FlowDetails>>> flows = new HashMap<>();
+        rsps.forEach((rspId, rspFlows) -> {
+            Map<String, List<FlowDetails>> flowsPerNode = new HashMap<>();
+            rspFlows.forEach((nodeId, nodeFlows) -> {
+                List<FlowDetails> flowDetailsList = new ArrayList<>(nodeFlows.size);
+                nodeFlows.addTo(flowDetailsList, nodeNames.get(nodeId), rspId);
+                flowsPerNode.put(nodeNames.get(nodeId), flowDetailsList);
+            });
+            flows.put(rspId, flowsPerNode);
+        });
+        return flows;
+    }
+
+    private int internNode(String sffNodeName) {
+        Integer nodeId = nodeIds.get(sffNodeName);
+        if (nodeId == null) {
+            nodeId = nodeNames.size();
+            nodeIds.put(sffNodeName, nodeId);
+            nodeNames.add(sffNodeName);
+            if (nodeId == rspsPerNode.length) {
+                rspsPerNode = Arrays.copyOf(rspsPerNode, nodeId * 2);
+            }
+        }
+        return nodeId;
+    }
+
+    /**
+     * Packed (table id, flow id, flow) records of the flows of an RSP on a
+     * SFF.
+     */
+    private static final class NodeFlows {
+        private short[] tableIds = new short[INITIAL_FLOWS_PER_SFF];
+        private String[] flowIds = new String[INITIAL_FLOWS_PER_SFF];
+        private Flow[] flows = new Flow[INITIAL_FLOWS_PER_SFF];
+        private int size;
+
+        void add(short tableId, String flowId, Flow flow) {
+            if (size == tableIds.length) {
+                tableIds = Arrays.copyOf(tableIds, size * 2);
+                flowIds = Arrays.copyOf(flowIds, size * 2);
+                flows = Arrays.copyOf(flows, size * 2);
+            }
+            tableIds[size] = tableId;
+            flowIds[size] = flowId;
+            flows[size] = flow;
+            size++;
+        }
+
+        void addTo(List<FlowDetails> flowDetailsList, String sffNodeName, long rspId) {
+            for (int i = 0; i < size; i++) {
+                flowDetailsList.add(new FlowDetails(sffNodeName, new FlowKey(new FlowId(flowIds[i])),
+                        new TableKey(tableIds[i]), flows[i], rspId));
+            }
+        }
+    }
+}
@@ -9,20 +9,14 @@
 package org.opendaylight.sfc.util.openflow.writer;
 
 import com.google.common.eventbus.EventBus;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
@@ -31,6 +25,7 @@ import org.opendaylight.sfc.provider.api.SfcDataStoreAPI;
 import org.opendaylight.sfc.util.openflow.OpenflowConstants;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowCapableNode;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.group.types.rev131018.groups.Group;
@@ -62,34 +57,54 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
 
     private final ExecutorService threadPoolExecutorService;
 
+    // when set, flows are written by SFF node on several lanes
+    private FlowSetLaneExecutor laneExecutor;
+
+    // when set, only the net flow changes within a time window are written
+    private FlowSetCoalescer coalescer;
+
     private FlowBuilder flowBuilder;
 
     // Store all flows associated w/ each rendered service path,
     // indexed by the corresponding SFFs
-    private final Map<Long, Map<String, List<FlowDetails>>> rspNameToFlowsMap;
+    private final RspFlowIndex rspFlowIndex;
 
     // temporary list of flows to be deleted. All of them will be deleted when
-    // deleteFlowSet() is called
+    // deleteFlowSet() is called. Private to each writer, see newRenderWriter()
     private final Set<FlowDetails> setOfFlowsToDelete;
-    // temporary list of flows to be added. All of them will be deleted when
-    // flushFlows() is called
+    // temporary list of flows to be added. All of them will be added when
+    // flushFlows() is called. Private to each writer, see newRenderWriter()
     private final Set<FlowDetails> setOfFlowsToAdd;
 
     private DataBroker dataProvider;
 
-    private WriteTransaction tx;
+    private volatile WriteTransaction tx;
 
     private final EventBus eventBus;
 
     public SfcOfFlowWriterImpl() {
         this.threadPoolExecutorService = Executors.newSingleThreadExecutor();
-        this.rspNameToFlowsMap = new ConcurrentHashMap<>();
+        this.rspFlowIndex = new RspFlowIndex();
         this.flowBuilder = null;
         this.setOfFlowsToDelete = new HashSet<>();
         this.setOfFlowsToAdd = new HashSet<>();
         eventBus = new EventBus();
     }
 
+    // a writer with its own flow buffers, writing through the given one
+    private SfcOfFlowWriterImpl(SfcOfFlowWriterImpl writer) {
+        this.threadPoolExecutorService = writer.threadPoolExecutorService;
+        this.laneExecutor = writer.laneExecutor;
+        this.coalescer = writer.coalescer;
+        this.rspFlowIndex = writer.rspFlowIndex;
+        this.dataProvider = writer.dataProvider;
+        this.tx = writer.tx;
+        this.eventBus = writer.eventBus;
+        this.flowBuilder = null;
+        this.setOfFlowsToDelete = new HashSet<>();
+        this.setOfFlowsToAdd = new HashSet<>();
+    }
+
     public SfcOfFlowWriterImpl(DataBroker theDataBroker) {
         this();
         dataProvider = theDataBroker;
@@ -100,12 +115,59 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         dataProvider = dataBroker;
     }
 
+    /**
+     * Write and remove the flows on several single threaded lanes sharded by
+     * SFF node, each transaction holding the flows of a single lane. The order
+     * of the transactions is kept per SFF node, different nodes are written in
+     * parallel. Flushing blocks while maxPendingTransactions are waiting to be
+     * committed.
+     *
+     * <p>
+     * In this mode every transaction is created by the writer, so it must not
+     * be combined with {@link #injectTransaction(WriteTransaction)}. It must be
+     * called after the data provider is set.
+     *
+     * @param numberOfLanes
+     *            number of lanes (threads)
+     * @param maxFlowsPerTransaction
+     *            maximum number of flows written or removed per transaction
+     * @param maxPendingTransactions
+     *            maximum number of transactions waiting in the lanes
+     */
+    public void setShardedWrites(int numberOfLanes, int maxFlowsPerTransaction, int maxPendingTransactions) {
+        laneExecutor = new FlowSetLaneExecutor(dataProvider, numberOfLanes, maxFlowsPerTransaction,
+                maxPendingTransactions);
+    }
+
+    /**
+     * Hold back the flows flushed or deleted for a time window, and only write
+     * the net change per flow once the window elapses. A flow deleted and then
+     * written again within the window is just overwritten, so RSPs which are
+     * deleted and re-created in a row do not churn the switches.
+     *
+     * <p>
+     * The flows are written in transactions of their own, so it must not be
+     * combined with {@link #injectTransaction(WriteTransaction)}. It must be
+     * called after the data provider is set.
+     *
+     * @param windowMillis
+     *            time window in milliseconds
+     */
+    public void setCoalescingWindow(long windowMillis) {
+        coalescer = new FlowSetCoalescer(windowMillis, this::submitFlowsToWrite, this::submitFlowsToRemove);
+    }
+
     @Override
     public void injectTransaction(WriteTransaction theTx) {
         tx = theTx;
         eventBus.post(tx);
     }
 
+    @Override
+    public SfcOfFlowWriterInterface newRenderWriter() {
+        return new SfcOfFlowWriterImpl(this);
+    }
+
     /**
      * Shutdown the thread pool.
      *
@@ -119,6 +181,12 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
     @Override
     public void shutdown() throws ExecutionException, InterruptedException {
         // When we close this service we need to shutdown our executor!
+        if (coalescer != null) {
+            coalescer.shutdown();
+        }
+        if (laneExecutor != null) {
+            laneExecutor.shutdown();
+        }
         threadPoolExecutorService.shutdown();
         if (!threadPoolExecutorService.awaitTermination(SHUTDOWN_TIME, TimeUnit.SECONDS)) {
             LOG.error("SfcOfFlowProgrammerImpl Executor did not terminate in the specified time.");
@@ -155,11 +223,12 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         LOG.debug("writeFlow storing flow to Node {}, table {}", sffNodeName, flow.getTableId());
 
         // Add the flow to the set of flows to be added in a single transaction
+        Flow builtFlow = flowBuilder.build();
         setOfFlowsToAdd.add(new FlowDetails(sffNodeName, flow.getKey(), new TableKey(flow.getTableId()),
-                flowBuilder.build(), rspId));
+                builtFlow, rspId));
 
         // This will store the flow info and rspId for removal later
-        storeFlowDetails(rspId, sffNodeName, flow.getKey(), flow.getTableId());
+        storeFlowDetails(rspId, sffNodeName, flow.getKey(), flow.getTableId(), builtFlow);
     }
 
     @Override
@@ -171,13 +240,13 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         setOfFlowsToAdd.add(theFlowData);
 
         storeFlowDetails(theFlowData.getRspId(), theFlowData.getSffNodeName(), theFlowData.getFlowKey(),
-                theFlowData.getTableKey().getId());
+                theFlowData.getTableKey().getId(), theFlowData.getFlow());
     }
 
     @Override
     public boolean writeFlows(Collection<FlowDetails> theFlows) {
         theFlows.forEach(flow -> storeFlowDetails(flow.getRspId(), flow.getSffNodeName(), flow.getFlowKey(),
-                flow.getTableKey().getId()));
+                flow.getTableKey().getId(), flow.getFlow()));
         return setOfFlowsToAdd.addAll(theFlows);
     }
 
@@ -216,6 +285,18 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
             return;
         }
 
+        if (coalescer != null) {
+            coalescer.writeFlows(setOfFlowsToAdd);
+            setOfFlowsToAdd.clear();
+            return;
+        }
+
+        if (laneExecutor != null) {
+            laneExecutor.writeFlows(setOfFlowsToAdd);
+            setOfFlowsToAdd.clear();
+            return;
+        }
+
         FlowSetWriterTask writerThread = tx == null ? new FlowSetWriterTask(dataProvider, setOfFlowsToAdd)
                 : new FlowSetWriterTask(setOfFlowsToAdd, tx);
 
@@ -230,6 +311,40 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         setOfFlowsToAdd.clear();
     }
 
+    /**
+     * Write the flows coming out of the coalescer, each set in a transaction
+     * of its own.
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void submitFlowsToWrite(Collection<FlowDetails> flows) {
+        if (laneExecutor != null) {
+            laneExecutor.writeFlows(flows);
+            return;
+        }
+        try {
+            threadPoolExecutorService.execute(new FlowSetWriterTask(dataProvider, flows));
+        } catch (Exception ex) {
+            LOG.error(LOGSTR_THREAD_EXCEPTION, ex.toString(), ex);
+        }
+    }
+
+    /**
+     * Remove the flows coming out of the coalescer, each set in a transaction
+     * of its own.
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void submitFlowsToRemove(Collection<FlowDetails> flows) {
+        if (laneExecutor != null) {
+            laneExecutor.removeFlows(flows);
+            return;
+        }
+        try {
+            threadPoolExecutorService.execute(new FlowSetRemoverTask(dataProvider, flows));
+        } catch (Exception ex) {
+            LOG.error(LOGSTR_THREAD_EXCEPTION, ex.toString(), ex);
+        }
+    }
+
     /**
      * Purge any unwritten flows not written-deleted yet. This should be called
      * upon errors, when the remaining buffered flows should not be persisted
@@ -250,19 +365,13 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
      *            - the flow key of the new flow
      * @param tableId
      *            - the table the flow was written to
+     * @param flow
+     *            - the flow written
      */
-    private void storeFlowDetails(final Long rspId, final String sffNodeName, FlowKey flowKey, short tableId) {
+    private void storeFlowDetails(final Long rspId, final String sffNodeName, FlowKey flowKey, short tableId,
+            Flow flow) {
         LOG.debug("storeFlowDetails - gonna store rspId: {}, sffName: {}", rspId, sffNodeName);
-        if (!rspNameToFlowsMap.containsKey(rspId)) {
-            rspNameToFlowsMap.put(rspId, new HashMap<>());
-        }
-
-        if (!rspNameToFlowsMap.get(rspId).containsKey(sffNodeName)) {
-            rspNameToFlowsMap.get(rspId).put(sffNodeName, new ArrayList<>());
-        }
-
-        rspNameToFlowsMap.get(rspId).get(sffNodeName)
-                .add(new FlowDetails(sffNodeName, flowKey, new TableKey(tableId), rspId));
+        rspFlowIndex.addFlow(rspId, sffNodeName, tableId, flowKey, flow);
     }
 
     @Override
@@ -304,23 +413,17 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
      */
     @Override
     public void deleteRspFlows(final Long rspId) {
-        if (!rspNameToFlowsMap.containsKey(rspId)) {
+        List<FlowDetails> flowDetailsList = rspFlowIndex.removeRsp(rspId);
+        if (flowDetailsList == null) {
             LOG.warn("deleteRspFlows() Attempting to delete RSP [{}], and it does not exist", rspId);
             return;
         }
 
-        List<FlowDetails> flowDetailsList = new ArrayList<>();
-        rspNameToFlowsMap.get(rspId).forEach((sffName, flowsPerSff) -> {
-            flowDetailsList.addAll(flowsPerSff);
-            flowsPerSff.clear();
-        });
-
         if (flowDetailsList.isEmpty()) {
             LOG.warn("deleteRspFlows() no flows exist for RSP [{}]", rspId);
             return;
         }
 
-        rspNameToFlowsMap.remove(rspId);
         setOfFlowsToDelete.addAll(flowDetailsList);
         LOG.debug("deleteRspFlows() added {} flows to the delete list", setOfFlowsToDelete.size());
     }
@@ -333,6 +436,18 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
         if (setOfFlowsToDelete.isEmpty()) {
             return;
         }
+
+        if (coalescer != null) {
+            coalescer.removeFlows(setOfFlowsToDelete);
+            setOfFlowsToDelete.clear();
+            return;
+        }
+
+        if (laneExecutor != null) {
+            laneExecutor.removeFlows(setOfFlowsToDelete);
+            setOfFlowsToDelete.clear();
+            return;
+        }
         FlowSetRemoverTask fsrt = tx == null ? new FlowSetRemoverTask(dataProvider, setOfFlowsToDelete)
                 : new FlowSetRemoverTask(setOfFlowsToDelete, tx);
 
@@ -349,52 +464,73 @@ public class SfcOfFlowWriterImpl implements SfcOfFlowWriterInterface {
     }
 
     /**
-     * Clear all flows from the SFFs whenever they are not featured in any RSP.
+     * Delete all flows created for the given rspId, and the initialization
+     * flows of the SFFs of the RSP which are no longer featured in any RSP.
+     * Unlike {@link #clearSffsIfNoRspExists()}, the SFFs not featured in the
+     * RSP are left alone, so that RSPs on other SFFs can be rendered
+     * meanwhile. The flows are stored in the deletion buffer, as
+     * {@link #deleteRspFlows(Long)} does.
      *
+     * @param rspId
+     *            - the rspId to delete flows for
      * @return the SFFs that had their flows removed because they did not
-     *         feature in any RSP
+     *         feature in any RSP anymore
      */
     @Override
-    public Set<NodeId> clearSffsIfNoRspExists() {
+    public Set<NodeId> deleteRspFlowsAndOrphanSffs(final Long rspId) {
         Set<NodeId> sffNodeIDs = new HashSet<>();
-
-        if (!rspNameToFlowsMap.containsKey(OpenflowConstants.SFC_FLOWS)) {
-            LOG.warn("clearSffsIfNoRspExists() - Attempting to delete initialization flows, and they do not exist");
-            return sffNodeIDs;
+        // the flows of the RSP and of its orphan SFFs are removed from the
+        // index at once
+        synchronized (rspFlowIndex) {
+            List<FlowDetails> flowDetailsList = rspFlowIndex.removeRsp(rspId);
+            if (flowDetailsList == null || flowDetailsList.isEmpty()) {
+                LOG.warn("deleteRspFlowsAndOrphanSffs() no flows exist for RSP [{}]", rspId);
+                return sffNodeIDs;
+            }
+            setOfFlowsToDelete.addAll(flowDetailsList);
+
+            Set<String> orphanSffs = rspFlowIndex.getNodesOnlyIn(OpenflowConstants.SFC_FLOWS);
+            orphanSffs.retainAll(flowDetailsList.stream().map(FlowDetails::getSffNodeName)
+                    .collect(Collectors.toSet()));
+            orphanSffs.forEach(sffName -> {
+                sffNodeIDs.add(new NodeId(sffName));
+                setOfFlowsToDelete.addAll(rspFlowIndex.removeNodeFlows(OpenflowConstants.SFC_FLOWS, sffName));
+            });
         }
-
-        Map<String, List<FlowDetails>> theInitializationFlows = rspNameToFlowsMap.get(OpenflowConstants.SFC_FLOWS);
-
-        // an orphan SFF is a forwarder not featured in any RSP
-        Predicate<String> isOrphanSff = sffName -> this.timesFeaturedInRsps(sffName) == 1;
-
-        Set<String> orphanSffs = theInitializationFlows.entrySet().stream().map(Entry::getKey).filter(isOrphanSff)
-                .collect(Collectors.toSet());
-
-        orphanSffs.forEach(sffName -> {
-            // mark this SFF as orphan
-            sffNodeIDs.add(new NodeId(sffName));
-            // mark the set of flows to remove from the switches
-            setOfFlowsToDelete.addAll(theInitializationFlows.get(sffName));
-            // delete the cache of initialization flows of orphan SFFs
-            theInitializationFlows.remove(sffName);
-        });
-
         return sffNodeIDs;
     }
 
     /**
-     * Given the name of an sff, returns the number of times that SFF is
-     * featured in RSPs.
+     * Clear all flows from the SFFs whenever they are not featured in any RSP.
      *
-     * @param sffName
-     *            the name of a service function forwarder
-     * @return the number of times that SFF is featured in RSPs
+     * @return the SFFs that had their flows removed because they did not
+     *         feature in any RSP
      */
-    private long timesFeaturedInRsps(String sffName) {
-        Predicate<Entry<Long, Map<String, List<FlowDetails>>>> isSffFeatured = theInputEntry -> theInputEntry.getValue()
-                .containsKey(sffName);
-        return rspNameToFlowsMap.entrySet().stream().filter(isSffFeatured).count();
+    @Override
+    public Set<NodeId> clearSffsIfNoRspExists() {
+        Set<NodeId> sffNodeIDs = new HashSet<>();
+
+        synchronized (rspFlowIndex) {
+            if (!rspFlowIndex.containsRsp(OpenflowConstants.SFC_FLOWS)) {
+                LOG.warn("clearSffsIfNoRspExists() - Attempting to delete initialization flows, "
+                        + "and they do not exist");
+                return sffNodeIDs;
+            }
+
+            // an orphan SFF is a forwarder not featured in any RSP, i.e. only
+            // featured by the initialization flows
+            Set<String> orphanSffs = rspFlowIndex.getNodesOnlyIn(OpenflowConstants.SFC_FLOWS);
+
+            orphanSffs.forEach(sffName -> {
+                // mark this SFF as orphan
+                sffNodeIDs.add(new NodeId(sffName));
+                // mark the set of flows to remove from the switches, and
+                // delete the cache of initialization flows of orphan SFFs
+                setOfFlowsToDelete.addAll(rspFlowIndex.removeNodeFlows(OpenflowConstants.SFC_FLOWS, sffName));
+            });
+        }
+
+        return sffNodeIDs;
     }
 
     /**
@@ -63,6 +63,17 @@ public interface SfcOfFlowWriterInterface {
      */
     void deleteRspFlows(Long rspId);
 
+    /**
+     * Delete all flows created for a particular RSP, and the initialization
+     * flows of its SFFs whenever they're no longer featured in any
+     * RenderedServicePath. The SFFs not featured in the RSP are left alone.
+     *
+     * @param rspId
+     *            the ID of the RSP
+     * @return Set of NodeIDs of cleared SFFs (ex: "openflow:99344160872776")
+     */
+    Set<NodeId> deleteRspFlowsAndOrphanSffs(Long rspId);
+
     /**
      * Delete initialization flows from SFFs whenever they're no longer featured
      * in a RenderedServicePath.
@@ -87,4 +98,15 @@ public interface SfcOfFlowWriterInterface {
 
     // If the impl uses threads, shut it down
     void shutdown() throws ExecutionException, InterruptedException;
+
+    /**
+     * Create a writer buffering its own flows to be flushed, deleted or
+     * purged, and writing them through this one. Each RSP is rendered with its
+     * own writer, so that the flows of the RSPs rendered concurrently are kept
+     * apart whatever the threads they are rendered on. The writer created must
+     * not be shut down.
+     *
+     * @return the writer
+     */
+    SfcOfFlowWriterInterface newRenderWriter();
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.openflow.writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.Flow;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+
+public class FlowSetCoalescerTest {
+
+    // long enough for the timer never to fire during a test
+    private static final long WINDOW_MILLIS = 3600000;
+
+    private final List<FlowDetails> writtenFlows = new ArrayList<>();
+    private final List<FlowDetails> removedFlows = new ArrayList<>();
+    private FlowSetCoalescer coalescer;
+
+    @Before
+    public void setup() {
+        coalescer = new FlowSetCoalescer(WINDOW_MILLIS, writtenFlows::addAll, removedFlows::addAll);
+    }
+
+    @After
+    public void teardown() throws Exception {
+        coalescer.shutdown();
+    }
+
+    private static FlowDetails flow(String sffName, short tableId, String flowId) {
+        return new FlowDetails(sffName, new FlowKey(new FlowId(flowId)), new TableKey(tableId), 1L);
+    }
+
+    private static FlowDetails flow(String sffName, short tableId, String flowId, int priority) {
+        FlowKey flowKey = new FlowKey(new FlowId(flowId));
+        Flow flow = new FlowBuilder().setKey(flowKey).setPriority(priority).build();
+        return new FlowDetails(sffName, flowKey, new TableKey(tableId), flow, 1L);
+    }
+
+    @Test
+    public void deleteFollowedByEqualAddIsCancelled() {
+        coalescer.removeFlows(Collections.singletonList(flow("sff1", (short) 1, "flow1", 10)));
+        coalescer.writeFlows(Collections.singletonList(flow("sff1", (short) 1, "flow1", 10)));
+        coalescer.drain();
+
+        assertTrue("Must be empty", removedFlows.isEmpty());
+        assertTrue("Must be empty", writtenFlows.isEmpty());
+    }
+
+    @Test
+    public void deleteFromTheIndexFollowedByEqualAddIsCancelled() {
+        RspFlowIndex rspFlowIndex = new RspFlowIndex();
+        FlowDetails written = flow("sff1", (short) 1, "flow1", 10);
+        rspFlowIndex.addFlow(1L, written.getSffNodeName(), written.getTableKey().getId(), written.getFlowKey(),
+                written.getFlow());
+
+        // the RSP is deleted then rendered again with another id
+        coalescer.removeFlows(rspFlowIndex.removeRsp(1L));
+        coalescer.writeFlows(Collections.singletonList(new FlowDetails("sff1", written.getFlowKey(),
+                written.getTableKey(), flow("sff1", (short) 1, "flow1", 10).getFlow(), 2L)));
+        coalescer.drain();
+
+        assertTrue("Must be empty", removedFlows.isEmpty());
+        assertTrue("Must be empty", writtenFlows.isEmpty());
+    }
+
+    @Test
+    public void deleteFollowedByDifferentAddKeepsTheAdd() {
+        coalescer.removeFlows(Collections.singletonList(flow("sff1", (short) 1, "flow1", 10)));
+        FlowDetails added = flow("sff1", (short) 1, "flow1", 20);
+        coalescer.writeFlows(Collections.singletonList(added));
+        coalescer.drain();
+
+        assertTrue("Must be empty", removedFlows.isEmpty());
+        assertEquals("Must be equal", Collections.singletonList(added), writtenFlows);
+    }
+
+    @Test
+    public void addFollowedByDeleteKeepsTheDelete() {
+        coalescer.writeFlows(Collections.singletonList(flow("sff1", (short) 1, "flow1")));
+        FlowDetails removed = flow("sff1", (short) 1, "flow1");
+        coalescer.removeFlows(Collections.singletonList(removed));
+        coalescer.drain();
+
+        assertTrue("Must be empty", writtenFlows.isEmpty());
+        assertEquals("Must be equal", Collections.singletonList(removed), removedFlows);
+    }
+
+    @Test
+    public void repeatedAddsAreMerged() {
+        FlowDetails otherTable = flow("sff1", (short) 2, "flow1");
+        FlowDetails otherSff = flow("sff2", (short) 1, "flow1");
+        FlowDetails last = flow("sff1", (short) 1, "flow1");
+        coalescer.writeFlows(Arrays.asList(flow("sff1", (short) 1, "flow1"), otherTable, otherSff));
+        coalescer.writeFlows(Collections.singletonList(last));
+        coalescer.drain();
+
+        assertEquals("Must be equal", Arrays.asList(last, otherTable, otherSff), writtenFlows);
+
+        // nothing left after a drain
+        writtenFlows.clear();
+        coalescer.drain();
+        assertTrue("Must be empty", writtenFlows.isEmpty());
+    }
+}
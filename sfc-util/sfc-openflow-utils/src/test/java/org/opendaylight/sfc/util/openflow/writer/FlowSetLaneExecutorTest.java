@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.openflow.writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+
+public class FlowSetLaneExecutorTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private FlowSetLaneExecutor laneExecutor;
+
+    @After
+    public void teardown() throws Exception {
+        laneExecutor.shutdown();
+    }
+
+    private static FlowDetails flow(String sffName, String flowId) {
+        return new FlowDetails(sffName, new FlowKey(new FlowId(flowId)), new TableKey((short) 1), 1L);
+    }
+
+    private static List<String> flowIds(List<FlowDetails> flows) {
+        return flows.stream().map(flow -> flow.getFlowKey().getId().getValue()).collect(Collectors.toList());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void sameNodeTransactionsKeepTheirOrder() throws Exception {
+        laneExecutor = new FlowSetLaneExecutor(null, 4, 1, 16);
+        List<String> executed = new CopyOnWriteArrayList<>();
+
+        laneExecutor.submit(Arrays.asList(flow("sff1", "flow1"), flow("sff1", "flow2")),
+            flowSet -> () -> executed.addAll(flowIds(flowSet)));
+        laneExecutor.submit(Arrays.asList(flow("sff1", "flow3"), flow("sff1", "flow4")),
+            flowSet -> () -> executed.addAll(flowIds(flowSet)));
+        laneExecutor.shutdown();
+
+        assertEquals("Must be equal", Arrays.asList("flow1", "flow2", "flow3", "flow4"), executed);
+    }
+
+    @Test
+    public void differentNodesAreWrittenInParallel() throws Exception {
+        laneExecutor = new FlowSetLaneExecutor(null, 2, 1, 16);
+        // the two nodes are sharded on different lanes
+        assertNotEquals(Math.floorMod("sff1".hashCode(), 2), Math.floorMod("sff2".hashCode(), 2));
+        CountDownLatch sff2Written = new CountDownLatch(1);
+        List<String> executed = new CopyOnWriteArrayList<>();
+
+        // the sff1 transaction waits for the sff2 one, which would never run
+        // if both were written on the same lane
+        laneExecutor.submit(Arrays.asList(flow("sff1", "flow1"), flow("sff2", "flow2")), flowSet -> () -> {
+            if (flowSet.get(0).getSffNodeName().equals("sff1")) {
+                await(sff2Written);
+            } else {
+                sff2Written.countDown();
+            }
+            executed.addAll(flowIds(flowSet));
+        });
+        laneExecutor.shutdown();
+
+        assertEquals("Must be equal", Arrays.asList("flow2", "flow1"), executed);
+    }
+
+    @Test
+    public void transactionsAreSplitAtTheMaximumNumberOfFlows() throws Exception {
+        laneExecutor = new FlowSetLaneExecutor(null, 1, 2, 16);
+        List<List<String>> transactions = new CopyOnWriteArrayList<>();
+
+        laneExecutor.submit(Arrays.asList(flow("sff1", "flow1"), flow("sff1", "flow2"), flow("sff1", "flow3"),
+                flow("sff1", "flow4"), flow("sff1", "flow5")),
+            flowSet -> () -> transactions.add(flowIds(flowSet)));
+        laneExecutor.shutdown();
+
+        assertEquals("Must be equal", Arrays.asList(Arrays.asList("flow1", "flow2"), Arrays.asList("flow3", "flow4"),
+                Collections.singletonList("flow5")), transactions);
+    }
+
+    @Test
+    public void submitBlocksWhileTheLanesAreFull() throws Exception {
+        laneExecutor = new FlowSetLaneExecutor(null, 1, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> executed = new CopyOnWriteArrayList<>();
+
+        laneExecutor.submit(Collections.singletonList(flow("sff1", "flow1")), flowSet -> () -> {
+            await(release);
+            executed.addAll(flowIds(flowSet));
+        });
+        Thread submitter = new Thread(() -> laneExecutor.submit(Collections.singletonList(flow("sff2", "flow2")),
+            flowSet -> () -> executed.addAll(flowIds(flowSet))));
+        submitter.start();
+
+        // the second submission waits for the pending transaction
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (submitter.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+        assertEquals("Must be equal", Thread.State.WAITING, submitter.getState());
+        assertTrue("Must be empty", executed.isEmpty());
+
+        release.countDown();
+        submitter.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        assertFalse(submitter.isAlive());
+        laneExecutor.shutdown();
+
+        assertEquals("Must be equal", Arrays.asList("flow1", "flow2"), executed);
+    }
+}
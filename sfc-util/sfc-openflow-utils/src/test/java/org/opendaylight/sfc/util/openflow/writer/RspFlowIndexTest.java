@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.sfc.util.openflow.writer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.FlowId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.TableKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.flow.inventory.rev130819.tables.table.FlowKey;
+
+public class RspFlowIndexTest {
+
+    private static final long INIT_RSP = 0;
+
+    private RspFlowIndex rspFlowIndex;
+
+    @Before
+    public void setup() {
+        rspFlowIndex = new RspFlowIndex();
+    }
+
+    private static FlowKey flowKey(String flowId) {
+        return new FlowKey(new FlowId(flowId));
+    }
+
+    @Test
+    public void removeRsp() {
+        rspFlowIndex.addFlow(1, "sff1", (short) 1, flowKey("flow1"), null);
+        rspFlowIndex.addFlow(1, "sff1", (short) 2, flowKey("flow2"), null);
+        rspFlowIndex.addFlow(2, "sff1", (short) 1, flowKey("flow3"), null);
+
+        assertEquals("Must be equal",
+                Arrays.asList(new FlowDetails("sff1", flowKey("flow1"), new TableKey((short) 1), 1L),
+                        new FlowDetails("sff1", flowKey("flow2"), new TableKey((short) 2), 1L)),
+                rspFlowIndex.removeRsp(1));
+        assertFalse(rspFlowIndex.containsRsp(1));
+        assertNull(rspFlowIndex.removeRsp(1));
+        assertTrue(rspFlowIndex.containsRsp(2));
+    }
+
+    @Test
+    public void nodesOnlyInRsp() {
+        rspFlowIndex.addFlow(INIT_RSP, "sff1", (short) 0, flowKey("init1"), null);
+        rspFlowIndex.addFlow(INIT_RSP, "sff2", (short) 0, flowKey("init2"), null);
+        rspFlowIndex.addFlow(1, "sff1", (short) 1, flowKey("flow1"), null);
+
+        assertEquals("Must be equal", Collections.singleton("sff2"), rspFlowIndex.getNodesOnlyIn(INIT_RSP));
+
+        rspFlowIndex.removeRsp(1);
+        assertEquals("Must be equal", 2, rspFlowIndex.getNodesOnlyIn(INIT_RSP).size());
+
+        assertEquals("Must be equal",
+                Collections.singletonList(new FlowDetails("sff2", flowKey("init2"), new TableKey((short) 0),
+                        INIT_RSP)),
+                rspFlowIndex.removeNodeFlows(INIT_RSP, "sff2"));
+        assertEquals("Must be equal", Collections.singleton("sff1"), rspFlowIndex.getNodesOnlyIn(INIT_RSP));
+        // the RSP is kept even without flows
+        rspFlowIndex.removeNodeFlows(INIT_RSP, "sff1");
+        assertTrue(rspFlowIndex.containsRsp(INIT_RSP));
+        assertTrue(rspFlowIndex.snapshot().get(INIT_RSP).isEmpty());
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.sfc.util.vpp;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Accumulates the VPP configuration written by {@link SfcVppUtils} on the
+ * calling thread, i.e. all the configuration of an RSP, into one write
+ * transaction per VPP node mount point, so that each node gets a single
+ * NETCONF commit instead of one per configured object.
+ *
+ * <p>
+ * A batch is opened with {@link #open(String)} and submits its transactions
+ * with {@link #submit()} or when closed, to be used with try-with-resources.
+ * A batch whose configuration could not be completely written is discarded
+ * with {@link #cancel()} instead, so that no partial configuration is
+ * committed, and the bookkeeping {@link SfcVppUtils} did for it is rolled
+ * back. Without an open batch, each {@link SfcVppUtils} write is submitted on its
+ * own. A batch opened while another one is open on the same thread joins
+ * the outer one.
+ */
+public final class SfcVppEditBatch implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcVppEditBatch.class);
+
+    private static final ThreadLocal<SfcVppEditBatch> CURRENT_BATCH = new ThreadLocal<>();
+
+    private final String description;
+    private final boolean outer;
+    private final Map<DataBroker, WriteTransaction> transactions;
+    // undo the bookkeeping of the batched configuration, in reverse order
+    private final List<Runnable> rollbacks;
+    private boolean closed;
+
+    private SfcVppEditBatch(String description, SfcVppEditBatch outerBatch) {
+        this.description = description;
+        this.outer = outerBatch == null;
+        this.transactions = outer ? new LinkedHashMap<>() : outerBatch.transactions;
+        this.rollbacks = outer ? new ArrayList<>() : outerBatch.rollbacks;
+    }
+
+    /**
+     * Opens a batch on the calling thread.
+     *
+     * @param description
+     *            the description of the batched configuration, for logging
+     * @return the batch, to be closed once all the configuration is written
+     */
+    public static SfcVppEditBatch open(String description) {
+        SfcVppEditBatch outerBatch = CURRENT_BATCH.get();
+        SfcVppEditBatch batch = new SfcVppEditBatch(description, outerBatch);
+        if (outerBatch == null) {
+            CURRENT_BATCH.set(batch);
+        }
+        return batch;
+    }
+
+    static boolean isOpen() {
+        return CURRENT_BATCH.get() != null;
+    }
+
+    /**
+     * Gets the transaction to write on a VPP node mount point: the one of
+     * the open batch of the calling thread, or a new one if no batch is open.
+     *
+     * @param mountPoint
+     *            the data broker of the VPP node mount point
+     * @return the write transaction
+     */
+    static WriteTransaction getWriteTransaction(DataBroker mountPoint) {
+        SfcVppEditBatch batch = CURRENT_BATCH.get();
+        if (batch == null) {
+            return mountPoint.newWriteOnlyTransaction();
+        }
+        return batch.transactions.computeIfAbsent(mountPoint, DataBroker::newWriteOnlyTransaction);
+    }
+
+    /**
+     * Registers how to undo bookkeeping done for the configuration written on
+     * the open batch of the calling thread, should the batch be cancelled.
+     * Does nothing if no batch is open, as the configuration is then submitted
+     * right away.
+     *
+     * @param rollback
+     *            undoes the bookkeeping
+     */
+    static void onCancel(Runnable rollback) {
+        SfcVppEditBatch batch = CURRENT_BATCH.get();
+        if (batch != null) {
+            batch.rollbacks.add(rollback);
+        }
+    }
+
+    /**
+     * Submits the transactions of the batch, closing it. Does nothing for a
+     * batch joining an outer one, nor for a batch already closed.
+     *
+     * @return a future completed once all the transactions are committed,
+     *         failed if any of them failed
+     */
+    public CompletableFuture<Void> submit() {
+        if (!outer || closed) {
+            return CompletableFuture.completedFuture(null);
+        }
+        closed = true;
+        CURRENT_BATCH.remove();
+        LOG.debug("Submitting {} on {} VPP nodes", description, transactions.size());
+        List<CompletableFuture<Void>> commits = new ArrayList<>();
+        for (WriteTransaction transaction : transactions.values()) {
+            CompletableFuture<Void> commit = new CompletableFuture<>();
+            Futures.addCallback(transaction.submit(), new FutureCallback<Void>() {
+                @Override
+                public void onSuccess(@Nullable Void result) {
+                    LOG.debug("Submitted {}", description);
+                    commit.complete(null);
+                }
+
+                @Override
+                public void onFailure(@Nonnull Throwable throwable) {
+                    LOG.error("Failed to submit {}", description, throwable);
+                    commit.completeExceptionally(throwable);
+                }
+            }, MoreExecutors.directExecutor());
+            commits.add(commit);
+        }
+        transactions.clear();
+        rollbacks.clear();
+        return CompletableFuture.allOf(commits.toArray(new CompletableFuture<?>[commits.size()]));
+    }
+
+    /**
+     * Cancels the transactions of the batch and rolls back their bookkeeping,
+     * closing it. Does nothing for a batch joining an outer one, nor for a
+     * batch already closed.
+     */
+    public void cancel() {
+        if (!outer || closed) {
+            return;
+        }
+        closed = true;
+        CURRENT_BATCH.remove();
+        LOG.debug("Cancelling {} on {} VPP nodes", description, transactions.size());
+        transactions.values().forEach(WriteTransaction::cancel);
+        transactions.clear();
+        for (int i = rollbacks.size() - 1; i >= 0; i--) {
+            rollbacks.get(i).run();
+        }
+        rollbacks.clear();
+    }
+
+    @Override
+    public void close() {
+        submit();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.sfc.util.vpp;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Renders VPP configuration on several VPP nodes concurrently.
+ *
+ * <p>
+ * The configuration of each node is written in one {@link SfcVppEditBatch}
+ * on a bounded pool of threads, so that the NETCONF commits of different
+ * nodes are in flight together. The configurations of the same node are
+ * rendered one at a time, in submission order, each one once the commit of
+ * the previous one completed. A configuration failing to be written is not
+ * committed, and does not hold back the next configurations of the node.
+ */
+public final class SfcVppNodeExecutor implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SfcVppNodeExecutor.class);
+
+    private static final int NUM_THREADS = Integer.getInteger("sfc.vpp.render.threads", 8);
+
+    private final ExecutorService executor;
+    // last configuration of each node, the next one is rendered after it
+    private final ConcurrentMap<String, CompletableFuture<Void>> lastConfigurations = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *            the name of the executor threads
+     */
+    public SfcVppNodeExecutor(String name) {
+        executor = Executors.newFixedThreadPool(NUM_THREADS,
+                new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Renders the configuration of several VPP nodes, and logs the completion
+     * on each node.
+     *
+     * @param description
+     *            the description of the configuration, for logging
+     * @param nodeConfigurations
+     *            the configuration steps of each VPP node, by node name
+     * @return a future completed once all the nodes committed their
+     *         configuration, failed if any node failed to
+     */
+    public CompletableFuture<Void> render(String description, Map<String, List<Runnable>> nodeConfigurations) {
+        CompletableFuture<?>[] nodeResults = nodeConfigurations.entrySet().stream()
+                .map(entry -> submit(entry.getKey(), description, entry.getValue())
+                        .whenComplete((result, throwable) -> {
+                            if (throwable == null) {
+                                LOG.info("{} rendered on VPP node {}", description, entry.getKey());
+                            } else {
+                                LOG.error("Failed to render {} on VPP node {}", description, entry.getKey(),
+                                        throwable);
+                            }
+                        }))
+                .toArray(CompletableFuture<?>[]::new);
+        return CompletableFuture.allOf(nodeResults);
+    }
+
+    /**
+     * Renders the configuration of a VPP node, after the configurations
+     * previously submitted for the node.
+     *
+     * @param vppNode
+     *            the VPP node name
+     * @param description
+     *            the description of the configuration, for logging
+     * @param configurationSteps
+     *            the steps writing the configuration through
+     *            {@link SfcVppUtils}
+     * @return a future completed once the node committed the configuration,
+     *         failed if the configuration could not be written or committed,
+     *         or if the executor is closed
+     */
+    public CompletableFuture<Void> submit(String vppNode, String description, List<Runnable> configurationSteps) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        CompletableFuture<Void> previousConfiguration = lastConfigurations.put(vppNode, result);
+        if (previousConfiguration == null) {
+            previousConfiguration = CompletableFuture.completedFuture(null);
+        }
+        previousConfiguration.whenComplete((previousResult, throwable) -> {
+            try {
+                executor.execute(() -> render(vppNode, description, configurationSteps, result));
+            } catch (RejectedExecutionException e) {
+                LOG.warn("{} on VPP node {} rejected, executor closed", description, vppNode);
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((configurationResult, throwable) -> lastConfigurations.remove(vppNode, result));
+        return result;
+    }
+
+    private static void render(String vppNode, String description, List<Runnable> configurationSteps,
+            CompletableFuture<Void> result) {
+        SfcVppEditBatch batch = SfcVppEditBatch.open(description + " on " + vppNode);
+        CompletableFuture<Void> commit;
+        try {
+            configurationSteps.forEach(Runnable::run);
+            commit = batch.submit();
+        } catch (RuntimeException e) {
+            // do not commit a partial configuration
+            batch.cancel();
+            result.completeExceptionally(e);
+            return;
+        }
+        commit.whenComplete((commitResult, commitThrowable) -> {
+            if (commitThrowable == null) {
+                result.complete(null);
+            } else {
+                result.completeExceptionally(commitThrowable);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
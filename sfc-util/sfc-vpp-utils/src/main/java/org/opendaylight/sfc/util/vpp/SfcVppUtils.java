@@ -290,6 +290,10 @@ public final class SfcVppUtils {
     }
 
     private static void addFuturesCallback(final WriteTransaction transaction) {
+        if (SfcVppEditBatch.isOpen()) {
+            // submitted with the rest of the batch
+            return;
+        }
         Futures.addCallback(transaction.submit(), new FutureCallback<Void>() {
             @Override
             public void onSuccess(@Nullable Void result) {
@@ -316,7 +320,7 @@ public final class SfcVppUtils {
         bdsBuilder.setBridgeDomain(bdList);
 
         final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+        final WriteTransaction wTx = SfcVppEditBatch.getWriteTransaction(vppDataBroker);
         InstanceIdentifier<BridgeDomains> bridgeDomainsIId = InstanceIdentifier.create(Vpp.class)
                 .child(BridgeDomains.class);
         wTx.put(LogicalDatastoreType.CONFIGURATION, bridgeDomainsIId, bdsBuilder.build());
@@ -333,7 +337,7 @@ public final class SfcVppUtils {
         bdBuilder.setArpTermination(false);
 
         final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+        final WriteTransaction wTx = SfcVppEditBatch.getWriteTransaction(vppDataBroker);
         InstanceIdentifier<BridgeDomain> bridgeDomainIId = InstanceIdentifier.create(Vpp.class)
                 .child(BridgeDomains.class).child(BridgeDomain.class, new BridgeDomainKey(bridgeDomainName));
         wTx.put(LogicalDatastoreType.CONFIGURATION, bridgeDomainIId, bdBuilder.build());
@@ -349,6 +353,7 @@ public final class SfcVppUtils {
                 vppNode, key -> new ConcurrentHashMap<>());
 
         final AtomicInteger count = nodeMap.computeIfAbsent(vxlanGpePortKey, key -> new AtomicInteger(0));
+        SfcVppEditBatch.onCancel(count::decrementAndGet);
         return count.incrementAndGet();
     }
 
@@ -362,6 +367,7 @@ public final class SfcVppUtils {
         if (count == null) {
             return 0;
         }
+        SfcVppEditBatch.onCancel(count::incrementAndGet);
         return count.decrementAndGet();
     }
 
@@ -407,7 +413,7 @@ public final class SfcVppUtils {
         interfaceBuilder.setLinkUpDownTrapEnable(Interface.LinkUpDownTrapEnable.Enabled);
 
         final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+        final WriteTransaction wTx = SfcVppEditBatch.getWriteTransaction(vppDataBroker);
         final KeyedInstanceIdentifier<Interface, InterfaceKey> interfaceIid = InstanceIdentifier
                 .create(Interfaces.class).child(Interface.class, new InterfaceKey(interfaceBuilder.getName()));
         wTx.put(LogicalDatastoreType.CONFIGURATION, interfaceIid, interfaceBuilder.build());
@@ -424,7 +430,7 @@ public final class SfcVppUtils {
         }
 
         final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+        final WriteTransaction wTx = SfcVppEditBatch.getWriteTransaction(vppDataBroker);
         final KeyedInstanceIdentifier<Interface, InterfaceKey> interfaceIid = InstanceIdentifier
                 .create(Interfaces.class).child(Interface.class, new InterfaceKey(interfaceKey));
         LOG.info("removeVxlanGpePort {} on vpp node {}", interfaceKey, vppNode);
@@ -463,7 +469,7 @@ public final class SfcVppUtils {
         nshEntriesBuilder.setNshEntry(nshEntryList);
 
         final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+        final WriteTransaction wTx = SfcVppEditBatch.getWriteTransaction(vppDataBroker);
         final InstanceIdentifier<NshEntries> nshEntriesIid = InstanceIdentifier.create(VppNsh.class)
                 .child(NshEntries.class);
         wTx.put(LogicalDatastoreType.CONFIGURATION, nshEntriesIid, nshEntriesBuilder.build());
@@ -493,7 +499,7 @@ public final class SfcVppUtils {
         NshEntry nshEntry = nshEntryBuilder.build();
 
         final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+        final WriteTransaction wTx = SfcVppEditBatch.getWriteTransaction(vppDataBroker);
         final InstanceIdentifier<NshEntry> nshEntryIid = InstanceIdentifier.create(VppNsh.class).child(NshEntries.class)
                 .child(NshEntry.class, nshEntry.getKey());
         wTx.put(LogicalDatastoreType.CONFIGURATION, nshEntryIid, nshEntry);
@@ -502,7 +508,7 @@ public final class SfcVppUtils {
 
     public static void removeNshEntry(final DataBroker dataBroker, final Long nsp, final Short nsi, String vppNode) {
         final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+        final WriteTransaction wTx = SfcVppEditBatch.getWriteTransaction(vppDataBroker);
         String nshEntryKey = buildNshEntryKey(nsp, nsi);
         final InstanceIdentifier<NshEntry> nshEntryIid = InstanceIdentifier.create(VppNsh.class).child(NshEntries.class)
                 .child(NshEntry.class, new NshEntryKey(nshEntryKey));
@@ -535,7 +541,7 @@ public final class SfcVppUtils {
 
     private static void writeNshMap(final DataBroker dataBroker, NshMap nshMap, String vppNode) {
         final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+        final WriteTransaction wTx = SfcVppEditBatch.getWriteTransaction(vppDataBroker);
         final InstanceIdentifier<NshMap> nshMapIid = InstanceIdentifier.create(VppNsh.class).child(NshMaps.class)
                 .child(NshMap.class, nshMap.getKey());
         wTx.put(LogicalDatastoreType.CONFIGURATION, nshMapIid, nshMap);
@@ -554,7 +560,7 @@ public final class SfcVppUtils {
         nshMapsBuilder.setNshMap(nshMapList);
 
         final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+        final WriteTransaction wTx = SfcVppEditBatch.getWriteTransaction(vppDataBroker);
         final InstanceIdentifier<NshMaps> nshMapsIid = InstanceIdentifier.create(VppNsh.class).child(NshMaps.class);
         wTx.put(LogicalDatastoreType.CONFIGURATION, nshMapsIid, nshMapsBuilder.build());
         addFuturesCallback(wTx);
@@ -584,7 +590,7 @@ public final class SfcVppUtils {
     public static void removeNshMap(final DataBroker dataBroker, final Long nsp, final Short nsi, final Long mappedNsp,
             final Short mappedNsi, String vppNode) {
         final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+        final WriteTransaction wTx = SfcVppEditBatch.getWriteTransaction(vppDataBroker);
         String nshMapKey = buildNshMapKey(nsp, nsi, mappedNsp, mappedNsi);
         final InstanceIdentifier<NshMap> nshMapIid = InstanceIdentifier.create(VppNsh.class).child(NshMaps.class)
                 .child(NshMap.class, new NshMapKey(nshMapKey));
@@ -646,9 +652,10 @@ public final class SfcVppUtils {
 
     public static void addClassifyTable(final DataBroker dataBroker, ClassifyTable classifyTable, String vppNode) {
         final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+        final WriteTransaction wTx = SfcVppEditBatch.getWriteTransaction(vppDataBroker);
 
         if (FIRST_TABLE.putIfAbsent(vppNode, classifyTable.getName()) == null) {
+            SfcVppEditBatch.onCancel(() -> FIRST_TABLE.remove(vppNode, classifyTable.getName()));
             VppClassifierBuilder vppClassifierBuilder = new VppClassifierBuilder();
             List<ClassifyTable> classifyTableList = new ArrayList<>();
             classifyTableList.add(classifyTable);
@@ -669,7 +676,7 @@ public final class SfcVppUtils {
     private static void removeClassifyTable(final DataBroker dataBroker, final String classifyTableKey,
             String vppNode) {
         final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+        final WriteTransaction wTx = SfcVppEditBatch.getWriteTransaction(vppDataBroker);
         final InstanceIdentifier<ClassifyTable> classifyTableIid = InstanceIdentifier.create(VppClassifier.class)
                 .child(ClassifyTable.class, new ClassifyTableKey(classifyTableKey));
         LOG.info("removeClassifyTable on vpp node {}: table: {}", vppNode, classifyTableKey);
@@ -690,7 +697,7 @@ public final class SfcVppUtils {
     private static void removeClassifySession(final DataBroker dataBroker, final String classifyTableKey,
             HexString match, String vppNode) {
         final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+        final WriteTransaction wTx = SfcVppEditBatch.getWriteTransaction(vppDataBroker);
         final InstanceIdentifier<ClassifySession> classifySessionIid = InstanceIdentifier.create(VppClassifier.class)
                 .child(ClassifyTable.class, new ClassifyTableKey(classifyTableKey))
                 .child(ClassifySession.class, new ClassifySessionKey(match));
@@ -707,7 +714,7 @@ public final class SfcVppUtils {
         Ingress ingress = ingressBuilder.build();
 
         final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+        final WriteTransaction wTx = SfcVppEditBatch.getWriteTransaction(vppDataBroker);
         final InstanceIdentifier<Ingress> ingressIid = InstanceIdentifier.create(Interfaces.class)
                 .child(Interface.class, new InterfaceKey(interfaceName)).augmentation(VppInterfaceAugmentation.class)
                 .child(Acl.class).child(Ingress.class);
@@ -718,7 +725,7 @@ public final class SfcVppUtils {
     public static void disableIngressAcl(final DataBroker dataBroker, final String interfaceName,
             final String classifyTableKey, String vppNode) {
         final DataBroker vppDataBroker = dataBroker;
-        final WriteTransaction wTx = vppDataBroker.newWriteOnlyTransaction();
+        final WriteTransaction wTx = SfcVppEditBatch.getWriteTransaction(vppDataBroker);
         final InstanceIdentifier<Ingress> ingressIid = InstanceIdentifier.create(Interfaces.class)
                 .child(Interface.class, new InterfaceKey(interfaceName)).augmentation(VppInterfaceAugmentation.class)
                 .child(Acl.class).child(Ingress.class);
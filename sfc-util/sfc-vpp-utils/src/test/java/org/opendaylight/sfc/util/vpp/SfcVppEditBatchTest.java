@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.sfc.util.vpp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.util.concurrent.Futures;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.yang.gen.v1.urn.cisco.params.xml.ns.yang.sfc.common.rev151017.SffName;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+
+public class SfcVppEditBatchTest {
+
+    private static final IpAddress LOCAL_IP = new IpAddress(new Ipv4Address("10.0.0.1"));
+    private static final IpAddress REMOTE_IP = new IpAddress(new Ipv4Address("10.0.0.2"));
+
+    // a mount point recording the transactions created on it, and the
+    // operations done on them
+    private static DataBroker newMountPoint(List<String> operations) {
+        InvocationHandler transactionHandler = (proxy, method, args) -> {
+            operations.add(method.getName());
+            switch (method.getName()) {
+                case "submit":
+                    return Futures.immediateCheckedFuture(null);
+                case "cancel":
+                    return true;
+                default:
+                    return null;
+            }
+        };
+
+        InvocationHandler mountPointHandler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "newWriteOnlyTransaction":
+                    operations.add(method.getName());
+                    return Proxy.newProxyInstance(SfcVppEditBatchTest.class.getClassLoader(),
+                            new Class<?>[] {WriteTransaction.class}, transactionHandler);
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        };
+        return (DataBroker) Proxy.newProxyInstance(SfcVppEditBatchTest.class.getClassLoader(),
+                new Class<?>[] {DataBroker.class}, mountPointHandler);
+    }
+
+    @Test
+    public void batchWritesOneTransactionPerMountPoint() throws Exception {
+        List<String> operations1 = Collections.synchronizedList(new ArrayList<>());
+        List<String> operations2 = Collections.synchronizedList(new ArrayList<>());
+        DataBroker mountPoint1 = newMountPoint(operations1);
+        DataBroker mountPoint2 = newMountPoint(operations2);
+
+        SfcVppEditBatch batch = SfcVppEditBatch.open("batch");
+        WriteTransaction transaction = SfcVppEditBatch.getWriteTransaction(mountPoint1);
+        assertSame(transaction, SfcVppEditBatch.getWriteTransaction(mountPoint1));
+        assertNotSame(transaction, SfcVppEditBatch.getWriteTransaction(mountPoint2));
+        SfcVppUtils.addBridgeDomain(mountPoint1, "bd1", "vpp1");
+        SfcVppUtils.addBridgeDomain(mountPoint1, "bd2", "vpp1");
+        // nothing is submitted until the batch is
+        assertEquals(Arrays.asList("newWriteOnlyTransaction", "put", "put"), operations1);
+
+        CompletableFuture<Void> commit = batch.submit();
+        commit.get(10, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("newWriteOnlyTransaction", "put", "put", "submit"), operations1);
+        assertEquals(Arrays.asList("newWriteOnlyTransaction", "submit"), operations2);
+    }
+
+    @Test
+    public void nestedBatchJoinsTheOuterOne() {
+        List<String> operations = Collections.synchronizedList(new ArrayList<>());
+        DataBroker mountPoint = newMountPoint(operations);
+
+        SfcVppEditBatch outerBatch = SfcVppEditBatch.open("outer");
+        try (SfcVppEditBatch innerBatch = SfcVppEditBatch.open("inner")) {
+            SfcVppUtils.addBridgeDomain(mountPoint, "bd1", "vpp1");
+            assertTrue(innerBatch.submit().isDone());
+        }
+        // the inner batch submitted nothing, the outer one is still open
+        assertEquals(Arrays.asList("newWriteOnlyTransaction", "put"), operations);
+        SfcVppUtils.addBridgeDomain(mountPoint, "bd2", "vpp1");
+
+        outerBatch.close();
+        assertEquals(Arrays.asList("newWriteOnlyTransaction", "put", "put", "submit"), operations);
+    }
+
+    @Test
+    public void writesWithoutBatchAreSubmittedRightAway() {
+        List<String> operations = Collections.synchronizedList(new ArrayList<>());
+        DataBroker mountPoint = newMountPoint(operations);
+
+        SfcVppUtils.addBridgeDomain(mountPoint, "bd1", "vpp1");
+        SfcVppUtils.addBridgeDomain(mountPoint, "bd2", "vpp1");
+        assertEquals(Arrays.asList("newWriteOnlyTransaction", "put", "submit", "newWriteOnlyTransaction", "put",
+                "submit"), operations);
+    }
+
+    @Test
+    public void cancelledBatchRollsBackTheVxlanGpePortReferences() {
+        List<String> operations = Collections.synchronizedList(new ArrayList<>());
+        DataBroker mountPoint = newMountPoint(operations);
+        SffName sffName = new SffName("vpp-cancelled");
+
+        SfcVppEditBatch batch = SfcVppEditBatch.open("cancelled");
+        SfcVppUtils.configureVxlanGpeNsh(mountPoint, sffName, "bd", LOCAL_IP, REMOTE_IP, 1L, (short) 255);
+        batch.cancel();
+        assertEquals(0, Collections.frequency(operations, "submit"));
+        operations.clear();
+
+        // the port is written again, as if it had never been configured: the
+        // VXLAN-GPE port, the NSH entry and the NSH map
+        SfcVppUtils.configureVxlanGpeNsh(mountPoint, sffName, "bd", LOCAL_IP, REMOTE_IP, 1L, (short) 255);
+        assertEquals(3, Collections.frequency(operations, "put"));
+    }
+}
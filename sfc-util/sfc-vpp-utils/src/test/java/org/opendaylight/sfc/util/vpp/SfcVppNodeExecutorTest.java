@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2017 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.sfc.util.vpp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+
+public class SfcVppNodeExecutorTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private SfcVppNodeExecutor nodeExecutor;
+
+    @Before
+    public void setup() {
+        nodeExecutor = new SfcVppNodeExecutor("sfc-vpp-test");
+    }
+
+    @After
+    public void teardown() {
+        nodeExecutor.close();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // a mount point whose transactions record the operations done on them
+    private static DataBroker newMountPoint(List<String> transactionOperations) {
+        InvocationHandler transactionHandler = (proxy, method, args) -> {
+            transactionOperations.add(method.getName());
+            return method.getReturnType() == boolean.class ? true : null;
+        };
+        WriteTransaction transaction = (WriteTransaction) Proxy.newProxyInstance(
+                SfcVppNodeExecutorTest.class.getClassLoader(), new Class<?>[] {WriteTransaction.class},
+                transactionHandler);
+
+        InvocationHandler mountPointHandler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "newWriteOnlyTransaction":
+                    return transaction;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        };
+        return (DataBroker) Proxy.newProxyInstance(SfcVppNodeExecutorTest.class.getClassLoader(),
+                new Class<?>[] {DataBroker.class}, mountPointHandler);
+    }
+
+    @Test
+    public void configurationsOfANodeAreRenderedInOrder() throws Exception {
+        List<Integer> renderedConfigurations = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch firstReleased = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = nodeExecutor.submit("vpp1", "first", Collections.singletonList(() -> {
+            firstStarted.countDown();
+            await(firstReleased);
+            renderedConfigurations.add(1);
+        }));
+        CompletableFuture<Void> second = nodeExecutor.submit("vpp1", "second",
+                Collections.singletonList(() -> renderedConfigurations.add(2)));
+
+        assertTrue(await(firstStarted));
+        // threads are available, but the second one waits for the first one
+        assertFalse(second.isDone());
+        firstReleased.countDown();
+
+        second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertTrue(first.isDone());
+        assertEquals(Arrays.asList(1, 2), renderedConfigurations);
+    }
+
+    @Test
+    public void differentNodesAreRenderedConcurrently() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Runnable step = () -> {
+            bothStarted.countDown();
+            if (!await(bothStarted)) {
+                throw new IllegalStateException("The other node is not being rendered");
+            }
+        };
+        Map<String, List<Runnable>> nodeConfigurations = new LinkedHashMap<>();
+        nodeConfigurations.put("vpp1", Collections.singletonList(step));
+        nodeConfigurations.put("vpp2", Collections.singletonList(step));
+
+        nodeExecutor.render("configuration", nodeConfigurations).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void failedConfigurationIsCancelledAndDoesNotBlockTheNextOne() throws Exception {
+        List<String> transactionOperations = Collections.synchronizedList(new ArrayList<>());
+        DataBroker mountPoint = newMountPoint(transactionOperations);
+
+        Runnable failingStep = () -> {
+            throw new IllegalStateException("Failed step");
+        };
+        CompletableFuture<Void> failed = nodeExecutor.submit("vpp1", "failed",
+                Arrays.asList(() -> SfcVppEditBatch.getWriteTransaction(mountPoint), failingStep));
+        CompletableFuture<Void> next = nodeExecutor.submit("vpp1", "next", Collections.emptyList());
+
+        next.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(Collections.singletonList("cancel"), transactionOperations);
+    }
+
+    @Test
+    public void configurationSubmittedOnceClosedFails() throws Exception {
+        nodeExecutor.close();
+
+        CompletableFuture<Void> result = nodeExecutor.submit("vpp1", "configuration", Collections.emptyList());
+        try {
+            result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            fail("Expected a rejected configuration");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+}